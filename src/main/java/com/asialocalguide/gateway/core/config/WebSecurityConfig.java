@@ -50,7 +50,12 @@ public class WebSecurityConfig {
 						"/v1/destinations/sync/**")
 				.permitAll()
 				// Allow unauthenticated Planning generation
-				.requestMatchers(HttpMethod.POST, "/v1/plannings/generate")
+				.requestMatchers(HttpMethod.POST,
+						"/v1/plannings/generate",
+						"/v1/plannings/generate/stream",
+						"/v1/plannings/generate/jobs")
+				.permitAll()
+				.requestMatchers(HttpMethod.GET, "/v1/plannings/generate/*")
 				.permitAll()
 				// Require auth for everything else under /v1/plannings/**
 				.requestMatchers("/v1/plannings/**")
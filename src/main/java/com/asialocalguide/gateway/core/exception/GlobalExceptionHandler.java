@@ -4,6 +4,8 @@ import com.asialocalguide.gateway.appuser.exception.AppUserCreationException;
 import com.asialocalguide.gateway.appuser.exception.AppUserNotFoundException;
 import com.asialocalguide.gateway.auth.exception.AuthProviderException;
 import com.asialocalguide.gateway.auth.exception.ProviderUserDeletionException;
+import com.asialocalguide.gateway.planning.exception.PlanningJobNotFoundException;
+import com.asialocalguide.gateway.planning.exception.SolverCapacityExceededException;
 import com.google.firebase.auth.AuthErrorCode;
 import com.google.firebase.auth.FirebaseAuthException;
 import lombok.extern.slf4j.Slf4j;
@@ -16,7 +18,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
  * Global exception handler that maps application exceptions to RFC 9457 {@link ProblemDetail} responses.
  *
  * <p>Handles domain-specific exceptions from the appuser and auth packages, as well as
- * Firebase-specific auth errors, and falls back to {@code 500 Internal Server Error}
+ * Firebase-specific auth errors, solver overload, unknown planning jobs, and falls back to {@code 500 Internal Server Error}
  * for unhandled {@link RuntimeException} instances.
  */
 @RestControllerAdvice
@@ -89,6 +91,33 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 		return ProblemDetail.forStatusAndDetail(status, e.getMessage());
 	}
 
+	/**
+	 * Handles {@link SolverCapacityExceededException} with a {@code 503 Service Unavailable} response
+	 * carrying a {@code Retry-After} header.
+	 *
+	 * @param e the exception
+	 * @return a problem detail describing the rejection
+	 */
+	@ExceptionHandler(SolverCapacityExceededException.class)
+	public ResponseEntity<ProblemDetail> handleSolverCapacityExceededException(SolverCapacityExceededException e) {
+		log.warn("Planning generation rejected: {}", e.getMessage());
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+				.body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
+	}
+
+	/**
+	 * Handles {@link PlanningJobNotFoundException} with a {@code 404 Not Found} response.
+	 *
+	 * @param e the exception
+	 * @return a problem detail describing the missing job
+	 */
+	@ExceptionHandler(PlanningJobNotFoundException.class)
+	public ProblemDetail handlePlanningJobNotFoundException(PlanningJobNotFoundException e) {
+		log.warn("Planning job not found: {}", e.getMessage());
+		return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, e.getMessage());
+	}
+
 	/**
 	 * Catch-all handler for unhandled {@link RuntimeException} instances,
 	 * returning {@code 500 Internal Server Error}.
@@ -5,6 +5,7 @@ import java.util.Set;
 
 import com.asialocalguide.gateway.core.domain.BookingProviderName;
 import com.asialocalguide.gateway.planning.domain.CommonPersistableActivity;
+import com.asialocalguide.gateway.planning.domain.Deadline;
 import com.asialocalguide.gateway.planning.domain.ProviderPlanningData;
 import com.asialocalguide.gateway.planning.domain.ProviderPlanningRequest;
 
@@ -27,10 +28,12 @@ public interface ActivityProvider {
 	/**
 	 * Fetches provider-specific planning data for the given request.
 	 *
-	 * @param request the planning request containing destination, dates, and activity tag filters
+	 * @param request  the planning request containing destination, dates, and activity tag filters
+	 * @param deadline deadline of the planning request; calls still running when it expires are
+	 *                 cancelled and the data fetched so far is returned
 	 * @return provider planning data including available time slots and activity IDs
 	 */
-	ProviderPlanningData fetchProviderPlanningData(ProviderPlanningRequest request);
+	ProviderPlanningData fetchProviderPlanningData(ProviderPlanningRequest request, Deadline deadline);
 
 	/**
 	 * Fetches full activity details from the provider for the given set of activity IDs.
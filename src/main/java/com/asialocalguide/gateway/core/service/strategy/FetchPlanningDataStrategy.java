@@ -2,6 +2,7 @@ package com.asialocalguide.gateway.core.service.strategy;
 
 import com.asialocalguide.gateway.core.domain.BookingProviderName;
 import com.asialocalguide.gateway.destination.domain.LanguageCode;
+import com.asialocalguide.gateway.planning.domain.Deadline;
 import com.asialocalguide.gateway.planning.domain.ProviderPlanningData;
 import com.asialocalguide.gateway.planning.dto.PlanningRequestDTO;
 
@@ -26,7 +27,10 @@ public interface FetchPlanningDataStrategy {
 	 *
 	 * @param request      the planning request containing destination, dates, and activity tag filters
 	 * @param languageCode the language in which to return activity content
+	 * @param deadline     deadline of the planning request; calls still running when it expires are
+	 *                     cancelled and the data fetched so far is returned
 	 * @return provider planning data including available activities and time slots
 	 */
-	ProviderPlanningData fetchProviderPlanningData(PlanningRequestDTO request, LanguageCode languageCode);
+	ProviderPlanningData fetchProviderPlanningData(PlanningRequestDTO request, LanguageCode languageCode,
+			Deadline deadline);
 }
@@ -7,6 +7,7 @@ import com.asialocalguide.gateway.destination.domain.Destination;
 import com.asialocalguide.gateway.destination.domain.DestinationProviderMapping;
 import com.asialocalguide.gateway.destination.domain.LanguageCode;
 import com.asialocalguide.gateway.destination.service.DestinationService;
+import com.asialocalguide.gateway.planning.domain.Deadline;
 import com.asialocalguide.gateway.planning.domain.ProviderPlanningData;
 import com.asialocalguide.gateway.planning.domain.ProviderPlanningRequest;
 import com.asialocalguide.gateway.planning.dto.PlanningRequestDTO;
@@ -56,7 +57,8 @@ public class ViatorFetchPlanningDataStrategy implements FetchPlanningDataStrateg
 	 * @throws IllegalArgumentException if the destination does not exist
 	 */
 	@Override
-	public ProviderPlanningData fetchProviderPlanningData(PlanningRequestDTO request, LanguageCode languageCode) {
+	public ProviderPlanningData fetchProviderPlanningData(PlanningRequestDTO request, LanguageCode languageCode,
+			Deadline deadline) {
 		BookingProvider viatorProvider = bookingProviderService.getBookingProviderByName(PROVIDER_NAME)
 				.orElseThrow(() -> new IllegalStateException("Viator BookingProvider not found"));
 
@@ -75,6 +77,6 @@ public class ViatorFetchPlanningDataStrategy implements FetchPlanningDataStrateg
 				viatorDestinationId,
 				languageCode);
 
-		return viatorActivityService.fetchProviderPlanningData(providerRequest);
+		return viatorActivityService.fetchProviderPlanningData(providerRequest, deadline);
 	}
 }
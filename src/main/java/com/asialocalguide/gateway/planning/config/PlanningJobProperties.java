@@ -0,0 +1,22 @@
+package com.asialocalguide.gateway.planning.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Externalized configuration of asynchronous planning generation jobs.
+ *
+ * @param concurrency   number of jobs generating day plans at the same time
+ * @param queueCapacity number of jobs allowed to wait for a free slot before new ones are rejected
+ * @param resultTtl     time a finished job and its result stay available for polling
+ * @param maxJobs       maximum number of finished jobs kept for polling; pending and running jobs are
+ *                      bounded by the concurrency and the queue capacity instead
+ * @param retryAfter    delay advertised to rejected clients in the {@code Retry-After} header
+ */
+@ConfigurationProperties("planning.jobs")
+public record PlanningJobProperties(@DefaultValue("4") int concurrency, @DefaultValue("64") int queueCapacity,
+		@DefaultValue("10m") Duration resultTtl, @DefaultValue("1000") int maxJobs,
+		@DefaultValue("5s") Duration retryAfter) {
+}
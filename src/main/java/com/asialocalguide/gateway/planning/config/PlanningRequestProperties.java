@@ -0,0 +1,17 @@
+package com.asialocalguide.gateway.planning.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Externalized limits of planning generation requests.
+ *
+ * @param timeout time budget of a planning generation request, from its arrival to its response;
+ *                provider calls still running when it expires are cancelled and the plan is built
+ *                from the data fetched so far
+ */
+@ConfigurationProperties("planning.request")
+public record PlanningRequestProperties(@DefaultValue("20s") Duration timeout) {
+}
@@ -0,0 +1,20 @@
+package com.asialocalguide.gateway.planning.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Externalized configuration of the cache of generated day plans.
+ *
+ * @param enabled    whether generated day plans are cached; when disabled every request is solved
+ * @param ttl        time after which cached day plans are evicted; should not exceed the refresh
+ *                   interval of the provider availability, so that a cached plan is not built from
+ *                   availability older than the one a new generation would use
+ * @param maxEntries maximum number of cached day plan lists
+ */
+@ConfigurationProperties("planning.result-cache")
+public record PlanningResultCacheProperties(@DefaultValue("true") boolean enabled, @DefaultValue("30m") Duration ttl,
+		@DefaultValue("500") long maxEntries) {
+}
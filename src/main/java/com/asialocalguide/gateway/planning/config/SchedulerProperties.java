@@ -0,0 +1,63 @@
+package com.asialocalguide.gateway.planning.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Externalized solver profile for the CP-SAT activity scheduler.
+ *
+ * <p>Bounds the wall time and parallelism of every solve so that a single planning request
+ * cannot hold a request thread indefinitely.
+ *
+ * @param maxTime                hard wall-time limit for a single solve
+ * @param numWorkers             number of parallel CP-SAT search workers
+ * @param relativeGapLimit       relative gap between objective and best bound at which the search stops;
+ *                               {@code 0} searches for the proven optimum
+ * @param stopAfterFirstSolution if {@code true}, returns the first feasible schedule instead of improving it
+ * @param decomposition          thresholds above which the problem is split into per-day sub-problems
+ * @param hints                  solution hints seeding the search
+ */
+@ConfigurationProperties("planning.scheduler")
+public record SchedulerProperties(@DefaultValue("5s") Duration maxTime, @DefaultValue("4") int numWorkers,
+		@DefaultValue("0.0") double relativeGapLimit, @DefaultValue("false") boolean stopAfterFirstSolution,
+		@DefaultValue Decomposition decomposition, @DefaultValue Hints hints) {
+
+	/**
+	 * Switch between the exact global model and the day-decomposed model.
+	 *
+	 * <p>The decomposed model is used when the trip spans at least {@code minDays} days or has at least
+	 * {@code minCandidates} candidate activities.
+	 *
+	 * @param enabled       whether the day-decomposed model may be used at all
+	 * @param minDays       trip length from which the decomposed model is used
+	 * @param minCandidates candidate count from which the decomposed model is used
+	 */
+	public record Decomposition(@DefaultValue("true") boolean enabled, @DefaultValue("7") int minDays,
+			@DefaultValue("60") int minCandidates) {
+
+		/**
+		 * Returns whether a problem of the given size should be decomposed per day.
+		 *
+		 * @param numDays       number of days in the trip
+		 * @param numCandidates number of candidate activities
+		 * @return {@code true} if the decomposed model should be used
+		 */
+		public boolean appliesTo(int numDays, int numCandidates) {
+			return enabled && numDays > 1 && (numDays >= minDays || numCandidates >= minCandidates);
+		}
+	}
+
+	/**
+	 * Solution hints seeding the CP-SAT search.
+	 *
+	 * <p>Each solve is hinted with a greedy schedule, preferring the starts of the last schedule
+	 * generated for the same destination and dates so that regenerating a planning starts from it.
+	 *
+	 * @param enabled           whether solves are hinted at all
+	 * @param warmStartCapacity number of previous schedules kept for warm starts
+	 */
+	public record Hints(@DefaultValue("true") boolean enabled, @DefaultValue("1000") int warmStartCapacity) {
+	}
+}
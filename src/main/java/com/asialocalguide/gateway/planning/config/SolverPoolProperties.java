@@ -0,0 +1,19 @@
+package com.asialocalguide.gateway.planning.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Externalized configuration of the dedicated executor running CP-SAT solves.
+ *
+ * @param size          number of concurrent solves; {@code 0} derives it from the available cores
+ *                      divided by {@link SchedulerProperties#numWorkers()}
+ * @param queueCapacity number of solves allowed to wait for a free solver before new ones are rejected
+ * @param retryAfter    delay advertised to rejected clients in the {@code Retry-After} header
+ */
+@ConfigurationProperties("planning.solver-pool")
+public record SolverPoolProperties(@DefaultValue("0") int size, @DefaultValue("16") int queueCapacity,
+		@DefaultValue("5s") Duration retryAfter) {
+}
@@ -1,64 +1,182 @@
 package com.asialocalguide.gateway.planning.controller;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadFactory;
 
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.asialocalguide.gateway.appuser.domain.AuthProviderName;
 import com.asialocalguide.gateway.auth.service.AuthService;
+import com.asialocalguide.gateway.planning.config.PlanningRequestProperties;
+import com.asialocalguide.gateway.planning.domain.CommonActivity;
+import com.asialocalguide.gateway.planning.domain.Deadline;
 import com.asialocalguide.gateway.planning.domain.Planning;
+import com.asialocalguide.gateway.planning.domain.SchedulingMode;
 import com.asialocalguide.gateway.planning.dto.DayPlanDTO;
 import com.asialocalguide.gateway.planning.dto.PlanningCreateRequestDTO;
 import com.asialocalguide.gateway.planning.dto.PlanningCreatedDTO;
+import com.asialocalguide.gateway.planning.dto.PlanningJobDTO;
 import com.asialocalguide.gateway.planning.dto.PlanningRequestDTO;
 import com.asialocalguide.gateway.planning.dto.PlanningSummaryDTO;
+import com.asialocalguide.gateway.planning.dto.ScheduleUpdateDTO;
+import com.asialocalguide.gateway.planning.service.PlanningJobService;
+import com.asialocalguide.gateway.planning.service.PlanningProgressListener;
 import com.asialocalguide.gateway.planning.service.PlanningService;
 
 import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * REST controller for planning operations.
  *
- * <p>Exposes endpoints to generate a suggested day-by-day activity schedule,
- * persist a confirmed planning, and retrieve all plannings for the authenticated user.
+ * <p>Exposes endpoints to generate a suggested day-by-day activity schedule, at once, as a stream
+ * of server-sent events or as a job to poll, persist a confirmed planning, and retrieve all
+ * plannings for the authenticated user.
  */
 @RestController
 @RequestMapping("v1/plannings")
+@Slf4j
 public class PlanningController {
 
+	/** Time the event stream stays open after the request deadline, to send the final plan. */
+	private static final Duration STREAM_TIMEOUT_MARGIN = Duration.ofSeconds(10);
+
+	private static final ThreadFactory STREAM_THREADS = Thread.ofVirtual().name("planning-stream-", 0).factory();
+
 	private final PlanningService planningService;
 
+	private final PlanningJobService planningJobService;
+
 	private final AuthService authService;
 
+	private final PlanningRequestProperties planningRequestProperties;
+
 	/**
-	 * @param planningService service handling planning generation and persistence
-	 * @param authService     service for resolving the auth provider from a JWT
+	 * @param planningService           service handling planning generation and persistence
+	 * @param planningJobService        service running planning generations as jobs
+	 * @param authService               service for resolving the auth provider from a JWT
+	 * @param planningRequestProperties time budget of planning generation requests
 	 */
-	public PlanningController(PlanningService planningService, AuthService authService) {
+	public PlanningController(PlanningService planningService, PlanningJobService planningJobService,
+			AuthService authService, PlanningRequestProperties planningRequestProperties) {
 		this.planningService = planningService;
+		this.planningJobService = planningJobService;
 		this.authService = authService;
+		this.planningRequestProperties = planningRequestProperties;
 	}
 
 	/**
 	 * Generates a suggested day-plan schedule for the given request parameters.
 	 *
+	 * <p>{@link SchedulingMode#PREVIEW} returns a fast heuristic schedule, {@link SchedulingMode#OPTIMAL}
+	 * runs the constraint-programming solver. The request has a time budget of
+	 * {@link PlanningRequestProperties#timeout()}: once it is spent, the plan is built from the data
+	 * fetched so far.
+	 *
 	 * @param request the planning parameters (dates, destination, activity tags); must be valid
+	 * @param mode    the scheduling mode, {@link SchedulingMode#OPTIMAL} by default
 	 * @return ordered list of day plans, each containing scheduled activities
 	 */
 	@PostMapping("/generate")
-	public List<DayPlanDTO> generateDayPlans(@Valid @RequestBody PlanningRequestDTO request) {
-		return planningService.generateDayPlans(request);
+	public List<DayPlanDTO> generateDayPlans(@Valid @RequestBody PlanningRequestDTO request,
+			@RequestParam(defaultValue = "OPTIMAL") SchedulingMode mode) {
+		return planningService.generateDayPlans(request, mode, Deadline.after(planningRequestProperties.timeout()));
+	}
+
+	/**
+	 * Generates a suggested day-plan schedule like {@link #generateDayPlans(PlanningRequestDTO, SchedulingMode)},
+	 * streaming the progress as server-sent events:
+	 * <ul>
+	 * <li>{@code candidates}: the candidate activities, once fetched from the providers;</li>
+	 * <li>{@code schedule}: a {@link ScheduleUpdateDTO} with a quick first schedule, then with every
+	 * better schedule found by the solver;</li>
+	 * <li>{@code final}: the final day plans, as returned by the non-streaming endpoint;</li>
+	 * <li>{@code error}: sent instead of {@code final} if the generation failed.</li>
+	 * </ul>
+	 *
+	 * @param request the planning parameters (dates, destination, activity tags); must be valid
+	 * @param mode    the scheduling mode, {@link SchedulingMode#OPTIMAL} by default
+	 * @return the event stream, completed after the {@code final} or {@code error} event
+	 */
+	@PostMapping(value = "/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamDayPlans(@Valid @RequestBody PlanningRequestDTO request,
+			@RequestParam(defaultValue = "OPTIMAL") SchedulingMode mode) {
+		Duration timeout = planningRequestProperties.timeout();
+		Deadline deadline = Deadline.after(timeout);
+		SseEmitter emitter = new SseEmitter(timeout.plus(STREAM_TIMEOUT_MARGIN).toMillis());
+		LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+
+		STREAM_THREADS.newThread(() -> {
+			LocaleContextHolder.setLocaleContext(localeContext);
+			SseProgressListener listener = new SseProgressListener(emitter);
+			try {
+				List<DayPlanDTO> dayPlans = planningService.generateDayPlans(request, mode, deadline, listener);
+				listener.send("final", dayPlans);
+			} catch (Exception e) {
+				log.error("Error during streamed generation of day plans", e);
+				listener.send("error", "Planning generation failed");
+			} finally {
+				LocaleContextHolder.resetLocaleContext();
+				emitter.complete();
+			}
+		}).start();
+
+		return emitter;
+	}
+
+	/**
+	 * Submits a day-plan generation as a job and returns without waiting for it.
+	 *
+	 * <p>Returns HTTP 202 with a {@code Location} header pointing to the job, to poll with
+	 * {@link #getGenerationJob(UUID)}. An identical request still in progress returns its job
+	 * instead of starting another generation.
+	 *
+	 * @param request the planning parameters (dates, destination, activity tags); must be valid
+	 * @param mode    the scheduling mode, {@link SchedulingMode#OPTIMAL} by default
+	 * @return 202 response with the state of the job
+	 */
+	@PostMapping("/generate/jobs")
+	public ResponseEntity<PlanningJobDTO> submitGenerationJob(@Valid @RequestBody PlanningRequestDTO request,
+			@RequestParam(defaultValue = "OPTIMAL") SchedulingMode mode) {
+		PlanningJobDTO job = planningJobService.submit(request, mode);
+
+		URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+				.path("/v1/plannings/generate/{jobId}")
+				.buildAndExpand(job.jobId())
+				.toUri();
+
+		return ResponseEntity.accepted().location(location).body(job);
+	}
+
+	/**
+	 * Returns the state of a generation job, with the day plans once it succeeded.
+	 *
+	 * @param jobId the job identifier returned on submission
+	 * @return the state of the job
+	 */
+	@GetMapping("/generate/{jobId}")
+	public PlanningJobDTO getGenerationJob(@PathVariable UUID jobId) {
+		return planningJobService.getJob(jobId);
 	}
 
 	/**
@@ -108,4 +226,41 @@ public class PlanningController {
 
 		return planningService.getUserPlannings(providerName, userProviderId);
 	}
+
+	/**
+	 * Sends the progress of a generation as server-sent events. Once the client is gone, the
+	 * remaining events are dropped while the generation completes within its deadline.
+	 */
+	private static final class SseProgressListener implements PlanningProgressListener {
+
+		private final SseEmitter emitter;
+
+		private volatile boolean closed;
+
+		SseProgressListener(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		@Override
+		public void onCandidates(List<CommonActivity> activities) {
+			send("candidates", activities);
+		}
+
+		@Override
+		public void onSchedule(ScheduleUpdateDTO update) {
+			send("schedule", update);
+		}
+
+		void send(String name, Object data) {
+			if (closed) {
+				return;
+			}
+			try {
+				emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+			} catch (IOException | IllegalStateException e) {
+				closed = true;
+				log.debug("Planning event stream closed before the {} event: {}", name, e.getMessage());
+			}
+		}
+	}
 }
@@ -1,34 +1,242 @@
 package com.asialocalguide.gateway.planning.domain;
 
-import lombok.Data;
+import java.util.Arrays;
+
+import lombok.AccessLevel;
+import lombok.Getter;
 
 /**
  * Aggregated planning data for a set of activities used by the constraint-programming scheduler.
  *
- * <p>The three arrays are indexed by activity, day, and time slot respectively.
- * {@code validStartTimes} contains the provider time string (e.g. {@code "09:00"}) for each
- * combination, which is used to construct concrete {@link java.time.LocalDateTime} values.
+ * <p>Time is addressed by absolute slot over the planning horizon ({@code day * numTimeSlots + timeSlot}).
+ * The availability of each activity is a {@code long[]} bitset over the horizon, and the provider
+ * start time of each available slot is packed as minute of day in a single {@code short[]} table
+ * indexed by {@code activity * horizon + slot}, {@code -1} where no start time is known.
  */
-@Data
+@Getter
 public class ActivityPlanningData {
 
-	private boolean[][][] availabilityMatrix;
-	private int[] ratings;
-	private int[] durations;
-	private String[][][] validStartTimes;
+	private static final short NO_START_MINUTE = -1;
+
+	private final int numActivities;
+	private final int numDays;
+	private final int numTimeSlots;
+	private final int[] ratings;
+	private final int[] durations;
+
+	@Getter(AccessLevel.NONE)
+	private final long[][] availability;
+
+	@Getter(AccessLevel.NONE)
+	private final short[] startMinutes;
 
 	/**
-	 * @param availability 3D availability matrix {@code [activity][day][timeSlot]}
-	 * @param startTimes   3D array of provider time strings {@code [activity][day][timeSlot]}
+	 * Creates planning data without availability; slots are marked with
+	 * {@link #markAvailable(int, int, int, int)}.
+	 *
+	 * @param numDays      number of days in the planning horizon
+	 * @param numTimeSlots number of time slots per day
 	 * @param ratings      weighted integer ratings per activity
 	 * @param durations    duration in time-slots per activity
 	 */
-	public ActivityPlanningData(
-			// int array for ratings: ratings weighted in the mapper
-			boolean[][][] availability, String[][][] startTimes, int[] ratings, int[] durations) {
-		this.availabilityMatrix = availability;
-		this.validStartTimes = startTimes;
+	public ActivityPlanningData(int numDays, int numTimeSlots, int[] ratings, int[] durations) {
+		// int array for ratings: ratings weighted in the mapper
+		this.numActivities = ratings.length;
+		this.numDays = numDays;
+		this.numTimeSlots = numTimeSlots;
 		this.ratings = ratings;
 		this.durations = durations;
+
+		int horizon = numDays * numTimeSlots;
+		int wordsPerActivity = (horizon + Long.SIZE - 1) / Long.SIZE;
+		this.availability = new long[numActivities][wordsPerActivity];
+		this.startMinutes = new short[numActivities * horizon];
+		Arrays.fill(startMinutes, NO_START_MINUTE);
+	}
+
+	/**
+	 * Creates planning data from dense matrices, convenient for small hand-built inputs.
+	 *
+	 * @param availability 3D availability matrix {@code [activity][day][timeSlot]}
+	 * @param startTimes   3D array of provider time strings ({@code "HH:mm"}) {@code [activity][day][timeSlot]}
+	 * @param ratings      weighted integer ratings per activity
+	 * @param durations    duration in time-slots per activity
+	 * @throws IllegalArgumentException if the matrices and ratings do not cover the same activities
+	 */
+	public ActivityPlanningData(boolean[][][] availability, String[][][] startTimes, int[] ratings,
+			int[] durations) {
+		this(availability.length == 0 ? 0 : availability[0].length,
+				availability.length == 0 || availability[0].length == 0 ? 0 : availability[0][0].length,
+				ratings,
+				durations);
+
+		if (availability.length != numActivities) {
+			throw new IllegalArgumentException("Inconsistent activity data sizes");
+		}
+
+		for (int a = 0; a < numActivities; a++) {
+			for (int d = 0; d < numDays; d++) {
+				for (int t = 0; t < numTimeSlots; t++) {
+					if (availability[a][d][t]) {
+						markAvailable(a, d, t, toMinuteOfDay(startTimes, a, d, t));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Marks a slot as available, keeping the earliest known start time of the slot.
+	 *
+	 * @param activity    activity index
+	 * @param day         day index
+	 * @param timeSlot    time slot index within the day
+	 * @param minuteOfDay provider start time as minute of day, {@code -1} if unknown
+	 */
+	public void markAvailable(int activity, int day, int timeSlot, int minuteOfDay) {
+		int slot = day * numTimeSlots + timeSlot;
+		availability[activity][slot >>> 6] |= 1L << slot;
+
+		int index = activity * getHorizon() + slot;
+		if (minuteOfDay >= 0 && (startMinutes[index] < 0 || minuteOfDay < startMinutes[index])) {
+			startMinutes[index] = (short) minuteOfDay;
+		}
+	}
+
+	/**
+	 * Copies the availability and start times of an activity of another planning data with the same
+	 * horizon, replacing those of the target activity.
+	 *
+	 * @param activity       target activity index
+	 * @param source         planning data to copy from
+	 * @param sourceActivity activity index in {@code source}
+	 * @throws IllegalArgumentException if the planning horizons differ
+	 */
+	public void copyAvailability(int activity, ActivityPlanningData source, int sourceActivity) {
+		if (source.numDays != numDays || source.numTimeSlots != numTimeSlots) {
+			throw new IllegalArgumentException("Cannot copy availability between different planning horizons");
+		}
+		int horizon = getHorizon();
+		long[] sourceBits = source.availability[sourceActivity];
+		System.arraycopy(sourceBits, 0, availability[activity], 0, sourceBits.length);
+		System.arraycopy(source.startMinutes, sourceActivity * horizon, startMinutes, activity * horizon, horizon);
+	}
+
+	/**
+	 * Returns the number of absolute slots in the planning horizon.
+	 *
+	 * @return {@code numDays * numTimeSlots}
+	 */
+	public int getHorizon() {
+		return numDays * numTimeSlots;
+	}
+
+	/**
+	 * Returns whether the activity can start at the given absolute slot.
+	 *
+	 * @param activity activity index
+	 * @param slot     absolute slot
+	 * @return {@code true} if available
+	 */
+	public boolean isAvailable(int activity, int slot) {
+		return slot >= 0 && slot < getHorizon() && (availability[activity][slot >>> 6] & (1L << slot)) != 0;
+	}
+
+	/**
+	 * Returns the first absolute slot at or after {@code fromSlot} at which the activity can start.
+	 *
+	 * @param activity activity index
+	 * @param fromSlot absolute slot to search from, inclusive
+	 * @return the next available slot, or {@code -1} if none
+	 */
+	public int nextAvailableSlot(int activity, int fromSlot) {
+		if (fromSlot >= getHorizon()) {
+			return -1;
+		}
+		fromSlot = Math.max(0, fromSlot);
+		long[] bits = availability[activity];
+		int wordIndex = fromSlot >>> 6;
+		long word = bits[wordIndex] & (-1L << fromSlot);
+
+		while (true) {
+			if (word != 0) {
+				int slot = wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+				return slot < getHorizon() ? slot : -1;
+			}
+			if (++wordIndex == bits.length) {
+				return -1;
+			}
+			word = bits[wordIndex];
+		}
+	}
+
+	/**
+	 * Returns the ascending absolute slots in {@code [fromSlot, toSlot)} at which the activity can start.
+	 *
+	 * @param activity activity index
+	 * @param fromSlot first absolute slot, inclusive
+	 * @param toSlot   last absolute slot, exclusive
+	 * @return available slots in ascending order
+	 */
+	public int[] availableSlots(int activity, int fromSlot, int toSlot) {
+		int[] slots = new int[countAvailableSlots(activity, fromSlot, toSlot)];
+		int slot = fromSlot - 1;
+		for (int i = 0; i < slots.length; i++) {
+			slot = nextAvailableSlot(activity, slot + 1);
+			slots[i] = slot;
+		}
+		return slots;
+	}
+
+	/**
+	 * Returns the ascending absolute slots over the whole horizon at which the activity can start.
+	 *
+	 * @param activity activity index
+	 * @return available slots in ascending order
+	 */
+	public int[] availableSlots(int activity) {
+		return availableSlots(activity, 0, getHorizon());
+	}
+
+	/**
+	 * Returns whether the activity can start at any slot in {@code [fromSlot, toSlot)}.
+	 *
+	 * @param activity activity index
+	 * @param fromSlot first absolute slot, inclusive
+	 * @param toSlot   last absolute slot, exclusive
+	 * @return {@code true} if at least one slot is available
+	 */
+	public boolean hasAvailability(int activity, int fromSlot, int toSlot) {
+		int slot = nextAvailableSlot(activity, fromSlot);
+		return slot >= 0 && slot < toSlot;
+	}
+
+	/**
+	 * Returns the provider start time of the activity at the given absolute slot.
+	 *
+	 * @param activity activity index
+	 * @param slot     absolute slot
+	 * @return the start time as minute of day, or {@code -1} if unknown
+	 */
+	public int getStartMinute(int activity, int slot) {
+		return startMinutes[activity * getHorizon() + slot];
+	}
+
+	private static int toMinuteOfDay(String[][][] startTimes, int activity, int day, int timeSlot) {
+		if (startTimes == null || activity >= startTimes.length || day >= startTimes[activity].length
+				|| timeSlot >= startTimes[activity][day].length) {
+			return NO_START_MINUTE;
+		}
+		return OneHourTimeSlot.getMinuteOfDayFromTimeString(startTimes[activity][day][timeSlot]);
+	}
+
+	private int countAvailableSlots(int activity, int fromSlot, int toSlot) {
+		int count = 0;
+		int slot = nextAvailableSlot(activity, fromSlot);
+		while (slot >= 0 && slot < toSlot) {
+			count++;
+			slot = nextAvailableSlot(activity, slot + 1);
+		}
+		return count;
 	}
 }
@@ -0,0 +1,45 @@
+package com.asialocalguide.gateway.planning.domain;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which a planning request must be answered.
+ *
+ * <p>Created once when the request arrives and passed down the planning pipeline, so that each
+ * stage waits only for what is left of the request budget instead of applying its own timeout.
+ *
+ * @param expiresAtNanos {@link System#nanoTime()} at which the deadline expires
+ */
+public record Deadline(long expiresAtNanos) {
+
+	/**
+	 * Returns a deadline expiring after the given timeout from now.
+	 *
+	 * @param timeout time budget from now
+	 * @return the deadline
+	 */
+	public static Deadline after(Duration timeout) {
+		return new Deadline(System.nanoTime() + timeout.toNanos());
+	}
+
+	/**
+	 * @return nanoseconds left before the deadline expires, {@code 0} once it expired
+	 */
+	public long remainingNanos() {
+		return Math.max(0, expiresAtNanos - System.nanoTime());
+	}
+
+	/**
+	 * @return time left before the deadline expires, {@link Duration#ZERO} once it expired
+	 */
+	public Duration remaining() {
+		return Duration.ofNanos(remainingNanos());
+	}
+
+	/**
+	 * @return {@code true} if the deadline expired
+	 */
+	public boolean isExpired() {
+		return remainingNanos() == 0;
+	}
+}
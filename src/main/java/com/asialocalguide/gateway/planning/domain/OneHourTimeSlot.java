@@ -18,6 +18,8 @@ public enum OneHourTimeSlot {
 	SLOT_10PM(16, 22, 0, 22, 59), SLOT_11PM(17, 23, 0, 23, 59), SLOT_0AM(18, 0, 0, 0, 59), SLOT_1AM(19, 1, 0, 1, 59),
 	SLOT_2AM(20, 2, 0, 2, 59), SLOT_3AM(21, 3, 0, 3, 59), SLOT_4AM(22, 4, 0, 4, 59), SLOT_5AM(23, 5, 0, 5, 59);
 
+	private static final OneHourTimeSlot[] VALUES = values();
+
 	private final int index;
 	private final int startHour;
 	private final int startMinute;
@@ -62,6 +64,51 @@ public enum OneHourTimeSlot {
 		return -1;
 	}
 
+	/**
+	 * Returns the minute of day for the given {@code "HH:mm"} time string, or {@code -1} if
+	 * the string is blank or malformed.
+	 *
+	 * @param time a time string in {@code "HH:mm"} format
+	 * @return the minute of day in {@code [0, 1440)}, or {@code -1} if not valid
+	 */
+	public static int getMinuteOfDayFromTimeString(String time) {
+		if (time == null || time.isEmpty()) {
+			return -1;
+		}
+
+		String[] parts = time.split(":");
+		if (parts.length < 2) {
+			return -1;
+		}
+
+		try {
+			int hour = Integer.parseInt(parts[0]);
+			int minute = Integer.parseInt(parts[1]);
+			return hour >= 0 && hour < 24 && minute >= 0 && minute < 60 ? hour * 60 + minute : -1;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns the slot index for the given minute of day, or {@code -1} if it is out of range.
+	 *
+	 * @param minuteOfDay minute of day in {@code [0, 1440)}
+	 * @return the zero-based slot index, or {@code -1} if not found
+	 */
+	public static int getIndexFromMinuteOfDay(int minuteOfDay) {
+		int hour = minuteOfDay / 60;
+		int minute = minuteOfDay % 60;
+
+		for (OneHourTimeSlot slot : VALUES) {
+			if ((hour > slot.startHour || (hour == slot.startHour && minute >= slot.startMinute))
+					&& (hour < slot.endHour || (hour == slot.endHour && minute <= slot.endMinute))) {
+				return slot.getIndex();
+			}
+		}
+		return -1;
+	}
+
 	/**
 	 * Converts a duration in minutes to the number of one-hour time slots it occupies,
 	 * rounding up. Returns at least {@code 1}.
@@ -0,0 +1,15 @@
+package com.asialocalguide.gateway.planning.domain;
+
+/**
+ * Lifecycle of an asynchronous planning generation job.
+ */
+public enum PlanningJobStatus {
+	/** The job waits for a free slot. */
+	PENDING,
+	/** The day plans are being generated. */
+	RUNNING,
+	/** The day plans are available. */
+	SUCCEEDED,
+	/** The generation failed. */
+	FAILED
+}
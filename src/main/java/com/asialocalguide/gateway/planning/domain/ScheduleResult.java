@@ -0,0 +1,18 @@
+package com.asialocalguide.gateway.planning.domain;
+
+import java.time.Duration;
+
+/**
+ * Result of a scheduling run.
+ *
+ * <p>The schedule is reported as the sparse start of each activity, which consumers iterate in a
+ * single pass over the activities.
+ *
+ * @param scheduledStarts absolute start slot per activity, {@code -1} if not scheduled
+ * @param status          the status the solver stopped at
+ * @param relativeGap     relative gap between the objective and the best bound when the solver stopped;
+ *                        {@code 0} for proven optimal schedules
+ * @param wallTime        time spent solving
+ */
+public record ScheduleResult(int[] scheduledStarts, ScheduleStatus status, double relativeGap, Duration wallTime) {
+}
@@ -0,0 +1,26 @@
+package com.asialocalguide.gateway.planning.domain;
+
+/**
+ * Outcome of a scheduling run, independent of the solver implementation.
+ */
+public enum ScheduleStatus {
+	/** The schedule is proven to be optimal. */
+	OPTIMAL,
+	/** A schedule was found but the search stopped before proving optimality. */
+	FEASIBLE,
+	/** The model has no solution. */
+	INFEASIBLE,
+	/** The search stopped before any schedule was found. */
+	UNKNOWN,
+	/** The model was rejected by the solver. */
+	INVALID;
+
+	/**
+	 * Returns whether the run produced a usable schedule.
+	 *
+	 * @return {@code true} for {@link #OPTIMAL} and {@link #FEASIBLE}
+	 */
+	public boolean hasSolution() {
+		return this == OPTIMAL || this == FEASIBLE;
+	}
+}
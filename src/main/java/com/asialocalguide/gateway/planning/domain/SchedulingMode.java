@@ -0,0 +1,11 @@
+package com.asialocalguide.gateway.planning.domain;
+
+/**
+ * Scheduling mode selectable per planning request.
+ */
+public enum SchedulingMode {
+	/** Constraint-programming schedule maximising the total rating within the solver time limit. */
+	OPTIMAL,
+	/** Fast heuristic schedule without native solver, suited for previews. */
+	PREVIEW
+}
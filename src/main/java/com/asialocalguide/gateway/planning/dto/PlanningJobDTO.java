@@ -0,0 +1,16 @@
+package com.asialocalguide.gateway.planning.dto;
+
+import com.asialocalguide.gateway.planning.domain.PlanningJobStatus;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO representing the state of an asynchronous planning generation job.
+ *
+ * @param jobId    the unique identifier of the job
+ * @param status   the current status of the job
+ * @param dayPlans the generated day plans once {@link PlanningJobStatus#SUCCEEDED}, {@code null} before
+ * @param error    description of the failure once {@link PlanningJobStatus#FAILED}, {@code null} otherwise
+ */
+public record PlanningJobDTO(UUID jobId, PlanningJobStatus status, List<DayPlanDTO> dayPlans, String error) {
+}
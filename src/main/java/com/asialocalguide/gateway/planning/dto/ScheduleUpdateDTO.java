@@ -0,0 +1,14 @@
+package com.asialocalguide.gateway.planning.dto;
+
+import com.asialocalguide.gateway.planning.domain.ScheduleStatus;
+import java.util.List;
+
+/**
+ * DTO representing a schedule found while a day plan generation is still searching for a better one.
+ *
+ * @param status      the status of the schedule, {@code FEASIBLE} until the search is over
+ * @param relativeGap relative gap between the schedule and the best bound, {@code 0} when optimal
+ * @param dayPlans    ordered list of day plans of the schedule
+ */
+public record ScheduleUpdateDTO(ScheduleStatus status, double relativeGap, List<DayPlanDTO> dayPlans) {
+}
@@ -0,0 +1,14 @@
+package com.asialocalguide.gateway.planning.exception;
+
+/**
+ * Thrown when a planning generation job does not exist or its result expired.
+ */
+public class PlanningJobNotFoundException extends RuntimeException {
+
+	/**
+	 * @param s description of the missing job
+	 */
+	public PlanningJobNotFoundException(String s) {
+		super(s);
+	}
+}
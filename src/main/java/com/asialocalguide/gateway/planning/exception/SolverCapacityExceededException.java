@@ -0,0 +1,26 @@
+package com.asialocalguide.gateway.planning.exception;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a scheduling request is rejected because the solver pool and its queue are full, or
+ * because too many planning jobs are waiting already.
+ *
+ * <p>Carries the delay after which the client may retry.
+ */
+@Getter
+public class SolverCapacityExceededException extends RuntimeException {
+
+	private final Duration retryAfter;
+
+	/**
+	 * @param message    description of the rejection
+	 * @param retryAfter delay after which the client may retry
+	 */
+	public SolverCapacityExceededException(String message, Duration retryAfter) {
+		super(message);
+		this.retryAfter = retryAfter;
+	}
+}
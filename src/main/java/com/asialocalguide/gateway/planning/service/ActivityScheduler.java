@@ -0,0 +1,88 @@
+package com.asialocalguide.gateway.planning.service;
+
+import java.util.function.Consumer;
+
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.Deadline;
+import com.asialocalguide.gateway.planning.domain.ScheduleResult;
+import com.asialocalguide.gateway.planning.domain.SchedulingMode;
+
+/**
+ * Strategy for scheduling candidate activities over the days of a planning.
+ *
+ * <p>Implementations are keyed by {@link SchedulingMode} and selected at runtime by
+ * {@link PlanningService}.
+ */
+public interface ActivityScheduler {
+
+	/** Number of time slots kept free after each scheduled activity. */
+	int BUFFER_SLOTS = 3;
+
+	/**
+	 * Returns the {@link SchedulingMode} this scheduler implements.
+	 *
+	 * @return the scheduling mode; never {@code null}
+	 */
+	SchedulingMode getMode();
+
+	/**
+	 * Schedules the activities of the planning data without overlap, each at most once.
+	 *
+	 * @param activityPlanningData availability matrix, ratings and durations of the candidate activities
+	 * @return the schedule with the status the scheduler stopped at
+	 * @throws IllegalArgumentException if the planning data is empty or inconsistent
+	 */
+	default ScheduleResult schedule(ActivityPlanningData activityPlanningData) {
+		return schedule(activityPlanningData, null);
+	}
+
+	/**
+	 * Schedules the activities of the planning data, starting the search from a previous schedule.
+	 *
+	 * <p>Hinted starts that are still available and free are kept; they are a starting point only and
+	 * never constrain the returned schedule.
+	 *
+	 * @param activityPlanningData availability matrix, ratings and durations of the candidate activities
+	 * @param hintStarts           absolute start slot per activity ({@code day * slotsPerDay + slot}),
+	 *                             {@code -1} for unscheduled activities; may be {@code null}
+	 * @return the schedule with the status the scheduler stopped at
+	 * @throws IllegalArgumentException if the planning data is empty or inconsistent
+	 */
+	ScheduleResult schedule(ActivityPlanningData activityPlanningData, int[] hintStarts);
+
+	/**
+	 * Schedules the activities of the planning data, stopping the search by the deadline of the
+	 * planning request at the latest.
+	 *
+	 * <p>By default the deadline is ignored, which suits schedulers that do not search.
+	 *
+	 * @param activityPlanningData availability matrix, ratings and durations of the candidate activities
+	 * @param hintStarts           absolute start slot per activity of a previous schedule; may be {@code null}
+	 * @param deadline             deadline of the planning request
+	 * @return the schedule with the status the scheduler stopped at
+	 * @throws IllegalArgumentException if the planning data is empty or inconsistent
+	 */
+	default ScheduleResult schedule(ActivityPlanningData activityPlanningData, int[] hintStarts,
+			Deadline deadline) {
+		return schedule(activityPlanningData, hintStarts);
+	}
+
+	/**
+	 * Schedules the activities of the planning data within the deadline, reporting the improving
+	 * schedules found while searching.
+	 *
+	 * <p>By default nothing is reported before the final schedule is returned, which suits schedulers
+	 * that do not search.
+	 *
+	 * @param activityPlanningData availability matrix, ratings and durations of the candidate activities
+	 * @param hintStarts           absolute start slot per activity of a previous schedule; may be {@code null}
+	 * @param deadline             deadline of the planning request
+	 * @param onImprovement        receives each improving schedule, possibly from another thread
+	 * @return the schedule with the status the scheduler stopped at
+	 * @throws IllegalArgumentException if the planning data is empty or inconsistent
+	 */
+	default ScheduleResult schedule(ActivityPlanningData activityPlanningData, int[] hintStarts, Deadline deadline,
+			Consumer<ScheduleResult> onImprovement) {
+		return schedule(activityPlanningData, hintStarts, deadline);
+	}
+}
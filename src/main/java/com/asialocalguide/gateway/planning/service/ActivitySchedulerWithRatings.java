@@ -1,12 +1,20 @@
 package com.asialocalguide.gateway.planning.service;
 
+import com.asialocalguide.gateway.planning.config.SchedulerProperties;
 import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.ScheduleResult;
+import com.asialocalguide.gateway.planning.domain.ScheduleStatus;
 import com.google.ortools.Loader;
 import com.google.ortools.sat.*;
 import com.google.ortools.util.Domain;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 
@@ -15,7 +23,18 @@ import org.apache.commons.lang3.ArrayUtils;
  *
  * <p>Given an availability matrix, ratings, and durations, the scheduler maximises the total
  * weighted rating of assigned activities subject to no-overlap and availability constraints.
- * All functionality is exposed via the static {@link #scheduleActivities(ActivityPlanningData)} method.
+ * All functionality is exposed via the static
+ * {@link #scheduleActivities(ActivityPlanningData, SchedulerProperties, int[])} method.
+ *
+ * <p>Small problems are solved with one exact model over the whole trip horizon. Long trips or
+ * large candidate sets are decomposed: a cheap assignment pass picks a day for each activity, then
+ * the per-day sub-problems are solved one after another on the calling thread, each with the
+ * workers of the solver profile, and merged into the same result. The decomposition therefore never
+ * uses more solver threads than the solve it replaces.
+ *
+ * <p>Every model is seeded with a greedy solution hint, built on top of the hinted starts of a
+ * previous schedule when available, which shortens the time to the first good schedule. Callers can
+ * follow the search through the improving schedules reported by the solution callback.
  */
 @Slf4j
 public class ActivitySchedulerWithRatings {
@@ -26,30 +45,321 @@ public class ActivitySchedulerWithRatings {
 	/**
 	 * Generates an optimal activity schedule using constraint programming.
 	 *
+	 * <p>The search is bounded by the given solver profile; when the time limit is reached the
+	 * best schedule found so far is returned together with the status and gap the solver stopped at.
+	 *
+	 * @param activityPlanningData Contains availability matrix, ratings, and
+	 *                             durations
+	 * @param solverProfile        time limit, worker count and gap limit for the solve
+	 * @return the start slot of each activity with the solver status and gap
+	 * @throws IllegalArgumentException If input data is invalid
+	 * @throws IllegalStateException    If OR-Tools native libraries fail to load
+	 */
+	public static ScheduleResult scheduleActivities(ActivityPlanningData activityPlanningData,
+			SchedulerProperties solverProfile) {
+		return scheduleActivities(activityPlanningData, solverProfile, null);
+	}
+
+	/**
+	 * Generates an optimal activity schedule using constraint programming, warm-started from the
+	 * starts of a previous schedule.
+	 *
+	 * @param activityPlanningData Contains availability matrix, ratings, and
+	 *                             durations
+	 * @param solverProfile        time limit, worker count and gap limit for the solve
+	 * @param hintStarts           absolute start slot per activity of a previous schedule, {@code -1} for
+	 *                             unscheduled activities; may be {@code null}
+	 * @return the start slot of each activity with the solver status and gap
+	 * @throws IllegalArgumentException If input data is invalid
+	 * @throws IllegalStateException    If OR-Tools native libraries fail to load
+	 */
+	public static ScheduleResult scheduleActivities(ActivityPlanningData activityPlanningData,
+			SchedulerProperties solverProfile, int[] hintStarts) {
+		return scheduleActivities(activityPlanningData,
+				solverProfile,
+				hintStarts,
+				System.nanoTime() + solverProfile.maxTime().toNanos());
+	}
+
+	/**
+	 * Generates an optimal activity schedule using constraint programming, warm-started from the
+	 * starts of a previous schedule and stopped at the given deadline instead of after
+	 * {@link SchedulerProperties#maxTime()}.
+	 *
+	 * @param activityPlanningData Contains availability matrix, ratings, and
+	 *                             durations
+	 * @param solverProfile        worker count and gap limit for the solve
+	 * @param hintStarts           absolute start slot per activity of a previous schedule, {@code -1} for
+	 *                             unscheduled activities; may be {@code null}
+	 * @param deadlineNanos        {@link System#nanoTime()} by which the solve must have stopped
+	 * @return the start slot of each activity with the solver status and gap
+	 * @throws IllegalArgumentException If input data is invalid
+	 * @throws IllegalStateException    If OR-Tools native libraries fail to load
+	 */
+	public static ScheduleResult scheduleActivities(ActivityPlanningData activityPlanningData,
+			SchedulerProperties solverProfile, int[] hintStarts, long deadlineNanos) {
+		return scheduleActivities(activityPlanningData, solverProfile, hintStarts, deadlineNanos, null);
+	}
+
+	/**
+	 * Generates an optimal activity schedule using constraint programming, reporting every improving
+	 * schedule found during the search.
+	 *
+	 * <p>Improving schedules are reported from the solver threads with a {@link ScheduleStatus#FEASIBLE}
+	 * status, while the search goes on. When the problem is decomposed per day, each report holds the
+	 * best schedule found so far for every day.
+	 *
 	 * @param activityPlanningData Contains availability matrix, ratings, and
 	 *                             durations
-	 * @return 3D array [activity][day][timeSlot] indicating scheduled times
+	 * @param solverProfile        worker count and gap limit for the solve
+	 * @param hintStarts           absolute start slot per activity of a previous schedule, {@code -1} for
+	 *                             unscheduled activities; may be {@code null}
+	 * @param deadlineNanos        {@link System#nanoTime()} by which the solve must have stopped
+	 * @param onImprovement        receives each improving schedule; may be {@code null}
+	 * @return the start slot of each activity with the solver status and gap
 	 * @throws IllegalArgumentException If input data is invalid
 	 * @throws IllegalStateException    If OR-Tools native libraries fail to load
 	 */
-	public static boolean[][][] scheduleActivities(ActivityPlanningData activityPlanningData) {
+	public static ScheduleResult scheduleActivities(ActivityPlanningData activityPlanningData,
+			SchedulerProperties solverProfile, int[] hintStarts, long deadlineNanos,
+			Consumer<ScheduleResult> onImprovement) {
 		Objects.requireNonNull(activityPlanningData);
+		Objects.requireNonNull(solverProfile);
 
-		// Map activities into availability, ratings, and durations
-		boolean[][][] availabilityMatrix = activityPlanningData.getAvailabilityMatrix();
+		// Map activities into ratings and durations, availability is read from the bitsets
 		int[] activityRatings = activityPlanningData.getRatings();
 		int[] activityDurations = activityPlanningData.getDurations();
 
-		validateActivityData(availabilityMatrix, activityRatings, activityDurations);
+		validateActivityData(activityPlanningData);
 
 		loadNativeLibraries();
 
 		// Get scheduling dimensions
-		int numTimeSlotsPerDay = availabilityMatrix[0][0].length;
+		int numActivities = activityPlanningData.getNumActivities();
+		int numDays = activityPlanningData.getNumDays();
+		int numTimeSlots = activityPlanningData.getNumTimeSlots(); // 24 slots per day
+
+		if (solverProfile.decomposition() != null
+				&& solverProfile.decomposition().appliesTo(numDays, numActivities)) {
+			return scheduleByDay(activityPlanningData, solverProfile, hintStarts, deadlineNanos, onImprovement);
+		}
+
+		long startNanos = System.nanoTime();
+		SolutionListener solutionListener = onImprovement == null ? null
+				: (starts, relativeGap) -> onImprovement.accept(new ScheduleResult(starts,
+						ScheduleStatus.FEASIBLE,
+						relativeGap,
+						Duration.ofNanos(System.nanoTime() - startNanos)));
+
+		int[][] validStartTimeslots = new int[numActivities][];
+		for (int a = 0; a < numActivities; a++) {
+			validStartTimeslots[a] = activityPlanningData.availableSlots(a);
+		}
+
+		SubProblemSolution solution = solveSubProblem(IntStream.range(0, numActivities).toArray(),
+				validStartTimeslots,
+				activityRatings,
+				activityDurations,
+				(long) numDays * numTimeSlots,
+				solverProfile,
+				solverProfile.numWorkers(),
+				hintStarts,
+				deadlineNanos,
+				solutionListener);
+
+		return new ScheduleResult(solution.scheduledStarts(),
+				solution.status(),
+				solution.relativeGap(),
+				solution.wallTime());
+	}
+
+	/**
+	 * Decomposes the problem per day: assigns every activity to a single day, solves the per-day
+	 * sub-problems one after another and merges them into one schedule.
+	 *
+	 * <p>Each sub-problem gets an equal share of the time left for the days still to solve, so that
+	 * a hard day cannot leave the following days without time.
+	 *
+	 * <p>Sub-problems use the horizon and buffer rule of the global model, so a late activity may
+	 * end, buffer included, on the next day. The next day then starts after the end of the activities
+	 * already scheduled, which keeps the merged schedule free of overlaps.
+	 */
+	private static ScheduleResult scheduleByDay(ActivityPlanningData activityPlanningData,
+			SchedulerProperties solverProfile, int[] hintStarts, long deadlineNanos,
+			Consumer<ScheduleResult> onImprovement) {
+		int[] activityRatings = activityPlanningData.getRatings();
+		int[] activityDurations = activityPlanningData.getDurations();
+
+		int numActivities = activityPlanningData.getNumActivities();
+		int numDays = activityPlanningData.getNumDays();
+		int numTimeSlots = activityPlanningData.getNumTimeSlots();
+
+		long startNanos = System.nanoTime();
+
+		int[] assignedDays = assignActivitiesToDays(activityPlanningData, hintStarts);
+
+		// Best starts and gap found so far per day, merged into each reported improvement
+		int[] bestStarts = new int[numActivities];
+		Arrays.fill(bestStarts, -1);
+		double[] dayGaps = new double[numDays];
+
+		int[][] activitiesPerDay = new int[numDays][];
+		int daysToSolve = 0;
+		for (int d = 0; d < numDays; d++) {
+			int day = d;
+			activitiesPerDay[d] = IntStream.range(0, numActivities).filter(a -> assignedDays[a] == day).toArray();
+			if (activitiesPerDay[d].length > 0) {
+				daysToSolve++;
+			}
+		}
+
+		int[] scheduledStarts = new int[numActivities];
+		Arrays.fill(scheduledStarts, -1);
+		boolean anySolution = false;
+		double relativeGap = 0;
+		int solvedDays = 0;
+		// First slot not occupied by the activities of the days already solved
+		int earliestStart = 0;
+
+		for (int d = 0; d < numDays; d++) {
+			int day = d;
+			int[] dayActivities = activitiesPerDay[d];
+
+			if (dayActivities.length == 0) {
+				continue;
+			}
+
+			int[][] validStartTimeslots = new int[numActivities][];
+			for (int a : dayActivities) {
+				validStartTimeslots[a] = activityPlanningData
+						.availableSlots(a, Math.max(day * numTimeSlots, earliestStart), (day + 1) * numTimeSlots);
+			}
+
+			dayGaps[day] = 1;
+			SolutionListener solutionListener = onImprovement == null ? null : (starts, dayGap) -> {
+				synchronized (bestStarts) {
+					for (int a : dayActivities) {
+						bestStarts[a] = starts[a];
+					}
+					dayGaps[day] = dayGap;
+					onImprovement.accept(new ScheduleResult(bestStarts.clone(),
+							ScheduleStatus.FEASIBLE,
+							Arrays.stream(dayGaps).max().orElse(0),
+							Duration.ofNanos(System.nanoTime() - startNanos)));
+				}
+			};
+
+			long dayDeadlineNanos = System.nanoTime()
+					+ Math.max(0, deadlineNanos - System.nanoTime()) / (daysToSolve - solvedDays);
+			SubProblemSolution solution = solveSubProblem(dayActivities,
+					validStartTimeslots,
+					activityRatings,
+					activityDurations,
+					(long) numDays * numTimeSlots,
+					solverProfile,
+					solverProfile.numWorkers(),
+					hintStarts,
+					dayDeadlineNanos,
+					solutionListener);
+			solvedDays++;
+
+			if (solution.status().hasSolution()) {
+				mergeStarts(solution.scheduledStarts(), scheduledStarts);
+				anySolution = true;
+				for (int a : dayActivities) {
+					if (scheduledStarts[a] >= 0) {
+						earliestStart = Math.max(earliestStart,
+								scheduledStarts[a] + activityDurations[a] + ActivityScheduler.BUFFER_SLOTS);
+					}
+				}
+			}
+			relativeGap = Math.max(relativeGap, solution.relativeGap());
+		}
+
+		log.debug("Decomposed schedule solved {} day sub-problems for {} activities", solvedDays, numActivities);
+
+		// Decomposition does not prove global optimality
+		ScheduleStatus status;
+		if (solvedDays == 0) {
+			status = ScheduleStatus.OPTIMAL;
+		} else {
+			status = anySolution ? ScheduleStatus.FEASIBLE : ScheduleStatus.UNKNOWN;
+		}
+
+		return new ScheduleResult(scheduledStarts,
+				status,
+				relativeGap,
+				Duration.ofNanos(System.nanoTime() - startNanos));
+	}
+
+	/**
+	 * Cheap assignment pass picking a single day for each activity.
+	 *
+	 * <p>Activities with a hinted start keep the hinted day when still available. The others are taken
+	 * by decreasing rating and placed on the available day with the least booked time so far, which
+	 * spreads the best activities over the trip.
+	 *
+	 * @return the assigned day per activity, {@code -1} for activities without availability
+	 */
+	private static int[] assignActivitiesToDays(ActivityPlanningData activityPlanningData, int[] hintStarts) {
+		int[] ratings = activityPlanningData.getRatings();
+		int[] durations = activityPlanningData.getDurations();
+		int numActivities = activityPlanningData.getNumActivities();
+		int numDays = activityPlanningData.getNumDays();
+		int numTimeSlots = activityPlanningData.getNumTimeSlots();
+
+		int[] assignedDays = new int[numActivities];
+		Arrays.fill(assignedDays, -1);
+		int[] bookedSlotsPerDay = new int[numDays];
+
+		if (hintStarts != null && hintStarts.length == numActivities) {
+			for (int a = 0; a < numActivities; a++) {
+				if (activityPlanningData.isAvailable(a, hintStarts[a])) {
+					int hintedDay = hintStarts[a] / numTimeSlots;
+					assignedDays[a] = hintedDay;
+					bookedSlotsPerDay[hintedDay] += durations[a] + ActivityScheduler.BUFFER_SLOTS;
+				}
+			}
+		}
+
+		Integer[] byRating = IntStream.range(0, numActivities).boxed().toArray(Integer[]::new);
+		Arrays.sort(byRating, Comparator.comparingInt((Integer a) -> ratings[a]).reversed());
+
+		for (int a : byRating) {
+			if (assignedDays[a] >= 0) {
+				continue;
+			}
+			int bestDay = -1;
+			for (int d = 0; d < numDays; d++) {
+				if (activityPlanningData.hasAvailability(a, d * numTimeSlots, (d + 1) * numTimeSlots)
+						&& (bestDay < 0 || bookedSlotsPerDay[d] < bookedSlotsPerDay[bestDay])) {
+					bestDay = d;
+				}
+			}
+			if (bestDay >= 0) {
+				assignedDays[a] = bestDay;
+				bookedSlotsPerDay[bestDay] += durations[a] + ActivityScheduler.BUFFER_SLOTS;
+			}
+		}
+		return assignedDays;
+	}
+
+	/**
+	 * Builds and solves a CP-SAT model for a subset of activities.
+	 *
+	 * @param activityIndices     the activities taking part in the sub-problem
+	 * @param validStartTimeslots absolute start slots per activity, indexed by activity
+	 * @param horizon             absolute slot by which every activity must have ended
+	 * @param numWorkers          CP-SAT search workers for this sub-problem
+	 * @param hintStarts          absolute start slot per activity of a previous schedule, may be {@code null}
+	 * @param deadlineNanos       {@link System#nanoTime()} by which the solve must have stopped
+	 * @param solutionListener    receives each improving solution of the sub-problem, may be {@code null}
+	 */
+	private static SubProblemSolution solveSubProblem(int[] activityIndices, int[][] validStartTimeslots,
+			int[] activityRatings, int[] activityDurations, long horizon, SchedulerProperties solverProfile,
+			int numWorkers, int[] hintStarts, long deadlineNanos, SolutionListener solutionListener) {
 
-		int numActivities = availabilityMatrix.length;
-		int numDays = availabilityMatrix[0].length;
-		int numTimeSlots = availabilityMatrix[0][0].length; // 24 slots per day
+		int numActivities = activityRatings.length;
 
 		CpModel model = new CpModel();
 		IntVar[] startTimes = new IntVar[numActivities];
@@ -58,23 +368,20 @@ public class ActivitySchedulerWithRatings {
 		BoolVar[] isAssigned = new BoolVar[numActivities];
 		List<IntervalVar> allIntervals = new ArrayList<>();
 
-		for (int a = 0; a < numActivities; a++) {
-			List<Integer> validStartTimeslots = getValidStartTimeslots(numDays,
-					numTimeSlotsPerDay,
-					availabilityMatrix,
-					a);
+		for (int a : activityIndices) {
+			int[] validStartTimes = validStartTimeslots[a];
 
-			if (validStartTimeslots.isEmpty()) {
+			if (validStartTimes == null || validStartTimes.length == 0) {
 				continue;
 			}
 
 			// Create CP-SAT variables for this activity
 			startTimes[a] = model.newIntVarFromDomain(
-					Domain.fromValues(validStartTimeslots.stream().mapToLong(i -> i).toArray()),
+					Domain.fromValues(Arrays.stream(validStartTimes).asLongStream().toArray()),
 					"start_activity_" + a);
 			// Add a buffer of 3 time slots to the duration between activities
-			int duration = activityDurations[a] + 3;
-			endTimes[a] = model.newIntVar(0, (long) numDays * numTimeSlotsPerDay, "end_activity_" + a);
+			int duration = activityDurations[a] + ActivityScheduler.BUFFER_SLOTS;
+			endTimes[a] = model.newIntVar(0, horizon, "end_activity_" + a);
 			isAssigned[a] = model.newBoolVar("is_assigned_" + a);
 			// Create interval variable representing the activity's time slot
 			activityIntervals[a] = model.newOptionalIntervalVar(startTimes[a],
@@ -105,17 +412,109 @@ public class ActivitySchedulerWithRatings {
 		}
 		model.maximize(objective.build());
 
+		if (solverProfile.hints() == null || solverProfile.hints().enabled()) {
+			addSolutionHint(model,
+					GreedyActivityScheduler.computeStarts(activityIndices,
+							validStartTimeslots,
+							activityRatings,
+							activityDurations,
+							horizon,
+							hintStarts),
+					startTimes,
+					endTimes,
+					isAssigned,
+					activityDurations);
+		}
+
+		CpSolver solver = createSolver(solverProfile, numWorkers, deadlineNanos);
+		CpSolverStatus status = solutionListener == null ? solver.solve(model)
+				: solver.solve(model, new ImprovementCallback(activityIndices, startTimes, isAssigned, solutionListener));
+
+		int[] scheduledStarts = new int[numActivities];
+		Arrays.fill(scheduledStarts, -1);
+
+		if (status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE) {
+			for (int a = 0; a < numActivities; a++) {
+				if (startTimes[a] != null && solver.value(isAssigned[a]) == 1) {
+					scheduledStarts[a] = (int) solver.value(startTimes[a]);
+				}
+			}
+		} else {
+			log.warn("No feasible solution found. Solver status: {}", status);
+		}
+
+		return new SubProblemSolution(scheduledStarts,
+				toScheduleStatus(status),
+				computeRelativeGap(status, solver),
+				Duration.ofMillis(Math.round(solver.wallTime() * 1000)));
+	}
+
+	/**
+	 * Hints every activity of the model with the greedy start, or as unassigned when the greedy pass
+	 * could not place it.
+	 */
+	private static void addSolutionHint(CpModel model, int[] hintedStarts, IntVar[] startTimes, IntVar[] endTimes,
+			BoolVar[] isAssigned, int[] activityDurations) {
+		for (int a = 0; a < startTimes.length; a++) {
+			if (startTimes[a] == null) {
+				continue;
+			}
+			if (hintedStarts[a] >= 0) {
+				model.addHint(isAssigned[a], 1);
+				model.addHint(startTimes[a], hintedStarts[a]);
+				model.addHint(endTimes[a], hintedStarts[a] + activityDurations[a] + ActivityScheduler.BUFFER_SLOTS);
+			} else {
+				model.addHint(isAssigned[a], 0);
+			}
+		}
+	}
+
+	/**
+	 * Creates a solver bounded by the worker count and gap limit of the profile, stopping at the
+	 * deadline at the latest
+	 */
+	private static CpSolver createSolver(SchedulerProperties solverProfile, int numWorkers, long deadlineNanos) {
+		double remainingSeconds = Math.max(0, deadlineNanos - System.nanoTime()) / 1e9;
+
 		CpSolver solver = new CpSolver();
-		CpSolverStatus status = solver.solve(model);
+		solver.getParameters()
+				.setMaxTimeInSeconds(remainingSeconds)
+				.setNumWorkers(Math.max(1, numWorkers))
+				.setRelativeGapLimit(solverProfile.relativeGapLimit())
+				.setStopAfterFirstSolution(solverProfile.stopAfterFirstSolution());
+		return solver;
+	}
+
+	private static ScheduleStatus toScheduleStatus(CpSolverStatus status) {
+		return switch (status) {
+			case OPTIMAL -> ScheduleStatus.OPTIMAL;
+			case FEASIBLE -> ScheduleStatus.FEASIBLE;
+			case INFEASIBLE -> ScheduleStatus.INFEASIBLE;
+			case MODEL_INVALID -> ScheduleStatus.INVALID;
+			default -> ScheduleStatus.UNKNOWN;
+		};
+	}
 
-		return buildScheduleFromSolution(numActivities, numDays, numTimeSlots, status, startTimes, solver, isAssigned);
+	/**
+	 * Relative distance between the objective of the returned schedule and the best bound,
+	 * {@code 0} when optimal and {@code 1} when no schedule was found.
+	 */
+	private static double computeRelativeGap(CpSolverStatus status, CpSolver solver) {
+		if (status == CpSolverStatus.OPTIMAL) {
+			return 0;
+		}
+		if (status != CpSolverStatus.FEASIBLE) {
+			return 1;
+		}
+		double objective = solver.objectiveValue();
+		return Math.abs(solver.bestObjectiveBound() - objective) / Math.max(1, Math.abs(objective));
 	}
 
 	/** Loads required OR-Tools native libraries */
 	private static void loadNativeLibraries() {
 		try {
 			Loader.loadNativeLibraries();
-		} catch (Exception e) {
+		} catch (Exception | LinkageError e) {
 			throw new IllegalStateException("OR-Tools library loading failed", e);
 		}
 	}
@@ -123,66 +522,90 @@ public class ActivitySchedulerWithRatings {
 	/**
 	 * Validates consistency of activity data dimensions
 	 *
-	 * @throws IllegalArgumentException If: - Any input array is empty - Array
-	 *                                  lengths don't match
+	 * @throws IllegalArgumentException If: - Any input array or the horizon is empty -
+	 *                                  Array lengths don't match
 	 */
-	private static void validateActivityData(boolean[][][] availabilityMatrix, int[] ratings, int[] durations) {
-		if (ArrayUtils.isEmpty(availabilityMatrix) || ArrayUtils.isEmpty(ratings) || ArrayUtils.isEmpty(durations)) {
+	private static void validateActivityData(ActivityPlanningData activityPlanningData) {
+		int[] ratings = activityPlanningData.getRatings();
+		int[] durations = activityPlanningData.getDurations();
+
+		if (activityPlanningData.getNumActivities() == 0 || activityPlanningData.getHorizon() == 0
+				|| ArrayUtils.isEmpty(ratings) || ArrayUtils.isEmpty(durations)) {
 			throw new IllegalArgumentException("ActivityData fields must not be empty");
 		}
-		int numActivities = availabilityMatrix.length;
-		if (ratings.length != numActivities || durations.length != numActivities) {
+		if (durations.length != activityPlanningData.getNumActivities()) {
 			throw new IllegalArgumentException("Inconsistent activity data sizes");
 		}
 	}
 
+	/** Copies the starts of the activities assigned in a sub-problem solution */
+	private static void mergeStarts(int[] subProblemStarts, int[] scheduledStarts) {
+		for (int a = 0; a < subProblemStarts.length; a++) {
+			if (subProblemStarts[a] >= 0) {
+				scheduledStarts[a] = subProblemStarts[a];
+			}
+		}
+	}
+
 	/**
-	 * Converts 3D availability matrix to absolute time slots for an activity
+	 * Solution of a single CP-SAT sub-problem.
 	 *
-	 * @param numDays            Total number of scheduling days
-	 * @param numTimeSlotsPerDay Time slots per day (typically 24)
-	 * @param availabilityMatrix 3D availability matrix [activity][day][slot]
-	 * @param activityIndex      Index of the activity to process
-	 * @return List of absolute time slots (day*slotsPerDay + slot)
+	 * @param scheduledStarts absolute start slot per activity, {@code -1} if not scheduled
 	 */
-	private static List<Integer> getValidStartTimeslots(int numDays, int numTimeSlotsPerDay,
-			boolean[][][] availabilityMatrix, int activityIndex) {
-		List<Integer> validStartTimes = new ArrayList<>();
+	private record SubProblemSolution(int[] scheduledStarts, ScheduleStatus status, double relativeGap,
+			Duration wallTime) {
+	}
 
-		// Convert 2D (day, slot) availability to 1D absolute slots
-		for (int d = 0; d < numDays; d++) {
-			for (int t = 0; t < numTimeSlotsPerDay; t++) {
-				if (availabilityMatrix[activityIndex][d][t]) {
-					// Absolute slot index is day * time slot per day + time slot assigned
-					int absoluteSlot = d * numTimeSlotsPerDay + t;
-					validStartTimes.add(absoluteSlot);
-				}
-			}
-		}
-		return validStartTimes;
+	/** Receives the improving solutions of a sub-problem */
+	@FunctionalInterface
+	private interface SolutionListener {
+
+		/**
+		 * @param scheduledStarts absolute start slot per activity, {@code -1} if not scheduled
+		 * @param relativeGap     relative gap between the solution and the best bound
+		 */
+		void onSolution(int[] scheduledStarts, double relativeGap);
 	}
 
 	/**
-	 * Converts solver solution to a 3D schedule array
-	 *
-	 * @param status Solver result status
-	 * @return 3D schedule array with true values for scheduled times
+	 * Solution callback reading the starts of each improving solution found by CP-SAT. Errors of the
+	 * listener are logged so that they never abort the search.
 	 */
-	private static boolean[][][] buildScheduleFromSolution(int numActivities, int numDays, int numTimeSlots,
-			CpSolverStatus status, IntVar[] startTimes, CpSolver solver, BoolVar[] isAssigned) {
-		boolean[][][] finalSchedule = new boolean[numActivities][numDays][numTimeSlots];
-		if (status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE) {
-			for (int a = 0; a < numActivities; a++) {
-				if (startTimes[a] != null && solver.value(isAssigned[a]) == 1) {
-					int scheduledTime = (int) solver.value(startTimes[a]);
-					int scheduledDay = scheduledTime / numTimeSlots;
-					int scheduledSlot = scheduledTime % numTimeSlots;
-					finalSchedule[a][scheduledDay][scheduledSlot] = true;
+	private static final class ImprovementCallback extends CpSolverSolutionCallback {
+
+		private final int[] activityIndices;
+
+		private final IntVar[] startTimes;
+
+		private final BoolVar[] isAssigned;
+
+		private final SolutionListener solutionListener;
+
+		ImprovementCallback(int[] activityIndices, IntVar[] startTimes, BoolVar[] isAssigned,
+				SolutionListener solutionListener) {
+			this.activityIndices = activityIndices;
+			this.startTimes = startTimes;
+			this.isAssigned = isAssigned;
+			this.solutionListener = solutionListener;
+		}
+
+		@Override
+		public void onSolutionCallback() {
+			int[] scheduledStarts = new int[startTimes.length];
+			Arrays.fill(scheduledStarts, -1);
+			for (int a : activityIndices) {
+				if (startTimes[a] != null && booleanValue(isAssigned[a])) {
+					scheduledStarts[a] = (int) value(startTimes[a]);
 				}
 			}
-		} else {
-			log.warn("No feasible solution found. Solver status: {}", status);
+			double objective = objectiveValue();
+			double relativeGap = Math.abs(bestObjectiveBound() - objective) / Math.max(1, Math.abs(objective));
+
+			try {
+				solutionListener.onSolution(scheduledStarts, relativeGap);
+			} catch (RuntimeException e) {
+				log.warn("Failed to report an improving schedule: {}", e.getMessage());
+			}
 		}
-		return finalSchedule;
 	}
 }
@@ -0,0 +1,88 @@
+package com.asialocalguide.gateway.planning.service;
+
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+import com.asialocalguide.gateway.planning.config.SchedulerProperties;
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.Deadline;
+import com.asialocalguide.gateway.planning.domain.ScheduleResult;
+import com.asialocalguide.gateway.planning.domain.SchedulingMode;
+
+/**
+ * {@link ActivityScheduler} implementation backed by the OR-Tools CP-SAT solver.
+ *
+ * <p>Delegates to {@link ActivitySchedulerWithRatings} with the configured solver profile and runs
+ * every solve on the bounded {@link SolverExecutor}.
+ */
+@Component
+public class CpSatActivityScheduler implements ActivityScheduler {
+
+	private final SchedulerProperties schedulerProperties;
+
+	private final SolverExecutor solverExecutor;
+
+	/**
+	 * @param schedulerProperties solver profile bounding every CP-SAT solve
+	 * @param solverExecutor      bounded executor running the CP-SAT solves
+	 */
+	public CpSatActivityScheduler(SchedulerProperties schedulerProperties, SolverExecutor solverExecutor) {
+		this.schedulerProperties = schedulerProperties;
+		this.solverExecutor = solverExecutor;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public SchedulingMode getMode() {
+		return SchedulingMode.OPTIMAL;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalStateException if the OR-Tools native libraries fail to load
+	 * @throws com.asialocalguide.gateway.planning.exception.SolverCapacityExceededException if all solvers are busy
+	 */
+	@Override
+	public ScheduleResult schedule(ActivityPlanningData activityPlanningData, int[] hintStarts) {
+		return solverExecutor.execute(() -> ActivitySchedulerWithRatings
+				.scheduleActivities(activityPlanningData, schedulerProperties, hintStarts));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>The solve stops after the configured maximum time or when the deadline expires, whichever
+	 * comes first; the time spent waiting for a free solver counts against the deadline, and a solve
+	 * that did not complete by the deadline is cancelled.
+	 *
+	 * @throws IllegalStateException if the OR-Tools native libraries fail to load
+	 * @throws com.asialocalguide.gateway.planning.exception.SolverCapacityExceededException if all solvers are busy
+	 */
+	@Override
+	public ScheduleResult schedule(ActivityPlanningData activityPlanningData, int[] hintStarts, Deadline deadline) {
+		return schedule(activityPlanningData, hintStarts, deadline, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Improving schedules are reported from the CP-SAT solution callback, on the solver threads.
+	 *
+	 * @throws IllegalStateException if the OR-Tools native libraries fail to load or the deadline expires
+	 * @throws com.asialocalguide.gateway.planning.exception.SolverCapacityExceededException if all solvers are busy
+	 */
+	@Override
+	public ScheduleResult schedule(ActivityPlanningData activityPlanningData, int[] hintStarts, Deadline deadline,
+			Consumer<ScheduleResult> onImprovement) {
+		return solverExecutor.execute(() -> {
+			long maxTimeNanos = Math.min(schedulerProperties.maxTime().toNanos(), deadline.remainingNanos());
+			return ActivitySchedulerWithRatings.scheduleActivities(activityPlanningData,
+					schedulerProperties,
+					hintStarts,
+					System.nanoTime() + maxTimeNanos,
+					onImprovement);
+		}, deadline);
+	}
+}
@@ -0,0 +1,94 @@
+package com.asialocalguide.gateway.planning.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.CommonActivity;
+import com.asialocalguide.gateway.planning.dto.DayActivityDTO;
+import com.asialocalguide.gateway.planning.dto.DayPlanDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds the day plans returned to clients from the start slot of each scheduled activity.
+ *
+ * <p>Day plans are built in a single pass over the activities: each scheduled start is mapped to
+ * its day by division, and its provider start time is read as minute of day from the
+ * {@link ActivityPlanningData}, without scanning the days or parsing times.
+ */
+@Slf4j
+public class DayPlanAssembler {
+
+	private static final int SECONDS_PER_MINUTE = 60;
+
+	private DayPlanAssembler() {
+	}
+
+	/**
+	 * Creates one day plan per day of the trip, with the activities scheduled on that day in
+	 * activity order.
+	 *
+	 * @param startDate            first day of the trip
+	 * @param totalDays            number of days of the trip
+	 * @param activities           the candidate activities, in scheduler index order
+	 * @param scheduledStarts      absolute start slot per activity, {@code -1} if not scheduled
+	 * @param activityPlanningData planning data providing the start time of each slot
+	 * @return ordered list of day plans, one per day, possibly without activities
+	 */
+	public static List<DayPlanDTO> createDayPlans(LocalDate startDate, int totalDays, List<CommonActivity> activities,
+			int[] scheduledStarts, ActivityPlanningData activityPlanningData) {
+
+		int numTimeSlots = activityPlanningData.getNumTimeSlots();
+		LocalDate[] days = new LocalDate[totalDays];
+		List<List<DayActivityDTO>> dayActivities = new ArrayList<>(totalDays);
+		for (int d = 0; d < totalDays; d++) {
+			days[d] = startDate.plusDays(d);
+			dayActivities.add(new ArrayList<>());
+		}
+
+		for (int a = 0; a < scheduledStarts.length && a < activities.size(); a++) {
+			int slot = scheduledStarts[a];
+			if (slot < 0 || slot / numTimeSlots >= totalDays) {
+				continue;
+			}
+
+			int day = slot / numTimeSlots;
+			int startMinute = activityPlanningData.getStartMinute(a, slot);
+			if (startMinute < 0) {
+				log.warn("No start time for scheduled activity: {} on {}", activities.get(a).providerId(), days[day]);
+				continue;
+			}
+			dayActivities.get(day).add(createDayActivity(activities.get(a), days[day], startMinute));
+		}
+
+		List<DayPlanDTO> dayPlans = new ArrayList<>(totalDays);
+		for (int d = 0; d < totalDays; d++) {
+			dayPlans.add(new DayPlanDTO(days[d], dayActivities.get(d)));
+		}
+		return dayPlans;
+	}
+
+	private static DayActivityDTO createDayActivity(CommonActivity activity, LocalDate day, int startMinute) {
+
+		LocalDateTime startTime = LocalDateTime.of(day, LocalTime.ofSecondOfDay((long) startMinute * SECONDS_PER_MINUTE));
+		LocalDateTime endTime = startTime.plusMinutes(activity.duration().maxMinutes());
+
+		return new DayActivityDTO(activity.providerId(),
+				activity.title(),
+				activity.description(),
+				activity.reviews().averageRating(),
+				activity.reviews().totalReviews(),
+				activity.duration().maxMinutes(),
+				activity.pricing().amount(),
+				activity.pricing().currency(),
+				activity.images(),
+				activity.bookingUrl(),
+				startTime,
+				endTime,
+				activity.providerName());
+	}
+}
@@ -0,0 +1,156 @@
+package com.asialocalguide.gateway.planning.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.stereotype.Component;
+
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.ScheduleResult;
+import com.asialocalguide.gateway.planning.domain.ScheduleStatus;
+import com.asialocalguide.gateway.planning.domain.SchedulingMode;
+
+/**
+ * Pure-Java greedy {@link ActivityScheduler} used for previews and as a fallback when the CP-SAT
+ * solver times out or its native library is unavailable.
+ *
+ * <p>Activities are taken by decreasing rating density (rating per occupied time slot) and placed
+ * into their first available start slot that does not overlap an already scheduled activity. The
+ * reported gap is measured against the sum of the ratings of all schedulable activities.
+ */
+@Component
+public class GreedyActivityScheduler implements ActivityScheduler {
+
+	/** {@inheritDoc} */
+	@Override
+	public SchedulingMode getMode() {
+		return SchedulingMode.PREVIEW;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public ScheduleResult schedule(ActivityPlanningData activityPlanningData, int[] hintStarts) {
+		Objects.requireNonNull(activityPlanningData);
+
+		long startNanos = System.nanoTime();
+
+		int[] ratings = activityPlanningData.getRatings();
+		int[] durations = activityPlanningData.getDurations();
+		int numActivities = activityPlanningData.getNumActivities();
+		int horizon = activityPlanningData.getHorizon();
+
+		if (numActivities == 0 || horizon == 0 || ArrayUtils.isEmpty(ratings) || ArrayUtils.isEmpty(durations)) {
+			throw new IllegalArgumentException("ActivityData fields must not be empty");
+		}
+
+		if (durations.length != numActivities) {
+			throw new IllegalArgumentException("Inconsistent activity data sizes");
+		}
+
+		int[][] validStartTimeslots = new int[numActivities][];
+		for (int a = 0; a < numActivities; a++) {
+			validStartTimeslots[a] = activityPlanningData.availableSlots(a);
+		}
+
+		int[] scheduledStarts = computeStarts(IntStream.range(0, numActivities).toArray(),
+				validStartTimeslots,
+				ratings,
+				durations,
+				horizon,
+				hintStarts);
+
+		long scheduledRating = 0;
+		long ratingBound = 0;
+
+		for (int a = 0; a < numActivities; a++) {
+			if (scheduledStarts[a] >= 0) {
+				scheduledRating += ratings[a];
+			}
+			if (validStartTimeslots[a].length > 0
+					&& validStartTimeslots[a][0] + durations[a] + BUFFER_SLOTS <= horizon) {
+				ratingBound += ratings[a];
+			}
+		}
+
+		double relativeGap = (double) (ratingBound - scheduledRating) / Math.max(1, scheduledRating);
+
+		return new ScheduleResult(scheduledStarts,
+				relativeGap == 0 ? ScheduleStatus.OPTIMAL : ScheduleStatus.FEASIBLE,
+				relativeGap,
+				Duration.ofNanos(System.nanoTime() - startNanos));
+	}
+
+	/**
+	 * Greedy placement pass, also used by the CP-SAT scheduler to compute its solution hint.
+	 *
+	 * <p>Hinted starts are placed first when still valid and free, then the remaining activities
+	 * are taken by decreasing rating density and placed into their first free valid start slot.
+	 *
+	 * @param activityIndices     the activities to place
+	 * @param validStartTimeslots ascending absolute start slots per activity, indexed by activity
+	 * @param horizon             absolute slot by which every activity must have ended
+	 * @param hintStarts          absolute start slot per activity, {@code -1} if not hinted; may be {@code null}
+	 * @return absolute start slot per activity, {@code -1} for unscheduled activities
+	 */
+	static int[] computeStarts(int[] activityIndices, int[][] validStartTimeslots, int[] ratings, int[] durations,
+			long horizon, int[] hintStarts) {
+		int[] scheduledStarts = new int[ratings.length];
+		Arrays.fill(scheduledStarts, -1);
+		boolean[] occupied = new boolean[Math.toIntExact(horizon)];
+
+		if (hintStarts != null && hintStarts.length == ratings.length) {
+			for (int a : activityIndices) {
+				int slot = hintStarts[a];
+				int occupiedSlots = durations[a] + BUFFER_SLOTS;
+
+				if (slot >= 0 && slot + occupiedSlots <= horizon && validStartTimeslots[a] != null
+						&& Arrays.binarySearch(validStartTimeslots[a], slot) >= 0
+						&& isFree(occupied, slot, occupiedSlots)) {
+					Arrays.fill(occupied, slot, slot + occupiedSlots, true);
+					scheduledStarts[a] = slot;
+				}
+			}
+		}
+
+		for (int a : sortByRatingDensity(activityIndices, ratings, durations)) {
+			if (scheduledStarts[a] >= 0 || validStartTimeslots[a] == null) {
+				continue;
+			}
+			int occupiedSlots = durations[a] + BUFFER_SLOTS;
+
+			for (int slot : validStartTimeslots[a]) {
+				if (slot + occupiedSlots > horizon) {
+					break;
+				}
+				if (isFree(occupied, slot, occupiedSlots)) {
+					Arrays.fill(occupied, slot, slot + occupiedSlots, true);
+					scheduledStarts[a] = slot;
+					break;
+				}
+			}
+		}
+		return scheduledStarts;
+	}
+
+	private static int[] sortByRatingDensity(int[] activityIndices, int[] ratings, int[] durations) {
+		return IntStream.of(activityIndices)
+				.boxed()
+				.sorted(Comparator.comparingDouble((Integer a) -> (double) ratings[a] / (durations[a] + BUFFER_SLOTS))
+						.reversed())
+				.mapToInt(Integer::intValue)
+				.toArray();
+	}
+
+	private static boolean isFree(boolean[] occupied, int fromSlot, int numSlots) {
+		for (int slot = fromSlot; slot < fromSlot + numSlots; slot++) {
+			if (occupied[slot]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,231 @@
+package com.asialocalguide.gateway.planning.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.asialocalguide.gateway.destination.domain.LanguageCode;
+import com.asialocalguide.gateway.planning.config.PlanningJobProperties;
+import com.asialocalguide.gateway.planning.config.PlanningRequestProperties;
+import com.asialocalguide.gateway.planning.domain.Deadline;
+import com.asialocalguide.gateway.planning.domain.PlanningJobStatus;
+import com.asialocalguide.gateway.planning.domain.SchedulingMode;
+import com.asialocalguide.gateway.planning.dto.DayPlanDTO;
+import com.asialocalguide.gateway.planning.dto.PlanningJobDTO;
+import com.asialocalguide.gateway.planning.dto.PlanningRequestDTO;
+import com.asialocalguide.gateway.planning.exception.PlanningJobNotFoundException;
+import com.asialocalguide.gateway.planning.exception.SolverCapacityExceededException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs day plan generations as asynchronous jobs that clients poll, so that long trips do not hold
+ * a request thread for the whole generation.
+ *
+ * <p>Jobs run on a dedicated, bounded pool; once its queue is full new jobs are rejected with a
+ * {@link SolverCapacityExceededException}. A request identical to a job still pending or running,
+ * for the same scheduling mode and language, attaches to that job instead of starting another
+ * generation. Jobs in progress are always found; finished jobs and their results are kept in a
+ * bounded store for {@link PlanningJobProperties#resultTtl()} after they finished.
+ *
+ * <p>Publishes the jobs waiting for a free slot and the requests attached to an existing job as
+ * metrics.
+ */
+@Service
+@Slf4j
+public class PlanningJobService implements DisposableBean {
+
+	private static final String GENERATION_FAILED = "Planning generation failed";
+
+	private final PlanningService planningService;
+
+	private final PlanningRequestProperties planningRequestProperties;
+
+	private final PlanningJobProperties planningJobProperties;
+
+	private final ThreadPoolExecutor executor;
+
+	private final Cache<UUID, PlanningJob> finishedJobs;
+
+	private final Map<JobKey, PlanningJob> activeJobs = new ConcurrentHashMap<>();
+
+	private final Map<UUID, PlanningJob> activeJobsById = new ConcurrentHashMap<>();
+
+	private final Counter attachedCounter;
+
+	/**
+	 * @param planningService           service generating the day plans
+	 * @param planningRequestProperties time budget of each generation
+	 * @param planningJobProperties     pool size, queue capacity and result retention of the jobs
+	 * @param meterRegistry             registry publishing the job metrics
+	 */
+	public PlanningJobService(PlanningService planningService, PlanningRequestProperties planningRequestProperties,
+			PlanningJobProperties planningJobProperties, MeterRegistry meterRegistry) {
+		this.planningService = planningService;
+		this.planningRequestProperties = planningRequestProperties;
+		this.planningJobProperties = planningJobProperties;
+
+		int concurrency = Math.max(1, planningJobProperties.concurrency());
+		this.executor = new ThreadPoolExecutor(concurrency,
+				concurrency,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, planningJobProperties.queueCapacity())),
+				new CustomizableThreadFactory("planning-job-"),
+				new ThreadPoolExecutor.AbortPolicy());
+		this.finishedJobs = Caffeine.newBuilder()
+				.maximumSize(planningJobProperties.maxJobs())
+				.expireAfterWrite(planningJobProperties.resultTtl())
+				.build();
+
+		this.attachedCounter = Counter.builder("planning.jobs.attached")
+				.description("Planning job submissions attached to an identical job in progress")
+				.register(meterRegistry);
+		Gauge.builder("planning.jobs.queue.depth", executor, e -> e.getQueue().size())
+				.description("Planning jobs waiting for a free slot")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Submits a day plan generation, or attaches to an identical one still in progress.
+	 *
+	 * <p>The language of the current request is used for the generated activities.
+	 *
+	 * @param request        the planning parameters (dates, destination, activity tags)
+	 * @param schedulingMode the scheduler to use
+	 * @return the state of the job, {@link PlanningJobStatus#PENDING} for a new job
+	 * @throws SolverCapacityExceededException if too many jobs are waiting already
+	 */
+	public PlanningJobDTO submit(PlanningRequestDTO request, SchedulingMode schedulingMode) {
+		LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+		// Keyed by the language the generation runs in, so that unsupported languages share the English job
+		JobKey key = JobKey.of(request, schedulingMode, PlanningService.getLanguageCodeFromContext());
+
+		PlanningJob created = new PlanningJob(UUID.randomUUID());
+		// Indexed first, so that a request attaching to it can poll it right away
+		activeJobsById.put(created.id, created);
+		PlanningJob job = activeJobs.putIfAbsent(key, created);
+		if (job != null) {
+			activeJobsById.remove(created.id);
+			attachedCounter.increment();
+			log.debug("Planning request attached to job {}", job.id);
+			return job.toDTO();
+		}
+
+		try {
+			executor.execute(() -> run(created, key, request, schedulingMode, localeContext));
+		} catch (RejectedExecutionException e) {
+			activeJobs.remove(key, created);
+			activeJobsById.remove(created.id);
+			throw new SolverCapacityExceededException("Too many planning jobs pending, please retry later",
+					planningJobProperties.retryAfter());
+		}
+		return created.toDTO();
+	}
+
+	/**
+	 * Returns the state of a job, with its day plans once it succeeded.
+	 *
+	 * @param jobId the identifier returned on submission
+	 * @return the state of the job
+	 * @throws PlanningJobNotFoundException if the job does not exist or expired
+	 */
+	public PlanningJobDTO getJob(UUID jobId) {
+		PlanningJob job = activeJobsById.get(jobId);
+		if (job == null) {
+			job = finishedJobs.getIfPresent(jobId);
+		}
+		if (job == null) {
+			throw new PlanningJobNotFoundException("Planning job not found: " + jobId);
+		}
+		return job.toDTO();
+	}
+
+	private void run(PlanningJob job, JobKey key, PlanningRequestDTO request, SchedulingMode schedulingMode,
+			LocaleContext localeContext) {
+		job.status = PlanningJobStatus.RUNNING;
+		LocaleContextHolder.setLocaleContext(localeContext);
+		try {
+			// The time budget starts with the generation, not with the submission
+			List<DayPlanDTO> dayPlans = planningService.generateDayPlans(request,
+					schedulingMode,
+					Deadline.after(planningRequestProperties.timeout()));
+			job.dayPlans = dayPlans;
+			job.status = PlanningJobStatus.SUCCEEDED;
+		} catch (Exception e) {
+			log.error("Error during planning job {}", job.id, e);
+			job.error = GENERATION_FAILED;
+			job.status = PlanningJobStatus.FAILED;
+		} finally {
+			LocaleContextHolder.resetLocaleContext();
+			// Stored before leaving the active jobs, so that polling never misses it
+			finishedJobs.put(job.id, job);
+			activeJobsById.remove(job.id);
+			activeJobs.remove(key, job);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Identity of a generation: requests differing only by the order of their tags are identical.
+	 */
+	private record JobKey(PlanningRequestDTO request, SchedulingMode schedulingMode, LanguageCode language) {
+
+		static JobKey of(PlanningRequestDTO request, SchedulingMode schedulingMode, LanguageCode language) {
+			List<String> tags = request.activityTagIds() == null ? List.of()
+					: request.activityTagIds().stream().filter(Objects::nonNull).distinct().sorted().toList();
+			return new JobKey(new PlanningRequestDTO(request.startDate(),
+					request.endDate(),
+					request.destinationId(),
+					tags), schedulingMode, language);
+		}
+	}
+
+	/**
+	 * State of a job, written by the job thread and read by polling requests. The result is written
+	 * before the status, so that a finished status is always read with its result.
+	 */
+	private static final class PlanningJob {
+
+		private final UUID id;
+
+		private volatile PlanningJobStatus status = PlanningJobStatus.PENDING;
+
+		private volatile List<DayPlanDTO> dayPlans;
+
+		private volatile String error;
+
+		PlanningJob(UUID id) {
+			this.id = id;
+		}
+
+		PlanningJobDTO toDTO() {
+			PlanningJobStatus currentStatus = status;
+			return new PlanningJobDTO(id, currentStatus, dayPlans, error);
+		}
+	}
+}
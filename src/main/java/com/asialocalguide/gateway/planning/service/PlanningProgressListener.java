@@ -0,0 +1,36 @@
+package com.asialocalguide.gateway.planning.service;
+
+import java.util.List;
+
+import com.asialocalguide.gateway.planning.domain.CommonActivity;
+import com.asialocalguide.gateway.planning.dto.ScheduleUpdateDTO;
+
+/**
+ * Receives the progress of a day plan generation, so that a usable plan can be shown before the
+ * search for the best one is over.
+ *
+ * <p>Methods may be called from provider or solver threads, but never concurrently for the same
+ * generation.
+ */
+public interface PlanningProgressListener {
+
+	/** Listener ignoring the progress. */
+	PlanningProgressListener NONE = new PlanningProgressListener() {
+	};
+
+	/**
+	 * Called once the candidate activities of all providers are fetched and merged.
+	 *
+	 * @param activities the candidate activities, without cross-provider duplicates
+	 */
+	default void onCandidates(List<CommonActivity> activities) {
+	}
+
+	/**
+	 * Called with the first schedule and every better schedule found before the final one.
+	 *
+	 * @param update the schedule found so far
+	 */
+	default void onSchedule(ScheduleUpdateDTO update) {
+	}
+}
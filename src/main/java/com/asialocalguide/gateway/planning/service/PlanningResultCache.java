@@ -0,0 +1,115 @@
+package com.asialocalguide.gateway.planning.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.asialocalguide.gateway.destination.domain.LanguageCode;
+import com.asialocalguide.gateway.planning.config.PlanningResultCacheProperties;
+import com.asialocalguide.gateway.planning.domain.SchedulingMode;
+import com.asialocalguide.gateway.planning.dto.DayPlanDTO;
+import com.asialocalguide.gateway.planning.dto.PlanningRequestDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache of generated day plans keyed by the normalized planning request, scheduling mode and
+ * language.
+ *
+ * <p>Requests differing only in the order or duplication of their tags share a single entry, so
+ * that repeated anonymous requests for the same trip skip both the provider fetch and the solve.
+ * Only complete generations are stored by the caller: a plan degraded by a failed provider or an
+ * expired deadline would otherwise be served for the whole TTL.
+ *
+ * <p>Hit, miss and eviction metrics are published under the {@code planning.results} cache name.
+ */
+@Component
+@Slf4j
+public class PlanningResultCache {
+
+	static final String CACHE_NAME = "planning.results";
+
+	private final boolean enabled;
+
+	private final Cache<ResultKey, List<DayPlanDTO>> cache;
+
+	/**
+	 * @param planningResultCacheProperties TTL and size of the cache
+	 * @param meterRegistry                 registry publishing the cache metrics
+	 */
+	public PlanningResultCache(PlanningResultCacheProperties planningResultCacheProperties,
+			MeterRegistry meterRegistry) {
+		this.enabled = planningResultCacheProperties.enabled();
+
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(planningResultCacheProperties.maxEntries())
+				.expireAfterWrite(planningResultCacheProperties.ttl())
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+		if (enabled) {
+			log.info("Planning result cache started with a TTL of {} and {} max entries",
+					planningResultCacheProperties.ttl(),
+					planningResultCacheProperties.maxEntries());
+		}
+	}
+
+	/**
+	 * Returns the day plans cached for the request.
+	 *
+	 * @param request        the planning parameters (dates, destination, activity tags)
+	 * @param schedulingMode the scheduler the day plans were generated with
+	 * @param languageCode   the language of the activities
+	 * @return the cached day plans, or empty on a miss or when the cache is disabled
+	 */
+	public Optional<List<DayPlanDTO>> get(PlanningRequestDTO request, SchedulingMode schedulingMode,
+			LanguageCode languageCode) {
+		if (!enabled) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(cache.getIfPresent(ResultKey.of(request, schedulingMode, languageCode)));
+	}
+
+	/**
+	 * Stores the day plans generated for the request, replacing any previous ones.
+	 *
+	 * @param request        the planning parameters (dates, destination, activity tags)
+	 * @param schedulingMode the scheduler the day plans were generated with
+	 * @param languageCode   the language of the activities
+	 * @param dayPlans       the generated day plans
+	 */
+	public void put(PlanningRequestDTO request, SchedulingMode schedulingMode, LanguageCode languageCode,
+			List<DayPlanDTO> dayPlans) {
+		if (enabled) {
+			cache.put(ResultKey.of(request, schedulingMode, languageCode), List.copyOf(dayPlans));
+		}
+	}
+
+	/**
+	 * Canonical form of a planning request: tags are sorted and deduplicated.
+	 */
+	record ResultKey(LanguageCode language, SchedulingMode mode, UUID destinationId, LocalDate startDate,
+			LocalDate endDate, List<String> tags) {
+
+		static ResultKey of(PlanningRequestDTO request, SchedulingMode schedulingMode, LanguageCode languageCode) {
+			List<String> tags = request.activityTagIds() == null ? List.of()
+					: request.activityTagIds().stream().filter(Objects::nonNull).distinct().sorted().toList();
+
+			return new ResultKey(languageCode,
+					schedulingMode,
+					request.destinationId(),
+					request.startDate(),
+					request.endDate(),
+					tags);
+		}
+	}
+}
@@ -1,20 +1,24 @@
 package com.asialocalguide.gateway.planning.service;
 
-import java.time.Duration;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -29,33 +33,50 @@ import com.asialocalguide.gateway.appuser.service.AppUserService;
 import com.asialocalguide.gateway.core.domain.BookingProviderName;
 import com.asialocalguide.gateway.core.service.strategy.FetchPlanningDataStrategy;
 import com.asialocalguide.gateway.destination.domain.LanguageCode;
+import com.asialocalguide.gateway.planning.config.PlanningRequestProperties;
 import com.asialocalguide.gateway.planning.domain.Activity;
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
 import com.asialocalguide.gateway.planning.domain.CommonActivity;
 import com.asialocalguide.gateway.planning.domain.DayActivity;
 import com.asialocalguide.gateway.planning.domain.DayPlan;
+import com.asialocalguide.gateway.planning.domain.Deadline;
 import com.asialocalguide.gateway.planning.domain.Planning;
 import com.asialocalguide.gateway.planning.domain.ProviderPlanningData;
-import com.asialocalguide.gateway.planning.dto.DayActivityDTO;
+import com.asialocalguide.gateway.planning.domain.ScheduleResult;
+import com.asialocalguide.gateway.planning.domain.ScheduleStatus;
+import com.asialocalguide.gateway.planning.domain.SchedulingMode;
 import com.asialocalguide.gateway.planning.dto.DayPlanDTO;
 import com.asialocalguide.gateway.planning.dto.PlanningCreateRequestDTO;
 import com.asialocalguide.gateway.planning.dto.PlanningRequestDTO;
 import com.asialocalguide.gateway.planning.dto.PlanningSummaryDTO;
+import com.asialocalguide.gateway.planning.dto.ScheduleUpdateDTO;
 import com.asialocalguide.gateway.planning.exception.PlanningCreationException;
 import com.asialocalguide.gateway.planning.repository.PlanningRepository;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service for generating and persisting travel plannings.
  *
  * <p>Coordinates between {@link FetchPlanningDataStrategy} implementations to retrieve
- * provider activity data, invokes the constraint-programming scheduler, and handles the full
- * lifecycle of persisting a confirmed {@link Planning} including activity caching.
+ * provider activity data concurrently, merges it with the {@link ProviderPlanningDataMerger},
+ * invokes the constraint-programming scheduler, and handles the full lifecycle of persisting a
+ * confirmed {@link Planning} including activity caching.
+ *
+ * <p>Every schedule is published as {@code planning.schedule}, timing the solver wall time, and its
+ * relative gap as {@code planning.schedule.gap}, both tagged with the requested {@code mode}, the
+ * {@code status} the scheduler stopped at and whether the {@code fallback} scheduler made it, so that
+ * optimal plans can be told apart from merely feasible ones.
  */
 @Service
 @Slf4j
 public class PlanningService {
 
+	private static final ThreadFactory PROVIDER_FETCH_THREADS = Thread.ofVirtual().name("provider-fetch-", 0).factory();
+
 	private final List<FetchPlanningDataStrategy> fetchPlanningDataStrategies;
 
 	private final AppUserService appUserService;
@@ -64,120 +85,297 @@ public class PlanningService {
 
 	private final PlanningRepository planningRepository;
 
+	private final Map<SchedulingMode, ActivityScheduler> schedulers;
+
+	private final ScheduleHintStore scheduleHintStore;
+
+	private final PlanningResultCache planningResultCache;
+
+	private final PlanningRequestProperties planningRequestProperties;
+
+	private final MeterRegistry meterRegistry;
+
 	/**
 	 * @param fetchPlanningDataStrategies all registered provider strategies for fetching planning data
 	 * @param appUserService              service for resolving the app user
 	 * @param activityService             service for caching and retrieving activities
 	 * @param planningRepository          repository for persisting and querying plannings
+	 * @param activitySchedulers          all registered schedulers, one per {@link SchedulingMode}
+	 * @param scheduleHintStore           store of previous schedules used to warm-start regenerations
+	 * @param planningResultCache         cache of the day plans generated for identical requests
+	 * @param planningRequestProperties   time budget of the generations run without an explicit deadline
+	 * @param meterRegistry               registry publishing the schedule metrics
 	 */
 	public PlanningService(List<FetchPlanningDataStrategy> fetchPlanningDataStrategies, AppUserService appUserService,
-			ActivityService activityService, PlanningRepository planningRepository) {
+			ActivityService activityService, PlanningRepository planningRepository,
+			List<ActivityScheduler> activitySchedulers, ScheduleHintStore scheduleHintStore,
+			PlanningResultCache planningResultCache, PlanningRequestProperties planningRequestProperties,
+			MeterRegistry meterRegistry) {
 		this.fetchPlanningDataStrategies = fetchPlanningDataStrategies;
 		this.appUserService = appUserService;
 		this.activityService = activityService;
 		this.planningRepository = planningRepository;
+		this.schedulers = activitySchedulers.stream()
+				.collect(Collectors.toMap(ActivityScheduler::getMode,
+						Function.identity(),
+						(first, second) -> first,
+						() -> new EnumMap<>(SchedulingMode.class)));
+		this.scheduleHintStore = scheduleHintStore;
+		this.planningResultCache = planningResultCache;
+		this.planningRequestProperties = planningRequestProperties;
+		this.meterRegistry = meterRegistry;
 	}
 
 	/**
-	 * Generates a suggested day-by-day activity schedule for the given request.
-	 *
-	 * <p>Fetches planning data from all registered providers, uses the first successful result,
-	 * runs the CP-SAT scheduler, and maps the solution to a list of {@link DayPlanDTO}s.
+	 * Generates a suggested day-by-day activity schedule for the given request using the
+	 * {@link SchedulingMode#OPTIMAL} scheduler.
 	 *
 	 * @param request the planning parameters (dates, destination, activity tags)
 	 * @return ordered list of day plans; empty if no provider data is available
+	 * @see #generateDayPlans(PlanningRequestDTO, SchedulingMode)
 	 */
 	public List<DayPlanDTO> generateDayPlans(PlanningRequestDTO request) {
+		return generateDayPlans(request, SchedulingMode.OPTIMAL);
+	}
+
+	/**
+	 * Generates a suggested day-by-day activity schedule for the given request, within the
+	 * configured {@link PlanningRequestProperties#timeout()}.
+	 *
+	 * @param request        the planning parameters (dates, destination, activity tags)
+	 * @param schedulingMode the scheduler to use
+	 * @return ordered list of day plans; empty if no provider data is available
+	 * @see #generateDayPlans(PlanningRequestDTO, SchedulingMode, Deadline)
+	 */
+	public List<DayPlanDTO> generateDayPlans(PlanningRequestDTO request, SchedulingMode schedulingMode) {
+		return generateDayPlans(request, schedulingMode, Deadline.after(planningRequestProperties.timeout()));
+	}
+
+	/**
+	 * Generates a suggested day-by-day activity schedule for the given request.
+	 *
+	 * <p>Fetches planning data from all registered providers concurrently, merges the successful
+	 * results into one set of activities without cross-provider duplicates, runs the
+	 * {@link ActivityScheduler} of the requested mode, and maps the schedule to a list of
+	 * {@link DayPlanDTO}s. When the optimal scheduler finds no schedule in time or is unavailable,
+	 * the {@link SchedulingMode#PREVIEW} scheduler is used as a fallback. The last schedule generated
+	 * for the same destination and dates is used as a starting point of the search.
+	 *
+	 * <p>Every stage runs within the deadline: provider calls still running when it expires are
+	 * cancelled, the solver stops by the deadline, and once the deadline expired the
+	 * {@link SchedulingMode#PREVIEW} scheduler is used directly, so that a partial plan is returned
+	 * in time rather than a complete one too late.
+	 *
+	 * <p>Day plans generated from every provider within the deadline, by the scheduler of the
+	 * requested mode, are cached per request, scheduling mode and language, and returned as they are
+	 * for identical requests until they expire.
+	 *
+	 * @param request        the planning parameters (dates, destination, activity tags)
+	 * @param schedulingMode the scheduler to use
+	 * @param deadline       deadline of the request
+	 * @return ordered list of day plans; empty if no provider data is available
+	 * @throws com.asialocalguide.gateway.planning.exception.SolverCapacityExceededException if all solvers are busy
+	 */
+	public List<DayPlanDTO> generateDayPlans(PlanningRequestDTO request, SchedulingMode schedulingMode,
+			Deadline deadline) {
+		return generateDayPlans(request, schedulingMode, deadline, PlanningProgressListener.NONE);
+	}
+
+	/**
+	 * Generates a suggested day-by-day activity schedule for the given request, reporting its progress.
+	 *
+	 * <p>The listener receives the candidate activities once fetched, then a quick
+	 * {@link SchedulingMode#PREVIEW} schedule and every better schedule found by the optimal
+	 * scheduler, before the final day plans are returned. Cached day plans are returned without
+	 * progress.
+	 *
+	 * @param request        the planning parameters (dates, destination, activity tags)
+	 * @param schedulingMode the scheduler to use
+	 * @param deadline       deadline of the request
+	 * @param listener       listener receiving the progress of the generation
+	 * @return ordered list of day plans; empty if no provider data is available
+	 * @throws com.asialocalguide.gateway.planning.exception.SolverCapacityExceededException if all solvers are busy
+	 * @see #generateDayPlans(PlanningRequestDTO, SchedulingMode, Deadline)
+	 */
+	public List<DayPlanDTO> generateDayPlans(PlanningRequestDTO request, SchedulingMode schedulingMode,
+			Deadline deadline, PlanningProgressListener listener) {
 
 		LanguageCode languageCode = getLanguageCodeFromContext();
+		Optional<List<DayPlanDTO>> cachedDayPlans = planningResultCache.get(request, schedulingMode, languageCode);
+		if (cachedDayPlans.isPresent()) {
+			log.debug("Returning cached day plans for destination: {}", request.destinationId());
+			return cachedDayPlans.get();
+		}
 
-		List<ProviderPlanningData> providerDataList = fetchPlanningDataStrategies.stream().map(strategy -> {
-			try {
-				return strategy.fetchProviderPlanningData(request, languageCode);
-			} catch (Exception e) {
-				log.error("Error during fetching of activities from Provider : {}", strategy.getProviderName(), e);
-				return null;
-			}
-		}).filter(Objects::nonNull).toList();
+		ProviderFetchResult fetchResult = fetchProviderPlanningData(request, languageCode, deadline);
 
-		if (providerDataList.isEmpty()) {
+		if (fetchResult.providerDataList().isEmpty()) {
 			return List.of();
 		}
 
-		// Implement merging of ProviderActivityData when using multiple providers
-		ProviderPlanningData result = providerDataList.getFirst();
+		ProviderPlanningData result = ProviderPlanningDataMerger.merge(fetchResult.providerDataList());
+		listener.onCandidates(result.activities());
+
+		Consumer<ScheduleResult> onImprovement = null;
+		if (listener != PlanningProgressListener.NONE) {
+			onImprovement = improved -> listener.onSchedule(new ScheduleUpdateDTO(improved.status(),
+					improved.relativeGap(),
+					DayPlanAssembler.createDayPlans(request.startDate(),
+							request.getDuration(),
+							result.activities(),
+							improved.scheduledStarts(),
+							result.activityPlanningData())));
+		}
+
+		// Schedule the activities, warm-started from the previous schedule of the same request
+		int[] hintStarts = scheduleHintStore.getHintStarts(request, result.activities());
+		SchedulingOutcome outcome = scheduleActivities(result.activityPlanningData(),
+				schedulingMode,
+				hintStarts,
+				deadline,
+				onImprovement);
+		ScheduleResult scheduleResult = outcome.result();
+
+		if (scheduleResult.status().hasSolution()) {
+			scheduleHintStore.store(request, result.activities(), scheduleResult.scheduledStarts());
+		}
 
-		// Generate availability 3d array using scheduler
-		boolean[][][] schedule = ActivitySchedulerWithRatings.scheduleActivities(result.activityPlanningData());
+		log.info("Scheduler stopped with status: {}, relative gap: {}, wall time: {} ms for {} activities",
+				scheduleResult.status(),
+				scheduleResult.relativeGap(),
+				scheduleResult.wallTime().toMillis(),
+				result.activities().size());
+		recordSchedule(schedulingMode, outcome);
 
-		return createDayPlans(request.startDate(),
+		List<DayPlanDTO> dayPlans = DayPlanAssembler.createDayPlans(request.startDate(),
 				request.getDuration(),
 				result.activities(),
-				schedule,
-				result.activityPlanningData().getValidStartTimes());
+				scheduleResult.scheduledStarts(),
+				result.activityPlanningData());
+
+		// A plan missing a provider, cut by the deadline or made by the fallback is served once, not for the whole TTL
+		if (fetchResult.complete() && outcome.fromRequestedMode() && scheduleResult.status().hasSolution()
+				&& !deadline.isExpired()) {
+			planningResultCache.put(request, schedulingMode, languageCode, dayPlans);
+		}
+		return dayPlans;
 	}
 
-	private List<DayPlanDTO> createDayPlans(LocalDate startDate, long totalDays, List<CommonActivity> activities,
-			boolean[][][] schedule, String[][][] startTimes) {
+	/**
+	 * Fetches the planning data of all providers concurrently, each on its own virtual thread, so
+	 * that the fetch takes as long as the slowest provider rather than the sum of all. Providers
+	 * that fail are skipped, and providers still running when the deadline expires are cancelled.
+	 */
+	private ProviderFetchResult fetchProviderPlanningData(PlanningRequestDTO request, LanguageCode languageCode,
+			Deadline deadline) {
 
-		List<DayPlanDTO> dayPlans = new ArrayList<>();
+		ExecutorService executor = Executors.newThreadPerTaskExecutor(PROVIDER_FETCH_THREADS);
+		try {
+			Map<FetchPlanningDataStrategy, Future<ProviderPlanningData>> strategyToCalls = new LinkedHashMap<>();
+			for (FetchPlanningDataStrategy strategy : fetchPlanningDataStrategies) {
+				strategyToCalls.put(strategy,
+						executor.submit(() -> strategy.fetchProviderPlanningData(request, languageCode, deadline)));
+			}
 
-		for (int dayIndex = 0; dayIndex < totalDays; dayIndex++) {
-			LocalDate currentDay = startDate.plusDays(dayIndex);
+			List<ProviderPlanningData> providerDataList = new ArrayList<>();
+			boolean complete = true;
+			for (Map.Entry<FetchPlanningDataStrategy, Future<ProviderPlanningData>> entry : strategyToCalls.entrySet()) {
+				try {
+					ProviderPlanningData providerData = entry.getValue()
+							.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+					if (providerData != null) {
+						providerDataList.add(providerData);
+					}
+				} catch (ExecutionException e) {
+					complete = false;
+					log.error("Error during fetching of activities from Provider : {}",
+							entry.getKey().getProviderName(),
+							e.getCause());
+				} catch (TimeoutException e) {
+					complete = false;
+					log.warn("Provider : {} did not answer before the request deadline", entry.getKey().getProviderName());
+				} catch (InterruptedException e) {
+					complete = false;
+					Thread.currentThread().interrupt();
+					log.warn("Interrupted while fetching activities from Provider : {}", entry.getKey().getProviderName());
+					break;
+				}
+			}
+			return new ProviderFetchResult(providerDataList, complete);
+		} finally {
+			// Cancels the providers still running without waiting for them
+			executor.shutdownNow();
+		}
+	}
 
-			List<DayActivityDTO> dayActivities = assignActivitiesForDay(activities,
-					schedule,
-					startTimes,
-					dayIndex,
-					currentDay);
+	/**
+	 * Runs the scheduler of the requested mode, falling back to the {@link SchedulingMode#PREVIEW}
+	 * scheduler. When improvements are followed, the preview schedule is reported first so that a
+	 * usable plan is available while the optimal scheduler searches.
+	 *
+	 * @return the schedule, with whether it was made by the scheduler of the requested mode
+	 */
+	private SchedulingOutcome scheduleActivities(ActivityPlanningData activityPlanningData,
+			SchedulingMode schedulingMode, int[] hintStarts, Deadline deadline,
+			Consumer<ScheduleResult> onImprovement) {
+		ActivityScheduler fallbackScheduler = schedulers.get(SchedulingMode.PREVIEW);
+		ActivityScheduler scheduler = schedulers.getOrDefault(schedulingMode, fallbackScheduler);
+
+		if (scheduler == null) {
+			throw new IllegalStateException("No ActivityScheduler registered for mode: " + schedulingMode);
+		}
 
-			dayPlans.add(new DayPlanDTO(currentDay, dayActivities));
+		if (scheduler == fallbackScheduler) {
+			return new SchedulingOutcome(scheduler.schedule(activityPlanningData, hintStarts),
+					scheduler.getMode() == schedulingMode);
 		}
 
-		return dayPlans;
-	}
+		if (deadline.isExpired() && fallbackScheduler != null) {
+			log.warn("Request deadline expired before scheduling, using fallback scheduler");
+			return new SchedulingOutcome(fallbackScheduler.schedule(activityPlanningData, hintStarts), false);
+		}
 
-	private List<DayActivityDTO> assignActivitiesForDay(List<CommonActivity> activities, boolean[][][] schedule,
-			String[][][] startTimes, int dayIndex, LocalDate day) {
+		if (onImprovement != null && fallbackScheduler != null) {
+			onImprovement.accept(fallbackScheduler.schedule(activityPlanningData, hintStarts));
+		}
 
-		List<DayActivityDTO> dayActivities = new ArrayList<>();
+		try {
+			ScheduleResult scheduleResult = scheduler.schedule(activityPlanningData, hintStarts, deadline, onImprovement);
 
-		for (int a = 0; a < schedule.length; a++) { // Iterate over activities
-			for (int t = 0; t < schedule[a][dayIndex].length; t++) { // Iterate over timeslots
-				if (schedule[a][dayIndex][t]) { // If activity is scheduled in this timeslot
-					String startHour = startTimes[a][dayIndex][t];
+			if (scheduleResult.status() != ScheduleStatus.UNKNOWN || fallbackScheduler == null) {
+				return new SchedulingOutcome(scheduleResult, true);
+			}
+			log.warn("Scheduler for mode: {} found no schedule in time, using fallback scheduler", schedulingMode);
 
-					dayActivities.add(createDayActivity(activities.get(a), day, startHour));
-				}
+		} catch (IllegalStateException e) {
+			if (fallbackScheduler == null) {
+				throw e;
 			}
+			log.error("Scheduler for mode: {} failed, using fallback scheduler", schedulingMode, e);
 		}
-		return dayActivities;
-	}
 
-	private DayActivityDTO createDayActivity(CommonActivity activity, LocalDate day, String startHour) {
-
-		LocalDateTime startTime = toLocalDateTime(day, startHour);
-		LocalDateTime endTime = startTime.plus(Duration.ofMinutes(activity.duration().maxMinutes()));
-
-		return new DayActivityDTO(activity.providerId(),
-				activity.title(),
-				activity.description(),
-				activity.reviews().averageRating(),
-				activity.reviews().totalReviews(),
-				activity.duration().maxMinutes(),
-				activity.pricing().amount(),
-				activity.pricing().currency(),
-				activity.images(),
-				activity.bookingUrl(),
-				startTime,
-				endTime,
-				activity.providerName());
+		return new SchedulingOutcome(fallbackScheduler.schedule(activityPlanningData, hintStarts), false);
 	}
 
-	private LocalDateTime toLocalDateTime(LocalDate date, String timeStr) {
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-		LocalTime time = LocalTime.parse(timeStr, formatter);
-		return date.atTime(time);
+	private void recordSchedule(SchedulingMode schedulingMode, SchedulingOutcome outcome) {
+		ScheduleResult scheduleResult = outcome.result();
+		String status = scheduleResult.status().name();
+		String fallback = String.valueOf(!outcome.fromRequestedMode());
+
+		Timer.builder("planning.schedule")
+				.description("Solver wall time of the schedules of generated plannings")
+				.tag("mode", schedulingMode.name())
+				.tag("status", status)
+				.tag("fallback", fallback)
+				.register(meterRegistry)
+				.record(scheduleResult.wallTime());
+		DistributionSummary.builder("planning.schedule.gap")
+				.description("Relative gap between the schedules of generated plannings and their best bound")
+				.tag("mode", schedulingMode.name())
+				.tag("status", status)
+				.tag("fallback", fallback)
+				.register(meterRegistry)
+				.record(scheduleResult.relativeGap());
 	}
 
 	/**
@@ -436,7 +634,10 @@ public class PlanningService {
 				.toList();
 	}
 
-	private static LanguageCode getLanguageCodeFromContext() {
+	/**
+	 * Returns the language of the current request, {@link LanguageCode#EN} when it is not supported.
+	 */
+	static LanguageCode getLanguageCodeFromContext() {
 		Locale locale = LocaleContextHolder.getLocale();
 
 		return LanguageCode.from(locale.getLanguage()).orElse(LanguageCode.EN);
@@ -451,4 +652,16 @@ public class PlanningService {
 								authProviderName,
 								userProviderId)));
 	}
+
+	/**
+	 * Planning data fetched from the providers, complete when every provider answered in time.
+	 */
+	private record ProviderFetchResult(List<ProviderPlanningData> providerDataList, boolean complete) {
+	}
+
+	/**
+	 * Schedule of a generation, made by the scheduler of the requested mode or by the fallback.
+	 */
+	private record SchedulingOutcome(ScheduleResult result, boolean fromRequestedMode) {
+	}
 }
@@ -0,0 +1,165 @@
+package com.asialocalguide.gateway.planning.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.CommonActivity;
+import com.asialocalguide.gateway.planning.domain.ProviderPlanningData;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Merges the planning data of several booking providers into a single {@link ProviderPlanningData}
+ * that the scheduler solves at once.
+ *
+ * <p>The same tour is often sold by several providers. Activities of different providers with the
+ * same normalized title and durations within {@link #DUPLICATE_DURATION_TOLERANCE_MINUTES} of each
+ * other are considered duplicates, and only the best rated one is kept, so that the solver neither
+ * spends time on nor schedules the same tour twice.
+ */
+@Slf4j
+public class ProviderPlanningDataMerger {
+
+	/**
+	 * Largest difference between the durations of two activities of the same title that are still
+	 * considered the same tour.
+	 */
+	static final int DUPLICATE_DURATION_TOLERANCE_MINUTES = 30;
+
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+	private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private ProviderPlanningDataMerger() {
+	}
+
+	/**
+	 * Merges the planning data of several providers, dropping cross-provider duplicates.
+	 *
+	 * <p>Activities keep the order of the providers and of each provider. Planning data whose horizon
+	 * differs from the first one is skipped.
+	 *
+	 * @param providerDataList planning data of each provider; must not be empty
+	 * @return the merged planning data, or the only element if there is a single one
+	 * @throws IllegalArgumentException if the list is empty
+	 */
+	public static ProviderPlanningData merge(List<ProviderPlanningData> providerDataList) {
+		if (providerDataList.isEmpty()) {
+			throw new IllegalArgumentException("No provider planning data to merge");
+		}
+		if (providerDataList.size() == 1) {
+			return providerDataList.getFirst();
+		}
+
+		ProviderPlanningData first = providerDataList.getFirst();
+		int numDays = first.activityPlanningData().getNumDays();
+		int numTimeSlots = first.activityPlanningData().getNumTimeSlots();
+
+		List<Candidate> retained = new ArrayList<>();
+		Map<String, List<Integer>> titleToRetained = new HashMap<>();
+		int duplicates = 0;
+
+		for (ProviderPlanningData providerData : providerDataList) {
+			ActivityPlanningData planningData = providerData.activityPlanningData();
+			if (planningData.getNumDays() != numDays || planningData.getNumTimeSlots() != numTimeSlots) {
+				log.warn("Skipping provider planning data with a {}x{} horizon instead of {}x{}",
+						planningData.getNumDays(),
+						planningData.getNumTimeSlots(),
+						numDays,
+						numTimeSlots);
+				continue;
+			}
+
+			for (int a = 0; a < providerData.activities().size(); a++) {
+				Candidate candidate = new Candidate(providerData.activities().get(a), planningData, a);
+				String title = normalizeTitle(candidate.activity());
+				if (title.isEmpty()) {
+					retained.add(candidate);
+					continue;
+				}
+
+				List<Integer> sameTitle = titleToRetained.computeIfAbsent(title, key -> new ArrayList<>());
+				int duplicateOf = findDuplicate(retained, sameTitle, candidate);
+				if (duplicateOf < 0) {
+					sameTitle.add(retained.size());
+					retained.add(candidate);
+					continue;
+				}
+
+				duplicates++;
+				if (candidate.rating() > retained.get(duplicateOf).rating()) {
+					retained.set(duplicateOf, candidate);
+				}
+			}
+		}
+
+		if (duplicates > 0) {
+			log.info("Dropped {} duplicate activities across {} providers", duplicates, providerDataList.size());
+		}
+
+		return toProviderPlanningData(retained, numDays, numTimeSlots, first);
+	}
+
+	private static int findDuplicate(List<Candidate> retained, List<Integer> sameTitle, Candidate candidate) {
+		for (int index : sameTitle) {
+			Candidate other = retained.get(index);
+			if (other.activity().providerName() != candidate.activity().providerName()
+					&& Math.abs(maxMinutes(other.activity()) - maxMinutes(candidate.activity()))
+							<= DUPLICATE_DURATION_TOLERANCE_MINUTES) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	private static ProviderPlanningData toProviderPlanningData(List<Candidate> retained, int numDays,
+			int numTimeSlots, ProviderPlanningData first) {
+		int[] ratings = new int[retained.size()];
+		int[] durations = new int[retained.size()];
+		for (int i = 0; i < retained.size(); i++) {
+			ratings[i] = retained.get(i).rating();
+			durations[i] = retained.get(i).planningData().getDurations()[retained.get(i).index()];
+		}
+
+		ActivityPlanningData merged = new ActivityPlanningData(numDays, numTimeSlots, ratings, durations);
+		List<CommonActivity> activities = new ArrayList<>(retained.size());
+		for (int i = 0; i < retained.size(); i++) {
+			Candidate candidate = retained.get(i);
+			merged.copyAvailability(i, candidate.planningData(), candidate.index());
+			activities.add(candidate.activity());
+		}
+
+		return new ProviderPlanningData(activities, merged, first.startDate());
+	}
+
+	private static String normalizeTitle(CommonActivity activity) {
+		if (activity.title() == null) {
+			return "";
+		}
+		String decomposed = Normalizer.normalize(activity.title(), Normalizer.Form.NFD);
+		String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+		return NON_ALPHANUMERIC.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+	}
+
+	private static int maxMinutes(CommonActivity activity) {
+		return activity.duration() == null || activity.duration().maxMinutes() == null
+				? 0
+				: activity.duration().maxMinutes();
+	}
+
+	/**
+	 * Activity of a provider with its position in the provider planning data.
+	 */
+	private record Candidate(CommonActivity activity, ActivityPlanningData planningData, int index) {
+
+		int rating() {
+			return planningData.getRatings()[index];
+		}
+	}
+}
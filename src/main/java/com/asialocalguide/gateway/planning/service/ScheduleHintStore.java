@@ -0,0 +1,94 @@
+package com.asialocalguide.gateway.planning.service;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.asialocalguide.gateway.planning.config.SchedulerProperties;
+import com.asialocalguide.gateway.planning.domain.CommonActivity;
+import com.asialocalguide.gateway.planning.dto.PlanningRequestDTO;
+
+/**
+ * Bounded in-memory store of the last schedule generated per destination and dates.
+ *
+ * <p>Schedules are kept as absolute start slots per provider activity id so that they can be mapped
+ * back onto a new candidate list, whose order and content may differ, and used as a warm start
+ * when a planning is regenerated. The least recently used entries are evicted once the configured
+ * capacity is reached.
+ */
+@Component
+public class ScheduleHintStore {
+
+	private final Map<HintKey, Map<String, Integer>> startsByKey;
+
+	/**
+	 * @param schedulerProperties solver profile providing the warm start capacity
+	 */
+	public ScheduleHintStore(SchedulerProperties schedulerProperties) {
+		int capacity = schedulerProperties.hints() != null ? schedulerProperties.hints().warmStartCapacity() : 0;
+
+		this.startsByKey = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<HintKey, Map<String, Integer>> eldest) {
+				return size() > capacity;
+			}
+		});
+	}
+
+	/**
+	 * Returns the starts of the last schedule for the request, mapped onto the given activities.
+	 *
+	 * @param request    the planning request identifying destination and dates
+	 * @param activities the candidate activities, in scheduler index order
+	 * @return absolute start slot per activity, {@code -1} for activities not in the last schedule;
+	 *         {@code null} if no schedule is stored for the request
+	 */
+	public int[] getHintStarts(PlanningRequestDTO request, List<CommonActivity> activities) {
+		Map<String, Integer> previousStarts = startsByKey.get(HintKey.of(request));
+
+		if (previousStarts == null) {
+			return null;
+		}
+
+		int[] hintStarts = new int[activities.size()];
+		for (int a = 0; a < hintStarts.length; a++) {
+			hintStarts[a] = previousStarts.getOrDefault(activities.get(a).providerId(), -1);
+		}
+		return hintStarts;
+	}
+
+	/**
+	 * Stores the schedule generated for the request, replacing any previous one.
+	 *
+	 * @param request         the planning request identifying destination and dates
+	 * @param activities      the candidate activities, in scheduler index order
+	 * @param scheduledStarts absolute start slot per activity, {@code -1} if not scheduled
+	 */
+	public void store(PlanningRequestDTO request, List<CommonActivity> activities, int[] scheduledStarts) {
+		Map<String, Integer> starts = new HashMap<>();
+
+		for (int a = 0; a < scheduledStarts.length && a < activities.size(); a++) {
+			if (scheduledStarts[a] >= 0) {
+				starts.put(activities.get(a).providerId(), scheduledStarts[a]);
+			}
+		}
+
+		startsByKey.put(HintKey.of(request), Map.copyOf(starts));
+	}
+
+	/**
+	 * Identifies regenerations of the same planning.
+	 */
+	private record HintKey(UUID destinationId, LocalDate startDate, LocalDate endDate) {
+
+		static HintKey of(PlanningRequestDTO request) {
+			return new HintKey(request.destinationId(), request.startDate(), request.endDate());
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package com.asialocalguide.gateway.planning.service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.asialocalguide.gateway.planning.config.SchedulerProperties;
+import com.asialocalguide.gateway.planning.config.SolverPoolProperties;
+import com.asialocalguide.gateway.planning.domain.Deadline;
+import com.asialocalguide.gateway.planning.exception.SolverCapacityExceededException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dedicated, bounded executor for CP-SAT solves.
+ *
+ * <p>Each native solve can use several search workers, so solves run on a fixed pool sized to the
+ * available cores instead of on request threads. Solves beyond the pool size wait in a bounded queue;
+ * once the queue is full new solves are rejected immediately with a
+ * {@link SolverCapacityExceededException} so that bursts degrade gracefully.
+ *
+ * <p>Publishes the queue depth, active solves, queue wait time and rejections as metrics.
+ */
+@Component
+@Slf4j
+public class SolverExecutor implements DisposableBean {
+
+	/**
+	 * Time a solve is still awaited after the deadline: solves stop by the deadline, so their result
+	 * arrives shortly after it and is worth more than a fallback schedule.
+	 */
+	private static final Duration RESULT_GRACE = Duration.ofMillis(500);
+
+	private final ThreadPoolExecutor executor;
+
+	private final SolverPoolProperties solverPoolProperties;
+
+	private final Timer queueWaitTimer;
+
+	private final Counter rejectedCounter;
+
+	/**
+	 * @param solverPoolProperties pool size, queue capacity and retry delay
+	 * @param schedulerProperties  solver profile, used to derive the pool size from the worker count
+	 * @param meterRegistry        registry publishing the pool metrics
+	 */
+	public SolverExecutor(SolverPoolProperties solverPoolProperties, SchedulerProperties schedulerProperties,
+			MeterRegistry meterRegistry) {
+		this.solverPoolProperties = solverPoolProperties;
+
+		int poolSize = resolvePoolSize(solverPoolProperties, schedulerProperties);
+		int queueCapacity = Math.max(1, solverPoolProperties.queueCapacity());
+		this.executor = new ThreadPoolExecutor(poolSize,
+				poolSize,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				new CustomizableThreadFactory("planning-solver-"),
+				new ThreadPoolExecutor.AbortPolicy());
+
+		this.queueWaitTimer = Timer.builder("planning.solver.queue.wait")
+				.description("Time spent by a solve waiting for a free solver")
+				.register(meterRegistry);
+		this.rejectedCounter = Counter.builder("planning.solver.rejected")
+				.description("Solves rejected because the solver queue was full")
+				.register(meterRegistry);
+		Gauge.builder("planning.solver.queue.depth", executor, e -> e.getQueue().size())
+				.description("Solves waiting for a free solver")
+				.register(meterRegistry);
+		Gauge.builder("planning.solver.active", executor, ThreadPoolExecutor::getActiveCount)
+				.description("Solves currently running")
+				.register(meterRegistry);
+
+		log.info("Solver pool started with {} solvers and a queue capacity of {}", poolSize, queueCapacity);
+	}
+
+	/**
+	 * Runs the solve on the solver pool and waits for its result.
+	 *
+	 * @param solve the solve to run
+	 * @param <T>   the solve result type
+	 * @return the result of the solve
+	 * @throws SolverCapacityExceededException if the solver pool and its queue are full
+	 * @throws IllegalStateException           if the waiting thread is interrupted
+	 */
+	public <T> T execute(Callable<T> solve) {
+		return execute(solve, null);
+	}
+
+	/**
+	 * Runs the solve on the solver pool and waits for its result until the deadline of the request.
+	 *
+	 * <p>A solve still queued or running when the deadline expires is cancelled, so that an expired
+	 * request neither waits for a free solver nor occupies one.
+	 *
+	 * @param solve    the solve to run
+	 * @param deadline deadline of the request; {@code null} to wait without limit
+	 * @param <T>      the solve result type
+	 * @return the result of the solve
+	 * @throws SolverCapacityExceededException if the solver pool and its queue are full
+	 * @throws IllegalStateException           if the deadline expires or the waiting thread is interrupted
+	 */
+	public <T> T execute(Callable<T> solve, Deadline deadline) {
+		long submittedAt = System.nanoTime();
+
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+				return solve.call();
+			});
+		} catch (RejectedExecutionException e) {
+			rejectedCounter.increment();
+			throw new SolverCapacityExceededException("All solvers are busy, please retry later",
+					solverPoolProperties.retryAfter());
+		}
+
+		try {
+			if (deadline == null) {
+				return future.get();
+			}
+			return future.get(deadline.remainingNanos() + RESULT_GRACE.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			// A cancelled solve would otherwise hold its queue slot until a solver dequeues it
+			executor.remove((Runnable) future);
+			throw new IllegalStateException("Request deadline expired while waiting for the solver", e);
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the solver", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException("Solver failed", e.getCause());
+		}
+	}
+
+	private static int resolvePoolSize(SolverPoolProperties solverPoolProperties,
+			SchedulerProperties schedulerProperties) {
+		if (solverPoolProperties.size() > 0) {
+			return solverPoolProperties.size();
+		}
+		int cores = Runtime.getRuntime().availableProcessors();
+		return Math.max(1, cores / Math.max(1, schedulerProperties.numWorkers()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,133 @@
+package com.asialocalguide.gateway.viator.client;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import com.asialocalguide.gateway.viator.exception.ViatorApiException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Single-flight deduplication of identical upstream calls.
+ *
+ * <p>The first caller for a given (endpoint, language, parameters) key runs the call on its own
+ * thread; callers arriving while it is in flight wait for it and share its result or exception,
+ * whether they run on virtual threads or on the common pool. The key is released as soon as the
+ * call completes, so nothing is cached beyond the lifetime of the exchange.
+ *
+ * <p>A failure caused by the cancellation of the first caller is not shared: the waiting callers,
+ * which may belong to other requests, start over and one of them runs the call again. Waiting
+ * callers can themselves be cancelled by interruption.
+ *
+ * <p>The number of calls served by another caller's exchange is published per endpoint as
+ * {@code viator.client.coalesced}.
+ */
+class InFlightRequestCoalescer {
+
+	/** Completes an exchange whose first caller was interrupted, so that its waiting callers retry. */
+	private static final Object RETRY = new Object();
+
+	private final Map<RequestKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	private final Map<ViatorEndpoint, Counter> coalescedCounters = new EnumMap<>(ViatorEndpoint.class);
+
+	/**
+	 * @param meterRegistry registry publishing the coalesced call counters
+	 */
+	InFlightRequestCoalescer(MeterRegistry meterRegistry) {
+		for (ViatorEndpoint endpoint : ViatorEndpoint.values()) {
+			coalescedCounters.put(endpoint,
+					Counter.builder("viator.client.coalesced")
+							.description("Viator calls served by an identical call already in flight")
+							.tag("endpoint", endpoint.name())
+							.register(meterRegistry));
+		}
+	}
+
+	/**
+	 * Runs the call, or joins the identical call already in flight.
+	 *
+	 * @param endpoint the called endpoint
+	 * @param language the {@code Accept-Language} of the call, {@code null} if none
+	 * @param params   the path parameters or request body identifying the call; must implement
+	 *                 {@code equals} and {@code hashCode}
+	 * @param call     the upstream call
+	 * @param <T>      the call result type
+	 * @return the result of the call
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T execute(ViatorEndpoint endpoint, String language, Object params, Supplier<T> call) {
+		RequestKey key = new RequestKey(endpoint, language, params);
+		boolean joined = false;
+
+		while (true) {
+			CompletableFuture<Object> exchange = new CompletableFuture<>();
+			CompletableFuture<Object> existing = inFlight.putIfAbsent(key, exchange);
+
+			if (existing == null) {
+				return lead(key, exchange, call);
+			}
+			if (!joined) {
+				coalescedCounters.get(endpoint).increment();
+				joined = true;
+			}
+			Object result = await(existing);
+			if (result != RETRY) {
+				return (T) result;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of distinct calls currently in flight.
+	 *
+	 * @return the in-flight call count
+	 */
+	int inFlightCount() {
+		return inFlight.size();
+	}
+
+	private <T> T lead(RequestKey key, CompletableFuture<Object> exchange, Supplier<T> call) {
+		try {
+			T result = call.get();
+			exchange.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			// The failure of a cancelled caller says nothing about the call itself
+			if (Thread.currentThread().isInterrupted()) {
+				inFlight.remove(key, exchange);
+				exchange.complete(RETRY);
+			} else {
+				exchange.completeExceptionally(e);
+			}
+			throw e;
+		} finally {
+			inFlight.remove(key, exchange);
+		}
+	}
+
+	private static Object await(CompletableFuture<Object> exchange) {
+		try {
+			return exchange.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ViatorApiException("Interrupted while waiting for an identical Viator call", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw new ViatorApiException("Viator call failed", e.getCause());
+		}
+	}
+
+	private record RequestKey(ViatorEndpoint endpoint, String language, Object params) {
+	}
+}
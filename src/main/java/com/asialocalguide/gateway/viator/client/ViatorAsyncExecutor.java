@@ -0,0 +1,69 @@
+package com.asialocalguide.gateway.viator.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executor shared by every asynchronous Viator call, running each call on its own virtual thread.
+ *
+ * <p>A call waiting on the network parks its virtual thread instead of holding a platform thread,
+ * so the executor itself is unbounded: how many calls actually run at once is governed in one
+ * place, the {@link ViatorCallLimiter}. Fan-outs over Viator no longer create their own executors
+ * or borrow threads from the common {@link java.util.concurrent.ForkJoinPool}.
+ */
+@Component
+public class ViatorAsyncExecutor implements Executor, DisposableBean {
+
+	private final ExecutorService executor = Executors
+			.newThreadPerTaskExecutor(Thread.ofVirtual().name("viator-call-", 0).factory());
+
+	/**
+	 * Runs the call asynchronously.
+	 *
+	 * <p>Cancelling the returned future interrupts the call, so that a call abandoned by its caller
+	 * stops waiting for a permit or for Viator instead of running to completion.
+	 *
+	 * @param call the blocking call
+	 * @param <T>  the call result type
+	 * @return a future completed with the result or the exception of the call
+	 */
+	public <T> CompletableFuture<T> supplyAsync(Supplier<T> call) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		Future<?> task = executor.submit(() -> {
+			try {
+				result.complete(call.get());
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			}
+		});
+		result.whenComplete((value, e) -> {
+			if (result.isCancelled()) {
+				task.cancel(true);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void execute(Runnable command) {
+		executor.execute(command);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+}
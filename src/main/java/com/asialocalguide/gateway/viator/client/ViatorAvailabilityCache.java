@@ -0,0 +1,112 @@
+package com.asialocalguide.gateway.viator.client;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.stereotype.Component;
+
+import com.asialocalguide.gateway.viator.config.ViatorCacheProperties;
+import com.asialocalguide.gateway.viator.dto.ViatorActivityAvailabilityDTO;
+import com.asialocalguide.gateway.viator.exception.ViatorApiException;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Product-code keyed cache of Viator availability schedules.
+ *
+ * <p>Schedules change rarely, so a schedule is served from memory until its TTL expires. Once it is
+ * older than the refresh delay it is still served as is while a reload runs in the background, and
+ * a failed reload keeps the stale schedule. Products unknown to Viator are cached as empty as well.
+ *
+ * <p>Hit, miss, eviction and load metrics are published under the {@code viator.availability} cache name.
+ */
+@Component
+@Slf4j
+public class ViatorAvailabilityCache {
+
+	static final String CACHE_NAME = "viator.availability";
+
+	private final ViatorClient viatorClient;
+
+	private final boolean enabled;
+
+	private final ViatorAsyncExecutor asyncExecutor;
+
+	private final LoadingCache<String, Optional<ViatorActivityAvailabilityDTO>> cache;
+
+	/**
+	 * @param viatorClient          the Viator HTTP client loading schedules on a miss
+	 * @param viatorCacheProperties TTL, refresh delay and size of the cache
+	 * @param asyncExecutor         executor running background refreshes and asynchronous lookups
+	 * @param meterRegistry         registry publishing the cache metrics
+	 */
+	public ViatorAvailabilityCache(ViatorClient viatorClient, ViatorCacheProperties viatorCacheProperties,
+			ViatorAsyncExecutor asyncExecutor, MeterRegistry meterRegistry) {
+		this.viatorClient = viatorClient;
+		this.asyncExecutor = asyncExecutor;
+
+		ViatorCacheProperties.Availability properties = viatorCacheProperties.availability();
+		this.enabled = properties.enabled();
+
+		Caffeine<Object, Object> builder = Caffeine.newBuilder()
+				.maximumSize(properties.maxEntries())
+				.expireAfterWrite(properties.ttl())
+				.executor(asyncExecutor)
+				.recordStats();
+
+		if (properties.refreshAfter() != null && properties.refreshAfter().isPositive()
+				&& properties.refreshAfter().compareTo(properties.ttl()) < 0) {
+			builder.refreshAfterWrite(properties.refreshAfter());
+		}
+
+		this.cache = builder.build(viatorClient::getAvailabilityByProductCode);
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+		if (enabled) {
+			log.info("Viator availability cache started with a TTL of {} and {} max entries",
+					properties.ttl(),
+					properties.maxEntries());
+		}
+	}
+
+	/**
+	 * Returns the availability schedule of the product, fetching it from Viator on a miss.
+	 *
+	 * @param productCode the Viator product code
+	 * @return the availability schedule, or empty if the product is not found
+	 * @throws ViatorApiException if the schedule is not cached and the Viator call fails
+	 */
+	public Optional<ViatorActivityAvailabilityDTO> getAvailabilityByProductCode(String productCode) {
+		return enabled ? cache.get(productCode) : viatorClient.getAvailabilityByProductCode(productCode);
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getAvailabilityByProductCode(String)}. A cached schedule is
+	 * returned in an already completed future, without handing the lookup to another thread.
+	 *
+	 * @param productCode the Viator product code
+	 * @return a future completed with the availability schedule, or with a {@link ViatorApiException}
+	 */
+	public CompletableFuture<Optional<ViatorActivityAvailabilityDTO>> getAvailabilityByProductCodeAsync(
+			String productCode) {
+		if (!enabled) {
+			return viatorClient.getAvailabilityByProductCodeAsync(productCode);
+		}
+		Optional<ViatorActivityAvailabilityDTO> cached = cache.getIfPresent(productCode);
+		return cached != null ? CompletableFuture.completedFuture(cached)
+				: asyncExecutor.supplyAsync(() -> cache.get(productCode));
+	}
+
+	/**
+	 * Drops the cached schedule of the product so that the next lookup fetches it again.
+	 *
+	 * @param productCode the Viator product code
+	 */
+	public void invalidate(String productCode) {
+		cache.invalidate(productCode);
+	}
+}
@@ -0,0 +1,175 @@
+package com.asialocalguide.gateway.viator.client;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.asialocalguide.gateway.viator.config.ViatorProperties;
+import com.asialocalguide.gateway.viator.exception.ViatorApiException;
+import com.asialocalguide.gateway.viator.exception.ViatorCallRejectedException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outbound limiter for Viator calls: a token bucket per endpoint followed by a global
+ * concurrency cap.
+ *
+ * <p>Callers wait instead of failing, and they are served in arrival order: a token is reserved
+ * when the call arrives and the caller sleeps until its reservation is due, then it takes a fair
+ * concurrency permit. A call fails with a {@link ViatorCallRejectedException} only if it would
+ * wait longer than {@link ViatorProperties.Limits#maxWait()}.
+ *
+ * <p>The time spent waiting is published per endpoint as {@code viator.client.limiter.wait}, and
+ * the calls holding a concurrency permit as {@code viator.client.limiter.active}.
+ */
+@Component
+@Slf4j
+public class ViatorCallLimiter {
+
+	private final Semaphore concurrencyPermits;
+
+	private final Map<ViatorEndpoint, TokenBucket> tokenBuckets = new EnumMap<>(ViatorEndpoint.class);
+
+	private final Map<ViatorEndpoint, Timer> waitTimers = new EnumMap<>(ViatorEndpoint.class);
+
+	private final long maxWaitNanos;
+
+	/**
+	 * @param viatorProperties Viator configuration holding the concurrency cap and rates
+	 * @param meterRegistry    registry publishing the limiter metrics
+	 */
+	public ViatorCallLimiter(ViatorProperties viatorProperties, MeterRegistry meterRegistry) {
+		ViatorProperties.Limits limits = viatorProperties.limits();
+
+		int maxConcurrentCalls = Math.max(1, limits.maxConcurrentCalls());
+		this.concurrencyPermits = new Semaphore(maxConcurrentCalls, true);
+		this.maxWaitNanos = limits.maxWait().toNanos();
+
+		for (ViatorEndpoint endpoint : ViatorEndpoint.values()) {
+			tokenBuckets.put(endpoint,
+					new TokenBucket(limits.permitsPerSecond(endpoint), Math.max(1, limits.burst()), System.nanoTime()));
+			waitTimers.put(endpoint,
+					Timer.builder("viator.client.limiter.wait")
+							.description("Time spent by a Viator call waiting for the rate and concurrency limiters")
+							.tag("endpoint", endpoint.name())
+							.register(meterRegistry));
+		}
+		Gauge.builder("viator.client.limiter.active",
+				concurrencyPermits,
+				permits -> maxConcurrentCalls - permits.availablePermits())
+				.description("Viator calls holding a concurrency permit")
+				.register(meterRegistry);
+
+		log.info("Viator call limiter started with {} concurrent calls and {} calls per second",
+				maxConcurrentCalls,
+				limits.permitsPerSecond());
+	}
+
+	/**
+	 * Runs the call once the endpoint rate and the concurrency cap allow it.
+	 *
+	 * @param endpoint the called endpoint
+	 * @param call     the upstream call
+	 * @param <T>      the call result type
+	 * @return the result of the call
+	 * @throws ViatorCallRejectedException if the call would wait longer than the configured maximum
+	 * @throws ViatorApiException          if the waiting thread is interrupted
+	 */
+	public <T> T execute(ViatorEndpoint endpoint, Supplier<T> call) {
+		long arrivedAt = System.nanoTime();
+
+		long waitNanos = tokenBuckets.get(endpoint).reserve(arrivedAt, maxWaitNanos);
+		if (waitNanos < 0) {
+			throw new ViatorCallRejectedException(
+					"Viator " + endpoint + " rate limit exceeded, call not attempted");
+		}
+		sleepNanos(waitNanos);
+
+		long remainingNanos = maxWaitNanos - (System.nanoTime() - arrivedAt);
+		try {
+			if (!concurrencyPermits.tryAcquire(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS)) {
+				throw new ViatorCallRejectedException("Viator concurrency limit exceeded, call not attempted");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ViatorApiException("Interrupted while waiting for a Viator call permit", e);
+		}
+
+		waitTimers.get(endpoint).record(System.nanoTime() - arrivedAt, TimeUnit.NANOSECONDS);
+		try {
+			return call.get();
+		} finally {
+			concurrencyPermits.release();
+		}
+	}
+
+	private static void sleepNanos(long nanos) {
+		long deadline = System.nanoTime() + nanos;
+		long remaining = nanos;
+		while (remaining > 0) {
+			LockSupport.parkNanos(remaining);
+			if (Thread.interrupted()) {
+				Thread.currentThread().interrupt();
+				throw new ViatorApiException("Interrupted while waiting for a Viator call permit");
+			}
+			remaining = deadline - System.nanoTime();
+		}
+	}
+
+	/**
+	 * Token bucket handing out reservations: each call takes a stored token if any, otherwise it is
+	 * scheduled one token interval after the previous reservation. Reservations are granted in
+	 * arrival order.
+	 */
+	static final class TokenBucket {
+
+		private final double nanosPerToken;
+
+		private final double maxTokens;
+
+		private double storedTokens;
+
+		private long nextFreeNanos;
+
+		TokenBucket(double tokensPerSecond, int burst, long nowNanos) {
+			this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / Math.max(tokensPerSecond, Double.MIN_NORMAL);
+			// The slot at nextFreeNanos is itself free, so an idle bucket stores one token less than its burst
+			this.maxTokens = burst - 1.0;
+			this.storedTokens = maxTokens;
+			this.nextFreeNanos = nowNanos;
+		}
+
+		/**
+		 * Reserves one token.
+		 *
+		 * @param nowNanos     current {@link System#nanoTime()}
+		 * @param maxWaitNanos longest acceptable wait
+		 * @return nanoseconds to wait before the token is due, or {@code -1} if that exceeds
+		 *         {@code maxWaitNanos}, in which case nothing is reserved
+		 */
+		synchronized long reserve(long nowNanos, long maxWaitNanos) {
+			if (nowNanos > nextFreeNanos) {
+				storedTokens = Math.min(maxTokens, storedTokens + (nowNanos - nextFreeNanos) / nanosPerToken);
+				nextFreeNanos = nowNanos;
+			}
+
+			long waitNanos = nextFreeNanos - nowNanos;
+			if (waitNanos > maxWaitNanos) {
+				return -1;
+			}
+
+			double fromStored = Math.min(1, storedTokens);
+			storedTokens -= fromStored;
+			nextFreeNanos += (long) ((1 - fromStored) * nanosPerToken);
+			return waitNanos;
+		}
+	}
+}
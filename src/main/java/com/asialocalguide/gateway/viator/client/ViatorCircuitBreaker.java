@@ -0,0 +1,204 @@
+package com.asialocalguide.gateway.viator.client;
+
+import java.time.Duration;
+
+import com.asialocalguide.gateway.viator.config.ViatorProperties;
+
+/**
+ * Count-based circuit breaker of one Viator endpoint.
+ *
+ * <p>While {@link State#CLOSED}, the outcomes of the most recent calls are kept in a ring buffer;
+ * once enough calls are recorded and the failure rate reaches the threshold, the breaker opens and
+ * rejects calls. After the open duration it turns {@link State#HALF_OPEN} and lets a few trial
+ * calls through: if they all succeed it closes again, and the first failure opens it again.
+ *
+ * <p>A disabled breaker lets every call through and records nothing.
+ *
+ * <p>Times are {@link System#nanoTime()} values passed by the caller, so that tests control the
+ * clock.
+ */
+public final class ViatorCircuitBreaker {
+
+	/**
+	 * State of a circuit breaker.
+	 */
+	public enum State {
+		CLOSED,
+		OPEN,
+		HALF_OPEN
+	}
+
+	/**
+	 * Point-in-time view of a circuit breaker.
+	 *
+	 * @param state         current state
+	 * @param failureRate   failure rate of the recorded calls in percent, or {@code -1} if fewer calls
+	 *                      than the minimum are recorded
+	 * @param bufferedCalls number of recorded calls
+	 * @param failedCalls   number of recorded failures
+	 * @param remainingOpen time left before an open breaker lets trial calls through
+	 */
+	public record Snapshot(State state, float failureRate, int bufferedCalls, int failedCalls,
+			Duration remainingOpen) {
+	}
+
+	private final boolean enabled;
+
+	private final int minimumCalls;
+
+	private final float failureRateThreshold;
+
+	private final long openNanos;
+
+	private final int halfOpenCalls;
+
+	private final boolean[] failures;
+
+	private int nextIndex;
+
+	private int bufferedCalls;
+
+	private int failedCalls;
+
+	private State state = State.CLOSED;
+
+	private long openedAtNanos;
+
+	private int halfOpenPermits;
+
+	private int halfOpenSuccesses;
+
+	/**
+	 * @param settings circuit breaker settings
+	 */
+	ViatorCircuitBreaker(ViatorProperties.CircuitBreaker settings) {
+		this.enabled = settings.enabled();
+		this.failures = new boolean[Math.max(1, settings.slidingWindowSize())];
+		this.minimumCalls = Math.clamp(settings.minimumCalls(), 1, failures.length);
+		this.failureRateThreshold = settings.failureRateThreshold();
+		this.openNanos = settings.openDuration().toNanos();
+		this.halfOpenCalls = Math.max(1, settings.halfOpenCalls());
+	}
+
+	/**
+	 * Asks for the permission to send a call. A granted permission must be followed by exactly one
+	 * of {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}.
+	 *
+	 * @param nowNanos current {@link System#nanoTime()}
+	 * @return {@code true} if the call may be sent
+	 */
+	synchronized boolean tryAcquire(long nowNanos) {
+		if (!enabled) {
+			return true;
+		}
+		if (state == State.OPEN) {
+			if (nowNanos - openedAtNanos < openNanos) {
+				return false;
+			}
+			state = State.HALF_OPEN;
+			halfOpenPermits = 0;
+			halfOpenSuccesses = 0;
+		}
+		if (state == State.HALF_OPEN) {
+			if (halfOpenPermits >= halfOpenCalls) {
+				return false;
+			}
+			halfOpenPermits++;
+		}
+		return true;
+	}
+
+	/**
+	 * Records a call that reached Viator and got an answer telling nothing about its health.
+	 */
+	synchronized void onSuccess() {
+		if (state == State.HALF_OPEN) {
+			if (++halfOpenSuccesses >= halfOpenCalls) {
+				close();
+			}
+		} else if (state == State.CLOSED && enabled) {
+			record(false);
+		}
+	}
+
+	/**
+	 * Records a call that failed because Viator is degraded or unreachable.
+	 *
+	 * @param nowNanos current {@link System#nanoTime()}
+	 * @return {@code true} if this failure opened the breaker
+	 */
+	synchronized boolean onFailure(long nowNanos) {
+		if (state == State.HALF_OPEN) {
+			open(nowNanos);
+			return true;
+		}
+		if (state == State.CLOSED && enabled) {
+			record(true);
+			if (bufferedCalls >= minimumCalls && failureRate() >= failureRateThreshold) {
+				open(nowNanos);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Releases a permission whose call did not reach Viator.
+	 */
+	synchronized void onIgnored() {
+		if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+			halfOpenPermits--;
+		}
+	}
+
+	/**
+	 * @return the current state, without moving an expired open breaker to half-open
+	 */
+	synchronized State getState() {
+		return state;
+	}
+
+	/**
+	 * @param nowNanos current {@link System#nanoTime()}
+	 * @return a point-in-time view of the breaker
+	 */
+	synchronized Snapshot snapshot(long nowNanos) {
+		long remaining = state == State.OPEN ? Math.max(0, openNanos - (nowNanos - openedAtNanos)) : 0;
+		return new Snapshot(state,
+				bufferedCalls >= minimumCalls ? failureRate() : -1,
+				bufferedCalls,
+				failedCalls,
+				Duration.ofNanos(remaining));
+	}
+
+	private void record(boolean failure) {
+		if (bufferedCalls == failures.length) {
+			if (failures[nextIndex]) {
+				failedCalls--;
+			}
+		} else {
+			bufferedCalls++;
+		}
+		failures[nextIndex] = failure;
+		if (failure) {
+			failedCalls++;
+		}
+		nextIndex = (nextIndex + 1) % failures.length;
+	}
+
+	private float failureRate() {
+		return failedCalls * 100f / bufferedCalls;
+	}
+
+	private void open(long nowNanos) {
+		state = State.OPEN;
+		openedAtNanos = nowNanos;
+	}
+
+	private void close() {
+		state = State.CLOSED;
+		nextIndex = 0;
+		bufferedCalls = 0;
+		failedCalls = 0;
+	}
+}
@@ -0,0 +1,33 @@
+package com.asialocalguide.gateway.viator.client;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the state of the Viator circuit breakers, so that on-call can tell
+ * whether thin plans come from a degraded Viator endpoint.
+ */
+@Component
+@Endpoint(id = "viatorcircuitbreakers")
+public class ViatorCircuitBreakerEndpoint {
+
+	private final ViatorResilience resilience;
+
+	/**
+	 * @param resilience retry and circuit breaking of outbound Viator calls
+	 */
+	public ViatorCircuitBreakerEndpoint(ViatorResilience resilience) {
+		this.resilience = resilience;
+	}
+
+	/**
+	 * @return a point-in-time view of the circuit breaker of each Viator endpoint
+	 */
+	@ReadOperation
+	public Map<ViatorEndpoint, ViatorCircuitBreaker.Snapshot> circuitBreakers() {
+		return resilience.circuitBreakerSnapshots();
+	}
+}
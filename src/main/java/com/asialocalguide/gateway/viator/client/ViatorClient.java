@@ -1,16 +1,25 @@
 package com.asialocalguide.gateway.viator.client;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
@@ -21,8 +30,13 @@ import com.asialocalguide.gateway.viator.dto.ViatorActivityDetailDTO;
 import com.asialocalguide.gateway.viator.dto.ViatorActivityResponseDTO;
 import com.asialocalguide.gateway.viator.dto.ViatorActivitySearchDTO;
 import com.asialocalguide.gateway.viator.dto.ViatorDestinationDTO;
-import com.asialocalguide.gateway.viator.dto.ViatorDestinationResponseDTO;
 import com.asialocalguide.gateway.viator.exception.ViatorApiException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * HTTP client for the Viator REST API.
@@ -30,56 +44,73 @@ import com.asialocalguide.gateway.viator.exception.ViatorApiException;
  * <p>Wraps the configured {@link RestClient} to call the Viator destinations,
  * product search, product detail, and availability schedule endpoints.
  * HTTP 404 responses are treated as empty results rather than errors.
+ *
+ * <p>Concurrent identical calls are coalesced: callers asking for the same endpoint, parameters
+ * and language while a call is in flight share its HTTP exchange and its result or error.
+ * Exchanges then go through {@link ViatorResilience}, which retries transient failures and fails
+ * fast while the endpoint circuit breaker is open, and each attempt goes through the
+ * {@link ViatorCallLimiter}, which paces them per endpoint.
+ *
+ * <p>Every call has an asynchronous variant returning a {@link CompletableFuture}, run on the
+ * shared {@link ViatorAsyncExecutor}. Cancelling the future interrupts the call.
  */
 @Component
 public class ViatorClient {
 
 	private static final String ACCEPT_LANGUAGE_HEADER = "Accept-Language";
 
+	/**
+	 * Bytes of an error response read to describe the failure.
+	 */
+	static final int MAX_ERROR_BODY_BYTES = 4096;
+
+	/**
+	 * Reader of streamed payloads, configured like the message converters of the REST client.
+	 */
+	private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
 	private final RestClient viatorRestClient;
 
+	private final ViatorCallLimiter callLimiter;
+
+	private final ViatorResilience resilience;
+
+	private final InFlightRequestCoalescer coalescer;
+
+	private final ViatorAsyncExecutor asyncExecutor;
+
 	/**
 	 * @param viatorRestClient the pre-configured Viator REST client bean
+	 * @param callLimiter      rate and concurrency limiter of outbound calls
+	 * @param resilience       retry and circuit breaking of outbound calls
+	 * @param asyncExecutor    executor running the asynchronous variants of the calls
+	 * @param meterRegistry    registry publishing the client metrics
 	 */
-	public ViatorClient(RestClient viatorRestClient) {
+	public ViatorClient(RestClient viatorRestClient, ViatorCallLimiter callLimiter, ViatorResilience resilience,
+			ViatorAsyncExecutor asyncExecutor, MeterRegistry meterRegistry) {
 		this.viatorRestClient = viatorRestClient;
+		this.callLimiter = callLimiter;
+		this.resilience = resilience;
+		this.asyncExecutor = asyncExecutor;
+		this.coalescer = new InFlightRequestCoalescer(meterRegistry);
 	}
 
 	/**
-	 * Fetches all Viator destinations localised for the given language.
+	 * Streams all Viator destinations localised for the given language to the consumer, one at a
+	 * time as they are parsed, without holding the response in memory.
+	 *
+	 * <p>Identical concurrent calls are not coalesced. A call failing half-way is retried from the
+	 * start, so the consumer may receive a destination more than once and must be idempotent.
 	 *
 	 * @param languageIsoCode the ISO language code to pass in the {@code Accept-Language} header
-	 * @return list of destinations; empty if the API returns 404
-	 * @throws ViatorApiException on any non-404 client or server error
+	 * @param consumer        receiver of each destination
+	 * @return number of destinations received by the consumer; {@code 0} if the API returns 404
+	 * @throws ViatorApiException on any non-404 client or server error, or a malformed payload
 	 */
-	public List<ViatorDestinationDTO> getAllDestinationsForLanguage(String languageIsoCode) {
-		try {
-			ResponseEntity<ViatorDestinationResponseDTO> entity = viatorRestClient.get()
-					.uri("/destinations")
-					.headers(httpHeaders -> httpHeaders.set(ACCEPT_LANGUAGE_HEADER, languageIsoCode))
-					.retrieve()
-					.onStatus(
-							// Exclude 404 from errors
-							status -> (status.is4xxClientError() && status != HttpStatus.NOT_FOUND)
-									|| status.is5xxServerError(),
-							(req, res) -> {
-								if (res.getStatusCode() != HttpStatus.NOT_FOUND) {
-									handleViatorError(res);
-								}
-							})
-					.toEntity(ViatorDestinationResponseDTO.class);
-
-			if (entity.getStatusCode() == HttpStatus.NOT_FOUND) {
-				return List.of();
-			}
-
-			return Optional.ofNullable(entity.getBody())
-					.map(ViatorDestinationResponseDTO::destinations)
-					.orElseGet(List::of);
-
-		} catch (RestClientException e) {
-			throw new ViatorApiException("Failed to call Destination API: " + e.getMessage(), e);
-		}
+	public int streamAllDestinationsForLanguage(String languageIsoCode, Consumer<ViatorDestinationDTO> consumer) {
+		return resilience.execute(ViatorEndpoint.DESTINATIONS,
+				() -> callLimiter.execute(ViatorEndpoint.DESTINATIONS,
+						() -> fetchAllDestinationsForLanguage(languageIsoCode, consumer)));
 	}
 
 	/**
@@ -92,9 +123,155 @@ public class ViatorClient {
 	 */
 	public List<ViatorActivityDTO> getActivitiesByRequestAndLanguage(String languageIsoCode,
 			ViatorActivitySearchDTO searchDTO) {
+		return call(ViatorEndpoint.PRODUCT_SEARCH,
+				languageIsoCode,
+				searchDTO,
+				() -> fetchActivitiesByRequestAndLanguage(languageIsoCode, searchDTO));
+	}
+
+	/**
+	 * Fetches detailed information for a single activity by its product code.
+	 *
+	 * @param languageIsoCode the ISO language code to pass in the {@code Accept-Language} header
+	 * @param activityId      the Viator product code
+	 * @return the activity detail, or empty if the activity is not found (404)
+	 * @throws ViatorApiException on any non-404 client or server error
+	 */
+	public Optional<ViatorActivityDetailDTO> getActivityByIdAndLanguage(String languageIsoCode, String activityId) {
+		return call(ViatorEndpoint.PRODUCT_DETAIL,
+				languageIsoCode,
+				activityId,
+				() -> fetchActivityByIdAndLanguage(languageIsoCode, activityId));
+	}
+
+	/**
+	 * Fetches the availability schedule for the given product code.
+	 *
+	 * @param productCode the Viator product code
+	 * @return the availability schedule, or empty if not found (404)
+	 * @throws ViatorApiException on any non-404 client or server error
+	 */
+	public Optional<ViatorActivityAvailabilityDTO> getAvailabilityByProductCode(String productCode) {
+		return call(ViatorEndpoint.AVAILABILITY_SCHEDULE,
+				null,
+				productCode,
+				() -> fetchAvailabilityByProductCode(productCode));
+	}
+
+	/**
+	 * Asynchronous variant of {@link #streamAllDestinationsForLanguage(String, Consumer)}; the
+	 * consumer is called from the thread running the call.
+	 *
+	 * @param languageIsoCode the ISO language code to pass in the {@code Accept-Language} header
+	 * @param consumer        receiver of each destination
+	 * @return a future completed with the number of destinations received by the consumer, or with a
+	 *         {@link ViatorApiException}
+	 */
+	public CompletableFuture<Integer> streamAllDestinationsForLanguageAsync(String languageIsoCode,
+			Consumer<ViatorDestinationDTO> consumer) {
+		return asyncExecutor.supplyAsync(() -> streamAllDestinationsForLanguage(languageIsoCode, consumer));
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getActivitiesByRequestAndLanguage(String, ViatorActivitySearchDTO)}.
+	 *
+	 * @param languageIsoCode the ISO language code to pass in the {@code Accept-Language} header
+	 * @param searchDTO       the search criteria (destination, dates, tags, pagination)
+	 * @return a future completed with the matching activities, or with a {@link ViatorApiException}
+	 */
+	public CompletableFuture<List<ViatorActivityDTO>> getActivitiesByRequestAndLanguageAsync(String languageIsoCode,
+			ViatorActivitySearchDTO searchDTO) {
+		return asyncExecutor.supplyAsync(() -> getActivitiesByRequestAndLanguage(languageIsoCode, searchDTO));
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getActivityByIdAndLanguage(String, String)}.
+	 *
+	 * @param languageIsoCode the ISO language code to pass in the {@code Accept-Language} header
+	 * @param activityId      the Viator product code
+	 * @return a future completed with the activity detail, or with a {@link ViatorApiException}
+	 */
+	public CompletableFuture<Optional<ViatorActivityDetailDTO>> getActivityByIdAndLanguageAsync(
+			String languageIsoCode, String activityId) {
+		return asyncExecutor.supplyAsync(() -> getActivityByIdAndLanguage(languageIsoCode, activityId));
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getAvailabilityByProductCode(String)}.
+	 *
+	 * @param productCode the Viator product code
+	 * @return a future completed with the availability schedule, or with a {@link ViatorApiException}
+	 */
+	public CompletableFuture<Optional<ViatorActivityAvailabilityDTO>> getAvailabilityByProductCodeAsync(
+			String productCode) {
+		return asyncExecutor.supplyAsync(() -> getAvailabilityByProductCode(productCode));
+	}
+
+	/**
+	 * Joins an identical call in flight, or runs the fetch with retries, each attempt once the
+	 * limiter allows it.
+	 */
+	private <T> T call(ViatorEndpoint endpoint, String languageIsoCode, Object params, Supplier<T> fetch) {
+		return coalescer.execute(endpoint,
+				languageIsoCode,
+				params,
+				() -> resilience.execute(endpoint, () -> callLimiter.execute(endpoint, fetch)));
+	}
+
+	private int fetchAllDestinationsForLanguage(String languageIsoCode, Consumer<ViatorDestinationDTO> consumer) {
+		try {
+			return viatorRestClient.get()
+					.uri(ViatorEndpoint.DESTINATIONS.getPath())
+					.headers(httpHeaders -> httpHeaders.set(ACCEPT_LANGUAGE_HEADER, languageIsoCode))
+					.exchange((req, res) -> {
+						if (res.getStatusCode() == HttpStatus.NOT_FOUND) {
+							return 0;
+						}
+						if (res.getStatusCode().isError()) {
+							handleViatorError(res);
+						}
+						return readDestinations(res.getBody(), consumer);
+					});
+
+		} catch (RestClientException e) {
+			throw new ViatorApiException("Failed to call Destination API: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Reads a destinations response token by token, handing each element of its
+	 * {@code destinations} array to the consumer and skipping every other field.
+	 */
+	private static int readDestinations(InputStream body, Consumer<ViatorDestinationDTO> consumer)
+			throws IOException {
+		int count = 0;
+		try (JsonParser parser = OBJECT_MAPPER.createParser(body)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new ViatorApiException("Malformed Destination API response: expected a JSON object");
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.currentName();
+				JsonToken value = parser.nextToken();
+				if ("destinations".equals(field) && value == JsonToken.START_ARRAY) {
+					while (parser.nextToken() == JsonToken.START_OBJECT) {
+						consumer.accept(parser.readValueAs(ViatorDestinationDTO.class));
+						count++;
+					}
+				} else {
+					parser.skipChildren();
+				}
+			}
+		} catch (JsonProcessingException e) {
+			throw new ViatorApiException("Malformed Destination API response: " + e.getOriginalMessage(), e);
+		}
+		return count;
+	}
+
+	private List<ViatorActivityDTO> fetchActivitiesByRequestAndLanguage(String languageIsoCode,
+			ViatorActivitySearchDTO searchDTO) {
 		try {
 			ResponseEntity<ViatorActivityResponseDTO> entity = viatorRestClient.post()
-					.uri("/products/search")
+					.uri(ViatorEndpoint.PRODUCT_SEARCH.getPath())
 					.headers(httpHeaders -> httpHeaders.set(ACCEPT_LANGUAGE_HEADER, languageIsoCode))
 					.body(searchDTO)
 					.retrieve()
@@ -120,18 +297,11 @@ public class ViatorClient {
 		}
 	}
 
-	/**
-	 * Fetches detailed information for a single activity by its product code.
-	 *
-	 * @param languageIsoCode the ISO language code to pass in the {@code Accept-Language} header
-	 * @param activityId      the Viator product code
-	 * @return the activity detail, or empty if the activity is not found (404)
-	 * @throws ViatorApiException on any non-404 client or server error
-	 */
-	public Optional<ViatorActivityDetailDTO> getActivityByIdAndLanguage(String languageIsoCode, String activityId) {
+	private Optional<ViatorActivityDetailDTO> fetchActivityByIdAndLanguage(String languageIsoCode,
+			String activityId) {
 		try {
 			ResponseEntity<ViatorActivityDetailDTO> entity = viatorRestClient.get()
-					.uri("/products/{activityId}", activityId)
+					.uri(ViatorEndpoint.PRODUCT_DETAIL.getPath(), activityId)
 					.headers(httpHeaders -> httpHeaders.set(ACCEPT_LANGUAGE_HEADER, languageIsoCode))
 					.retrieve()
 					.onStatus(
@@ -157,17 +327,10 @@ public class ViatorClient {
 		}
 	}
 
-	/**
-	 * Fetches the availability schedule for the given product code.
-	 *
-	 * @param productCode the Viator product code
-	 * @return the availability schedule, or empty if not found (404)
-	 * @throws ViatorApiException on any non-404 client or server error
-	 */
-	public Optional<ViatorActivityAvailabilityDTO> getAvailabilityByProductCode(String productCode) {
+	private Optional<ViatorActivityAvailabilityDTO> fetchAvailabilityByProductCode(String productCode) {
 		try {
 			ResponseEntity<ViatorActivityAvailabilityDTO> entity = viatorRestClient.get()
-					.uri("/availability/schedules/{productCode}", productCode)
+					.uri(ViatorEndpoint.AVAILABILITY_SCHEDULE.getPath(), productCode)
 					.retrieve()
 					.onStatus(
 							// Exclude 404 from errors
@@ -191,13 +354,79 @@ public class ViatorClient {
 		}
 	}
 
+	/**
+	 * Throws a {@link ViatorApiException} describing an error response. At most
+	 * {@value #MAX_ERROR_BODY_BYTES} bytes of the body are read: the rest is discarded unread when
+	 * the response is closed.
+	 */
 	private void handleViatorError(ClientHttpResponse response) throws IOException {
-		try (BufferedReader reader = new BufferedReader(
-				new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+		byte[] buffer = new byte[MAX_ERROR_BODY_BYTES];
+		int length;
+		try (InputStream body = response.getBody()) {
+			length = body.readNBytes(buffer, 0, buffer.length);
+		}
+
+		throw createApiException(response.getStatusCode().value(),
+				response.getStatusCode().toString(),
+				buffer,
+				length,
+				parseRetryAfter(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)));
+	}
 
-			String responseBody = reader.lines().collect(Collectors.joining("\n"));
+	/**
+	 * Creates the exception for an error response from the first bytes of its body. Viator errors
+	 * are JSON objects with {@code code} and {@code message} fields: when the code is found the
+	 * exception carries it, otherwise its message quotes the body as text.
+	 */
+	static ViatorApiException createApiException(int statusCode, String status, byte[] body, int length,
+			Duration retryAfter) {
+		String errorCode = null;
+		String errorMessage = null;
+		try (JsonParser parser = OBJECT_MAPPER.createParser(body, 0, length)) {
+			if (parser.nextToken() == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME && (errorCode == null || errorMessage == null)) {
+					String field = parser.currentName();
+					JsonToken value = parser.nextToken();
+					if (value == JsonToken.VALUE_STRING && "code".equals(field)) {
+						errorCode = parser.getText();
+					} else if (value == JsonToken.VALUE_STRING && "message".equals(field)) {
+						errorMessage = parser.getText();
+					} else {
+						parser.skipChildren();
+					}
+				}
+			}
+		} catch (IOException e) {
+			// Not JSON, or cut by the size limit: keep whatever was found so far
+		}
 
-			throw new ViatorApiException("Viator API error: " + response.getStatusCode() + " - " + responseBody);
+		String details = errorCode != null ? "[" + errorCode + "] " + Objects.toString(errorMessage, "")
+				: new String(body, 0, length, StandardCharsets.UTF_8) + (length == body.length ? "..." : "");
+		return new ViatorApiException("Viator API error: " + status + " - " + details,
+				statusCode,
+				errorCode,
+				retryAfter);
+	}
+
+	/**
+	 * Parses a {@code Retry-After} header, given either in seconds or as an HTTP date.
+	 *
+	 * @return the requested delay, or {@code null} if the header is absent or malformed
+	 */
+	static Duration parseRetryAfter(String retryAfter) {
+		if (retryAfter == null || retryAfter.isBlank()) {
+			return null;
+		}
+		try {
+			return Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim())));
+		} catch (NumberFormatException e) {
+			try {
+				ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+				Duration delay = Duration.between(Instant.now(), date.toInstant());
+				return delay.isNegative() ? Duration.ZERO : delay;
+			} catch (DateTimeParseException ex) {
+				return null;
+			}
 		}
 	}
 }
@@ -0,0 +1,49 @@
+package com.asialocalguide.gateway.viator.client;
+
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Viator API endpoints called by the {@link ViatorClient}.
+ *
+ * <p>Each constant carries the URI template of the endpoint, relative to the configured base URL.
+ */
+@Getter
+public enum ViatorEndpoint {
+	DESTINATIONS("/destinations"), PRODUCT_SEARCH("/products/search"), PRODUCT_DETAIL("/products/{activityId}"),
+	AVAILABILITY_SCHEDULE("/availability/schedules/{productCode}");
+
+	private final String path;
+
+	@Getter(AccessLevel.NONE)
+	private final Pattern pathPattern;
+
+	ViatorEndpoint(String path) {
+		this.path = path;
+		this.pathPattern = Pattern.compile(".*" + path.replaceAll("\\{[^}]+}", "[^/]+") + "/?");
+	}
+
+	/**
+	 * Resolves the endpoint of a request path, which may include the base URL path.
+	 *
+	 * <p>Constants are matched in declaration order, so the product search wins over the
+	 * product detail template.
+	 *
+	 * @param requestPath the path of the request URI
+	 * @return the matching endpoint, or empty if the path is not a known endpoint
+	 */
+	public static Optional<ViatorEndpoint> fromPath(String requestPath) {
+		if (requestPath == null) {
+			return Optional.empty();
+		}
+		for (ViatorEndpoint endpoint : values()) {
+			if (endpoint.pathPattern.matcher(requestPath).matches()) {
+				return Optional.of(endpoint);
+			}
+		}
+		return Optional.empty();
+	}
+}
@@ -0,0 +1,212 @@
+package com.asialocalguide.gateway.viator.client;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.asialocalguide.gateway.viator.config.ViatorProperties;
+import com.asialocalguide.gateway.viator.exception.ViatorApiException;
+import com.asialocalguide.gateway.viator.exception.ViatorCallRejectedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Retry and circuit breaking of Viator calls.
+ *
+ * <p>Transient failures (see {@link ViatorApiException#isRetryable()}) are retried up to
+ * {@link ViatorProperties.Retry#maxAttempts()} times. The delay before a retry is the
+ * {@code Retry-After} requested by Viator if any, otherwise a random delay up to an exponential
+ * backoff ("full jitter"), so that callers failing together do not retry together.
+ *
+ * <p>Each endpoint has its own {@link ViatorCircuitBreaker}: transient failures count as failures,
+ * other answers from Viator as successes, and calls that got no answer for other reasons, such as
+ * calls rejected locally or cancelled by their caller, are neither counted nor retried. While a
+ * breaker is open, calls fail at once with a {@link ViatorCallRejectedException}.
+ *
+ * <p>Retries are published per endpoint as {@code viator.client.retries}, rejections by an open
+ * breaker as {@code viator.client.circuit.rejected}, and the breaker state as
+ * {@code viator.client.circuit.state} (0 closed, 1 open, 2 half-open). The attempts sent to Viator
+ * per call are published as {@code viator.client.attempts}.
+ */
+@Component
+@Slf4j
+public class ViatorResilience {
+
+	private final ViatorProperties.Retry retry;
+
+	private final Map<ViatorEndpoint, ViatorCircuitBreaker> circuitBreakers = new EnumMap<>(ViatorEndpoint.class);
+
+	private final Map<ViatorEndpoint, Counter> retryCounters = new EnumMap<>(ViatorEndpoint.class);
+
+	private final Map<ViatorEndpoint, Counter> rejectionCounters = new EnumMap<>(ViatorEndpoint.class);
+
+	private final Map<ViatorEndpoint, DistributionSummary> attemptSummaries = new EnumMap<>(ViatorEndpoint.class);
+
+	/**
+	 * @param viatorProperties Viator configuration holding the retry and circuit breaker settings
+	 * @param meterRegistry    registry publishing the retry and circuit breaker metrics
+	 */
+	public ViatorResilience(ViatorProperties viatorProperties, MeterRegistry meterRegistry) {
+		this.retry = viatorProperties.retry();
+
+		for (ViatorEndpoint endpoint : ViatorEndpoint.values()) {
+			ViatorCircuitBreaker circuitBreaker = new ViatorCircuitBreaker(viatorProperties.circuitBreaker());
+			circuitBreakers.put(endpoint, circuitBreaker);
+			retryCounters.put(endpoint,
+					Counter.builder("viator.client.retries")
+							.description("Viator calls retried after a transient failure")
+							.tag("endpoint", endpoint.name())
+							.register(meterRegistry));
+			rejectionCounters.put(endpoint,
+					Counter.builder("viator.client.circuit.rejected")
+							.description("Viator calls rejected by an open circuit breaker")
+							.tag("endpoint", endpoint.name())
+							.register(meterRegistry));
+			attemptSummaries.put(endpoint,
+					DistributionSummary.builder("viator.client.attempts")
+							.description("Attempts sent to Viator per call, retries included")
+							.tag("endpoint", endpoint.name())
+							.register(meterRegistry));
+			Gauge.builder("viator.client.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+					.description("State of the Viator circuit breaker: 0 closed, 1 open, 2 half-open")
+					.tag("endpoint", endpoint.name())
+					.register(meterRegistry);
+		}
+	}
+
+	/**
+	 * Runs the call through the circuit breaker of the endpoint, retrying transient failures.
+	 *
+	 * @param endpoint the called endpoint
+	 * @param call     the upstream call
+	 * @param <T>      the call result type
+	 * @return the result of the call
+	 * @throws ViatorCallRejectedException if the circuit breaker of the endpoint is open
+	 * @throws ViatorApiException          if the last attempt fails
+	 */
+	public <T> T execute(ViatorEndpoint endpoint, Supplier<T> call) {
+		ViatorCircuitBreaker circuitBreaker = circuitBreakers.get(endpoint);
+
+		int attempts = 0;
+		try {
+			for (int attempt = 1;; attempt++) {
+				if (!circuitBreaker.tryAcquire(System.nanoTime())) {
+					rejectionCounters.get(endpoint).increment();
+					throw new ViatorCallRejectedException(
+							"Viator " + endpoint + " circuit breaker is open, call not attempted");
+				}
+
+				attempts++;
+				try {
+					T result = call.get();
+					circuitBreaker.onSuccess();
+					return result;
+				} catch (ViatorCallRejectedException e) {
+					circuitBreaker.onIgnored();
+					throw e;
+				} catch (ViatorApiException e) {
+					// A call we cancelled ourselves says nothing about the health of Viator
+					if (isCancellation(e)) {
+						circuitBreaker.onIgnored();
+						throw e;
+					}
+					if (!e.isRetryable()) {
+						if (e.getStatusCode() > 0) {
+							circuitBreaker.onSuccess();
+						} else {
+							circuitBreaker.onIgnored();
+						}
+						throw e;
+					}
+					if (circuitBreaker.onFailure(System.nanoTime())) {
+						log.warn("Viator {} circuit breaker opened", endpoint);
+					}
+
+					Duration delay = retryDelay(e, attempt);
+					// Once the breaker is open a retry would be rejected anyway: report the actual failure
+					if (delay == null || circuitBreaker.getState() == ViatorCircuitBreaker.State.OPEN) {
+						throw e;
+					}
+					log.warn("Viator {} call failed on attempt {}, retrying in {} ms: {}",
+							endpoint,
+							attempt,
+							delay.toMillis(),
+							e.getMessage());
+					retryCounters.get(endpoint).increment();
+					sleep(delay);
+				} catch (RuntimeException e) {
+					circuitBreaker.onIgnored();
+					throw e;
+				}
+			}
+		} finally {
+			if (attempts > 0) {
+				attemptSummaries.get(endpoint).record(attempts);
+			}
+		}
+	}
+
+	/**
+	 * @return a point-in-time view of the circuit breaker of each endpoint
+	 */
+	public Map<ViatorEndpoint, ViatorCircuitBreaker.Snapshot> circuitBreakerSnapshots() {
+		long now = System.nanoTime();
+		Map<ViatorEndpoint, ViatorCircuitBreaker.Snapshot> snapshots = new EnumMap<>(ViatorEndpoint.class);
+		circuitBreakers.forEach((endpoint, breaker) -> snapshots.put(endpoint, breaker.snapshot(now)));
+		return snapshots;
+	}
+
+	/**
+	 * Tells whether the failure comes from the interruption of the calling thread, as when a
+	 * fan-out scope cancels its stragglers.
+	 */
+	private static boolean isCancellation(Throwable failure) {
+		if (Thread.currentThread().isInterrupted()) {
+			return true;
+		}
+		for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+			// A socket timeout is an InterruptedIOException too, but it is a genuine failure
+			if (cause instanceof InterruptedException || cause instanceof ClosedByInterruptException
+					|| cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the delay before the next attempt, or {@code null} if the call must not be retried.
+	 */
+	private Duration retryDelay(ViatorApiException e, int attempt) {
+		if (attempt >= retry.maxAttempts()) {
+			return null;
+		}
+		if (e.getRetryAfter().isPresent()) {
+			Duration retryAfter = e.getRetryAfter().get();
+			return retryAfter.compareTo(retry.maxRetryAfter()) <= 0 ? retryAfter : null;
+		}
+		long exponentialBackoff = retry.initialBackoff().toNanos() << Math.min(attempt - 1, 20);
+		long backoff = Math.min(retry.maxBackoff().toNanos(), exponentialBackoff);
+		return Duration.ofNanos(ThreadLocalRandom.current().nextLong(backoff + 1));
+	}
+
+	private static void sleep(Duration delay) {
+		try {
+			Thread.sleep(delay);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ViatorApiException("Interrupted while waiting to retry a Viator call", e);
+		}
+	}
+}
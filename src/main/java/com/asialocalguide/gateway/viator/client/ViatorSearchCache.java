@@ -0,0 +1,123 @@
+package com.asialocalguide.gateway.viator.client;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.asialocalguide.gateway.viator.config.ViatorCacheProperties;
+import com.asialocalguide.gateway.viator.dto.ViatorActivityDTO;
+import com.asialocalguide.gateway.viator.dto.ViatorActivitySearchDTO;
+import com.asialocalguide.gateway.viator.dto.ViatorActivitySortingOrder;
+import com.asialocalguide.gateway.viator.dto.ViatorActivitySortingType;
+import com.asialocalguide.gateway.viator.exception.ViatorApiException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache of Viator product search results keyed by the normalized search request.
+ *
+ * <p>Requests differing only in the order or duplication of their tags share a single entry.
+ * Concurrent identical searches are deduplicated: the first caller runs the upstream search while
+ * the others wait for its result. Failed searches are not cached.
+ *
+ * <p>Hit, miss, eviction and load metrics are published under the {@code viator.search} cache name.
+ */
+@Component
+@Slf4j
+public class ViatorSearchCache {
+
+	static final String CACHE_NAME = "viator.search";
+
+	private final ViatorClient viatorClient;
+
+	private final boolean enabled;
+
+	private final Cache<SearchKey, List<ViatorActivityDTO>> cache;
+
+	/**
+	 * @param viatorClient          the Viator HTTP client running searches on a miss
+	 * @param viatorCacheProperties TTL and size of the cache
+	 * @param meterRegistry         registry publishing the cache metrics
+	 */
+	public ViatorSearchCache(ViatorClient viatorClient, ViatorCacheProperties viatorCacheProperties,
+			MeterRegistry meterRegistry) {
+		this.viatorClient = viatorClient;
+
+		ViatorCacheProperties.Search properties = viatorCacheProperties.search();
+		this.enabled = properties.enabled();
+
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(properties.maxEntries())
+				.expireAfterWrite(properties.ttl())
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+		if (enabled) {
+			log.info("Viator search cache started with a TTL of {} and {} max entries",
+					properties.ttl(),
+					properties.maxEntries());
+		}
+	}
+
+	/**
+	 * Returns the activities matching the search, running it against Viator on a miss.
+	 *
+	 * @param languageIsoCode the ISO language code of the search
+	 * @param searchDTO       the search criteria
+	 * @return list of matching activities; empty if the API returns 404
+	 * @throws ViatorApiException if the search is not cached and the Viator call fails
+	 */
+	public List<ViatorActivityDTO> getActivitiesByRequestAndLanguage(String languageIsoCode,
+			ViatorActivitySearchDTO searchDTO) {
+		if (!enabled) {
+			return viatorClient.getActivitiesByRequestAndLanguage(languageIsoCode, searchDTO);
+		}
+
+		return cache.get(SearchKey.of(languageIsoCode, searchDTO),
+				key -> List.copyOf(viatorClient.getActivitiesByRequestAndLanguage(languageIsoCode, searchDTO)));
+	}
+
+	/**
+	 * Canonical form of a search request: tags are sorted and deduplicated, nested records flattened.
+	 */
+	record SearchKey(String language, Long destination, List<Integer> tags, LocalDate startDate,
+			LocalDate endDate, Integer ratingFrom, Integer ratingTo, ViatorActivitySortingType sort,
+			ViatorActivitySortingOrder order, Integer start, Integer count, String currency) {
+
+		static SearchKey of(String language, ViatorActivitySearchDTO searchDTO) {
+			Optional<ViatorActivitySearchDTO.Filtering> filtering = Optional.ofNullable(searchDTO.filtering());
+			Optional<ViatorActivitySearchDTO.Range> rating = filtering.map(ViatorActivitySearchDTO.Filtering::rating);
+			Optional<ViatorActivitySearchDTO.Sorting> sorting = Optional.ofNullable(searchDTO.sorting());
+			Optional<ViatorActivitySearchDTO.Pagination> pagination = Optional.ofNullable(searchDTO.pagination());
+
+			List<Integer> tags = filtering.map(ViatorActivitySearchDTO.Filtering::tags)
+					.orElseGet(List::of)
+					.stream()
+					.filter(Objects::nonNull)
+					.distinct()
+					.sorted()
+					.toList();
+
+			return new SearchKey(language,
+					filtering.map(ViatorActivitySearchDTO.Filtering::destination).orElse(null),
+					tags,
+					filtering.map(ViatorActivitySearchDTO.Filtering::startDate).orElse(null),
+					filtering.map(ViatorActivitySearchDTO.Filtering::endDate).orElse(null),
+					rating.map(ViatorActivitySearchDTO.Range::from).orElse(null),
+					rating.map(ViatorActivitySearchDTO.Range::to).orElse(null),
+					sorting.map(ViatorActivitySearchDTO.Sorting::sort).orElse(null),
+					sorting.map(ViatorActivitySearchDTO.Sorting::order).orElse(null),
+					pagination.map(ViatorActivitySearchDTO.Pagination::start).orElse(null),
+					pagination.map(ViatorActivitySearchDTO.Pagination::count).orElse(null),
+					searchDTO.currency());
+		}
+	}
+}
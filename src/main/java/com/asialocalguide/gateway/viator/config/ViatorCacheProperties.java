@@ -0,0 +1,50 @@
+package com.asialocalguide.gateway.viator.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Externalized configuration of the caches in front of the Viator API.
+ *
+ * @param availability in-memory cache of availability schedules keyed by product code
+ * @param search       in-memory cache of product search results keyed by the normalized search request
+ * @param http         on-disk cache of GET responses, revalidated with conditional requests
+ */
+@ConfigurationProperties("viator.cache")
+public record ViatorCacheProperties(@DefaultValue Availability availability, @DefaultValue Search search,
+		@DefaultValue Http http) {
+
+	/**
+	 * @param enabled      whether schedules are cached; when disabled every lookup calls Viator
+	 * @param ttl          time after which a schedule is evicted and must be fetched again
+	 * @param refreshAfter age after which a schedule is still served but reloaded in the background;
+	 *                     ignored unless shorter than {@code ttl}
+	 * @param maxEntries   maximum number of cached schedules
+	 */
+	public record Availability(@DefaultValue("true") boolean enabled, @DefaultValue("6h") Duration ttl,
+			@DefaultValue("1h") Duration refreshAfter, @DefaultValue("5000") long maxEntries) {
+	}
+
+	/**
+	 * @param enabled    whether search results are cached; when disabled every search calls Viator
+	 * @param ttl        time after which a search result is evicted
+	 * @param maxEntries maximum number of cached search results
+	 */
+	public record Search(@DefaultValue("true") boolean enabled, @DefaultValue("30m") Duration ttl,
+			@DefaultValue("1000") long maxEntries) {
+	}
+
+	/**
+	 * @param enabled         whether GET responses are cached on disk
+	 * @param directory       directory holding one file per cached response
+	 * @param maxAge          time after which an unused entry is deleted
+	 * @param cleanupInterval time between two deletions of the unused entries and of the temporary
+	 *                        files left by interrupted writes
+	 */
+	public record Http(@DefaultValue("true") boolean enabled, @DefaultValue("var/viator-http-cache") Path directory,
+			@DefaultValue("30d") Duration maxAge, @DefaultValue("1h") Duration cleanupInterval) {
+	}
+}
@@ -1,15 +1,36 @@
 package com.asialocalguide.gateway.viator.config;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import com.asialocalguide.gateway.viator.client.ViatorEndpoint;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
 /**
  * Spring configuration that creates the Viator {@link RestClient} bean.
  *
- * <p>Configures the base URL, authentication header, API version, and the
- * request logging interceptor from {@link ViatorProperties}.
+ * <p>Configures the base URL, authentication header and API version from {@link ViatorProperties},
+ * and instruments each exchange with {@link ViatorMetricsInterceptor}. Requests run on a pooled
+ * Apache HttpClient whose pool size, keep-alive, idle eviction and per-endpoint timeouts
+ * come from {@link ViatorProperties.Http}. GET responses are cached on disk and revalidated with
+ * conditional requests, see {@link ViatorHttpCacheInterceptor}.
  */
 @Configuration
 public class ViatorConfig {
@@ -24,11 +45,78 @@ public class ViatorConfig {
 	}
 
 	@Bean
-	RestClient viatorRestClient() {
+	RestClient viatorRestClient(HttpComponentsClientHttpRequestFactory viatorRequestFactory,
+			ViatorCacheProperties cacheProperties, MeterRegistry meterRegistry) {
+
+		RestClient.Builder builder = RestClient.builder()
+				.baseUrl(viatorProperties.baseUrl())
+				.requestFactory(viatorRequestFactory)
+				.defaultHeaders(headers -> {
+					headers.set(viatorProperties.authHeader(), viatorProperties.apiKey());
+					headers.set("Accept", MediaType.APPLICATION_JSON + ";" + viatorProperties.apiVersion());
+				});
+
+		if (cacheProperties.http().enabled()) {
+			builder.requestInterceptor(new ViatorHttpCacheInterceptor(cacheProperties.http(), meterRegistry));
+		}
+		// Added after the cache so that it measures the exchanges actually sent to Viator
+		return builder.requestInterceptor(new ViatorMetricsInterceptor(meterRegistry)).build();
+	}
+
+	@Bean
+	HttpComponentsClientHttpRequestFactory viatorRequestFactory(MeterRegistry meterRegistry) {
+		return createRequestFactory(viatorProperties.http(), meterRegistry);
+	}
+
+	/**
+	 * Creates the pooled request factory; the request configuration, and so the read timeout, is
+	 * resolved per request from the {@link ViatorEndpoint} matching the request path.
+	 */
+	static HttpComponentsClientHttpRequestFactory createRequestFactory(ViatorProperties.Http http,
+			MeterRegistry meterRegistry) {
+		PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(http.maxConnections())
+				.setMaxConnPerRoute(http.maxConnectionsPerRoute())
+				.setDefaultConnectionConfig(ConnectionConfig.custom()
+						.setConnectTimeout(Timeout.of(http.connectTimeout()))
+						.setSocketTimeout(Timeout.of(http.readTimeout()))
+						.setTimeToLive(TimeValue.of(http.timeToLive()))
+						.build())
+				.build();
+		new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "viator").bindTo(meterRegistry);
+
+		CloseableHttpClient httpClient = HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.evictIdleConnections(TimeValue.of(http.idleTimeout()))
+				.evictExpiredConnections()
+				.addResponseInterceptorLast(new ViatorConnectionMetricsInterceptor(meterRegistry))
+				// Retries are owned by ViatorResilience, which also feeds the circuit breakers
+				.disableAutomaticRetries()
+				.build();
+
+		Map<ViatorEndpoint, RequestConfig> requestConfigs = new EnumMap<>(ViatorEndpoint.class);
+		for (ViatorEndpoint endpoint : ViatorEndpoint.values()) {
+			requestConfigs.put(endpoint, createRequestConfig(http, endpoint));
+		}
+		RequestConfig defaultRequestConfig = createRequestConfig(http, null);
+
+		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(
+				httpClient);
+		requestFactory.setHttpContextFactory((method, uri) -> {
+			HttpClientContext context = HttpClientContext.create();
+			context.setRequestConfig(ViatorEndpoint.fromPath(uri.getPath())
+					.map(requestConfigs::get)
+					.orElse(defaultRequestConfig));
+			return context;
+		});
+		return requestFactory;
+	}
 
-		return RestClient.builder().baseUrl(viatorProperties.baseUrl()).defaultHeaders(headers -> {
-			headers.set(viatorProperties.authHeader(), viatorProperties.apiKey());
-			headers.set("Accept", MediaType.APPLICATION_JSON + ";" + viatorProperties.apiVersion());
-		}).requestInterceptor(new ViatorRequestInterceptor()).build();
+	private static RequestConfig createRequestConfig(ViatorProperties.Http http, ViatorEndpoint endpoint) {
+		return RequestConfig.custom()
+				.setConnectionRequestTimeout(Timeout.of(http.connectionRequestTimeout()))
+				.setResponseTimeout(Timeout.of(http.readTimeout(endpoint)))
+				.setConnectionKeepAlive(TimeValue.of(http.keepAlive()))
+				.build();
 	}
 }
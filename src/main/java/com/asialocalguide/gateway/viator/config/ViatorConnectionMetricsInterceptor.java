@@ -0,0 +1,55 @@
+package com.asialocalguide.gateway.viator.config;
+
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpResponseInterceptor;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link HttpResponseInterceptor} counting whether each Viator exchange ran on a new connection,
+ * which paid for a TCP and TLS handshake, or on a connection reused from the pool.
+ *
+ * <p>Published as {@code viator.client.connections} with an {@code outcome} tag of {@code new} or
+ * {@code reused}.
+ */
+class ViatorConnectionMetricsInterceptor implements HttpResponseInterceptor {
+
+	private final Counter newConnections;
+
+	private final Counter reusedConnections;
+
+	/**
+	 * @param meterRegistry registry publishing the connection counters
+	 */
+	ViatorConnectionMetricsInterceptor(MeterRegistry meterRegistry) {
+		this.newConnections = Counter.builder("viator.client.connections")
+				.description("Viator exchanges by whether their connection was new or reused from the pool")
+				.tag("outcome", "new")
+				.register(meterRegistry);
+		this.reusedConnections = Counter.builder("viator.client.connections")
+				.description("Viator exchanges by whether their connection was new or reused from the pool")
+				.tag("outcome", "reused")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void process(HttpResponse response, EntityDetails entity, HttpContext context) {
+		var endpointDetails = HttpCoreContext.cast(context).getEndpointDetails();
+		if (endpointDetails == null) {
+			return;
+		}
+		// The first request sent over a connection is the one that opened it
+		if (endpointDetails.getRequestCount() > 1) {
+			reusedConnections.increment();
+		} else {
+			newConnections.increment();
+		}
+	}
+}
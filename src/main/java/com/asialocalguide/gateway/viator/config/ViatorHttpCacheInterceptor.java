@@ -0,0 +1,545 @@
+package com.asialocalguide.gateway.viator.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.asialocalguide.gateway.viator.client.ViatorEndpoint;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link ClientHttpRequestInterceptor} keeping a persistent cache of Viator GET responses on disk
+ * and revalidating it with conditional requests.
+ *
+ * <p>A {@code 200} response carrying an {@code ETag} or {@code Last-Modified} header is copied to
+ * one file per request, keyed by URI and {@code Accept-Language}, while the caller reads it, so
+ * that the body is never held in memory. The file replaces the entry once the body was read to
+ * its end. The next identical request sends {@code If-None-Match} and {@code If-Modified-Since}; a
+ * {@code 304} answer is replaced by the stored response, so Viator does not resend the body and
+ * the cache survives restarts. Entries not used for {@link ViatorCacheProperties.Http#maxAge()},
+ * and temporary files left by an interrupted write, are deleted at startup and then by the first
+ * request after each {@link ViatorCacheProperties.Http#cleanupInterval()}.
+ *
+ * <p>A response that cannot be written to disk is still served to the caller, uncached, so that a
+ * local disk failure is never reported as a failed Viator call.
+ *
+ * <p>Cache hits (304 served from disk) and stored responses are published as
+ * {@code viator.client.http.cache} with an {@code outcome} tag of {@code hit} or {@code stored}.
+ */
+@Slf4j
+class ViatorHttpCacheInterceptor implements ClientHttpRequestInterceptor {
+
+	private static final int MAGIC = 0x56484331;
+
+	private static final String ENTRY_SUFFIX = ".entry";
+
+	private static final String TEMP_PREFIX = "viator-";
+
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private final Path directory;
+
+	private final Duration maxAge;
+
+	private final Duration cleanupInterval;
+
+	private final AtomicLong nextCleanupNanos;
+
+	private final Counter hits;
+
+	private final Counter stores;
+
+	/**
+	 * @param settings      location and retention of the cache
+	 * @param meterRegistry registry publishing the cache counters
+	 * @throws IllegalStateException if the cache directory cannot be created
+	 */
+	ViatorHttpCacheInterceptor(ViatorCacheProperties.Http settings, MeterRegistry meterRegistry) {
+		this.directory = settings.directory();
+		this.maxAge = settings.maxAge();
+		this.cleanupInterval = settings.cleanupInterval();
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot create Viator HTTP cache directory " + directory, e);
+		}
+		this.hits = Counter.builder("viator.client.http.cache")
+				.description("Viator GET responses by whether they were served from or stored in the disk cache")
+				.tag("outcome", "hit")
+				.register(meterRegistry);
+		this.stores = Counter.builder("viator.client.http.cache")
+				.description("Viator GET responses by whether they were served from or stored in the disk cache")
+				.tag("outcome", "stored")
+				.register(meterRegistry);
+
+		int deleted = deleteExpiredFiles();
+		this.nextCleanupNanos = new AtomicLong(System.nanoTime() + cleanupInterval.toNanos());
+		log.info("Viator HTTP cache in {} ready, {} expired files deleted", directory, deleted);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+
+		if (request.getMethod() != HttpMethod.GET || ViatorEndpoint.fromPath(request.getURI().getPath()).isEmpty()) {
+			return execution.execute(request, body);
+		}
+		cleanUpIfDue();
+
+		String key = request.getURI() + " " + request.getHeaders().getFirst(HttpHeaders.ACCEPT_LANGUAGE);
+		Path entryPath = directory.resolve(fileName(key));
+		Entry entry = readEntry(entryPath, key);
+
+		if (entry != null) {
+			if (entry.etag() != null) {
+				request.getHeaders().setIfNoneMatch(entry.etag());
+			}
+			if (entry.lastModified() != null) {
+				request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, entry.lastModified());
+			}
+		}
+
+		ClientHttpResponse response = execution.execute(request, body);
+
+		if (entry != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+			response.close();
+			touch(entryPath);
+			hits.increment();
+			return new StoredResponse(entryPath, entry);
+		}
+
+		String etag = response.getHeaders().getETag();
+		String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+		if (response.getStatusCode() != HttpStatus.OK || (etag == null && lastModified == null)) {
+			return response;
+		}
+
+		Entry stored = new Entry(key, etag, lastModified, response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+		return new StoringResponse(response, entryPath, stored);
+	}
+
+	/**
+	 * Reads the header of an entry.
+	 *
+	 * @return the entry, or {@code null} if it is absent, unreadable or stored under another key
+	 */
+	private static Entry readEntry(Path entryPath, String key) {
+		if (!Files.isRegularFile(entryPath)) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(Files.newInputStream(entryPath))) {
+			if (in.readInt() != MAGIC) {
+				return null;
+			}
+			in.readInt();
+			String storedKey = in.readUTF();
+			String etag = in.readUTF();
+			String lastModified = in.readUTF();
+			String contentType = in.readUTF();
+			if (!storedKey.equals(key)) {
+				return null;
+			}
+			return new Entry(key,
+					etag.isEmpty() ? null : etag,
+					lastModified.isEmpty() ? null : lastModified,
+					contentType.isEmpty() ? null : contentType);
+		} catch (IOException e) {
+			log.warn("Ignoring unreadable Viator HTTP cache entry {}: {}", entryPath, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Deletes the expired files if the cleanup interval elapsed; a single caller wins each interval.
+	 */
+	private void cleanUpIfDue() {
+		long now = System.nanoTime();
+		long next = nextCleanupNanos.get();
+		if (now - next >= 0 && nextCleanupNanos.compareAndSet(next, now + cleanupInterval.toNanos())) {
+			int deleted = deleteExpiredFiles();
+			if (deleted > 0) {
+				log.info("Deleted {} expired files from Viator HTTP cache {}", deleted, directory);
+			}
+		}
+	}
+
+	/**
+	 * Deletes the entries unused for the max age, and the temporary files older than the cleanup
+	 * interval, which no write still in progress can own.
+	 *
+	 * @return the number of deleted files
+	 */
+	private int deleteExpiredFiles() {
+		Instant now = Instant.now();
+		return deleteFilesModifiedBefore("*" + ENTRY_SUFFIX, now.minus(maxAge))
+				+ deleteFilesModifiedBefore(TEMP_PREFIX + "*" + TEMP_SUFFIX, now.minus(cleanupInterval));
+	}
+
+	private int deleteFilesModifiedBefore(String glob, Instant cutoff) {
+		int deleted = 0;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+			for (Path path : files) {
+				try {
+					if (Files.getLastModifiedTime(path).toInstant().isBefore(cutoff) && Files.deleteIfExists(path)) {
+						deleted++;
+					}
+				} catch (IOException e) {
+					log.debug("Failed to delete Viator HTTP cache file {}: {}", path, e.getMessage());
+				}
+			}
+		} catch (IOException e) {
+			log.warn("Failed to clean up Viator HTTP cache directory {}: {}", directory, e.getMessage());
+		}
+		return deleted;
+	}
+
+	private static void touch(Path entryPath) {
+		try {
+			Files.setLastModifiedTime(entryPath, FileTime.from(Instant.now()));
+		} catch (IOException e) {
+			log.debug("Failed to touch Viator HTTP cache entry {}: {}", entryPath, e.getMessage());
+		}
+	}
+
+	private static String fileName(String key) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest) + ENTRY_SUFFIX;
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	/**
+	 * Header of a cache entry.
+	 *
+	 * @param key          URI and language of the cached request
+	 * @param etag         {@code ETag} of the cached response, or {@code null}
+	 * @param lastModified {@code Last-Modified} of the cached response, or {@code null}
+	 * @param contentType  {@code Content-Type} of the cached response, or {@code null}
+	 */
+	private record Entry(String key, String etag, String lastModified, String contentType) {
+	}
+
+	/**
+	 * Viator response whose body is copied to a temporary file as the caller reads it. The file is
+	 * moved over the entry once the body was read to its end, so that readers never see a partial
+	 * entry. On a write failure the copy stops and the caller keeps reading the body from Viator.
+	 */
+	private final class StoringResponse implements ClientHttpResponse {
+
+		/** Unread bytes still read on close to reach the end of the body, such as a trailing newline */
+		private static final int MAX_DRAIN_BYTES = 8192;
+
+		private final ClientHttpResponse response;
+
+		private final Path entryPath;
+
+		private final Entry entry;
+
+		private InputStream body;
+
+		private Path tempPath;
+
+		private OutputStream out;
+
+		private boolean complete;
+
+		StoringResponse(ClientHttpResponse response, Path entryPath, Entry entry) {
+			this.response = response;
+			this.entryPath = entryPath;
+			this.entry = entry;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return response.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return response.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return response.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			if (body == null) {
+				InputStream source = response.getBody();
+				openEntry();
+				body = new CopyingInputStream(source);
+			}
+			return body;
+		}
+
+		@Override
+		public void close() {
+			try {
+				if (body != null) {
+					body.close();
+				}
+			} catch (IOException e) {
+				log.debug("Failed to close Viator response body: {}", e.getMessage());
+			} finally {
+				response.close();
+			}
+		}
+
+		/**
+		 * Creates the temporary file and writes the entry header to it.
+		 */
+		private void openEntry() {
+			ByteArrayOutputStream header = new ByteArrayOutputStream();
+			try (DataOutputStream headerOut = new DataOutputStream(header)) {
+				headerOut.writeUTF(entry.key());
+				headerOut.writeUTF(entry.etag() == null ? "" : entry.etag());
+				headerOut.writeUTF(entry.lastModified() == null ? "" : entry.lastModified());
+				headerOut.writeUTF(entry.contentType() == null ? "" : entry.contentType());
+
+				tempPath = Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX);
+				out = Files.newOutputStream(tempPath);
+				ByteBuffer prefix = ByteBuffer.allocate(2 * Integer.BYTES).putInt(MAGIC).putInt(header.size());
+				out.write(prefix.array());
+				header.writeTo(out);
+			} catch (IOException e) {
+				abandonEntry(e);
+			}
+		}
+
+		private void copy(byte[] bytes, int offset, int length) {
+			if (out != null) {
+				try {
+					out.write(bytes, offset, length);
+				} catch (IOException e) {
+					abandonEntry(e);
+				}
+			}
+		}
+
+		/**
+		 * Moves a complete copy over the entry, and deletes the temporary file in any case.
+		 */
+		private void closeEntry() {
+			if (out == null) {
+				return;
+			}
+			try {
+				out.close();
+				if (complete) {
+					Files.move(tempPath,
+							entryPath,
+							StandardCopyOption.REPLACE_EXISTING,
+							StandardCopyOption.ATOMIC_MOVE);
+					stores.increment();
+				}
+			} catch (IOException e) {
+				log.warn("Failed to write Viator HTTP cache entry {}: {}", entryPath, e.getMessage());
+			} finally {
+				out = null;
+				deleteTempFile();
+			}
+		}
+
+		private void abandonEntry(IOException e) {
+			log.warn("Failed to write Viator HTTP cache entry {}, serving the response uncached: {}",
+					entryPath,
+					e.getMessage());
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException closeFailure) {
+					e.addSuppressed(closeFailure);
+				}
+				out = null;
+			}
+			deleteTempFile();
+		}
+
+		private void deleteTempFile() {
+			if (tempPath != null) {
+				try {
+					Files.deleteIfExists(tempPath);
+				} catch (IOException e) {
+					log.debug("Failed to delete Viator HTTP cache file {}: {}", tempPath, e.getMessage());
+				}
+			}
+		}
+
+		/**
+		 * Body read from Viator, copying each read chunk to the entry.
+		 */
+		private final class CopyingInputStream extends InputStream {
+
+			private final InputStream source;
+
+			CopyingInputStream(InputStream source) {
+				this.source = source;
+			}
+
+			@Override
+			public int read() throws IOException {
+				int b = source.read();
+				if (b < 0) {
+					complete = true;
+				} else {
+					copy(new byte[] { (byte) b }, 0, 1);
+				}
+				return b;
+			}
+
+			@Override
+			public int read(byte[] bytes, int offset, int length) throws IOException {
+				int read = source.read(bytes, offset, length);
+				if (read < 0) {
+					complete = true;
+				} else {
+					copy(bytes, offset, read);
+				}
+				return read;
+			}
+
+			@Override
+			public int available() throws IOException {
+				return source.available();
+			}
+
+			@Override
+			public void close() throws IOException {
+				try {
+					drain();
+				} finally {
+					try {
+						source.close();
+					} finally {
+						closeEntry();
+					}
+				}
+			}
+
+			/**
+			 * Reads what a parser stopping at the end of the document left, up to a small limit.
+			 */
+			private void drain() {
+				if (complete || out == null) {
+					return;
+				}
+				byte[] buffer = new byte[512];
+				try {
+					int drained = 0;
+					int read = 0;
+					while (drained <= MAX_DRAIN_BYTES && read >= 0) {
+						read = read(buffer, 0, buffer.length);
+						drained += Math.max(read, 0);
+					}
+				} catch (IOException e) {
+					log.debug("Failed to read the end of Viator response for {}: {}", entryPath, e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@code 200} response whose body is streamed from a cache entry. The body offset is read from
+	 * the opened file, which stays valid even if the entry is replaced meanwhile.
+	 */
+	private static final class StoredResponse implements ClientHttpResponse {
+
+		private final Path entryPath;
+
+		private final HttpHeaders headers = new HttpHeaders();
+
+		private InputStream body;
+
+		StoredResponse(Path entryPath, Entry entry) {
+			this.entryPath = entryPath;
+			if (entry.etag() != null) {
+				headers.setETag(entry.etag());
+			}
+			if (entry.lastModified() != null) {
+				headers.set(HttpHeaders.LAST_MODIFIED, entry.lastModified());
+			}
+			if (entry.contentType() != null) {
+				headers.set(HttpHeaders.CONTENT_TYPE, entry.contentType());
+			}
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() {
+			return HttpStatus.OK;
+		}
+
+		@Override
+		public String getStatusText() {
+			return HttpStatus.OK.getReasonPhrase();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return headers;
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			if (body == null) {
+				FileChannel channel = FileChannel.open(entryPath, StandardOpenOption.READ);
+				ByteBuffer prefix = ByteBuffer.allocate(2 * Integer.BYTES);
+				if (channel.read(prefix, 0) < prefix.capacity()) {
+					channel.close();
+					throw new IOException("Truncated Viator HTTP cache entry " + entryPath);
+				}
+				channel.position(2L * Integer.BYTES + prefix.getInt(Integer.BYTES));
+				body = Channels.newInputStream(channel);
+			}
+			return body;
+		}
+
+		@Override
+		public void close() {
+			if (body != null) {
+				try {
+					body.close();
+				} catch (IOException e) {
+					log.debug("Failed to close Viator HTTP cache entry {}: {}", entryPath, e.getMessage());
+				}
+			}
+		}
+	}
+}
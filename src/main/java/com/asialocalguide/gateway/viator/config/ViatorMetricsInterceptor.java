@@ -0,0 +1,193 @@
+package com.asialocalguide.gateway.viator.config;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.asialocalguide.gateway.viator.client.ViatorEndpoint;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link ClientHttpRequestInterceptor} instrumenting every HTTP exchange with Viator.
+ *
+ * <p>Each exchange is timed from the request until its response is closed, so that the time spent
+ * reading the body is included, and published as {@code viator.client.requests} with the endpoint,
+ * its URI template and the status class ({@code 2xx} ... {@code 5xx}, or {@code IO_ERROR} when no
+ * response was received) as tags. The bytes read from each response body are published as
+ * {@code viator.client.response.size}. Retries are not visible here: each attempt is one exchange,
+ * and the attempts per call are published by the resilience layer.
+ *
+ * <p>Instead of a log line per exchange, one exchange in {@value #LOG_SAMPLE_INTERVAL} and every
+ * error are logged at DEBUG level.
+ */
+@Slf4j
+class ViatorMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+	static final int LOG_SAMPLE_INTERVAL = 100;
+
+	private static final String UNKNOWN = "UNKNOWN";
+
+	private final MeterRegistry meterRegistry;
+
+	private final AtomicLong exchangeCount = new AtomicLong();
+
+	/**
+	 * @param meterRegistry registry publishing the exchange metrics
+	 */
+	ViatorMetricsInterceptor(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+
+		ViatorEndpoint endpoint = ViatorEndpoint.fromPath(request.getURI().getPath()).orElse(null);
+		long startNanos = System.nanoTime();
+
+		try {
+			return new MeteredResponse(execution.execute(request, body), request, endpoint, startNanos);
+		} catch (IOException e) {
+			record(request, endpoint, "IO_ERROR", startNanos, 0);
+			throw e;
+		}
+	}
+
+	private void record(HttpRequest request, ViatorEndpoint endpoint, String status, long startNanos,
+			long responseBytes) {
+		long durationNanos = System.nanoTime() - startNanos;
+		String endpointName = endpoint == null ? UNKNOWN : endpoint.name();
+		String uri = endpoint == null ? UNKNOWN : endpoint.getPath();
+
+		Timer.builder("viator.client.requests")
+				.description("Duration of HTTP exchanges with Viator, response body included")
+				.tag("endpoint", endpointName)
+				.tag("uri", uri)
+				.tag("status", status)
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(meterRegistry)
+				.record(durationNanos, TimeUnit.NANOSECONDS);
+		DistributionSummary.builder("viator.client.response.size")
+				.description("Bytes read from the body of Viator responses")
+				.baseUnit("bytes")
+				.tag("endpoint", endpointName)
+				.register(meterRegistry)
+				.record(responseBytes);
+
+		if (log.isDebugEnabled()
+				&& (exchangeCount.incrementAndGet() % LOG_SAMPLE_INTERVAL == 0 || !status.equals("2xx"))) {
+			log.debug("Viator {} {} answered {} in {} ms with {} bytes",
+					request.getMethod(),
+					request.getURI(),
+					status,
+					TimeUnit.NANOSECONDS.toMillis(durationNanos),
+					responseBytes);
+		}
+	}
+
+	private static String statusClass(HttpStatusCode statusCode) {
+		return statusCode.value() / 100 + "xx";
+	}
+
+	/**
+	 * Response counting the bytes read from its body and recording the exchange once closed.
+	 */
+	private final class MeteredResponse implements ClientHttpResponse {
+
+		private final ClientHttpResponse delegate;
+
+		private final HttpRequest request;
+
+		private final ViatorEndpoint endpoint;
+
+		private final long startNanos;
+
+		private long bytesRead;
+
+		private InputStream body;
+
+		private boolean closed;
+
+		MeteredResponse(ClientHttpResponse delegate, HttpRequest request, ViatorEndpoint endpoint,
+				long startNanos) {
+			this.delegate = delegate;
+			this.request = request;
+			this.endpoint = endpoint;
+			this.startNanos = startNanos;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return delegate.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return delegate.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return delegate.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			if (body == null) {
+				body = new FilterInputStream(delegate.getBody()) {
+
+					@Override
+					public int read() throws IOException {
+						int b = super.read();
+						if (b >= 0) {
+							bytesRead++;
+						}
+						return b;
+					}
+
+					@Override
+					public int read(byte[] buffer, int offset, int length) throws IOException {
+						int n = super.read(buffer, offset, length);
+						if (n > 0) {
+							bytesRead += n;
+						}
+						return n;
+					}
+				};
+			}
+			return body;
+		}
+
+		@Override
+		public void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			String status;
+			try {
+				status = statusClass(delegate.getStatusCode());
+			} catch (IOException e) {
+				status = "IO_ERROR";
+			}
+			delegate.close();
+			record(request, endpoint, status, startNanos, bytesRead);
+		}
+	}
+}
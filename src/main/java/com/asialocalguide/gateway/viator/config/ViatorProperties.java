@@ -1,15 +1,115 @@
 package com.asialocalguide.gateway.viator.config;
 
+import java.time.Duration;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import com.asialocalguide.gateway.viator.client.ViatorEndpoint;
 
 /**
  * Externalized configuration properties for the Viator API integration.
  *
- * @param apiKey     the Viator API key used for authentication
- * @param authHeader the HTTP header name to carry the API key
- * @param baseUrl    the base URL of the Viator REST API
- * @param apiVersion the API version string appended to the {@code Accept} header
+ * @param apiKey         the Viator API key used for authentication
+ * @param authHeader     the HTTP header name to carry the API key
+ * @param baseUrl        the base URL of the Viator REST API
+ * @param apiVersion     the API version string appended to the {@code Accept} header
+ * @param http           connection pool and timeouts of the HTTP transport
+ * @param limits         concurrency cap and rate limits of outbound calls
+ * @param retry          retry policy of transient failures
+ * @param circuitBreaker per-endpoint circuit breaker settings
+ * @param fanOut         failure policy of parallel calls made for one request
  */
 @ConfigurationProperties("viator")
-public record ViatorProperties(String apiKey, String authHeader, String baseUrl, String apiVersion) {
+public record ViatorProperties(String apiKey, String authHeader, String baseUrl, String apiVersion,
+		@DefaultValue Http http, @DefaultValue Limits limits, @DefaultValue Retry retry,
+		@DefaultValue CircuitBreaker circuitBreaker, @DefaultValue FanOut fanOut) {
+
+	/**
+	 * @param connectTimeout           time allowed to open a new connection
+	 * @param readTimeout              default time allowed between two packets of a response
+	 * @param readTimeouts             read timeout overrides per endpoint
+	 * @param connectionRequestTimeout time a request may wait for a pooled connection
+	 * @param maxConnections           maximum number of pooled connections
+	 * @param maxConnectionsPerRoute   maximum number of pooled connections to the Viator host
+	 * @param keepAlive                keep-alive of a connection when Viator does not advertise one
+	 * @param idleTimeout              time after which idle connections are evicted from the pool
+	 * @param timeToLive               maximum lifetime of a connection, so that DNS changes are picked up
+	 */
+	public record Http(@DefaultValue("2s") Duration connectTimeout, @DefaultValue("10s") Duration readTimeout,
+			Map<ViatorEndpoint, Duration> readTimeouts, @DefaultValue("5s") Duration connectionRequestTimeout,
+			@DefaultValue("100") int maxConnections, @DefaultValue("50") int maxConnectionsPerRoute,
+			@DefaultValue("30s") Duration keepAlive, @DefaultValue("30s") Duration idleTimeout,
+			@DefaultValue("5m") Duration timeToLive) {
+
+		/**
+		 * Returns the read timeout of the endpoint, falling back to the default read timeout.
+		 *
+		 * @param endpoint the called endpoint
+		 * @return the read timeout
+		 */
+		public Duration readTimeout(ViatorEndpoint endpoint) {
+			if (readTimeouts == null || endpoint == null) {
+				return readTimeout;
+			}
+			return readTimeouts.getOrDefault(endpoint, readTimeout);
+		}
+	}
+
+	/**
+	 * @param maxConcurrentCalls       maximum number of Viator calls in flight at once
+	 * @param permitsPerSecond         default sustained rate of calls per endpoint
+	 * @param endpointPermitsPerSecond sustained rate overrides per endpoint
+	 * @param burst                    number of calls an idle endpoint may issue without waiting
+	 * @param maxWait                  longest time a call waits for a permit before failing
+	 */
+	public record Limits(@DefaultValue("16") int maxConcurrentCalls, @DefaultValue("10") double permitsPerSecond,
+			Map<ViatorEndpoint, Double> endpointPermitsPerSecond, @DefaultValue("10") int burst,
+			@DefaultValue("30s") Duration maxWait) {
+
+		/**
+		 * Returns the sustained rate of the endpoint, falling back to the default rate.
+		 *
+		 * @param endpoint the called endpoint
+		 * @return the rate in calls per second
+		 */
+		public double permitsPerSecond(ViatorEndpoint endpoint) {
+			if (endpointPermitsPerSecond == null) {
+				return permitsPerSecond;
+			}
+			return endpointPermitsPerSecond.getOrDefault(endpoint, permitsPerSecond);
+		}
+	}
+
+	/**
+	 * @param maxAttempts    maximum number of attempts of a call, the first one included
+	 * @param initialBackoff upper bound of the jittered delay before the first retry, doubled at each
+	 *                       retry
+	 * @param maxBackoff     cap of the exponential backoff
+	 * @param maxRetryAfter  longest {@code Retry-After} delay honoured; a longer one is not retried
+	 */
+	public record Retry(@DefaultValue("3") int maxAttempts, @DefaultValue("200ms") Duration initialBackoff,
+			@DefaultValue("2s") Duration maxBackoff, @DefaultValue("5s") Duration maxRetryAfter) {
+	}
+
+	/**
+	 * @param enabled              whether calls go through a circuit breaker
+	 * @param slidingWindowSize    number of most recent calls the failure rate is computed on
+	 * @param minimumCalls         number of calls recorded before the breaker may open
+	 * @param failureRateThreshold failure rate, in percent, at which the breaker opens
+	 * @param openDuration         time the breaker stays open before letting trial calls through
+	 * @param halfOpenCalls        number of successful trial calls closing the breaker again
+	 */
+	public record CircuitBreaker(@DefaultValue("true") boolean enabled, @DefaultValue("20") int slidingWindowSize,
+			@DefaultValue("10") int minimumCalls, @DefaultValue("50") float failureRateThreshold,
+			@DefaultValue("30s") Duration openDuration, @DefaultValue("3") int halfOpenCalls) {
+	}
+
+	/**
+	 * @param toleratedFailureRate failure rate, in percent, of the calls of a fan-out above which the
+	 *                             whole fan-out fails and its remaining calls are cancelled
+	 */
+	public record FanOut(@DefaultValue("50") float toleratedFailureRate) {
+	}
 }
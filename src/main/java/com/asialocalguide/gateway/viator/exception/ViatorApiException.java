@@ -1,15 +1,29 @@
 package com.asialocalguide.gateway.viator.exception;
 
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.web.client.ResourceAccessException;
+
 /**
  * Thrown when a Viator API call fails with an unexpected HTTP status or a network error.
+ *
+ * <p>Carries the HTTP status of the response, if any, the error code found in its body and the
+ * delay requested by its {@code Retry-After} header.
  */
 public class ViatorApiException extends RuntimeException {
 
+	private final int statusCode;
+
+	private final String errorCode;
+
+	private final Duration retryAfter;
+
 	/**
 	 * @param message description of the API failure
 	 */
 	public ViatorApiException(String message) {
-		super(message);
+		this(message, 0, null);
 	}
 
 	/**
@@ -18,5 +32,61 @@ public class ViatorApiException extends RuntimeException {
 	 */
 	public ViatorApiException(String message, Throwable cause) {
 		super(message, cause);
+		this.statusCode = 0;
+		this.errorCode = null;
+		this.retryAfter = null;
+	}
+
+	/**
+	 * @param message    description of the API failure
+	 * @param statusCode HTTP status of the Viator response
+	 * @param retryAfter delay requested by the {@code Retry-After} header, or {@code null}
+	 */
+	public ViatorApiException(String message, int statusCode, Duration retryAfter) {
+		this(message, statusCode, null, retryAfter);
+	}
+
+	/**
+	 * @param message    description of the API failure
+	 * @param statusCode HTTP status of the Viator response
+	 * @param errorCode  {@code code} field of the Viator error body, or {@code null}
+	 * @param retryAfter delay requested by the {@code Retry-After} header, or {@code null}
+	 */
+	public ViatorApiException(String message, int statusCode, String errorCode, Duration retryAfter) {
+		super(message);
+		this.statusCode = statusCode;
+		this.errorCode = errorCode;
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * @return HTTP status of the Viator response, or {@code 0} if no response was received
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * @return error code of the Viator response, such as {@code BAD_REQUEST}
+	 */
+	public Optional<String> getErrorCode() {
+		return Optional.ofNullable(errorCode);
+	}
+
+	/**
+	 * @return delay requested by the {@code Retry-After} header of the Viator response
+	 */
+	public Optional<Duration> getRetryAfter() {
+		return Optional.ofNullable(retryAfter);
+	}
+
+	/**
+	 * Tells whether the failure is transient: Viator throttled the call (429), failed on its side
+	 * (5xx), or could not be reached.
+	 *
+	 * @return {@code true} if the same call may succeed later
+	 */
+	public boolean isRetryable() {
+		return statusCode == 429 || statusCode >= 500 || getCause() instanceof ResourceAccessException;
 	}
 }
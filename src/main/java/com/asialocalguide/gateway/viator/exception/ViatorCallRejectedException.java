@@ -0,0 +1,18 @@
+package com.asialocalguide.gateway.viator.exception;
+
+/**
+ * Thrown when a Viator call is rejected locally, before any request is sent: the rate or
+ * concurrency limit is exceeded, or the circuit breaker of the endpoint is open.
+ *
+ * <p>A rejected call says nothing about the health of Viator, so it is neither retried nor
+ * counted by the circuit breaker.
+ */
+public class ViatorCallRejectedException extends ViatorApiException {
+
+	/**
+	 * @param message description of the rejection
+	 */
+	public ViatorCallRejectedException(String message) {
+		super(message);
+	}
+}
@@ -6,8 +6,11 @@ import com.asialocalguide.gateway.viator.dto.ViatorActivityAvailabilityDTO;
 import com.asialocalguide.gateway.viator.dto.ViatorActivityDTO;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.*;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Utility class that maps Viator availability schedules to the
@@ -36,21 +39,21 @@ public class ViatorActivityAvailabilityMapper {
 	}
 
 	/**
-	 * Combines multiple ViatorActivityAvailabilityDTO objects into a single 3D
-	 * availability array:
+	 * Combines multiple ViatorActivityAvailabilityDTO objects into a single
+	 * availability bitset per activity over the absolute slots:
 	 *
 	 * <p>
-	 * [activityIndex][dayIndex][timeSlotIndex]
+	 * dayIndex * numTimeSlots + timeSlotIndex
 	 *
 	 * <p>
-	 * Where: - 'activityIndex' runs over **all** BookableItems from **all** DTOs. -
+	 * Where: - the activity index runs over **all** BookableItems from **all** DTOs. -
 	 * 'dayIndex' covers the range from the earliest startDate to the latest endDate
 	 * found. - 'timeSlotIndex' covers every unique startTime found in all
 	 * TimedEntries.
 	 *
 	 * <p>
-	 * The returned array element is TRUE if that (activity, day, timeSlot) is
-	 * available, FALSE otherwise.
+	 * A slot is set if that (activity, day, timeSlot) is available, and the earliest
+	 * start time of the slot is stored as minute of day.
 	 */
 	public static ActivityPlanningData mapToActivityData(List<ViatorActivityDTO> activities,
 			List<ViatorActivityAvailabilityDTO> availabilities, LocalDate minDate, LocalDate maxDate) {
@@ -58,80 +61,118 @@ public class ViatorActivityAvailabilityMapper {
 		if (activities == null || activities.isEmpty() || availabilities == null || availabilities.isEmpty()
 				|| minDate == null || maxDate == null) {
 			// Input data invalid => empty arrays
-			return new ActivityPlanningData(new boolean[0][0][0], new String[0][0][0], new int[0], new int[0]);
+			return new ActivityPlanningData(0, 0, new int[0], new int[0]);
 		}
 
 		// 1) Flatten all BookableItems
 		List<MappedActivity> allActivities = flattenDtos(availabilities);
 
-		// 2) Build day list
-		List<LocalDate> allDates = buildDateList(minDate, maxDate);
+		if (allActivities.size() != activities.size()) {
+			throw new IllegalArgumentException("Inconsistent activity data sizes");
+		}
+
+		// 2) Days are addressed by index from minDate
+		int numDays = (int) Math.max(0, ChronoUnit.DAYS.between(minDate, maxDate) + 1);
 
 		// Timeslots: number of enum values in TimeSlot class
 		int numTimeSlots = OneHourTimeSlot.values().length;
 
-		// Initialize the 3D array: [activityIndex][dayIndex][timeSlotIndex]
-		boolean[][][] availability = new boolean[allActivities.size()][allDates.size()][numTimeSlots];
-		String[][][] startTimes = new String[allActivities.size()][allDates.size()][numTimeSlots];
-
-		// Return the filled 3D arrays for availability and startTimes
-		fillAvailability(allActivities, allDates, availability, startTimes);
-
-		return new ActivityPlanningData(availability,
-				startTimes,
+		ActivityPlanningData activityPlanningData = new ActivityPlanningData(numDays,
+				numTimeSlots,
 				mapActivityRating(activities),
 				mapActivityDuration(activities));
+
+		// Fill the availability bitsets and start minutes
+		fillAvailability(allActivities, minDate, maxDate, activityPlanningData);
+
+		return activityPlanningData;
 	}
 
-	private static void fillAvailability(List<MappedActivity> allActivities, List<LocalDate> allDates,
-			boolean[][][] availability, String[][][] startTimes) {
+	/**
+	 * Marks every (activity, day, timeSlot) covered by a season, an allowed day of week and a timed
+	 * entry that is not listed as unavailable.
+	 *
+	 * <p>Dates are handled as day indices relative to {@code minDate}: season bounds are parsed once
+	 * and clipped to the planning window, days of week are a bitmask and the unavailable dates of a
+	 * timed entry are collected into a reusable bitset over the window, so the per-day loop does not
+	 * allocate. ISO dates sort lexicographically, which lets unavailable dates outside the window be
+	 * skipped without parsing them; the ones inside are parsed by hand.
+	 */
+	private static void fillAvailability(List<MappedActivity> allActivities, LocalDate minDate, LocalDate maxDate,
+			ActivityPlanningData activityPlanningData) {
+
+		int numDays = activityPlanningData.getNumDays();
+		int numTimeSlots = activityPlanningData.getNumTimeSlots();
+		if (numDays == 0) {
+			return;
+		}
 
-		DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+		long minEpochDay = minDate.toEpochDay();
+		String minDateIso = minDate.toString();
+		String maxDateIso = maxDate.toString();
+
+		// Day of week bit of every day index
+		int[] dayOfWeekBits = new int[numDays];
+		int firstDayOfWeek = minDate.getDayOfWeek().ordinal();
+		for (int d = 0; d < numDays; d++) {
+			dayOfWeekBits[d] = 1 << ((firstDayOfWeek + d) % 7);
+		}
+
+		long[] unavailableDays = new long[(numDays + Long.SIZE - 1) / Long.SIZE];
 
 		for (int a = 0; a < allActivities.size(); a++) {
 			MappedActivity activity = allActivities.get(a);
 
 			for (ViatorActivityAvailabilityDTO.Season season : activity.seasons) {
-				LocalDate seasonStart = LocalDate.parse(season.startDate(), dateFormatter);
+				int fromDay = (int) Math.max(0, toEpochDay(season.startDate()) - minEpochDay);
 				// If endDate is not provided, consider the season does not end
-				LocalDate seasonEnd = (season.endDate() == null || season.endDate().isBlank()) ? LocalDate.MAX
-						: LocalDate.parse(season.endDate(), dateFormatter);
+				int toDay = (season.endDate() == null || season.endDate().isBlank()) ? numDays - 1
+						: (int) Math.min(numDays - 1L, toEpochDay(season.endDate()) - minEpochDay);
+
+				if (fromDay > toDay) {
+					continue;
+				}
 
 				for (ViatorActivityAvailabilityDTO.PricingRecord pricingRecord : season.pricingRecords()) {
-					List<DayOfWeek> allowedDaysOfWeek = parseDaysOfWeek(pricingRecord.daysOfWeek());
+					int allowedDaysOfWeek = parseDaysOfWeek(pricingRecord.daysOfWeek());
+
+					if (allowedDaysOfWeek == 0) {
+						continue;
+					}
 
 					for (ViatorActivityAvailabilityDTO.TimedEntry entry : pricingRecord.timedEntries()) {
 						// Resolve index from startTime, find match from OneHourTimeSlot enum
-						int tIndex = OneHourTimeSlot.getIndexFromTimeString(entry.startTime());
+						int minuteOfDay = OneHourTimeSlot.getMinuteOfDayFromTimeString(entry.startTime());
+						int tIndex = minuteOfDay < 0 ? -1 : OneHourTimeSlot.getIndexFromMinuteOfDay(minuteOfDay);
 
-						if (tIndex < 0 || tIndex >= OneHourTimeSlot.values().length) {
+						if (tIndex < 0 || tIndex >= numTimeSlots) {
 							continue;
 						}
 
-						Set<String> unavailable = new HashSet<>();
-
+						Arrays.fill(unavailableDays, 0L);
 						if (entry.unavailableDates() != null) {
 							for (ViatorActivityAvailabilityDTO.UnavailableDate ud : entry.unavailableDates()) {
-								unavailable.add(ud.date());
+								String date = ud.date();
+								if (date == null || date.compareTo(minDateIso) < 0 || date.compareTo(maxDateIso) > 0) {
+									continue;
+								}
+								long epochDay = parseIsoEpochDay(date);
+								// Malformed dates never match a planning day
+								if (epochDay != Long.MIN_VALUE) {
+									int d = (int) (epochDay - minEpochDay);
+									unavailableDays[d >>> 6] |= 1L << d;
+								}
 							}
 						}
 
-						for (int d = 0; d < allDates.size(); d++) {
-							LocalDate date = allDates.get(d);
-
-							if (date.isBefore(seasonStart) || date.isAfter(seasonEnd)
-									|| !allowedDaysOfWeek.contains(date.getDayOfWeek())
-									|| unavailable.contains(date.format(dateFormatter))) {
+						for (int d = fromDay; d <= toDay; d++) {
+							if ((allowedDaysOfWeek & dayOfWeekBits[d]) == 0
+									|| (unavailableDays[d >>> 6] & (1L << d)) != 0) {
 								continue;
 							}
 
-							availability[a][d][tIndex] = true;
-
-							// Ensure we store the earliest time per time slot
-							if (startTimes[a][d][tIndex] == null || (entry.startTime() != null
-									&& entry.startTime().compareTo(startTimes[a][d][tIndex]) < 0)) {
-								startTimes[a][d][tIndex] = entry.startTime();
-							}
+							// Keeps the earliest time per time slot
+							activityPlanningData.markAvailable(a, d, tIndex, minuteOfDay);
 						}
 					}
 				}
@@ -139,6 +180,46 @@ public class ViatorActivityAvailabilityMapper {
 		}
 	}
 
+	/**
+	 * Parses a season date, rejecting malformed dates with a {@link java.time.format.DateTimeParseException}.
+	 */
+	private static long toEpochDay(String date) {
+		long epochDay = parseIsoEpochDay(date);
+		return epochDay != Long.MIN_VALUE ? epochDay : LocalDate.parse(date).toEpochDay();
+	}
+
+	/**
+	 * Parses a {@code yyyy-MM-dd} date to its epoch day without going through a
+	 * {@code DateTimeFormatter}, which allocates for every parsed date.
+	 *
+	 * @return the epoch day, or {@link Long#MIN_VALUE} if the date is malformed
+	 */
+	private static long parseIsoEpochDay(String date) {
+		if (date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+			return Long.MIN_VALUE;
+		}
+		int year = parseDigits(date, 0, 4);
+		int month = parseDigits(date, 5, 7);
+		int day = parseDigits(date, 8, 10);
+
+		if (year < 0 || month < 1 || month > 12 || day < 1 || day > YearMonth.of(year, month).lengthOfMonth()) {
+			return Long.MIN_VALUE;
+		}
+		return LocalDate.of(year, month, day).toEpochDay();
+	}
+
+	private static int parseDigits(String value, int from, int to) {
+		int result = 0;
+		for (int i = from; i < to; i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			result = result * 10 + (c - '0');
+		}
+		return result;
+	}
+
 	private static List<MappedActivity> flattenDtos(List<ViatorActivityAvailabilityDTO> dtos) {
 		List<MappedActivity> activities = new ArrayList<>();
 		for (ViatorActivityAvailabilityDTO dto : dtos) {
@@ -154,29 +235,19 @@ public class ViatorActivityAvailabilityMapper {
 		return activities;
 	}
 
-	private static List<LocalDate> buildDateList(LocalDate minDate, LocalDate maxDate) {
-		List<LocalDate> dates = new ArrayList<>();
-		LocalDate cursor = minDate;
-		while (!cursor.isAfter(maxDate)) {
-			dates.add(cursor);
-			cursor = cursor.plusDays(1);
-		}
-		return dates;
-	}
-
 	/**
-	 * Helper to parse the "daysOfWeek" strings (e.g. "MONDAY", "TUESDAY") to
-	 * DayOfWeek enums.
+	 * Helper to parse the "daysOfWeek" strings (e.g. "MONDAY", "TUESDAY") to a
+	 * bitmask with bit {@code DayOfWeek.ordinal()} set for every allowed day.
 	 */
-	private static List<DayOfWeek> parseDaysOfWeek(List<String> daysOfWeekStrs) {
+	private static int parseDaysOfWeek(List<String> daysOfWeekStrs) {
 		if (daysOfWeekStrs == null)
-			return Collections.emptyList();
-		List<DayOfWeek> result = new ArrayList<>();
+			return 0;
+		int result = 0;
 		for (String s : daysOfWeekStrs) {
 			// e.g., "MONDAY" -> DayOfWeek.MONDAY
 			if (s != null) {
 				try {
-					result.add(DayOfWeek.valueOf(s));
+					result |= 1 << DayOfWeek.valueOf(s).ordinal();
 				} catch (IllegalArgumentException e) {
 					// If an unknown day string is provided, skip or handle error
 				}
@@ -2,23 +2,19 @@ package com.asialocalguide.gateway.viator.service;
 
 import static java.util.Objects.requireNonNull;
 
+import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -31,10 +27,15 @@ import com.asialocalguide.gateway.destination.domain.LanguageCode;
 import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
 import com.asialocalguide.gateway.planning.domain.CommonActivity;
 import com.asialocalguide.gateway.planning.domain.CommonPersistableActivity;
+import com.asialocalguide.gateway.planning.domain.Deadline;
 import com.asialocalguide.gateway.planning.domain.ImageType;
 import com.asialocalguide.gateway.planning.domain.ProviderPlanningData;
 import com.asialocalguide.gateway.planning.domain.ProviderPlanningRequest;
+import com.asialocalguide.gateway.viator.client.ViatorAsyncExecutor;
+import com.asialocalguide.gateway.viator.client.ViatorAvailabilityCache;
 import com.asialocalguide.gateway.viator.client.ViatorClient;
+import com.asialocalguide.gateway.viator.client.ViatorSearchCache;
+import com.asialocalguide.gateway.viator.config.ViatorProperties;
 import com.asialocalguide.gateway.viator.dto.ViatorActivityAvailabilityDTO;
 import com.asialocalguide.gateway.viator.dto.ViatorActivityDTO;
 import com.asialocalguide.gateway.viator.dto.ViatorActivityDetailDTO;
@@ -44,6 +45,7 @@ import com.asialocalguide.gateway.viator.dto.ViatorActivitySortingType;
 import com.asialocalguide.gateway.viator.exception.ViatorActivityServiceException;
 import com.asialocalguide.gateway.viator.util.ViatorActivityAdapter;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -51,7 +53,11 @@ import lombok.extern.slf4j.Slf4j;
  *
  * <p>Fetches activity search results, availability schedules, and detailed multi-language
  * activity data from Viator, then maps them to provider-agnostic domain objects.
- * Availability and detail fetches use virtual-thread parallelism for throughput.
+ * Availability and detail calls are made asynchronously and composed in a {@link ViatorFanOutScope},
+ * and search results and availability schedules are served from the {@link ViatorSearchCache} and
+ * {@link ViatorAvailabilityCache}. Fan-outs wait until the deadline of the request at most: calls
+ * still running then are cancelled and the activities fetched so far are used, unless more calls
+ * failed than {@link ViatorProperties.FanOut#toleratedFailureRate()} allows.
  */
 @Service
 @Slf4j
@@ -62,14 +68,37 @@ public class ViatorActivityService implements ActivityProvider {
 	private static final String DEFAULT_CURRENCY = "EUR";
 	private static final int MIN_RATING = 4;
 	private static final int MAX_RATING = 5;
+	private static final Duration FAN_OUT_TIMEOUT = Duration.ofSeconds(15);
 
 	private final ViatorClient viatorClient;
 
+	private final ViatorAvailabilityCache viatorAvailabilityCache;
+
+	private final ViatorSearchCache viatorSearchCache;
+
+	private final ViatorAsyncExecutor asyncExecutor;
+
+	private final float toleratedFailureRate;
+
+	private final MeterRegistry meterRegistry;
+
 	/**
-	 * @param viatorClient the Viator HTTP client
+	 * @param viatorClient            the Viator HTTP client
+	 * @param viatorAvailabilityCache cache of availability schedules in front of the client
+	 * @param viatorSearchCache       cache of product search results in front of the client
+	 * @param asyncExecutor           executor running the calls of the fan-outs
+	 * @param viatorProperties        Viator configuration holding the fan-out failure policy
+	 * @param meterRegistry           registry publishing the fan-out metrics
 	 */
-	public ViatorActivityService(ViatorClient viatorClient) {
+	public ViatorActivityService(ViatorClient viatorClient, ViatorAvailabilityCache viatorAvailabilityCache,
+			ViatorSearchCache viatorSearchCache, ViatorAsyncExecutor asyncExecutor, ViatorProperties viatorProperties,
+			MeterRegistry meterRegistry) {
 		this.viatorClient = viatorClient;
+		this.viatorAvailabilityCache = viatorAvailabilityCache;
+		this.viatorSearchCache = viatorSearchCache;
+		this.asyncExecutor = asyncExecutor;
+		this.toleratedFailureRate = viatorProperties.fanOut().toleratedFailureRate();
+		this.meterRegistry = meterRegistry;
 	}
 
 	/**
@@ -89,13 +118,14 @@ public class ViatorActivityService implements ActivityProvider {
 	 * @throws ViatorActivityServiceException if any step in the pipeline fails
 	 */
 	@Override
-	public ProviderPlanningData fetchProviderPlanningData(ProviderPlanningRequest request) {
+	public ProviderPlanningData fetchProviderPlanningData(ProviderPlanningRequest request, Deadline deadline) {
 		validatePlanningRequest(request);
 
 		try {
 			ViatorActivitySearchDTO searchDTO = buildActivitySearchDTO(request);
 			Map<String, ViatorActivityDTO> idToActivities = fetchValidActivities(request.languageCode(), searchDTO);
-			List<ViatorActivityAvailabilityDTO> availabilities = fetchActivityAvailabilities(idToActivities.values());
+			List<ViatorActivityAvailabilityDTO> availabilities = fetchActivityAvailabilities(idToActivities.values(),
+					deadline);
 
 			// Filter out activities with no availability data
 			List<ViatorActivityDTO> activitiesToProcess = filterNoDataActivities(idToActivities, availabilities);
@@ -116,7 +146,8 @@ public class ViatorActivityService implements ActivityProvider {
 	 * {@inheritDoc}
 	 *
 	 * <p>Fetches full activity detail for each ID across all supported languages in parallel,
-	 * using English as the base and other languages as additional translations.
+	 * using English as the base and other languages as additional translations. Calls still running
+	 * after 15 seconds are cancelled.
 	 *
 	 * @throws ViatorActivityServiceException if the fetch fails or no English activities are found
 	 */
@@ -130,7 +161,8 @@ public class ViatorActivityService implements ActivityProvider {
 		try {
 
 			Map<LanguageCode, Map<String, ViatorActivityDetailDTO>> languageToActivities = fetchLanguageToActivities(
-					activityIds);
+					activityIds,
+					Deadline.after(FAN_OUT_TIMEOUT));
 
 			// Use English language activities as base for creating
 			// CommonPersistableActivity, other language for translations
@@ -207,7 +239,7 @@ public class ViatorActivityService implements ActivityProvider {
 
 	private Map<String, ViatorActivityDTO> fetchValidActivities(LanguageCode languageCode,
 			ViatorActivitySearchDTO searchDTO) {
-		return viatorClient
+		return viatorSearchCache
 				.getActivitiesByRequestAndLanguage(requireNonNull(languageCode, "Locale must not be null").toString(),
 						requireNonNull(searchDTO, "SearchDTO must not be null"))
 				.stream()
@@ -216,38 +248,23 @@ public class ViatorActivityService implements ActivityProvider {
 				.collect(Collectors.toMap(ViatorActivityDTO::productCode, Function.identity()));
 	}
 
-	private List<ViatorActivityAvailabilityDTO> fetchActivityAvailabilities(Collection<ViatorActivityDTO> activities) {
+	private List<ViatorActivityAvailabilityDTO> fetchActivityAvailabilities(Collection<ViatorActivityDTO> activities,
+			Deadline deadline) {
 		if (activities == null || activities.isEmpty()) {
 			return List.of();
 		}
 
-		List<ViatorActivityAvailabilityDTO> result = new CopyOnWriteArrayList<>();
-		List<Future<?>> futures = new ArrayList<>();
-
-		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
-			// Submit a task for each activity
+		try (ViatorFanOutScope<String, Optional<ViatorActivityAvailabilityDTO>> scope = openScope("availability")) {
 			for (ViatorActivityDTO activity : activities) {
 				if (activity == null || activity.productCode() == null) {
 					log.warn("Skipping null ViatorActivityDTO in fetchActivityAvailabilities.");
 					continue;
 				}
-				futures.add(executor.submit(() -> {
-					try {
-						Optional<ViatorActivityAvailabilityDTO> availabilityOpt = viatorClient
-								.getAvailabilityByProductCode(activity.productCode());
-
-						availabilityOpt.ifPresent(result::add);
-					} catch (Exception ex) {
-						log.warn("Error while fetching Activity Availability for product code: {}",
-								activity.productCode());
-					}
-				}));
+				scope.forkAsync(activity.productCode(),
+						() -> viatorAvailabilityCache.getAvailabilityByProductCodeAsync(activity.productCode()));
 			}
 
-			// Wait for all futures to complete
-			waitForTaskCompletion(futures);
-
-			return result;
+			return scope.join(deadline).values().stream().flatMap(Optional::stream).toList();
 		}
 	}
 
@@ -271,20 +288,16 @@ public class ViatorActivityService implements ActivityProvider {
 		}
 	}
 
-	private Map<LanguageCode, Map<String, ViatorActivityDetailDTO>> fetchLanguageToActivities(Set<String> activityIds) {
-
-		Map<LanguageCode, Map<String, ViatorActivityDetailDTO>> result = new ConcurrentHashMap<>(
-				LanguageCode.values().length);
+	private Map<LanguageCode, Map<String, ViatorActivityDetailDTO>> fetchLanguageToActivities(Set<String> activityIds,
+			Deadline deadline) {
 
-		// Initialize concurrent maps for each language
+		Map<LanguageCode, Map<String, ViatorActivityDetailDTO>> result = new EnumMap<>(LanguageCode.class);
 		for (LanguageCode language : LanguageCode.values()) {
-			result.put(language, new ConcurrentHashMap<>());
+			result.put(language, new LinkedHashMap<>());
 		}
 
-		List<Future<?>> futures = new ArrayList<>();
-
-		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
-			// Submit tasks for each language and activity ID
+		try (ViatorFanOutScope<DetailKey, Optional<ViatorActivityDetailDTO>> scope = openScope("detail")) {
+			// Start a call for each language and activity ID
 			for (LanguageCode language : LanguageCode.values()) {
 				for (String id : activityIds) {
 
@@ -293,28 +306,16 @@ public class ViatorActivityService implements ActivityProvider {
 						continue;
 					}
 
-					futures.add(executor.submit(() -> {
-						try {
-							Optional<ViatorActivityDetailDTO> activityOpt = viatorClient
-									.getActivityByIdAndLanguage(language.toString(), id);
-
-							activityOpt
-									.ifPresent(activity -> result.get(language).put(activity.productCode(), activity));
-
-						} catch (Exception ex) {
-							log.warn("Failed to fetch Viator activity for id {} for language {} : {}",
-									id,
-									language,
-									ex.getMessage());
-						}
-					}));
+					scope.forkAsync(new DetailKey(language, id),
+							() -> viatorClient.getActivityByIdAndLanguageAsync(language.toString(), id));
 				}
 			}
 
-			waitForTaskCompletion(futures);
-
-			return result;
+			scope.join(deadline)
+					.forEach((key, detail) -> detail.ifPresent(
+							dto -> result.get(key.language()).putIfAbsent(dto.productCode(), dto)));
 		}
+		return result;
 	}
 
 	private Optional<CommonPersistableActivity> createCommonPersistableActivity(ViatorActivityDetailDTO dto,
@@ -395,25 +396,13 @@ public class ViatorActivityService implements ActivityProvider {
 		}).filter(Objects::nonNull).toList();
 	}
 
-	private void waitForTaskCompletion(List<Future<?>> futures) {
-		for (Future<?> future : futures) {
-
-			if (future == null) {
-				log.warn("Skipping null future in waitForTaskCompletion.");
-				continue;
-			}
+	private <K, T> ViatorFanOutScope<K, T> openScope(String name) {
+		return new ViatorFanOutScope<>(name, toleratedFailureRate, asyncExecutor, meterRegistry);
+	}
 
-			try {
-				future.get(15, TimeUnit.SECONDS);
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				log.warn("Task was interrupted: {}", e.getMessage());
-				break;
-			} catch (ExecutionException e) {
-				log.warn("Error during task execution: {}", e.getMessage());
-			} catch (Exception e) {
-				log.warn("Error waiting for task completion: {}", e.getMessage());
-			}
-		}
+	/**
+	 * Key of an activity detail call.
+	 */
+	private record DetailKey(LanguageCode language, String id) {
 	}
 }
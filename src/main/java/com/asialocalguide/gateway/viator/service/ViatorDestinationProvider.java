@@ -11,8 +11,6 @@ import com.asialocalguide.gateway.viator.exception.ViatorApiException;
 import com.asialocalguide.gateway.viator.util.Iso2CodeLookupMap;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Component;
@@ -20,9 +18,11 @@ import org.springframework.stereotype.Component;
 /**
  * {@link DestinationProvider} implementation backed by the Viator API.
  *
- * <p>Fetches all destinations for each supported language in parallel using
- * {@link java.util.concurrent.CompletableFuture}, then uses the English list as the base
- * and other languages as additional translations. Country-level destinations are excluded
+ * <p>Streams all destinations for each supported language in parallel with the asynchronous
+ * {@link ViatorClient} calls, then uses the English list as the base
+ * and other languages as additional translations. Destinations are consumed as they are parsed,
+ * and only their names are kept for languages other than English, so the payloads are never held
+ * in memory whole. Country-level destinations are excluded
  * because the app does not support scheduling within an entire country.
  */
 @Component
@@ -57,37 +57,38 @@ public class ViatorDestinationProvider implements DestinationProvider {
 	public List<CommonDestination> getDestinations() throws ViatorApiException {
 		log.info("Fetching Viator destinations for languages: {}", Arrays.toString(LanguageCode.values()));
 
-		List<CompletableFuture<Pair<LanguageCode, List<ViatorDestinationDTO>>>> futures = Arrays
-				.stream(LanguageCode.values())
-				.map(language -> CompletableFuture.supplyAsync(() -> {
-					List<ViatorDestinationDTO> destinations = viatorClient
-							.getAllDestinationsForLanguage(language.toString());
-
-					if (destinations == null || destinations.isEmpty()) {
+		// Only the English destinations are kept whole; other languages only contribute names
+		Map<Long, ViatorDestinationDTO> idToDestinationEnDTOs = new HashMap<>();
+
+		List<CompletableFuture<Pair<LanguageCode, Map<Long, String>>>> futures = Arrays.stream(LanguageCode.values())
+				.map(language -> {
+					Map<Long, String> idToName = new HashMap<>();
+					return viatorClient.streamAllDestinationsForLanguageAsync(language.toString(), dto -> {
+						idToName.put(dto.destinationId(), dto.name());
+						if (language == LanguageCode.EN) {
+							idToDestinationEnDTOs.put(dto.destinationId(), dto);
+						}
+					}).thenApply(count -> {
+						if (count == 0) {
+							throw new ViatorApiException(String
+									.format("No destinations found for language: %s aborting ingestion.", language));
+						}
+						return Pair.of(language, idToName);
+					}).exceptionally(ex -> {
 						throw new ViatorApiException(
-								String.format("No destinations found for language: %s aborting ingestion.", language));
-					}
-					return Pair.of(language, destinations);
-				}).exceptionally(ex -> {
-					throw new ViatorApiException(
-							String.format("API failure for getAllDestinationsForLanguage call for language: %s.",
-									language),
-							ex);
-				}))
+								String.format("API failure for streamAllDestinationsForLanguage call for language: %s.",
+										language),
+								ex);
+					});
+				})
 				.toList();
 
-		Map<LanguageCode, Map<Long, ViatorDestinationDTO>> languageToDestinations = new EnumMap<>(LanguageCode.class);
+		Map<LanguageCode, Map<Long, String>> languageToNames = new EnumMap<>(LanguageCode.class);
 
 		futures.forEach(future -> {
 			try {
-				Pair<LanguageCode, List<ViatorDestinationDTO>> result = future.join();
-				if (!result.getSecond().isEmpty()) {
-					languageToDestinations.put(result.getFirst(),
-							result.getSecond()
-									.stream()
-									.collect(Collectors.toMap(ViatorDestinationDTO::destinationId,
-											Function.identity())));
-				}
+				Pair<LanguageCode, Map<Long, String>> result = future.join();
+				languageToNames.put(result.getFirst(), result.getSecond());
 			} catch (Exception e) {
 				if (e.getCause() instanceof ViatorApiException viatorApiException) {
 					throw viatorApiException;
@@ -100,27 +101,25 @@ public class ViatorDestinationProvider implements DestinationProvider {
 		// Use English destinations as base for creating RawDestinationDTOs, other
 		// languages used
 		// for translations
-		Map<Long, ViatorDestinationDTO> idToDestinationEnDTOs = languageToDestinations.get(LanguageCode.EN);
-
 		return idToDestinationEnDTOs.values()
 				.stream()
 				// The app does not support scheduling activities within a whole country
 				.filter(d -> d != null && !"COUNTRY".equals(d.type()))
-				.map(dto -> createRawDestinationDTO(dto, languageToDestinations))
+				.map(dto -> createRawDestinationDTO(dto, idToDestinationEnDTOs, languageToNames))
 				.filter(Objects::nonNull)
 				.toList();
 	}
 
 	private CommonDestination createRawDestinationDTO(ViatorDestinationDTO dto,
-			Map<LanguageCode, Map<Long, ViatorDestinationDTO>> languageToDestinations) {
+			Map<Long, ViatorDestinationDTO> idToDestinationEnDTOs,
+			Map<LanguageCode, Map<Long, String>> languageToNames) {
 
 		if (dto == null) {
 			log.warn("Skipping null Destination in createRawDestinationDTO.");
 			return null;
 		}
 
-		ViatorDestinationDTO country = resolveDestinationCountry(dto, languageToDestinations.get(LanguageCode.EN))
-				.orElse(null);
+		ViatorDestinationDTO country = resolveDestinationCountry(dto, idToDestinationEnDTOs).orElse(null);
 
 		if (country == null) {
 			log.warn("Skipping destination {} due to missing country.", dto);
@@ -135,7 +134,7 @@ public class ViatorDestinationProvider implements DestinationProvider {
 		}
 
 		return new CommonDestination(String.valueOf(dto.destinationId()),
-				resolveTranslations(dto.destinationId(), languageToDestinations),
+				resolveTranslations(dto.destinationId(), languageToNames),
 				mapToDestinationType(dto.type()),
 				dto.center(),
 				PROVIDER_TYPE,
@@ -157,24 +156,24 @@ public class ViatorDestinationProvider implements DestinationProvider {
 	}
 
 	private List<CommonDestination.Translation> resolveTranslations(Long destinationId,
-			Map<LanguageCode, Map<Long, ViatorDestinationDTO>> languageToDestinations) {
+			Map<LanguageCode, Map<Long, String>> languageToNames) {
 
-		return languageToDestinations.entrySet().stream().map(entry -> {
-			Map<Long, ViatorDestinationDTO> idToDestination = entry.getValue();
+		return languageToNames.entrySet().stream().map(entry -> {
+			Map<Long, String> idToName = entry.getValue();
 
-			if (idToDestination == null) {
-				log.debug("No idToDestination Map found for language: {} while processing destinationId: {}",
+			if (idToName == null) {
+				log.debug("No idToName Map found for language: {} while processing destinationId: {}",
 						entry.getKey(),
 						destinationId);
 				return null;
 			}
 
-			ViatorDestinationDTO dto = idToDestination.get(destinationId);
-			if (dto == null) {
+			String name = idToName.get(destinationId);
+			if (name == null) {
 				log.debug("No translation found for destinationId: {} in language: {}", destinationId, entry.getKey());
 				return null;
 			}
-			return new CommonDestination.Translation(entry.getKey(), dto.name());
+			return new CommonDestination.Translation(entry.getKey(), name);
 		}).filter(Objects::nonNull).toList();
 	}
 
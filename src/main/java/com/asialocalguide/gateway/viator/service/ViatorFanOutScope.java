@@ -0,0 +1,241 @@
+package com.asialocalguide.gateway.viator.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import com.asialocalguide.gateway.planning.domain.Deadline;
+import com.asialocalguide.gateway.viator.client.ViatorAsyncExecutor;
+import com.asialocalguide.gateway.viator.exception.ViatorActivityServiceException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Scope of the parallel Viator calls made for one request, with explicit cancellation and failure
+ * policies.
+ *
+ * <p>Calls are either asynchronous Viator calls, or blocking calls forked on the
+ * {@link ViatorAsyncExecutor}. Then {@link #join(Deadline)} waits until
+ * one of the following happens:
+ * <ul>
+ * <li>every call completed: the results of the successful calls are returned;</li>
+ * <li>the deadline expired: the calls still running are cancelled and the results of the completed
+ * calls are returned;</li>
+ * <li>the failed calls exceed the tolerated failure rate: the calls still running are cancelled and
+ * the fan-out fails, since the results would not be representative.</li>
+ * </ul>
+ * Cancelling a call cancels its future, which interrupts the thread running it so that it stops
+ * waiting for a permit or for Viator.
+ * Closing the scope cancels the calls still running, so a scope left early by an exception leaves
+ * nothing behind.
+ *
+ * <p>Per scope name, the forked calls are published as {@code viator.fanout.tasks}, the failed ones
+ * as {@code viator.fanout.failures}, the ones cancelled before completing as
+ * {@code viator.fanout.stragglers}, and the join duration as {@code viator.fanout.duration} tagged
+ * with its outcome.
+ *
+ * @param <K> the key identifying each call
+ * @param <T> the result type of the calls
+ */
+@Slf4j
+final class ViatorFanOutScope<K, T> implements AutoCloseable {
+
+	private final String name;
+
+	private final float toleratedFailureRate;
+
+	private final ViatorAsyncExecutor asyncExecutor;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Map<K, CompletableFuture<T>> calls = new LinkedHashMap<>();
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition progress = lock.newCondition();
+
+	private int completedCalls;
+
+	private int failedCalls;
+
+	private boolean joined;
+
+	/**
+	 * @param name                 name of the fan-out, used in logs and as the {@code scope} metric tag
+	 * @param toleratedFailureRate failure rate, in percent, above which the fan-out fails
+	 * @param asyncExecutor        executor running the calls
+	 * @param meterRegistry        registry publishing the fan-out metrics
+	 */
+	ViatorFanOutScope(String name, float toleratedFailureRate, ViatorAsyncExecutor asyncExecutor,
+			MeterRegistry meterRegistry) {
+		this.name = name;
+		this.toleratedFailureRate = toleratedFailureRate;
+		this.asyncExecutor = asyncExecutor;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Starts a blocking call in the scope, on the {@link ViatorAsyncExecutor}. A key forked twice
+	 * keeps its first call.
+	 *
+	 * @param key  key identifying the call
+	 * @param call the blocking call
+	 * @throws IllegalStateException if the scope was already joined
+	 */
+	void fork(K key, Supplier<T> call) {
+		forkAsync(key, () -> asyncExecutor.supplyAsync(call));
+	}
+
+	/**
+	 * Starts an asynchronous call in the scope. A key forked twice keeps its first call, and the
+	 * second call is not started.
+	 *
+	 * @param key  key identifying the call
+	 * @param call starter of the asynchronous call, whose future is cancelled with the call
+	 * @throws IllegalStateException if the scope was already joined
+	 */
+	void forkAsync(K key, Supplier<CompletableFuture<T>> call) {
+		if (joined) {
+			throw new IllegalStateException("Cannot fork into the joined " + name + " fan-out");
+		}
+		if (calls.containsKey(key)) {
+			return;
+		}
+
+		CompletableFuture<T> future = call.get();
+		calls.put(key, future);
+		future.whenComplete((result, e) -> onCompletion(key, future, e));
+	}
+
+	/**
+	 * Waits for the calls of the scope within the deadline, cancelling the calls still running when
+	 * the deadline expires or when too many calls failed.
+	 *
+	 * @param deadline deadline of the request
+	 * @return the results of the successful calls, in fork order
+	 * @throws ViatorActivityServiceException if the failed calls exceed the tolerated failure rate
+	 */
+	Map<K, T> join(Deadline deadline) {
+		joined = true;
+		long startNanos = System.nanoTime();
+		String outcome = "completed";
+		int failures;
+
+		lock.lock();
+		try {
+			while (!failureRateExceeded() && completedCalls < calls.size()) {
+				long remainingNanos = deadline.remainingNanos();
+				if (remainingNanos == 0) {
+					outcome = "deadline";
+					break;
+				}
+				progress.awaitNanos(remainingNanos);
+			}
+			if (failureRateExceeded()) {
+				outcome = "failed";
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			outcome = "interrupted";
+		} finally {
+			failures = failedCalls;
+			lock.unlock();
+		}
+
+		int stragglers = cancelRunningCalls();
+		record(outcome, failures, stragglers, System.nanoTime() - startNanos);
+
+		if (stragglers > 0) {
+			log.warn("{} of {} calls of the Viator {} fan-out were cancelled, outcome: {}",
+					stragglers,
+					calls.size(),
+					name,
+					outcome);
+		}
+		if (outcome.equals("failed")) {
+			throw new ViatorActivityServiceException(
+					String.format("%d of %d calls of the Viator %s fan-out failed", failures, calls.size(), name));
+		}
+
+		Map<K, T> results = new LinkedHashMap<>();
+		calls.forEach((key, call) -> {
+			if (call.state() == Future.State.SUCCESS) {
+				results.put(key, call.resultNow());
+			}
+		});
+		return results;
+	}
+
+	/**
+	 * Cancels the calls still running.
+	 */
+	@Override
+	public void close() {
+		cancelRunningCalls();
+	}
+
+	private void onCompletion(K key, CompletableFuture<T> call, Throwable e) {
+		if (e != null && !call.isCancelled()) {
+			Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+			log.warn("Viator {} call failed for {}: {}", name, key, cause.getMessage());
+		}
+
+		lock.lock();
+		try {
+			completedCalls++;
+			if (e != null && !call.isCancelled()) {
+				failedCalls++;
+			}
+			progress.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private boolean failureRateExceeded() {
+		return !calls.isEmpty() && failedCalls * 100f / calls.size() > toleratedFailureRate;
+	}
+
+	private int cancelRunningCalls() {
+		int cancelled = 0;
+		for (CompletableFuture<T> call : calls.values()) {
+			if (call.cancel(true)) {
+				cancelled++;
+			}
+		}
+		return cancelled;
+	}
+
+	private void record(String outcome, int failures, int stragglers, long durationNanos) {
+		Counter.builder("viator.fanout.tasks")
+				.description("Viator calls forked by fan-outs")
+				.tag("scope", name)
+				.register(meterRegistry)
+				.increment(calls.size());
+		Counter.builder("viator.fanout.failures")
+				.description("Viator calls of fan-outs that failed")
+				.tag("scope", name)
+				.register(meterRegistry)
+				.increment(failures);
+		Counter.builder("viator.fanout.stragglers")
+				.description("Viator calls of fan-outs cancelled before completing")
+				.tag("scope", name)
+				.register(meterRegistry)
+				.increment(stragglers);
+		Timer.builder("viator.fanout.duration")
+				.description("Time spent waiting for the calls of a fan-out")
+				.tag("scope", name)
+				.tag("outcome", outcome)
+				.register(meterRegistry)
+				.record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+}
@@ -0,0 +1,146 @@
+package com.asialocalguide.gateway.benchmark;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.viator.dto.ViatorActivityAvailabilityDTO;
+import com.asialocalguide.gateway.viator.dto.ViatorActivityDTO;
+import com.asialocalguide.gateway.viator.service.ViatorActivityAvailabilityMapper;
+
+/**
+ * Maps large multi-season Viator availability payloads to {@link ActivityPlanningData}.
+ *
+ * <p>Every product has several seasons, pricing records and timed entries with many unavailable
+ * dates. Run with {@code -prof gc} to see the allocation rate.
+ *
+ * <p>Not part of the test suite, run with:
+ *
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main AvailabilityMapperBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityMapperBenchmark {
+
+	private static final LocalDate START_DATE = LocalDate.of(2026, 1, 5);
+
+	@Param({ "14", "30" })
+	private int numDays;
+
+	@Param({ "100" })
+	private int numActivities;
+
+	private List<ViatorActivityDTO> activities;
+
+	private List<ViatorActivityAvailabilityDTO> availabilities;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		activities = new ArrayList<>(numActivities);
+		availabilities = new ArrayList<>(numActivities);
+
+		for (int a = 0; a < numActivities; a++) {
+			String productCode = "P" + a;
+			activities.add(createActivity(productCode));
+			availabilities.add(createAvailability(productCode, random));
+		}
+	}
+
+	@Benchmark
+	public ActivityPlanningData mapToActivityData() {
+		return ViatorActivityAvailabilityMapper.mapToActivityData(activities,
+				availabilities,
+				START_DATE,
+				START_DATE.plusDays(numDays - 1L));
+	}
+
+	private static ViatorActivityDTO createActivity(String productCode) {
+		return new ViatorActivityDTO(productCode,
+				"Activity " + productCode,
+				null,
+				List.of(),
+				new ViatorActivityDTO.ReviewsDTO(List.of(), 120, 4.5),
+				new ViatorActivityDTO.DurationDTO(null, null, 120),
+				null,
+				null,
+				null,
+				null,
+				List.of(),
+				List.of(),
+				List.of(),
+				null);
+	}
+
+	/** Four quarterly seasons, each with three pricing records of eight timed entries. */
+	private static ViatorActivityAvailabilityDTO createAvailability(String productCode, Random random) {
+		List<ViatorActivityAvailabilityDTO.Season> seasons = new ArrayList<>();
+
+		for (int s = 0; s < 4; s++) {
+			LocalDate seasonStart = START_DATE.minusDays(30).plusDays(s * 90L);
+			LocalDate seasonEnd = seasonStart.plusDays(89);
+
+			List<ViatorActivityAvailabilityDTO.PricingRecord> pricingRecords = new ArrayList<>();
+			for (int p = 0; p < 3; p++) {
+				List<ViatorActivityAvailabilityDTO.TimedEntry> timedEntries = new ArrayList<>();
+				for (int e = 0; e < 8; e++) {
+					timedEntries.add(new ViatorActivityAvailabilityDTO.TimedEntry(
+							String.format("%02d:%02d", 6 + e * 2, random.nextInt(4) * 15),
+							createUnavailableDates(seasonStart, random)));
+				}
+				// Saturday is always bookable so that no pricing record is empty
+				List<String> daysOfWeek = Arrays.stream(DayOfWeek.values())
+						.filter(d -> d == DayOfWeek.SATURDAY || random.nextInt(3) > 0)
+						.map(Enum::name)
+						.toList();
+				pricingRecords.add(new ViatorActivityAvailabilityDTO.PricingRecord(daysOfWeek, timedEntries));
+			}
+			seasons.add(new ViatorActivityAvailabilityDTO.Season(seasonStart.toString(),
+					seasonEnd.toString(),
+					pricingRecords));
+		}
+
+		return new ViatorActivityAvailabilityDTO(productCode,
+				List.of(new ViatorActivityAvailabilityDTO.BookableItem("OPTION", seasons)),
+				"EUR",
+				null);
+	}
+
+	private static List<ViatorActivityAvailabilityDTO.UnavailableDate> createUnavailableDates(LocalDate seasonStart,
+			Random random) {
+		List<ViatorActivityAvailabilityDTO.UnavailableDate> unavailableDates = new ArrayList<>();
+		for (int d = 0; d < 90; d++) {
+			if (random.nextInt(4) == 0) {
+				unavailableDates
+						.add(new ViatorActivityAvailabilityDTO.UnavailableDate(seasonStart.plusDays(d).toString(),
+								"SOLD_OUT"));
+			}
+		}
+		return unavailableDates;
+	}
+}
@@ -0,0 +1,164 @@
+package com.asialocalguide.gateway.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asialocalguide.gateway.core.domain.BookingProviderName;
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.CommonActivity;
+import com.asialocalguide.gateway.planning.dto.DayActivityDTO;
+import com.asialocalguide.gateway.planning.dto.DayPlanDTO;
+import com.asialocalguide.gateway.planning.service.DayPlanAssembler;
+
+/**
+ * Builds the day plans of a solved trip, from the sparse start of each activity against the
+ * previous per-day scan of the dense {@code [activity][day][slot]} schedule.
+ *
+ * <p>Every activity is available at several slots of every day, and about one in ten is scheduled,
+ * as in a typical solution. Both variants create the same day plans.
+ *
+ * <p>Not part of the test suite, run with:
+ *
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main DayPlanAssemblyBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DayPlanAssemblyBenchmark {
+
+	private static final LocalDate START_DATE = LocalDate.of(2026, 1, 5);
+
+	private static final int NUM_TIME_SLOTS = 24;
+
+	@Param({ "7", "30" })
+	private int numDays;
+
+	@Param({ "300" })
+	private int numActivities;
+
+	private List<CommonActivity> activities;
+
+	private ActivityPlanningData activityPlanningData;
+
+	private boolean[][][] schedule;
+
+	private int[] scheduledStarts;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		activities = new ArrayList<>(numActivities);
+		activityPlanningData = new ActivityPlanningData(numDays,
+				NUM_TIME_SLOTS,
+				new int[numActivities],
+				new int[numActivities]);
+		schedule = new boolean[numActivities][numDays][NUM_TIME_SLOTS];
+		scheduledStarts = new int[numActivities];
+		Arrays.fill(scheduledStarts, -1);
+
+		for (int a = 0; a < numActivities; a++) {
+			activities.add(createActivity("P" + a));
+			for (int d = 0; d < numDays; d++) {
+				for (int t = 8; t < 20; t += 2 + random.nextInt(3)) {
+					activityPlanningData.markAvailable(a, d, t, t * 60 + random.nextInt(4) * 15);
+				}
+			}
+
+			if (random.nextInt(10) == 0) {
+				int[] slots = activityPlanningData.availableSlots(a);
+				int slot = slots[random.nextInt(slots.length)];
+				scheduledStarts[a] = slot;
+				schedule[a][slot / NUM_TIME_SLOTS][slot % NUM_TIME_SLOTS] = true;
+			}
+		}
+	}
+
+	@Benchmark
+	public List<DayPlanDTO> sparseStarts() {
+		return DayPlanAssembler.createDayPlans(START_DATE, numDays, activities, scheduledStarts, activityPlanningData);
+	}
+
+	/** Previous assembly: scans the available slots of every activity once per day. */
+	@Benchmark
+	public List<DayPlanDTO> denseSchedulePerDayScan() {
+		List<DayPlanDTO> dayPlans = new ArrayList<>();
+
+		for (int dayIndex = 0; dayIndex < numDays; dayIndex++) {
+			LocalDate day = START_DATE.plusDays(dayIndex);
+			int dayStart = dayIndex * NUM_TIME_SLOTS;
+			int dayEnd = dayStart + NUM_TIME_SLOTS;
+
+			List<DayActivityDTO> dayActivities = new ArrayList<>();
+			for (int a = 0; a < schedule.length; a++) {
+				int slot = activityPlanningData.nextAvailableSlot(a, dayStart);
+				while (slot >= 0 && slot < dayEnd) {
+					if (schedule[a][dayIndex][slot - dayStart]) {
+						dayActivities.add(createDayActivity(activities.get(a),
+								day,
+								activityPlanningData.getStartMinute(a, slot)));
+					}
+					slot = activityPlanningData.nextAvailableSlot(a, slot + 1);
+				}
+			}
+			dayPlans.add(new DayPlanDTO(day, dayActivities));
+		}
+		return dayPlans;
+	}
+
+	private static DayActivityDTO createDayActivity(CommonActivity activity, LocalDate day, int startMinute) {
+		LocalDateTime startTime = day.atStartOfDay().plusMinutes(startMinute);
+		LocalDateTime endTime = startTime.plus(Duration.ofMinutes(activity.duration().maxMinutes()));
+
+		return new DayActivityDTO(activity.providerId(),
+				activity.title(),
+				activity.description(),
+				activity.reviews().averageRating(),
+				activity.reviews().totalReviews(),
+				activity.duration().maxMinutes(),
+				activity.pricing().amount(),
+				activity.pricing().currency(),
+				activity.images(),
+				activity.bookingUrl(),
+				startTime,
+				endTime,
+				activity.providerName());
+	}
+
+	private static CommonActivity createActivity(String providerId) {
+		return new CommonActivity("Activity " + providerId,
+				null,
+				List.of(),
+				new CommonActivity.CommonReviews(4.5, 120),
+				new CommonActivity.CommonDuration(120, 120),
+				new CommonActivity.CommonPricing(50.0, "EUR"),
+				"https://example.com/" + providerId,
+				List.of(),
+				BookingProviderName.VIATOR,
+				providerId);
+	}
+}
@@ -0,0 +1,142 @@
+package com.asialocalguide.gateway.benchmark;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asialocalguide.gateway.planning.config.SchedulerProperties;
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.ScheduleResult;
+import com.asialocalguide.gateway.planning.service.ActivitySchedulerWithRatings;
+
+/**
+ * Compares CP-SAT solves with a cold model, with a greedy solution hint and warm-started from a
+ * previous schedule.
+ *
+ * <p>{@code timeToFirstSolution} measures how long the solver takes to return its first schedule,
+ * {@code fixedBudget} reports the total rating reached within a short time limit as the
+ * {@code rating} secondary result.
+ *
+ * <p>Not part of the test suite, run with:
+ *
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main SchedulerWarmStartBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SchedulerWarmStartBenchmark {
+
+	private static final int SLOTS_PER_DAY = 24;
+
+	@Param({ "COLD", "GREEDY_HINT", "WARM_START" })
+	private String start;
+
+	@Param({ "5" })
+	private int numDays;
+
+	@Param({ "60" })
+	private int numActivities;
+
+	private ActivityPlanningData activityPlanningData;
+
+	private SchedulerProperties firstSolutionProfile;
+
+	private SchedulerProperties fixedBudgetProfile;
+
+	private int[] previousStarts;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		activityPlanningData = createPlanningData(numActivities, numDays, new Random(42));
+
+		SchedulerProperties.Decomposition exactModel = new SchedulerProperties.Decomposition(false, 7, 60);
+		SchedulerProperties.Hints hints = new SchedulerProperties.Hints(!"COLD".equals(start), 1);
+		firstSolutionProfile = new SchedulerProperties(Duration.ofSeconds(10), 4, 0.0, true, exactModel, hints);
+		fixedBudgetProfile = new SchedulerProperties(Duration.ofMillis(200), 4, 0.0, false, exactModel, hints);
+
+		if ("WARM_START".equals(start)) {
+			// Schedule of a previous generation with a longer time limit
+			previousStarts = ActivitySchedulerWithRatings
+					.scheduleActivities(activityPlanningData,
+							new SchedulerProperties(Duration.ofSeconds(5), 4, 0.0, false, exactModel, hints))
+					.scheduledStarts();
+		}
+	}
+
+	@Benchmark
+	public ScheduleResult timeToFirstSolution() {
+		return ActivitySchedulerWithRatings.scheduleActivities(activityPlanningData,
+				firstSolutionProfile,
+				previousStarts);
+	}
+
+	@Benchmark
+	public ScheduleResult fixedBudget(RatingCounter counter) {
+		ScheduleResult result = ActivitySchedulerWithRatings.scheduleActivities(activityPlanningData,
+				fixedBudgetProfile,
+				previousStarts);
+		counter.rating = totalRating(result.scheduledStarts(), activityPlanningData.getRatings());
+		return result;
+	}
+
+	/**
+	 * Total rating of the last schedule of an iteration.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class RatingCounter {
+
+		public long rating;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			rating = 0;
+		}
+	}
+
+	private static ActivityPlanningData createPlanningData(int numActivities, int numDays, Random random) {
+		boolean[][][] availability = new boolean[numActivities][numDays][SLOTS_PER_DAY];
+		int[] ratings = new int[numActivities];
+		int[] durations = new int[numActivities];
+
+		for (int a = 0; a < numActivities; a++) {
+			ratings[a] = 300 + random.nextInt(200);
+			durations[a] = 1 + random.nextInt(4);
+			for (int d = 0; d < numDays; d++) {
+				for (int t = 2; t < 14; t++) {
+					availability[a][d][t] = random.nextInt(4) == 0;
+				}
+			}
+		}
+		return new ActivityPlanningData(availability, new String[numActivities][numDays][SLOTS_PER_DAY], ratings,
+				durations);
+	}
+
+	private static long totalRating(int[] starts, int[] ratings) {
+		long rating = 0;
+		for (int a = 0; a < starts.length; a++) {
+			rating += starts[a] >= 0 ? ratings[a] : 0;
+		}
+		return rating;
+	}
+}
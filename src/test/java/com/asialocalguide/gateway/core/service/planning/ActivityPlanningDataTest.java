@@ -0,0 +1,78 @@
+package com.asialocalguide.gateway.core.service.planning;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+
+class ActivityPlanningDataTest {
+
+	private static final int SLOTS_PER_DAY = 24;
+
+	@Test
+	void markAvailable_shouldSetSlotsAcrossWordBoundaries() {
+		// 14 days span 6 words of 64 slots
+		ActivityPlanningData data = new ActivityPlanningData(14, SLOTS_PER_DAY, new int[] { 5, 4 }, new int[] { 1, 1 });
+
+		data.markAvailable(0, 2, 15, 9 * 60); // slot 63, last bit of the first word
+		data.markAvailable(0, 2, 16, 10 * 60); // slot 64, first bit of the second word
+		data.markAvailable(0, 13, 23, 5 * 60 + 30); // slot 335, last slot of the horizon
+
+		assertThat(data.getHorizon()).isEqualTo(336);
+		assertThat(data.availableSlots(0)).containsExactly(63, 64, 335);
+		assertThat(data.availableSlots(1)).isEmpty();
+		assertThat(data.isAvailable(0, 64)).isTrue();
+		assertThat(data.isAvailable(0, 65)).isFalse();
+		assertThat(data.nextAvailableSlot(0, 65)).isEqualTo(335);
+		assertThat(data.nextAvailableSlot(0, 336)).isEqualTo(-1);
+		assertThat(data.getStartMinute(0, 335)).isEqualTo(5 * 60 + 30);
+		assertThat(data.getStartMinute(1, 335)).isEqualTo(-1);
+	}
+
+	@Test
+	void availableSlots_shouldRestrictToRange() {
+		ActivityPlanningData data = new ActivityPlanningData(3, SLOTS_PER_DAY, new int[] { 5 }, new int[] { 1 });
+		data.markAvailable(0, 0, 9, 9 * 60);
+		data.markAvailable(0, 1, 9, 9 * 60);
+		data.markAvailable(0, 2, 9, 9 * 60);
+
+		assertThat(data.availableSlots(0, SLOTS_PER_DAY, 2 * SLOTS_PER_DAY)).containsExactly(SLOTS_PER_DAY + 9);
+		assertThat(data.hasAvailability(0, 10, SLOTS_PER_DAY)).isFalse();
+		assertThat(data.hasAvailability(0, 10, SLOTS_PER_DAY + 10)).isTrue();
+	}
+
+	@Test
+	void markAvailable_shouldKeepEarliestStartTime() {
+		ActivityPlanningData data = new ActivityPlanningData(1, SLOTS_PER_DAY, new int[] { 5 }, new int[] { 1 });
+
+		data.markAvailable(0, 0, 9, 9 * 60 + 30);
+		data.markAvailable(0, 0, 9, 9 * 60 + 15);
+		data.markAvailable(0, 0, 9, 9 * 60 + 45);
+
+		assertThat(data.getStartMinute(0, 9)).isEqualTo(9 * 60 + 15);
+	}
+
+	@Test
+	void denseConstructor_shouldConvertMatrices() {
+		boolean[][][] availability = new boolean[1][2][SLOTS_PER_DAY];
+		String[][][] startTimes = new String[1][2][SLOTS_PER_DAY];
+		availability[0][1][3] = true;
+		startTimes[0][1][3] = "09:05";
+
+		ActivityPlanningData data = new ActivityPlanningData(availability, startTimes, new int[] { 5 }, new int[] { 1 });
+
+		assertThat(data.getNumDays()).isEqualTo(2);
+		assertThat(data.availableSlots(0)).containsExactly(SLOTS_PER_DAY + 3);
+		assertThat(data.getStartMinute(0, SLOTS_PER_DAY + 3)).isEqualTo(9 * 60 + 5);
+	}
+
+	@Test
+	void denseConstructor_shouldRejectInconsistentSizes() {
+		assertThatThrownBy(() -> new ActivityPlanningData(new boolean[2][1][SLOTS_PER_DAY],
+				new String[2][1][SLOTS_PER_DAY],
+				new int[] { 5 },
+				new int[] { 1 })).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -1,17 +1,33 @@
 package com.asialocalguide.gateway.core.service.planning;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
 import org.junit.jupiter.api.Test;
 
+import com.asialocalguide.gateway.planning.config.SchedulerProperties;
 import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.ScheduleResult;
+import com.asialocalguide.gateway.planning.domain.ScheduleStatus;
 import com.asialocalguide.gateway.planning.service.ActivitySchedulerWithRatings;
 
 class ActivitySchedulerWithRatingsTest {
 	private static final int SLOTS_PER_DAY = 24;
 	private static final int DAYS = 3;
+	private static final SchedulerProperties SOLVER_PROFILE = new SchedulerProperties(Duration.ofSeconds(5),
+			2,
+			0.0,
+			false,
+			new SchedulerProperties.Decomposition(false, 7, 60),
+			new SchedulerProperties.Hints(true, 100));
 
 	@Test
 	void testEmptyInput() {
@@ -20,7 +36,7 @@ class ActivitySchedulerWithRatingsTest {
 				new int[0],
 				new int[0]);
 
-		assertThatThrownBy(() -> ActivitySchedulerWithRatings.scheduleActivities(data))
+		assertThatThrownBy(() -> ActivitySchedulerWithRatings.scheduleActivities(data, SOLVER_PROFILE))
 				.isInstanceOf(IllegalArgumentException.class);
 	}
 
@@ -35,9 +51,9 @@ class ActivitySchedulerWithRatingsTest {
 				new int[] { 5 },
 				new int[] { 1 });
 
-		boolean[][][] schedule = ActivitySchedulerWithRatings.scheduleActivities(data);
-		assertTrue(schedule[0][0][8]);
-		assertEquals(1, countScheduledActivities(schedule));
+		int[] starts = ActivitySchedulerWithRatings.scheduleActivities(data, SOLVER_PROFILE).scheduledStarts();
+		assertEquals(startSlot(0, 8), starts[0]);
+		assertEquals(1, countScheduledActivities(starts));
 	}
 
 	@Test
@@ -50,9 +66,9 @@ class ActivitySchedulerWithRatingsTest {
 				new int[] { 5, 3 },
 				new int[] { 1, 1 });
 
-		boolean[][][] schedule = ActivitySchedulerWithRatings.scheduleActivities(data);
-		assertTrue(schedule[0][0][8]);
-		assertEquals(5, calculateTotalRating(schedule, new int[] { 5, 3 }));
+		int[] starts = ActivitySchedulerWithRatings.scheduleActivities(data, SOLVER_PROFILE).scheduledStarts();
+		assertEquals(startSlot(0, 8), starts[0]);
+		assertEquals(5, calculateTotalRating(starts, new int[] { 5, 3 }));
 	}
 
 	@Test
@@ -67,9 +83,9 @@ class ActivitySchedulerWithRatingsTest {
 				new int[] { 5, 3 },
 				new int[] { 2, 2 });
 
-		boolean[][][] schedule = ActivitySchedulerWithRatings.scheduleActivities(data);
-		assertTrue(schedule[0][0][8]);
-		assertEquals(5, calculateTotalRating(schedule, new int[] { 5, 3 }));
+		int[] starts = ActivitySchedulerWithRatings.scheduleActivities(data, SOLVER_PROFILE).scheduledStarts();
+		assertEquals(startSlot(0, 8), starts[0]);
+		assertEquals(5, calculateTotalRating(starts, new int[] { 5, 3 }));
 	}
 
 	@Test
@@ -83,10 +99,10 @@ class ActivitySchedulerWithRatingsTest {
 				new int[] { 5, 3 },
 				new int[] { 1, 1 });
 
-		boolean[][][] schedule = ActivitySchedulerWithRatings.scheduleActivities(data);
-		assertTrue(schedule[0][0][3]);
-		assertTrue(schedule[1][0][10]);
-		assertEquals(8, calculateTotalRating(schedule, new int[] { 5, 3 }));
+		int[] starts = ActivitySchedulerWithRatings.scheduleActivities(data, SOLVER_PROFILE).scheduledStarts();
+		assertEquals(startSlot(0, 3), starts[0]);
+		assertEquals(startSlot(0, 10), starts[1]);
+		assertEquals(8, calculateTotalRating(starts, new int[] { 5, 3 }));
 	}
 
 	@Test
@@ -100,9 +116,191 @@ class ActivitySchedulerWithRatingsTest {
 				new int[] { 2, 2 } // 2 slots for each activity
 		);
 
-		boolean[][][] schedule = ActivitySchedulerWithRatings.scheduleActivities(data);
-		assertTrue(schedule[0][0][2]); // Should block for first activity
-		assertTrue(schedule[1][0][11]); // Should block for second activity
+		int[] starts = ActivitySchedulerWithRatings.scheduleActivities(data, SOLVER_PROFILE).scheduledStarts();
+		assertEquals(startSlot(0, 2), starts[0]); // Should block for first activity
+		assertEquals(startSlot(0, 11), starts[1]); // Should block for second activity
+	}
+
+	@Test
+	void testSolverStatusAndGapReported() {
+		boolean[][][] availability = createAvailability(2, 1, new int[][] { { 0, 3 } }, new int[][] { { 0, 10 } });
+
+		ActivityPlanningData data = new ActivityPlanningData(availability,
+				createStartTimes(new int[][] { { 0, 9 } }, new int[][] { { 0, 16 } }),
+				new int[] { 5, 3 },
+				new int[] { 1, 1 });
+
+		ScheduleResult result = ActivitySchedulerWithRatings.scheduleActivities(data, SOLVER_PROFILE);
+
+		assertEquals(ScheduleStatus.OPTIMAL, result.status());
+		assertEquals(0.0, result.relativeGap());
+		assertTrue(result.wallTime().compareTo(SOLVER_PROFILE.maxTime()) <= 0);
+	}
+
+	@Test
+	void testStopAfterFirstSolutionReturnsSchedule() {
+		boolean[][][] availability = createAvailability(1, 1, new int[][] { { 0, 8 } });
+
+		ActivityPlanningData data = new ActivityPlanningData(availability,
+				createStartTimes(new int[][] { { 0, 14 } }),
+				new int[] { 5 },
+				new int[] { 1 });
+
+		ScheduleResult result = ActivitySchedulerWithRatings.scheduleActivities(data,
+				new SchedulerProperties(Duration.ofMillis(500), 1, 0.0, true, SOLVER_PROFILE.decomposition(),
+						SOLVER_PROFILE.hints()));
+
+		assertTrue(result.status().hasSolution());
+		assertEquals(1, countScheduledActivities(result.scheduledStarts()));
+	}
+
+	@Test
+	void testDecomposedSchedulingSpreadsActivitiesOverDays() {
+		// Three activities all competing for slot 8 on each of the three days
+		boolean[][][] availability = createAvailability(3,
+				DAYS,
+				new int[][] { { 0, 8 }, { 1, 8 }, { 2, 8 } },
+				new int[][] { { 0, 8 }, { 1, 8 }, { 2, 8 } },
+				new int[][] { { 0, 8 }, { 1, 8 }, { 2, 8 } });
+
+		ActivityPlanningData data = new ActivityPlanningData(availability,
+				new String[3][DAYS][SLOTS_PER_DAY],
+				new int[] { 5, 4, 3 },
+				new int[] { 1, 1, 1 });
+
+		SchedulerProperties decomposedProfile = new SchedulerProperties(Duration.ofSeconds(5),
+				2,
+				0.0,
+				false,
+				new SchedulerProperties.Decomposition(true, 2, 60),
+				new SchedulerProperties.Hints(true, 100));
+
+		ScheduleResult result = ActivitySchedulerWithRatings.scheduleActivities(data, decomposedProfile);
+
+		assertTrue(result.status().hasSolution());
+		assertEquals(3, countScheduledActivities(result.scheduledStarts()));
+		for (int d = 0; d < DAYS; d++) {
+			int day = d;
+			assertEquals(1,
+					IntStream.range(0, 3).filter(a -> result.scheduledStarts()[a] == startSlot(day, 8)).count());
+		}
+	}
+
+	@Test
+	void testDecomposedSchedulingMatchesExactRatingWhenDaysAreIndependent() {
+		boolean[][][] availability = createAvailability(2, 2, new int[][] { { 0, 3 } }, new int[][] { { 1, 10 } });
+
+		ActivityPlanningData data = new ActivityPlanningData(availability,
+				new String[2][2][SLOTS_PER_DAY],
+				new int[] { 5, 3 },
+				new int[] { 1, 1 });
+
+		SchedulerProperties decomposedProfile = new SchedulerProperties(Duration.ofSeconds(5),
+				2,
+				0.0,
+				false,
+				new SchedulerProperties.Decomposition(true, 2, 60),
+				new SchedulerProperties.Hints(true, 100));
+
+		int[] decomposed = ActivitySchedulerWithRatings.scheduleActivities(data, decomposedProfile)
+				.scheduledStarts();
+		int[] exact = ActivitySchedulerWithRatings.scheduleActivities(data, SOLVER_PROFILE).scheduledStarts();
+
+		assertEquals(calculateTotalRating(exact, new int[] { 5, 3 }),
+				calculateTotalRating(decomposed, new int[] { 5, 3 }));
+	}
+
+	@Test
+	void testLateActivityEndingOnNextDayIsScheduledInBothModes() {
+		// Activity 0 starts late on day 0 and ends, buffer included, on day 1, over activity 1
+		boolean[][][] availability = createAvailability(2, 2, new int[][] { { 0, 22 } }, new int[][] { { 1, 0 } });
+
+		ActivityPlanningData data = new ActivityPlanningData(availability,
+				new String[2][2][SLOTS_PER_DAY],
+				new int[] { 5, 3 },
+				new int[] { 1, 1 });
+
+		SchedulerProperties decomposedProfile = new SchedulerProperties(Duration.ofSeconds(5),
+				2,
+				0.0,
+				false,
+				new SchedulerProperties.Decomposition(true, 2, 60),
+				new SchedulerProperties.Hints(true, 100));
+
+		for (SchedulerProperties profile : List.of(SOLVER_PROFILE, decomposedProfile)) {
+			int[] starts = ActivitySchedulerWithRatings.scheduleActivities(data, profile).scheduledStarts();
+
+			assertEquals(startSlot(0, 22), starts[0]);
+			assertEquals(1, countScheduledActivities(starts));
+		}
+	}
+
+	@Test
+	void testSuboptimalHintDoesNotConstrainSchedule() {
+		// The hint schedules the lower rated activity in the contested slot
+		boolean[][][] availability = createAvailability(2, 1, new int[][] { { 0, 8 } }, new int[][] { { 0, 8 } });
+
+		ActivityPlanningData data = new ActivityPlanningData(availability,
+				createStartTimes(new int[][] { { 0, 14 } }, new int[][] { { 0, 14 } }),
+				new int[] { 5, 3 },
+				new int[] { 1, 1 });
+
+		ScheduleResult result = ActivitySchedulerWithRatings.scheduleActivities(data,
+				SOLVER_PROFILE,
+				new int[] { -1, 8 });
+
+		assertEquals(ScheduleStatus.OPTIMAL, result.status());
+		assertEquals(startSlot(0, 8), result.scheduledStarts()[0]);
+		assertEquals(5, calculateTotalRating(result.scheduledStarts(), new int[] { 5, 3 }));
+	}
+
+	@Test
+	void testImprovingSchedulesAreReported() {
+		boolean[][][] availability = createAvailability(2, 1, new int[][] { { 0, 8 } }, new int[][] { { 0, 8 } });
+
+		ActivityPlanningData data = new ActivityPlanningData(availability,
+				createStartTimes(new int[][] { { 0, 14 } }, new int[][] { { 0, 14 } }),
+				new int[] { 5, 3 },
+				new int[] { 1, 1 });
+		List<ScheduleResult> improvements = new ArrayList<>();
+
+		ScheduleResult result = ActivitySchedulerWithRatings.scheduleActivities(data,
+				SOLVER_PROFILE,
+				new int[] { -1, 8 },
+				System.nanoTime() + SOLVER_PROFILE.maxTime().toNanos(),
+				improvements::add);
+
+		assertThat(improvements).isNotEmpty().allMatch(improvement -> improvement.status() == ScheduleStatus.FEASIBLE);
+		assertEquals(calculateTotalRating(result.scheduledStarts(), new int[] { 5, 3 }),
+				calculateTotalRating(improvements.getLast().scheduledStarts(), new int[] { 5, 3 }));
+	}
+
+	@Test
+	void testDecomposedImprovementsMergeTheDays() {
+		boolean[][][] availability = createAvailability(2, 2, new int[][] { { 0, 3 } }, new int[][] { { 1, 10 } });
+
+		ActivityPlanningData data = new ActivityPlanningData(availability,
+				new String[2][2][SLOTS_PER_DAY],
+				new int[] { 5, 3 },
+				new int[] { 1, 1 });
+		SchedulerProperties decomposedProfile = new SchedulerProperties(Duration.ofSeconds(5),
+				2,
+				0.0,
+				false,
+				new SchedulerProperties.Decomposition(true, 2, 60),
+				new SchedulerProperties.Hints(true, 100));
+		List<ScheduleResult> improvements = Collections.synchronizedList(new ArrayList<>());
+
+		ActivitySchedulerWithRatings.scheduleActivities(data,
+				decomposedProfile,
+				null,
+				System.nanoTime() + decomposedProfile.maxTime().toNanos(),
+				improvements::add);
+
+		// Once both days reported a solution, the improvement holds the activities of both days
+		ScheduleResult last = improvements.getLast();
+		assertEquals(startSlot(0, 3), last.scheduledStarts()[0]);
+		assertEquals(startSlot(1, 10), last.scheduledStarts()[1]);
 	}
 
 	@Test
@@ -114,8 +312,8 @@ class ActivitySchedulerWithRatingsTest {
 				new int[] { 5 },
 				new int[] { 1 });
 
-		boolean[][][] schedule = ActivitySchedulerWithRatings.scheduleActivities(data);
-		assertEquals(0, countScheduledActivities(schedule));
+		int[] starts = ActivitySchedulerWithRatings.scheduleActivities(data, SOLVER_PROFILE).scheduledStarts();
+		assertEquals(0, countScheduledActivities(starts));
 	}
 
 	/**
@@ -179,42 +377,34 @@ class ActivitySchedulerWithRatingsTest {
 	}
 
 	/**
-	 * Counts total number of scheduled time slots across all activities and days.
+	 * Absolute start slot of a slot of a day, as reported in the scheduled starts.
+	 */
+	private static int startSlot(int day, int slot) {
+		return day * SLOTS_PER_DAY + slot;
+	}
+
+	/**
+	 * Counts the scheduled activities.
 	 *
-	 * @param schedule 3D boolean array from scheduler (activities x days x slots)
-	 * @return Total count of true values in the schedule matrix
+	 * @param scheduledStarts start slot per activity from the scheduler, {@code -1} if not scheduled
+	 * @return Number of scheduled activities
 	 */
-	private int countScheduledActivities(boolean[][][] schedule) {
-		int count = 0;
-		for (boolean[][] activity : schedule) {
-			for (boolean[] day : activity) {
-				for (boolean scheduled : day) {
-					if (scheduled)
-						count++;
-				}
-			}
-		}
-		return count;
+	private int countScheduledActivities(int[] scheduledStarts) {
+		return (int) IntStream.of(scheduledStarts).filter(start -> start >= 0).count();
 	}
 
 	/**
 	 * Calculates the total rating score of all scheduled activities.
 	 *
-	 * @param schedule 3D boolean array from scheduler
-	 * @param ratings  Array of ratings indexed by activity
-	 * @return Sum of ratings for all scheduled activities Note: Each activity's
-	 *         rating is added once per scheduled occurrence, though typically
-	 *         activities should only be scheduled once
+	 * @param scheduledStarts start slot per activity from the scheduler, {@code -1} if not scheduled
+	 * @param ratings         Array of ratings indexed by activity
+	 * @return Sum of ratings for all scheduled activities
 	 */
-	private int calculateTotalRating(boolean[][][] schedule, int[] ratings) {
+	private int calculateTotalRating(int[] scheduledStarts, int[] ratings) {
 		int total = 0;
-		for (int a = 0; a < schedule.length; a++) {
-			for (int d = 0; d < schedule[a].length; d++) {
-				for (int t = 0; t < schedule[a][d].length; t++) {
-					if (schedule[a][d][t])
-						total += ratings[a];
-				}
-			}
+		for (int a = 0; a < scheduledStarts.length; a++) {
+			if (scheduledStarts[a] >= 0)
+				total += ratings[a];
 		}
 		return total;
 	}
@@ -0,0 +1,74 @@
+package com.asialocalguide.gateway.core.service.planning;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.asialocalguide.gateway.core.domain.BookingProviderName;
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.CommonActivity;
+import com.asialocalguide.gateway.planning.dto.DayActivityDTO;
+import com.asialocalguide.gateway.planning.dto.DayPlanDTO;
+import com.asialocalguide.gateway.planning.service.DayPlanAssembler;
+
+class DayPlanAssemblerTest {
+
+	private static final LocalDate START_DATE = LocalDate.of(2026, 3, 2);
+
+	@Test
+	void createDayPlans_shouldPlaceEachScheduledStartOnItsDayAtTheProviderStartTime() {
+		ActivityPlanningData planningData = new ActivityPlanningData(3, 24, new int[3], new int[3]);
+		planningData.markAvailable(0, 2, 9, 9 * 60 + 30);
+		planningData.markAvailable(1, 0, 14, 14 * 60);
+		planningData.markAvailable(2, 2, 15, 15 * 60 + 15);
+
+		List<DayPlanDTO> dayPlans = DayPlanAssembler.createDayPlans(START_DATE,
+				3,
+				List.of(createActivity("A0", 90), createActivity("A1", 60), createActivity("A2", 120)),
+				new int[] { 2 * 24 + 9, 14, 2 * 24 + 15 },
+				planningData);
+
+		assertThat(dayPlans).extracting(DayPlanDTO::date)
+				.containsExactly(START_DATE, START_DATE.plusDays(1), START_DATE.plusDays(2));
+		assertThat(dayPlans.get(0).activities()).extracting(DayActivityDTO::productCode).containsExactly("A1");
+		assertThat(dayPlans.get(1).activities()).isEmpty();
+
+		DayActivityDTO first = dayPlans.get(2).activities().getFirst();
+		assertThat(dayPlans.get(2).activities()).extracting(DayActivityDTO::productCode).containsExactly("A0", "A2");
+		assertThat(first.startTime()).isEqualTo(LocalDateTime.of(2026, 3, 4, 9, 30));
+		assertThat(first.endTime()).isEqualTo(LocalDateTime.of(2026, 3, 4, 11, 0));
+	}
+
+	@Test
+	void createDayPlans_shouldSkipUnscheduledActivitiesAndStartsWithoutStartTime() {
+		ActivityPlanningData planningData = new ActivityPlanningData(1, 24, new int[2], new int[2]);
+		planningData.markAvailable(0, 0, 10, -1);
+		planningData.markAvailable(1, 0, 12, 12 * 60);
+
+		List<DayPlanDTO> dayPlans = DayPlanAssembler.createDayPlans(START_DATE,
+				1,
+				List.of(createActivity("A0", 60), createActivity("A1", 60)),
+				new int[] { 10, -1 },
+				planningData);
+
+		assertThat(dayPlans).hasSize(1);
+		assertThat(dayPlans.getFirst().activities()).isEmpty();
+	}
+
+	private static CommonActivity createActivity(String providerId, int durationMinutes) {
+		return new CommonActivity("Activity " + providerId,
+				null,
+				List.of(),
+				new CommonActivity.CommonReviews(4.5, 100),
+				new CommonActivity.CommonDuration(durationMinutes, durationMinutes),
+				new CommonActivity.CommonPricing(50.0, "EUR"),
+				"https://example.com/" + providerId,
+				List.of(),
+				BookingProviderName.VIATOR,
+				providerId);
+	}
+}
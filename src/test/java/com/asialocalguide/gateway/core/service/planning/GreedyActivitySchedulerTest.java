@@ -0,0 +1,103 @@
+package com.asialocalguide.gateway.core.service.planning;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.ScheduleResult;
+import com.asialocalguide.gateway.planning.domain.ScheduleStatus;
+import com.asialocalguide.gateway.planning.service.GreedyActivityScheduler;
+
+class GreedyActivitySchedulerTest {
+
+	private static final int SLOTS_PER_DAY = 24;
+
+	private final GreedyActivityScheduler scheduler = new GreedyActivityScheduler();
+
+	@Test
+	void testEmptyInput() {
+		ActivityPlanningData data = new ActivityPlanningData(new boolean[0][0][0],
+				new String[0][0][0],
+				new int[0],
+				new int[0]);
+
+		assertThatThrownBy(() -> scheduler.schedule(data)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void testTimeSlotConflictResolution() {
+		boolean[][][] availability = new boolean[2][1][SLOTS_PER_DAY];
+		availability[0][0][8] = true;
+		availability[1][0][8] = true;
+
+		ScheduleResult result = scheduler.schedule(new ActivityPlanningData(availability,
+				new String[2][1][SLOTS_PER_DAY],
+				new int[] { 3, 5 },
+				new int[] { 1, 1 }));
+
+		assertArrayEquals(new int[] { -1, 8 }, result.scheduledStarts());
+		assertEquals(ScheduleStatus.FEASIBLE, result.status());
+	}
+
+	@Test
+	void testBufferBetweenActivities() {
+		// Activity 1 starts within the duration and buffer of activity 0, then at a free slot
+		boolean[][][] availability = new boolean[2][1][SLOTS_PER_DAY];
+		availability[0][0][8] = true;
+		availability[1][0][10] = true;
+		availability[1][0][13] = true;
+
+		ScheduleResult result = scheduler.schedule(new ActivityPlanningData(availability,
+				new String[2][1][SLOTS_PER_DAY],
+				new int[] { 5, 4 },
+				new int[] { 2, 2 }));
+
+		assertArrayEquals(new int[] { 8, 13 }, result.scheduledStarts());
+		assertEquals(ScheduleStatus.OPTIMAL, result.status());
+	}
+
+	@Test
+	void testActivityScheduledAtMostOnce() {
+		boolean[][][] availability = new boolean[1][3][SLOTS_PER_DAY];
+		for (int day = 0; day < 3; day++) {
+			availability[0][day][9] = true;
+		}
+
+		ScheduleResult result = scheduler.schedule(new ActivityPlanningData(availability,
+				new String[1][3][SLOTS_PER_DAY],
+				new int[] { 5 },
+				new int[] { 1 }));
+
+		assertArrayEquals(new int[] { 9 }, result.scheduledStarts());
+	}
+
+	@Test
+	void testHintedStartsAreKept() {
+		boolean[][][] availability = new boolean[1][2][SLOTS_PER_DAY];
+		availability[0][0][9] = true;
+		availability[0][1][14] = true;
+
+		ScheduleResult result = scheduler.schedule(new ActivityPlanningData(availability,
+				new String[1][2][SLOTS_PER_DAY],
+				new int[] { 5 },
+				new int[] { 1 }), new int[] { SLOTS_PER_DAY + 14 });
+
+		assertArrayEquals(new int[] { SLOTS_PER_DAY + 14 }, result.scheduledStarts());
+	}
+
+	@Test
+	void testUnavailableHintedStartsAreIgnored() {
+		boolean[][][] availability = new boolean[1][1][SLOTS_PER_DAY];
+		availability[0][0][9] = true;
+
+		ScheduleResult result = scheduler.schedule(new ActivityPlanningData(availability,
+				new String[1][1][SLOTS_PER_DAY],
+				new int[] { 5 },
+				new int[] { 1 }), new int[] { 12 });
+
+		assertArrayEquals(new int[] { 9 }, result.scheduledStarts());
+	}
+}
@@ -0,0 +1,230 @@
+package com.asialocalguide.gateway.core.service.planning;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import com.asialocalguide.gateway.planning.config.PlanningJobProperties;
+import com.asialocalguide.gateway.planning.config.PlanningRequestProperties;
+import com.asialocalguide.gateway.planning.domain.Deadline;
+import com.asialocalguide.gateway.planning.domain.PlanningJobStatus;
+import com.asialocalguide.gateway.planning.domain.SchedulingMode;
+import com.asialocalguide.gateway.planning.dto.DayPlanDTO;
+import com.asialocalguide.gateway.planning.dto.PlanningJobDTO;
+import com.asialocalguide.gateway.planning.dto.PlanningRequestDTO;
+import com.asialocalguide.gateway.planning.exception.PlanningJobNotFoundException;
+import com.asialocalguide.gateway.planning.exception.SolverCapacityExceededException;
+import com.asialocalguide.gateway.planning.service.PlanningJobService;
+import com.asialocalguide.gateway.planning.service.PlanningService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class PlanningJobServiceTest {
+
+	private static final LocalDate START_DATE = LocalDate.of(2026, 3, 2);
+
+	@Mock
+	private PlanningService planningService;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private PlanningJobService planningJobService;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		planningJobService = new PlanningJobService(planningService,
+				new PlanningRequestProperties(Duration.ofSeconds(20)),
+				new PlanningJobProperties(1, 1, Duration.ofMinutes(10), 100, Duration.ofSeconds(3)),
+				meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		planningJobService.destroy();
+	}
+
+	@Test
+	void submit_shouldRunGenerationAndExposeItsResult() throws InterruptedException {
+		PlanningRequestDTO request = createRequest(List.of("1"));
+		List<DayPlanDTO> dayPlans = List.of(new DayPlanDTO(START_DATE, List.of()));
+		when(planningService.generateDayPlans(eq(request), eq(SchedulingMode.OPTIMAL), any(Deadline.class)))
+				.thenReturn(dayPlans);
+
+		PlanningJobDTO submitted = planningJobService.submit(request, SchedulingMode.OPTIMAL);
+		PlanningJobDTO finished = awaitCompletion(submitted.jobId());
+
+		assertThat(finished.status()).isEqualTo(PlanningJobStatus.SUCCEEDED);
+		assertThat(finished.dayPlans()).isEqualTo(dayPlans);
+		assertThat(finished.error()).isNull();
+	}
+
+	@Test
+	void submit_shouldReportFailureWithoutDetails() throws InterruptedException {
+		PlanningRequestDTO request = createRequest(List.of());
+		when(planningService.generateDayPlans(eq(request), eq(SchedulingMode.PREVIEW), any(Deadline.class)))
+				.thenThrow(new IllegalStateException("solver internals"));
+
+		PlanningJobDTO finished = awaitCompletion(planningJobService.submit(request, SchedulingMode.PREVIEW).jobId());
+
+		assertThat(finished.status()).isEqualTo(PlanningJobStatus.FAILED);
+		assertThat(finished.dayPlans()).isNull();
+		assertThat(finished.error()).isEqualTo("Planning generation failed");
+	}
+
+	@Test
+	void submit_shouldAttachIdenticalRequestsToTheJobInProgress() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		when(planningService.generateDayPlans(any(PlanningRequestDTO.class),
+				eq(SchedulingMode.OPTIMAL),
+				any(Deadline.class))).thenAnswer(invocation -> {
+					release.await(5, TimeUnit.SECONDS);
+					return List.of();
+				});
+
+		PlanningJobDTO first = planningJobService.submit(createRequest(List.of("1", "2")), SchedulingMode.OPTIMAL);
+		PlanningJobDTO second = planningJobService.submit(createRequest(List.of("2", "1", "1")),
+				SchedulingMode.OPTIMAL);
+		release.countDown();
+
+		assertThat(second.jobId()).isEqualTo(first.jobId());
+		assertThat(awaitCompletion(first.jobId()).status()).isEqualTo(PlanningJobStatus.SUCCEEDED);
+		verify(planningService, times(1)).generateDayPlans(any(PlanningRequestDTO.class),
+				eq(SchedulingMode.OPTIMAL),
+				any(Deadline.class));
+		assertThat(meterRegistry.get("planning.jobs.attached").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void submit_shouldAttachRequestsInLanguagesFallingBackToEnglish() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		when(planningService.generateDayPlans(any(PlanningRequestDTO.class),
+				eq(SchedulingMode.OPTIMAL),
+				any(Deadline.class))).thenAnswer(invocation -> {
+					release.await(5, TimeUnit.SECONDS);
+					return List.of();
+				});
+
+		PlanningJobDTO first;
+		PlanningJobDTO second;
+		try {
+			LocaleContextHolder.setLocale(Locale.ENGLISH);
+			first = planningJobService.submit(createRequest(List.of("1")), SchedulingMode.OPTIMAL);
+			LocaleContextHolder.setLocale(Locale.KOREAN);
+			second = planningJobService.submit(createRequest(List.of("1")), SchedulingMode.OPTIMAL);
+		} finally {
+			LocaleContextHolder.resetLocaleContext();
+			release.countDown();
+		}
+
+		assertThat(second.jobId()).isEqualTo(first.jobId());
+		assertThat(awaitCompletion(first.jobId()).status()).isEqualTo(PlanningJobStatus.SUCCEEDED);
+		verify(planningService, times(1)).generateDayPlans(any(PlanningRequestDTO.class),
+				eq(SchedulingMode.OPTIMAL),
+				any(Deadline.class));
+	}
+
+	@Test
+	void submit_shouldRejectJobsBeyondQueueCapacity() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(planningService.generateDayPlans(any(PlanningRequestDTO.class),
+				eq(SchedulingMode.OPTIMAL),
+				any(Deadline.class))).thenAnswer(invocation -> {
+					started.countDown();
+					release.await(5, TimeUnit.SECONDS);
+					return List.of();
+				});
+
+		try {
+			planningJobService.submit(createRequest(List.of("1")), SchedulingMode.OPTIMAL);
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			PlanningJobDTO queued = planningJobService.submit(createRequest(List.of("2")), SchedulingMode.OPTIMAL);
+
+			assertThat(queued.status()).isEqualTo(PlanningJobStatus.PENDING);
+			assertThat(meterRegistry.get("planning.jobs.queue.depth").gauge().value()).isEqualTo(1);
+			assertThatThrownBy(() -> planningJobService.submit(createRequest(List.of("3")), SchedulingMode.OPTIMAL))
+					.isInstanceOf(SolverCapacityExceededException.class)
+					.extracting("retryAfter")
+					.isEqualTo(Duration.ofSeconds(3));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void getJob_shouldFindJobsInProgressRegardlessOfResultRetention() throws InterruptedException {
+		PlanningJobService retainingNothing = new PlanningJobService(planningService,
+				new PlanningRequestProperties(Duration.ofSeconds(20)),
+				new PlanningJobProperties(1, 1, Duration.ZERO, 0, Duration.ofSeconds(3)),
+				meterRegistry);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(planningService.generateDayPlans(any(PlanningRequestDTO.class),
+				eq(SchedulingMode.OPTIMAL),
+				any(Deadline.class))).thenAnswer(invocation -> {
+					started.countDown();
+					release.await(5, TimeUnit.SECONDS);
+					return List.of();
+				});
+
+		try {
+			UUID running = retainingNothing.submit(createRequest(List.of("1")), SchedulingMode.OPTIMAL).jobId();
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			UUID pending = retainingNothing.submit(createRequest(List.of("2")), SchedulingMode.OPTIMAL).jobId();
+
+			assertThat(retainingNothing.getJob(running).status()).isEqualTo(PlanningJobStatus.RUNNING);
+			assertThat(retainingNothing.getJob(pending).status()).isEqualTo(PlanningJobStatus.PENDING);
+		} finally {
+			release.countDown();
+			retainingNothing.destroy();
+		}
+	}
+
+	@Test
+	void getJob_shouldThrowWhenJobIsUnknown() {
+		UUID jobId = UUID.randomUUID();
+
+		assertThatThrownBy(() -> planningJobService.getJob(jobId)).isInstanceOf(PlanningJobNotFoundException.class)
+				.hasMessageContaining(jobId.toString());
+	}
+
+	private PlanningJobDTO awaitCompletion(UUID jobId) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		PlanningJobDTO job = planningJobService.getJob(jobId);
+		while ((job.status() == PlanningJobStatus.PENDING || job.status() == PlanningJobStatus.RUNNING)
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(10);
+			job = planningJobService.getJob(jobId);
+		}
+		return job;
+	}
+
+	private static PlanningRequestDTO createRequest(List<String> activityTagIds) {
+		return new PlanningRequestDTO(START_DATE,
+				START_DATE.plusDays(1),
+				UUID.fromString("00000000-0000-0000-0000-000000000001"),
+				activityTagIds);
+	}
+}
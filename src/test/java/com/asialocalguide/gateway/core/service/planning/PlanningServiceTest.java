@@ -7,10 +7,13 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -21,7 +24,11 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -37,25 +44,54 @@ import com.asialocalguide.gateway.appuser.service.AppUserService;
 import com.asialocalguide.gateway.core.domain.BookingProvider;
 import com.asialocalguide.gateway.core.domain.BookingProviderName;
 import com.asialocalguide.gateway.core.service.strategy.FetchPlanningDataStrategy;
+import com.asialocalguide.gateway.planning.config.PlanningRequestProperties;
+import com.asialocalguide.gateway.planning.config.PlanningResultCacheProperties;
+import com.asialocalguide.gateway.planning.config.SchedulerProperties;
+import com.asialocalguide.gateway.planning.config.SolverPoolProperties;
 import com.asialocalguide.gateway.planning.domain.Activity;
 import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
 import com.asialocalguide.gateway.planning.domain.CommonActivity;
 import com.asialocalguide.gateway.planning.domain.DayActivity;
 import com.asialocalguide.gateway.planning.domain.DayPlan;
+import com.asialocalguide.gateway.planning.domain.Deadline;
 import com.asialocalguide.gateway.planning.domain.Planning;
 import com.asialocalguide.gateway.planning.domain.ProviderPlanningData;
+import com.asialocalguide.gateway.planning.domain.ScheduleResult;
+import com.asialocalguide.gateway.planning.domain.ScheduleStatus;
+import com.asialocalguide.gateway.planning.domain.SchedulingMode;
 import com.asialocalguide.gateway.planning.dto.DayActivityDTO;
 import com.asialocalguide.gateway.planning.dto.DayPlanDTO;
 import com.asialocalguide.gateway.planning.dto.PlanningCreateRequestDTO;
 import com.asialocalguide.gateway.planning.dto.PlanningRequestDTO;
+import com.asialocalguide.gateway.planning.dto.ScheduleUpdateDTO;
 import com.asialocalguide.gateway.planning.exception.PlanningCreationException;
 import com.asialocalguide.gateway.planning.repository.PlanningRepository;
+import com.asialocalguide.gateway.planning.service.ActivityScheduler;
 import com.asialocalguide.gateway.planning.service.ActivityService;
+import com.asialocalguide.gateway.planning.service.CpSatActivityScheduler;
+import com.asialocalguide.gateway.planning.service.GreedyActivityScheduler;
+import com.asialocalguide.gateway.planning.service.PlanningProgressListener;
+import com.asialocalguide.gateway.planning.service.PlanningResultCache;
 import com.asialocalguide.gateway.planning.service.PlanningService;
+import com.asialocalguide.gateway.planning.service.ScheduleHintStore;
+import com.asialocalguide.gateway.planning.service.SolverExecutor;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class PlanningServiceTest {
 
+	private static final SchedulerProperties SOLVER_PROFILE = new SchedulerProperties(Duration.ofSeconds(5),
+			2,
+			0.0,
+			false,
+			new SchedulerProperties.Decomposition(false, 7, 60),
+			new SchedulerProperties.Hints(true, 100));
+
+	private static final PlanningRequestProperties REQUEST_PROPERTIES = new PlanningRequestProperties(
+			Duration.ofSeconds(20));
+
 	@Mock
 	private FetchPlanningDataStrategy planningStrategy1;
 
@@ -88,12 +124,25 @@ class PlanningServiceTest {
 	private PlanningCreateRequestDTO.CreateDayActivityDTO createDayActivityDTO;
 	private PlanningCreateRequestDTO.CreateDayPlanDTO createDayPlanDTO;
 
+	private SolverExecutor solverExecutor;
+
+	private SimpleMeterRegistry meterRegistry;
+
 	@BeforeEach
 	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		solverExecutor = new SolverExecutor(new SolverPoolProperties(1, 4, Duration.ofSeconds(5)),
+				SOLVER_PROFILE,
+				new SimpleMeterRegistry());
 		planningService = new PlanningService(List.of(planningStrategy1, planningStrategy2),
 				appUserService,
 				activityService,
-				planningRepository);
+				planningRepository,
+				List.of(new CpSatActivityScheduler(SOLVER_PROFILE, solverExecutor), new GreedyActivityScheduler()),
+				new ScheduleHintStore(SOLVER_PROFILE),
+				createResultCache(false),
+				REQUEST_PROPERTIES,
+				meterRegistry);
 
 		validRequest = new PlanningRequestDTO(today, tomorrow, UUID.randomUUID(), List.of("adventure"));
 
@@ -109,9 +158,22 @@ class PlanningServiceTest {
 		validCreateRequest = createTestPlanningCreateRequestDTO(List.of(createDayPlanDTO));
 	}
 
+	@AfterEach
+	void tearDown() {
+		solverExecutor.destroy();
+	}
+
 	@Test
 	void generateDayPlans_shouldHandleNoProviders() {
-		PlanningService service = new PlanningService(List.of(), appUserService, activityService, planningRepository);
+		PlanningService service = new PlanningService(List.of(),
+				appUserService,
+				activityService,
+				planningRepository,
+				List.of(new CpSatActivityScheduler(SOLVER_PROFILE, solverExecutor), new GreedyActivityScheduler()),
+				new ScheduleHintStore(SOLVER_PROFILE),
+				createResultCache(false),
+				REQUEST_PROPERTIES,
+				meterRegistry);
 
 		List<DayPlanDTO> result = service.generateDayPlans(validRequest);
 
@@ -124,9 +186,9 @@ class PlanningServiceTest {
 		LocalDate endDate = today.plusDays(1);
 		PlanningRequestDTO request = new PlanningRequestDTO(today, endDate, UUID.randomUUID(), List.of("adventure"));
 
-		when(planningStrategy1.fetchProviderPlanningData(any(), any()))
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any()))
 				.thenThrow(new RuntimeException("Provider error"));
-		when(planningStrategy2.fetchProviderPlanningData(any(), any())).thenReturn(createTestProviderData());
+		when(planningStrategy2.fetchProviderPlanningData(any(), any(), any())).thenReturn(createTestProviderData());
 
 		List<DayPlanDTO> result = planningService.generateDayPlans(request);
 
@@ -135,9 +197,125 @@ class PlanningServiceTest {
 		assertEquals(1, totalActivities);
 	}
 
+	@Test
+	void generateDayPlans_shouldFetchProvidersConcurrentlyAndMergeTheirActivities() {
+		PlanningRequestDTO request = new PlanningRequestDTO(today, today, UUID.randomUUID(), List.of("adventure"));
+		// Each provider answers only once both are fetching
+		CountDownLatch fetching = new CountDownLatch(2);
+
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any())).thenAnswer(invocation -> {
+			fetching.countDown();
+			assertTrue(fetching.await(5, TimeUnit.SECONDS));
+			return createSingleDayProviderData(List.of(createTestCommonActivity(4.5, "VIATOR-123")),
+					new int[] { 9 },
+					new int[] { 5 });
+		});
+		when(planningStrategy2.fetchProviderPlanningData(any(), any(), any())).thenAnswer(invocation -> {
+			fetching.countDown();
+			assertTrue(fetching.await(5, TimeUnit.SECONDS));
+			return createSingleDayProviderData(
+					List.of(createCommonActivity("TEST activity!", BookingProviderName.GET_YOUR_GUIDE, "GYG-1"),
+							createCommonActivity("River Cruise", BookingProviderName.GET_YOUR_GUIDE, "GYG-2")),
+					new int[] { 11, 14 },
+					new int[] { 3, 4 });
+		});
+
+		List<DayPlanDTO> result = planningService.generateDayPlans(request);
+
+		// The duplicate of the better rated Viator activity is dropped
+		assertThat(result.getFirst().activities()).extracting(DayActivityDTO::productCode)
+				.containsExactlyInAnyOrder("VIATOR-123", "GYG-2");
+	}
+
+	@Test
+	void generateDayPlans_shouldReturnCachedDayPlansForIdenticalRequests() {
+		PlanningService service = createServiceWithResultCache();
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any())).thenReturn(createTestProviderData());
+
+		List<DayPlanDTO> first = service.generateDayPlans(
+				new PlanningRequestDTO(today, tomorrow, validRequest.destinationId(), List.of("adventure", "food")));
+		List<DayPlanDTO> second = service.generateDayPlans(new PlanningRequestDTO(today,
+				tomorrow,
+				validRequest.destinationId(),
+				List.of("food", "adventure", "food")));
+
+		assertThat(second).isEqualTo(first);
+		verify(planningStrategy1, times(1)).fetchProviderPlanningData(any(), any(), any());
+		verify(planningStrategy2, times(1)).fetchProviderPlanningData(any(), any(), any());
+	}
+
+	@Test
+	void generateDayPlans_shouldNotCacheDayPlansMissingAProvider() {
+		PlanningService service = createServiceWithResultCache();
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any()))
+				.thenThrow(new RuntimeException("Provider error"));
+		when(planningStrategy2.fetchProviderPlanningData(any(), any(), any())).thenReturn(createTestProviderData());
+
+		service.generateDayPlans(validRequest);
+		service.generateDayPlans(validRequest);
+
+		verify(planningStrategy2, times(2)).fetchProviderPlanningData(any(), any(), any());
+	}
+
+	@Test
+	void generateDayPlans_shouldNotCacheFallbackDayPlans() {
+		ActivityScheduler unknownScheduler = createOptimalScheduler((data, hintStarts) -> new ScheduleResult(
+				new int[] { -1, -1 }, ScheduleStatus.UNKNOWN, 1.0, Duration.ZERO));
+		PlanningService service = new PlanningService(List.of(planningStrategy1),
+				appUserService,
+				activityService,
+				planningRepository,
+				List.of(unknownScheduler, new GreedyActivityScheduler()),
+				new ScheduleHintStore(SOLVER_PROFILE),
+				createResultCache(true),
+				REQUEST_PROPERTIES,
+				meterRegistry);
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any())).thenReturn(createConflictProviderData());
+
+		List<DayPlanDTO> result = service.generateDayPlans(validRequest, SchedulingMode.OPTIMAL);
+		service.generateDayPlans(validRequest, SchedulingMode.OPTIMAL);
+
+		assertEquals(1, result.getFirst().activities().size());
+		verify(planningStrategy1, times(2)).fetchProviderPlanningData(any(), any(), any());
+		assertEquals(2,
+				meterRegistry.get("planning.schedule")
+						.tag("mode", "OPTIMAL")
+						.tag("fallback", "true")
+						.timer()
+						.count());
+	}
+
+	@Test
+	void generateDayPlans_shouldPublishScheduleStatusAndGap() {
+		ActivityScheduler feasibleScheduler = createOptimalScheduler((data, hintStarts) -> new ScheduleResult(
+				new int[] { 9, -1 }, ScheduleStatus.FEASIBLE, 0.25, Duration.ofMillis(40)));
+		PlanningService service = new PlanningService(List.of(planningStrategy1),
+				appUserService,
+				activityService,
+				planningRepository,
+				List.of(feasibleScheduler, new GreedyActivityScheduler()),
+				new ScheduleHintStore(SOLVER_PROFILE),
+				createResultCache(false),
+				REQUEST_PROPERTIES,
+				meterRegistry);
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any())).thenReturn(createConflictProviderData());
+
+		service.generateDayPlans(validRequest, SchedulingMode.OPTIMAL);
+
+		Timer timer = meterRegistry.get("planning.schedule")
+				.tag("mode", "OPTIMAL")
+				.tag("status", "FEASIBLE")
+				.tag("fallback", "false")
+				.timer();
+		assertEquals(1, timer.count());
+		assertEquals(40, timer.totalTime(TimeUnit.MILLISECONDS));
+		assertEquals(0.25,
+				meterRegistry.get("planning.schedule.gap").tag("status", "FEASIBLE").summary().totalAmount());
+	}
+
 	@Test
 	void generateActivityPlanning_shouldHandleEmptyActivityData() {
-		when(planningStrategy1.fetchProviderPlanningData(any(), any())).thenReturn(new ProviderPlanningData(List.of(),
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any())).thenReturn(new ProviderPlanningData(List.of(),
 				new ActivityPlanningData(new boolean[1][2][24],
 						new String[1][2][24],
 						new int[] { 0 }, // Use a single element array instead of empty
@@ -163,7 +341,7 @@ class PlanningServiceTest {
 				new int[] { 8 } // 8-hour duration
 		);
 
-		when(planningStrategy1.fetchProviderPlanningData(any(), any()))
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any()))
 				.thenReturn(new ProviderPlanningData(List.of(createTestCommonActivity(4.5)), invalidData, today));
 
 		List<DayPlanDTO> result = planningService.generateDayPlans(validRequest);
@@ -198,7 +376,7 @@ class PlanningServiceTest {
 				new int[] { 5 }, // Rating
 				new int[] { 60 });
 
-		when(planningStrategy1.fetchProviderPlanningData(any(), any()))
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any()))
 				.thenReturn(new ProviderPlanningData(List.of(createTestCommonActivity(4.5)), // Single activity instance
 						testData,
 						today));
@@ -248,7 +426,7 @@ class PlanningServiceTest {
 				new int[] { 1, 1 } // Durations
 		);
 
-		when(planningStrategy1.fetchProviderPlanningData(any(), any())).thenReturn(
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any())).thenReturn(
 				new ProviderPlanningData(List.of(createTestCommonActivity(4.5), createTestCommonActivity(5)),
 						conflictData,
 						today));
@@ -263,6 +441,173 @@ class PlanningServiceTest {
 		assertEquals(5, result.getFirst().activities().getFirst().combinedAverageRating());
 	}
 
+	@Test
+	void generateDayPlans_shouldUsePreviewScheduler() {
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any())).thenReturn(createConflictProviderData());
+
+		PlanningRequestDTO request = new PlanningRequestDTO(today, today, UUID.randomUUID(), List.of("adventure"));
+
+		List<DayPlanDTO> result = planningService.generateDayPlans(request, SchedulingMode.PREVIEW);
+
+		assertEquals(1, result.getFirst().activities().size());
+		assertEquals(5, result.getFirst().activities().getFirst().combinedAverageRating());
+	}
+
+	@Test
+	void generateDayPlans_shouldFallBackToPreviewWhenOptimalFindsNoSchedule() {
+		ActivityScheduler unknownScheduler = createOptimalScheduler((data, hintStarts) -> new ScheduleResult(
+				new int[] { -1, -1 }, ScheduleStatus.UNKNOWN, 1.0, Duration.ZERO));
+		PlanningService service = new PlanningService(List.of(planningStrategy1),
+				appUserService,
+				activityService,
+				planningRepository,
+				List.of(unknownScheduler, new GreedyActivityScheduler()),
+				new ScheduleHintStore(SOLVER_PROFILE),
+				createResultCache(false),
+				REQUEST_PROPERTIES,
+				meterRegistry);
+
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any())).thenReturn(createConflictProviderData());
+
+		PlanningRequestDTO request = new PlanningRequestDTO(today, today, UUID.randomUUID(), List.of("adventure"));
+
+		List<DayPlanDTO> result = service.generateDayPlans(request);
+
+		assertEquals(1, result.getFirst().activities().size());
+	}
+
+	@Test
+	void generateDayPlans_shouldFallBackToPreviewWhenOptimalFails() {
+		ActivityScheduler failingScheduler = createOptimalScheduler((data, hintStarts) -> {
+			throw new IllegalStateException("Native libraries unavailable");
+		});
+		PlanningService service = new PlanningService(List.of(planningStrategy1),
+				appUserService,
+				activityService,
+				planningRepository,
+				List.of(failingScheduler, new GreedyActivityScheduler()),
+				new ScheduleHintStore(SOLVER_PROFILE),
+				createResultCache(false),
+				REQUEST_PROPERTIES,
+				meterRegistry);
+
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any())).thenReturn(createConflictProviderData());
+
+		PlanningRequestDTO request = new PlanningRequestDTO(today, today, UUID.randomUUID(), List.of("adventure"));
+
+		List<DayPlanDTO> result = service.generateDayPlans(request);
+
+		assertEquals(1, result.getFirst().activities().size());
+		assertEquals(5, result.getFirst().activities().getFirst().combinedAverageRating());
+	}
+
+	@Test
+	void generateDayPlans_shouldUseConfiguredRequestTimeout() {
+		PlanningService service = new PlanningService(List.of(planningStrategy1),
+				appUserService,
+				activityService,
+				planningRepository,
+				List.of(new GreedyActivityScheduler()),
+				new ScheduleHintStore(SOLVER_PROFILE),
+				createResultCache(false),
+				new PlanningRequestProperties(Duration.ofMinutes(5)),
+				meterRegistry);
+		ArgumentCaptor<Deadline> deadlineCaptor = ArgumentCaptor.forClass(Deadline.class);
+
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), deadlineCaptor.capture()))
+				.thenReturn(createConflictProviderData());
+
+		service.generateDayPlans(validRequest, SchedulingMode.PREVIEW);
+
+		assertTrue(deadlineCaptor.getValue().remaining().compareTo(Duration.ofMinutes(4)) > 0);
+	}
+
+	@Test
+	void generateDayPlans_shouldUsePreviewOnceDeadlineExpired() {
+		ActivityScheduler optimalScheduler = createOptimalScheduler((data, hintStarts) -> {
+			throw new AssertionError("Optimal scheduler must not run after the deadline");
+		});
+		PlanningService service = new PlanningService(List.of(planningStrategy1),
+				appUserService,
+				activityService,
+				planningRepository,
+				List.of(optimalScheduler, new GreedyActivityScheduler()),
+				new ScheduleHintStore(SOLVER_PROFILE),
+				createResultCache(false),
+				REQUEST_PROPERTIES,
+				meterRegistry);
+		// Leaves time to collect the provider data, but is already expired when scheduling starts
+		Deadline deadline = mock(Deadline.class);
+		when(deadline.remainingNanos()).thenReturn(TimeUnit.SECONDS.toNanos(5));
+		when(deadline.isExpired()).thenReturn(true);
+
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), eq(deadline)))
+				.thenReturn(createConflictProviderData());
+
+		PlanningRequestDTO request = new PlanningRequestDTO(today, today, UUID.randomUUID(), List.of("adventure"));
+
+		List<DayPlanDTO> result = service.generateDayPlans(request, SchedulingMode.OPTIMAL, deadline);
+
+		assertEquals(1, result.getFirst().activities().size());
+	}
+
+	@Test
+	void generateDayPlans_shouldReportCandidatesAndSchedulesBeforeFinalPlan() {
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any())).thenReturn(createConflictProviderData());
+		PlanningRequestDTO request = new PlanningRequestDTO(today, today, UUID.randomUUID(), List.of("adventure"));
+		List<CommonActivity> candidates = new ArrayList<>();
+		List<ScheduleUpdateDTO> updates = new ArrayList<>();
+
+		List<DayPlanDTO> result = planningService.generateDayPlans(request,
+				SchedulingMode.OPTIMAL,
+				Deadline.after(Duration.ofSeconds(10)),
+				new PlanningProgressListener() {
+					@Override
+					public void onCandidates(List<CommonActivity> activities) {
+						candidates.addAll(activities);
+					}
+
+					@Override
+					public void onSchedule(ScheduleUpdateDTO update) {
+						updates.add(update);
+					}
+				});
+
+		assertThat(candidates).extracting(CommonActivity::providerId).containsExactly("VIATOR-123", "VIATOR-456");
+		// The preview schedule comes first, then the solver improvements
+		assertThat(updates).hasSizeGreaterThanOrEqualTo(2);
+		assertThat(updates.getLast().dayPlans()).isEqualTo(result);
+	}
+
+	@Test
+	void generateDayPlans_shouldWarmStartFromPreviousSchedule() {
+		List<int[]> receivedHints = new ArrayList<>();
+		ActivityScheduler recordingScheduler = createOptimalScheduler((data, hintStarts) -> {
+			receivedHints.add(hintStarts);
+			return new GreedyActivityScheduler().schedule(data, hintStarts);
+		});
+		PlanningService service = new PlanningService(List.of(planningStrategy1),
+				appUserService,
+				activityService,
+				planningRepository,
+				List.of(recordingScheduler),
+				new ScheduleHintStore(SOLVER_PROFILE),
+				createResultCache(false),
+				REQUEST_PROPERTIES,
+				meterRegistry);
+
+		when(planningStrategy1.fetchProviderPlanningData(any(), any(), any())).thenReturn(createConflictProviderData());
+
+		PlanningRequestDTO request = new PlanningRequestDTO(today, today, UUID.randomUUID(), List.of("adventure"));
+
+		service.generateDayPlans(request);
+		service.generateDayPlans(request);
+
+		assertThat(receivedHints).hasSize(2);
+		assertThat(receivedHints.getFirst()).isNull();
+		assertThat(receivedHints.get(1)).containsExactly(-1, 9);
+	}
+
 	@Test
 	void savePlanning_shouldCreateAndSavePlanningSuccessfully() {
 		// Setup
@@ -556,6 +901,10 @@ class PlanningServiceTest {
 	}
 
 	private CommonActivity createTestCommonActivity(double rating) {
+		return createTestCommonActivity(rating, "VIATOR-123");
+	}
+
+	private CommonActivity createTestCommonActivity(double rating, String providerId) {
 		return new CommonActivity("Test Activity",
 				"Test Description",
 				List.of(),
@@ -565,7 +914,53 @@ class PlanningServiceTest {
 				"http://viator.com",
 				List.of("adventure"),
 				BookingProviderName.VIATOR,
-				"VIATOR-123");
+				providerId);
+	}
+
+	private CommonActivity createCommonActivity(String title, BookingProviderName providerName, String providerId) {
+		return new CommonActivity(title,
+				"Test Description",
+				List.of(),
+				new CommonActivity.CommonReviews(4.0, 100),
+				new CommonActivity.CommonDuration(60, 60),
+				new CommonActivity.CommonPricing(50.0, "EUR"),
+				"http://example.com",
+				List.of("adventure"),
+				providerName,
+				providerId);
+	}
+
+	private PlanningService createServiceWithResultCache() {
+		return new PlanningService(List.of(planningStrategy1, planningStrategy2),
+				appUserService,
+				activityService,
+				planningRepository,
+				List.of(new CpSatActivityScheduler(SOLVER_PROFILE, solverExecutor), new GreedyActivityScheduler()),
+				new ScheduleHintStore(SOLVER_PROFILE),
+				createResultCache(true),
+				REQUEST_PROPERTIES,
+				meterRegistry);
+	}
+
+	private static PlanningResultCache createResultCache(boolean enabled) {
+		return new PlanningResultCache(new PlanningResultCacheProperties(enabled, Duration.ofMinutes(30), 100),
+				new SimpleMeterRegistry());
+	}
+
+	private ProviderPlanningData createSingleDayProviderData(List<CommonActivity> activities, int[] startHours,
+			int[] ratings) {
+		boolean[][][] availability = new boolean[activities.size()][1][24];
+		String[][][] startTimes = new String[activities.size()][1][24];
+		int[] durations = new int[activities.size()];
+		for (int a = 0; a < activities.size(); a++) {
+			availability[a][0][startHours[a]] = true;
+			startTimes[a][0][startHours[a]] = String.format("%02d:00", startHours[a]);
+			durations[a] = 1;
+		}
+
+		return new ProviderPlanningData(activities,
+				new ActivityPlanningData(availability, startTimes, ratings, durations),
+				today);
 	}
 
 	private AppUser createTestUser() {
@@ -603,4 +998,33 @@ class PlanningServiceTest {
 			List<PlanningCreateRequestDTO.CreateDayPlanDTO> dayPlans) {
 		return new PlanningCreateRequestDTO("Test Planning", dayPlans);
 	}
+
+	private ProviderPlanningData createConflictProviderData() {
+		boolean[][][] availability = new boolean[2][1][24];
+		String[][][] startTimes = new String[2][1][24];
+		availability[0][0][9] = true;
+		availability[1][0][9] = true;
+		startTimes[0][0][9] = "09:00";
+		startTimes[1][0][9] = "09:00";
+
+		return new ProviderPlanningData(
+				List.of(createTestCommonActivity(4.5, "VIATOR-123"), createTestCommonActivity(5, "VIATOR-456")),
+				new ActivityPlanningData(availability, startTimes, new int[] { 4, 5 }, new int[] { 1, 1 }),
+				today);
+	}
+
+	private static ActivityScheduler createOptimalScheduler(
+			BiFunction<ActivityPlanningData, int[], ScheduleResult> schedule) {
+		return new ActivityScheduler() {
+			@Override
+			public SchedulingMode getMode() {
+				return SchedulingMode.OPTIMAL;
+			}
+
+			@Override
+			public ScheduleResult schedule(ActivityPlanningData activityPlanningData, int[] hintStarts) {
+				return schedule.apply(activityPlanningData, hintStarts);
+			}
+		};
+	}
 }
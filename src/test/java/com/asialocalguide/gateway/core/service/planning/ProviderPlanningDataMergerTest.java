@@ -0,0 +1,87 @@
+package com.asialocalguide.gateway.core.service.planning;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.asialocalguide.gateway.core.domain.BookingProviderName;
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.CommonActivity;
+import com.asialocalguide.gateway.planning.domain.ProviderPlanningData;
+import com.asialocalguide.gateway.planning.service.ProviderPlanningDataMerger;
+
+class ProviderPlanningDataMergerTest {
+
+	private static final LocalDate START_DATE = LocalDate.of(2026, 3, 2);
+
+	@Test
+	void merge_shouldConcatenateActivitiesWithTheirAvailability() {
+		ProviderPlanningData viator = createProviderData(
+				List.of(createActivity("Temple Tour", 120, BookingProviderName.VIATOR, "V1")),
+				new int[] { 9 },
+				new int[] { 5 });
+		ProviderPlanningData getYourGuide = createProviderData(
+				List.of(createActivity("River Cruise", 60, BookingProviderName.GET_YOUR_GUIDE, "G1")),
+				new int[] { 14 },
+				new int[] { 4 });
+
+		ProviderPlanningData merged = ProviderPlanningDataMerger.merge(List.of(viator, getYourGuide));
+
+		ActivityPlanningData planningData = merged.activityPlanningData();
+		assertThat(merged.activities()).extracting(CommonActivity::providerId).containsExactly("V1", "G1");
+		assertThat(planningData.getRatings()).containsExactly(5, 4);
+		assertThat(planningData.availableSlots(0)).containsExactly(9, 33);
+		assertThat(planningData.availableSlots(1)).containsExactly(14, 38);
+		assertThat(planningData.getStartMinute(1, 38)).isEqualTo(14 * 60 + 15);
+		assertThat(merged.startDate()).isEqualTo(START_DATE);
+	}
+
+	@Test
+	void merge_shouldKeepBestRatedOfDuplicatesAcrossProvidersOnly() {
+		ProviderPlanningData viator = createProviderData(
+				List.of(createActivity("Temple Tour", 120, BookingProviderName.VIATOR, "V1"),
+						createActivity("Temple Tour", 240, BookingProviderName.VIATOR, "V2")),
+				new int[] { 9, 10 },
+				new int[] { 3, 4 });
+		ProviderPlanningData getYourGuide = createProviderData(
+				List.of(createActivity("  temple TOUR! ", 135, BookingProviderName.GET_YOUR_GUIDE, "G1"),
+						createActivity("Temple Tour", 60, BookingProviderName.GET_YOUR_GUIDE, "G2")),
+				new int[] { 11, 12 },
+				new int[] { 5, 2 });
+
+		ProviderPlanningData merged = ProviderPlanningDataMerger.merge(List.of(viator, getYourGuide));
+
+		// G1 replaces V1 in place, V2 is another option of the same provider, G2 is too short to match
+		assertThat(merged.activities()).extracting(CommonActivity::providerId).containsExactly("G1", "V2", "G2");
+		assertThat(merged.activityPlanningData().getRatings()).containsExactly(5, 4, 2);
+		assertThat(merged.activityPlanningData().availableSlots(0)).containsExactly(11, 35);
+	}
+
+	private static ProviderPlanningData createProviderData(List<CommonActivity> activities, int[] startHours,
+			int[] ratings) {
+		ActivityPlanningData planningData = new ActivityPlanningData(2, 24, ratings, new int[activities.size()]);
+		for (int a = 0; a < activities.size(); a++) {
+			for (int day = 0; day < 2; day++) {
+				planningData.markAvailable(a, day, startHours[a], startHours[a] * 60 + 15);
+			}
+		}
+		return new ProviderPlanningData(activities, planningData, START_DATE);
+	}
+
+	private static CommonActivity createActivity(String title, int durationMinutes, BookingProviderName providerName,
+			String providerId) {
+		return new CommonActivity(title,
+				null,
+				List.of(),
+				new CommonActivity.CommonReviews(4.5, 100),
+				new CommonActivity.CommonDuration(durationMinutes, durationMinutes),
+				new CommonActivity.CommonPricing(50.0, "EUR"),
+				"https://example.com/" + providerId,
+				List.of(),
+				providerName,
+				providerId);
+	}
+}
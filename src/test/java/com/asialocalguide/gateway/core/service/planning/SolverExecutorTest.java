@@ -0,0 +1,117 @@
+package com.asialocalguide.gateway.core.service.planning;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.asialocalguide.gateway.planning.config.SchedulerProperties;
+import com.asialocalguide.gateway.planning.config.SolverPoolProperties;
+import com.asialocalguide.gateway.planning.domain.Deadline;
+import com.asialocalguide.gateway.planning.exception.SolverCapacityExceededException;
+import com.asialocalguide.gateway.planning.service.SolverExecutor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SolverExecutorTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private SolverExecutor solverExecutor;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		solverExecutor = new SolverExecutor(new SolverPoolProperties(1, 1, Duration.ofSeconds(7)),
+				new SchedulerProperties(Duration.ofSeconds(1), 1, 0.0, false, null, null),
+				meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		solverExecutor.destroy();
+	}
+
+	@Test
+	void execute_shouldReturnSolveResult() {
+		assertThat(solverExecutor.execute(() -> 42)).isEqualTo(42);
+		assertThat(meterRegistry.get("planning.solver.queue.wait").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void execute_shouldRethrowSolveRuntimeException() {
+		assertThatThrownBy(() -> solverExecutor.execute(() -> {
+			throw new IllegalArgumentException("invalid model");
+		})).isInstanceOf(IllegalArgumentException.class).hasMessage("invalid model");
+	}
+
+	@Test
+	void execute_shouldRejectWhenPoolAndQueueAreFull() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		// Occupies the single solver
+		CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> solverExecutor.execute(() -> {
+			running.countDown();
+			release.await();
+			return 1;
+		}));
+		assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// Occupies the single queue slot
+		CompletableFuture<Integer> queued = CompletableFuture.supplyAsync(() -> solverExecutor.execute(() -> 2));
+		awaitQueueDepth(1);
+
+		assertThatThrownBy(() -> solverExecutor.execute(() -> 3))
+				.isInstanceOfSatisfying(SolverCapacityExceededException.class,
+						e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(7)));
+		assertThat(meterRegistry.get("planning.solver.rejected").counter().count()).isEqualTo(1);
+
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+		assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+	}
+
+	@Test
+	void execute_shouldCancelQueuedSolveWhenDeadlineExpires() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean queuedSolveRan = new AtomicBoolean();
+
+		// Occupies the single solver
+		CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> solverExecutor.execute(() -> {
+			running.countDown();
+			release.await();
+			return 1;
+		}));
+		assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThatThrownBy(() -> solverExecutor.execute(() -> {
+			queuedSolveRan.set(true);
+			return 2;
+		}, Deadline.after(Duration.ofMillis(50)))).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("deadline");
+
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+		// Runs after the cancelled solve left the queue
+		assertThat(solverExecutor.execute(() -> 3)).isEqualTo(3);
+		assertThat(queuedSolveRan).isFalse();
+	}
+
+	private void awaitQueueDepth(int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get("planning.solver.queue.depth").gauge().value() < expected
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+}
@@ -13,10 +13,12 @@ import com.asialocalguide.gateway.destination.domain.DestinationProviderMapping;
 import com.asialocalguide.gateway.destination.domain.LanguageCode;
 import com.asialocalguide.gateway.destination.service.DestinationService;
 import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.Deadline;
 import com.asialocalguide.gateway.planning.domain.ProviderPlanningData;
 import com.asialocalguide.gateway.planning.domain.ProviderPlanningRequest;
 import com.asialocalguide.gateway.planning.dto.PlanningRequestDTO;
 import com.asialocalguide.gateway.viator.service.ViatorActivityService;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.Optional;
@@ -47,6 +49,7 @@ class ViatorFetchPlanningDataStrategyTest {
 	private PlanningRequestDTO validRequest;
 	private final LocalDate today = LocalDate.now();
 	private final LocalDate tomorrow = today.plusDays(3);
+	private final Deadline deadline = Deadline.after(Duration.ofSeconds(10));
 
 	@BeforeEach
 	void setUp() {
@@ -65,7 +68,7 @@ class ViatorFetchPlanningDataStrategyTest {
 	void fetchProviderActivity_shouldThrowWhenViatorProviderNotFound() {
 		when(bookingProviderService.getBookingProviderByName(BookingProviderName.VIATOR)).thenReturn(Optional.empty());
 
-		assertThatThrownBy(() -> strategy.fetchProviderPlanningData(validRequest, LanguageCode.EN))
+		assertThatThrownBy(() -> strategy.fetchProviderPlanningData(validRequest, LanguageCode.EN, deadline))
 				.isInstanceOf(IllegalStateException.class)
 				.hasMessageContaining("Viator BookingProvider not found");
 	}
@@ -76,7 +79,7 @@ class ViatorFetchPlanningDataStrategyTest {
 				.thenReturn(Optional.of(createViatorProvider()));
 		when(destinationService.findDestinationById(validRequest.destinationId())).thenReturn(Optional.empty());
 
-		assertThatThrownBy(() -> strategy.fetchProviderPlanningData(validRequest, LanguageCode.EN))
+		assertThatThrownBy(() -> strategy.fetchProviderPlanningData(validRequest, LanguageCode.EN, deadline))
 				.isInstanceOf(IllegalArgumentException.class);
 	}
 
@@ -91,7 +94,7 @@ class ViatorFetchPlanningDataStrategyTest {
 		when(destinationService.findDestinationById(validRequest.destinationId())).thenReturn(Optional.of(destination));
 		when(destination.getBookingProviderMapping(viator.getId())).thenReturn(Optional.empty());
 
-		assertThatThrownBy(() -> strategy.fetchProviderPlanningData(validRequest, LanguageCode.EN))
+		assertThatThrownBy(() -> strategy.fetchProviderPlanningData(validRequest, LanguageCode.EN, deadline))
 				.isInstanceOf(IllegalStateException.class)
 				.hasMessageContaining("Destination BookingProvider Mapping not found");
 	}
@@ -123,16 +126,16 @@ class ViatorFetchPlanningDataStrategyTest {
 				activityPlanningData,
 				validRequest.startDate());
 
-		when(viatorActivityService.fetchProviderPlanningData(any())).thenReturn(expectedData);
+		when(viatorActivityService.fetchProviderPlanningData(any(), any())).thenReturn(expectedData);
 
 		// Execute
-		ProviderPlanningData result = strategy.fetchProviderPlanningData(validRequest, LanguageCode.FR);
+		ProviderPlanningData result = strategy.fetchProviderPlanningData(validRequest, LanguageCode.FR, deadline);
 
 		// Verify
 		assertThat(result).isEqualTo(expectedData);
 
 		ArgumentCaptor<ProviderPlanningRequest> captor = ArgumentCaptor.forClass(ProviderPlanningRequest.class);
-		verify(viatorActivityService).fetchProviderPlanningData(captor.capture());
+		verify(viatorActivityService).fetchProviderPlanningData(captor.capture(), eq(deadline));
 
 		ProviderPlanningRequest request = captor.getValue();
 		assertThat(request.providerDestinationId()).isEqualTo("VIATOR_DEST_123");
@@ -154,9 +157,9 @@ class ViatorFetchPlanningDataStrategyTest {
 		when(destination.getBookingProviderMapping(any())).thenReturn(Optional.of(mapping));
 
 		when(destinationService.findDestinationById(validRequest.destinationId())).thenReturn(Optional.of(destination));
-		when(viatorActivityService.fetchProviderPlanningData(any())).thenThrow(new RuntimeException("API Failure"));
+		when(viatorActivityService.fetchProviderPlanningData(any(), any())).thenThrow(new RuntimeException("API Failure"));
 
-		assertThatThrownBy(() -> strategy.fetchProviderPlanningData(validRequest, LanguageCode.EN))
+		assertThatThrownBy(() -> strategy.fetchProviderPlanningData(validRequest, LanguageCode.EN, deadline))
 				.isInstanceOf(RuntimeException.class)
 				.hasMessageContaining("API Failure");
 	}
@@ -0,0 +1,220 @@
+package com.asialocalguide.gateway.viator.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.asialocalguide.gateway.viator.exception.ViatorApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InFlightRequestCoalescerTest {
+
+	private static final int CALLERS = 5;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private InFlightRequestCoalescer coalescer;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		coalescer = new InFlightRequestCoalescer(meterRegistry);
+	}
+
+	@Test
+	void execute_shouldShareInFlightResultWithConcurrentCallers() throws Exception {
+		AtomicInteger upstreamCalls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<String>> results = runConcurrently(() -> coalescer
+				.execute(ViatorEndpoint.AVAILABILITY_SCHEDULE, null, "P1", () -> {
+					upstreamCalls.incrementAndGet();
+					await(release);
+					return "schedule";
+				}), release);
+
+		for (Future<String> result : results) {
+			assertThat(result.get()).isEqualTo("schedule");
+		}
+		assertThat(upstreamCalls).hasValue(1);
+		assertThat(coalescer.inFlightCount()).isZero();
+		assertThat(meterRegistry.get("viator.client.coalesced").tag("endpoint", "AVAILABILITY_SCHEDULE").counter()
+				.count()).isEqualTo(CALLERS - 1);
+	}
+
+	@Test
+	void execute_shouldShareInFlightErrorWithConcurrentCallers() throws Exception {
+		AtomicInteger upstreamCalls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<String>> results = runConcurrently(() -> coalescer
+				.execute(ViatorEndpoint.PRODUCT_DETAIL, "en", "P1", () -> {
+					upstreamCalls.incrementAndGet();
+					await(release);
+					throw new ViatorApiException("Viator API error: 503");
+				}), release);
+
+		for (Future<String> result : results) {
+			assertThatThrownBy(result::get).isInstanceOf(ExecutionException.class)
+					.hasCauseInstanceOf(ViatorApiException.class);
+		}
+		assertThat(upstreamCalls).hasValue(1);
+	}
+
+	@Test
+	void execute_shouldNotCoalesceDifferentKeysOrSequentialCalls() {
+		AtomicInteger upstreamCalls = new AtomicInteger();
+		Supplier<Integer> call = upstreamCalls::incrementAndGet;
+
+		coalescer.execute(ViatorEndpoint.PRODUCT_DETAIL, "en", "P1", call);
+		coalescer.execute(ViatorEndpoint.PRODUCT_DETAIL, "fr", "P1", call);
+		coalescer.execute(ViatorEndpoint.PRODUCT_DETAIL, "en", "P2", call);
+		coalescer.execute(ViatorEndpoint.PRODUCT_DETAIL, "en", "P1", call);
+
+		assertThat(upstreamCalls).hasValue(4);
+	}
+
+	@Test
+	void execute_shouldCoalesceCompletableFutureCallers() {
+		AtomicInteger upstreamCalls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch leaderStarted = new CountDownLatch(1);
+
+		CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> coalescer
+				.execute(ViatorEndpoint.DESTINATIONS, "en", null, () -> {
+					upstreamCalls.incrementAndGet();
+					leaderStarted.countDown();
+					await(release);
+					return "destinations";
+				}));
+		await(leaderStarted);
+		CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> coalescer
+				.execute(ViatorEndpoint.DESTINATIONS, "en", null, () -> {
+					upstreamCalls.incrementAndGet();
+					return "other";
+				}));
+
+		awaitCoalesced(ViatorEndpoint.DESTINATIONS, 1);
+		release.countDown();
+
+		assertThat(leader.join()).isEqualTo("destinations");
+		assertThat(follower.join()).isEqualTo("destinations");
+		assertThat(upstreamCalls).hasValue(1);
+	}
+
+	@Test
+	void execute_shouldRetryInsteadOfSharingFailureOfInterruptedLeader() throws Exception {
+		AtomicInteger upstreamCalls = new AtomicInteger();
+		CountDownLatch leaderStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<String> leader = executor.submit(() -> coalescer
+					.execute(ViatorEndpoint.PRODUCT_DETAIL, "en", "P1", () -> {
+						upstreamCalls.incrementAndGet();
+						leaderStarted.countDown();
+						await(release);
+						return "leader";
+					}));
+			await(leaderStarted);
+			Future<String> follower = executor.submit(() -> coalescer
+					.execute(ViatorEndpoint.PRODUCT_DETAIL, "en", "P1", () -> {
+						upstreamCalls.incrementAndGet();
+						return "follower";
+					}));
+			awaitCoalesced(ViatorEndpoint.PRODUCT_DETAIL, 1);
+
+			leader.cancel(true);
+
+			assertThat(follower.get()).isEqualTo("follower");
+			assertThat(upstreamCalls).hasValue(2);
+			assertThat(coalescer.inFlightCount()).isZero();
+		}
+	}
+
+	@Test
+	void execute_shouldStopWaitingWhenFollowerIsInterrupted() throws Exception {
+		CountDownLatch leaderStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<String> leader = executor.submit(() -> coalescer
+					.execute(ViatorEndpoint.PRODUCT_DETAIL, "en", "P1", () -> {
+						leaderStarted.countDown();
+						await(release);
+						return "leader";
+					}));
+			await(leaderStarted);
+			CompletableFuture<Throwable> followerFailure = new CompletableFuture<>();
+			Future<?> follower = executor.submit(() -> {
+				try {
+					coalescer.execute(ViatorEndpoint.PRODUCT_DETAIL, "en", "P1", () -> "follower");
+				} catch (ViatorApiException e) {
+					followerFailure.complete(e);
+				}
+			});
+			awaitCoalesced(ViatorEndpoint.PRODUCT_DETAIL, 1);
+
+			follower.cancel(true);
+
+			assertThat(followerFailure.get(5, TimeUnit.SECONDS)).isInstanceOf(ViatorApiException.class)
+					.hasCauseInstanceOf(InterruptedException.class);
+			release.countDown();
+			assertThat(leader.get()).isEqualTo("leader");
+		}
+	}
+
+	/**
+	 * Starts {@link #CALLERS} concurrent calls and releases the upstream call once every follower
+	 * joined the in-flight one.
+	 */
+	private List<Future<String>> runConcurrently(Supplier<String> call, CountDownLatch release) {
+		List<Future<String>> results = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < CALLERS; i++) {
+				results.add(executor.submit(call::get));
+			}
+			awaitCoalesced(null, CALLERS - 1);
+			release.countDown();
+		}
+		return results;
+	}
+
+	private void awaitCoalesced(ViatorEndpoint endpoint, int expected) {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (coalescedCount(endpoint) < expected && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertThat(coalescedCount(endpoint)).isEqualTo(expected);
+	}
+
+	private double coalescedCount(ViatorEndpoint endpoint) {
+		return meterRegistry.get("viator.client.coalesced")
+				.counters()
+				.stream()
+				.filter(counter -> endpoint == null || endpoint.name().equals(counter.getId().getTag("endpoint")))
+				.mapToDouble(counter -> counter.count())
+				.sum();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package com.asialocalguide.gateway.viator.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.asialocalguide.gateway.viator.config.ViatorCacheProperties;
+import com.asialocalguide.gateway.viator.dto.ViatorActivityAvailabilityDTO;
+import com.asialocalguide.gateway.viator.exception.ViatorApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ViatorAvailabilityCacheTest {
+
+	private ViatorClient viatorClient;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setup() {
+		viatorClient = mock(ViatorClient.class);
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	void getAvailabilityByProductCode_shouldServeRepeatedLookupsFromCache() {
+		ViatorAvailabilityCache cache = createCache(true);
+		ViatorActivityAvailabilityDTO availability = createAvailability("P1");
+		when(viatorClient.getAvailabilityByProductCode("P1")).thenReturn(Optional.of(availability));
+		when(viatorClient.getAvailabilityByProductCode("P2")).thenReturn(Optional.empty());
+
+		assertThat(cache.getAvailabilityByProductCode("P1")).contains(availability);
+		assertThat(cache.getAvailabilityByProductCode("P1")).contains(availability);
+		assertThat(cache.getAvailabilityByProductCode("P2")).isEmpty();
+		assertThat(cache.getAvailabilityByProductCode("P2")).isEmpty();
+
+		verify(viatorClient, times(1)).getAvailabilityByProductCode("P1");
+		verify(viatorClient, times(1)).getAvailabilityByProductCode("P2");
+		assertThat(meterRegistry.get("cache.gets").tag("cache", ViatorAvailabilityCache.CACHE_NAME)
+				.tag("result", "hit").functionCounter().count()).isEqualTo(2);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", ViatorAvailabilityCache.CACHE_NAME)
+				.tag("result", "miss").functionCounter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void getAvailabilityByProductCode_shouldNotCacheFailures() {
+		ViatorAvailabilityCache cache = createCache(true);
+		ViatorActivityAvailabilityDTO availability = createAvailability("P1");
+		when(viatorClient.getAvailabilityByProductCode("P1")).thenThrow(new ViatorApiException("Viator API error"))
+				.thenReturn(Optional.of(availability));
+
+		assertThatThrownBy(() -> cache.getAvailabilityByProductCode("P1")).isInstanceOf(ViatorApiException.class);
+		assertThat(cache.getAvailabilityByProductCode("P1")).contains(availability);
+	}
+
+	@Test
+	void getAvailabilityByProductCode_shouldCallClientWhenDisabled() {
+		ViatorAvailabilityCache cache = createCache(false);
+		when(viatorClient.getAvailabilityByProductCode("P1")).thenReturn(Optional.empty());
+
+		cache.getAvailabilityByProductCode("P1");
+		cache.getAvailabilityByProductCode("P1");
+
+		verify(viatorClient, times(2)).getAvailabilityByProductCode("P1");
+	}
+
+	@Test
+	void getAvailabilityByProductCodeAsync_shouldCompleteCachedSchedulesAtOnce() {
+		ViatorAvailabilityCache cache = createCache(true);
+		ViatorActivityAvailabilityDTO availability = createAvailability("P1");
+		when(viatorClient.getAvailabilityByProductCode("P1")).thenReturn(Optional.of(availability));
+
+		assertThat(cache.getAvailabilityByProductCodeAsync("P1").join()).contains(availability);
+		CompletableFuture<Optional<ViatorActivityAvailabilityDTO>> cached = cache
+				.getAvailabilityByProductCodeAsync("P1");
+
+		assertThat(cached).isCompletedWithValue(Optional.of(availability));
+		verify(viatorClient, times(1)).getAvailabilityByProductCode("P1");
+	}
+
+	@Test
+	void invalidate_shouldFetchScheduleAgain() {
+		ViatorAvailabilityCache cache = createCache(true);
+		when(viatorClient.getAvailabilityByProductCode("P1")).thenReturn(Optional.empty());
+
+		cache.getAvailabilityByProductCode("P1");
+		cache.invalidate("P1");
+		cache.getAvailabilityByProductCode("P1");
+
+		verify(viatorClient, times(2)).getAvailabilityByProductCode("P1");
+	}
+
+	private ViatorAvailabilityCache createCache(boolean enabled) {
+		return new ViatorAvailabilityCache(viatorClient,
+				new ViatorCacheProperties(
+						new ViatorCacheProperties.Availability(enabled, Duration.ofHours(6), Duration.ofHours(1), 100),
+						new ViatorCacheProperties.Search(false, Duration.ofMinutes(30), 100),
+						null),
+				new ViatorAsyncExecutor(),
+				meterRegistry);
+	}
+
+	private static ViatorActivityAvailabilityDTO createAvailability(String productCode) {
+		return new ViatorActivityAvailabilityDTO(productCode,
+				List.of(new ViatorActivityAvailabilityDTO.BookableItem("OPTION",
+						List.of(new ViatorActivityAvailabilityDTO.Season("2026-01-01",
+								null,
+								List.of(new ViatorActivityAvailabilityDTO.PricingRecord(List.of("MONDAY"),
+										List.of(new ViatorActivityAvailabilityDTO.TimedEntry("10:00", List.of())))))))),
+				"EUR",
+				null);
+	}
+}
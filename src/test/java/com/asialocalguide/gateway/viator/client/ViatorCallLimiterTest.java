@@ -0,0 +1,127 @@
+package com.asialocalguide.gateway.viator.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.asialocalguide.gateway.viator.config.ViatorProperties;
+import com.asialocalguide.gateway.viator.exception.ViatorApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ViatorCallLimiterTest {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	void tokenBucket_shouldServeBurstThenPaceReservationsInArrivalOrder() {
+		ViatorCallLimiter.TokenBucket bucket = new ViatorCallLimiter.TokenBucket(10, 2, 0);
+
+		assertThat(bucket.reserve(0, SECOND)).isZero();
+		assertThat(bucket.reserve(0, SECOND)).isZero();
+		assertThat(bucket.reserve(0, SECOND)).isEqualTo(SECOND / 10);
+		assertThat(bucket.reserve(0, SECOND)).isEqualTo(2 * SECOND / 10);
+	}
+
+	@Test
+	void tokenBucket_shouldRefillWhileIdleAndRejectWaitsBeyondMaximum() {
+		ViatorCallLimiter.TokenBucket bucket = new ViatorCallLimiter.TokenBucket(10, 2, 0);
+
+		assertThat(bucket.reserve(0, SECOND)).isZero();
+		assertThat(bucket.reserve(0, SECOND)).isZero();
+		assertThat(bucket.reserve(0, SECOND / 20)).isEqualTo(-1);
+		// A rejected call does not delay the next one
+		assertThat(bucket.reserve(0, SECOND)).isEqualTo(SECOND / 10);
+
+		// Idle for a second: the refill is capped by the burst
+		assertThat(bucket.reserve(SECOND + SECOND / 5, SECOND)).isZero();
+		assertThat(bucket.reserve(SECOND + SECOND / 5, SECOND)).isZero();
+		assertThat(bucket.reserve(SECOND + SECOND / 5, SECOND)).isEqualTo(SECOND / 10);
+	}
+
+	@Test
+	void execute_shouldCapConcurrentCalls() {
+		ViatorCallLimiter limiter = createLimiter(2, 1000, Duration.ofSeconds(5));
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 10; i++) {
+				executor.submit(() -> limiter.execute(ViatorEndpoint.PRODUCT_DETAIL, () -> {
+					maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+					sleep(20);
+					return active.decrementAndGet();
+				}));
+			}
+		}
+
+		assertThat(maxActive).hasValueLessThanOrEqualTo(2);
+		assertThat(meterRegistry.get("viator.client.limiter.wait").tag("endpoint", "PRODUCT_DETAIL").timer().count())
+				.isEqualTo(10);
+		assertThat(meterRegistry.get("viator.client.limiter.active").gauge().value()).isZero();
+	}
+
+	@Test
+	void execute_shouldPaceCallsToConfiguredRate() {
+		ViatorCallLimiter limiter = createLimiter(16, 20, Duration.ofSeconds(5));
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 5; i++) {
+			limiter.execute(ViatorEndpoint.AVAILABILITY_SCHEDULE, () -> null);
+		}
+
+		// One call from the burst, then four calls 50 ms apart
+		assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(190));
+	}
+
+	@Test
+	void execute_shouldFailWhenWaitExceedsMaximum() {
+		ViatorCallLimiter limiter = createLimiter(16, 1, Duration.ofMillis(100));
+
+		limiter.execute(ViatorEndpoint.PRODUCT_SEARCH, () -> null);
+
+		assertThatThrownBy(() -> limiter.execute(ViatorEndpoint.PRODUCT_SEARCH, () -> null))
+				.isInstanceOf(ViatorApiException.class)
+				.hasMessageContaining("rate limit");
+		// Other endpoints have their own bucket
+		limiter.execute(ViatorEndpoint.PRODUCT_DETAIL, () -> null);
+	}
+
+	private ViatorCallLimiter createLimiter(int maxConcurrentCalls, double permitsPerSecond, Duration maxWait) {
+		return new ViatorCallLimiter(new ViatorProperties(null,
+				null,
+				null,
+				null,
+				null,
+				new ViatorProperties.Limits(maxConcurrentCalls,
+						permitsPerSecond,
+						Map.of(ViatorEndpoint.PRODUCT_DETAIL, 1000.0),
+						1,
+						maxWait),
+				null,
+				null,
+				null),
+				meterRegistry);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.asialocalguide.gateway.viator.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.asialocalguide.gateway.viator.config.ViatorProperties;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ViatorCircuitBreakerTest {
+
+	private static final long OPEN_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+	@Test
+	void shouldOpenOnceFailureRateReachesThresholdOverMinimumCalls() {
+		ViatorCircuitBreaker breaker = createBreaker(true);
+
+		for (int i = 0; i < 3; i++) {
+			acquireAndFail(breaker, 0);
+		}
+		// Three failures out of three calls, but fewer calls than the minimum
+		assertThat(breaker.getState()).isEqualTo(ViatorCircuitBreaker.State.CLOSED);
+		assertThat(breaker.snapshot(0).failureRate()).isEqualTo(-1);
+
+		assertThat(breaker.tryAcquire(0)).isTrue();
+		breaker.onSuccess();
+		// Three failures out of four calls: 75% reaches the 50% threshold
+		acquireAndFail(breaker, 0);
+
+		assertThat(breaker.getState()).isEqualTo(ViatorCircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquire(OPEN_NANOS - 1)).isFalse();
+		assertThat(breaker.snapshot(0).remainingOpen()).isEqualTo(Duration.ofSeconds(30));
+	}
+
+	@Test
+	void shouldForgetOutcomesOutsideSlidingWindow() {
+		ViatorCircuitBreaker breaker = createBreaker(true);
+
+		acquireAndFail(breaker, 0);
+		acquireAndFail(breaker, 0);
+		for (int i = 0; i < 8; i++) {
+			assertThat(breaker.tryAcquire(0)).isTrue();
+			breaker.onSuccess();
+		}
+
+		ViatorCircuitBreaker.Snapshot snapshot = breaker.snapshot(0);
+		assertThat(snapshot.bufferedCalls()).isEqualTo(8);
+		assertThat(snapshot.failedCalls()).isZero();
+	}
+
+	@Test
+	void shouldCloseAfterSuccessfulTrialCalls() {
+		ViatorCircuitBreaker breaker = openBreaker();
+
+		assertThat(breaker.tryAcquire(OPEN_NANOS)).isTrue();
+		assertThat(breaker.tryAcquire(OPEN_NANOS)).isTrue();
+		// Only two trial calls are let through
+		assertThat(breaker.tryAcquire(OPEN_NANOS)).isFalse();
+		assertThat(breaker.getState()).isEqualTo(ViatorCircuitBreaker.State.HALF_OPEN);
+
+		breaker.onSuccess();
+		breaker.onSuccess();
+
+		assertThat(breaker.getState()).isEqualTo(ViatorCircuitBreaker.State.CLOSED);
+		assertThat(breaker.snapshot(OPEN_NANOS).bufferedCalls()).isZero();
+	}
+
+	@Test
+	void shouldReopenOnTrialFailureAndReleaseIgnoredTrials() {
+		ViatorCircuitBreaker breaker = openBreaker();
+
+		assertThat(breaker.tryAcquire(OPEN_NANOS)).isTrue();
+		assertThat(breaker.tryAcquire(OPEN_NANOS)).isTrue();
+		// A trial rejected locally gives its permit back
+		breaker.onIgnored();
+		assertThat(breaker.tryAcquire(OPEN_NANOS)).isTrue();
+
+		assertThat(breaker.onFailure(OPEN_NANOS)).isTrue();
+		assertThat(breaker.getState()).isEqualTo(ViatorCircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquire(2 * OPEN_NANOS - 1)).isFalse();
+	}
+
+	@Test
+	void disabledBreaker_shouldLetEveryCallThrough() {
+		ViatorCircuitBreaker breaker = createBreaker(false);
+
+		for (int i = 0; i < 10; i++) {
+			acquireAndFail(breaker, 0);
+		}
+
+		assertThat(breaker.getState()).isEqualTo(ViatorCircuitBreaker.State.CLOSED);
+		assertThat(breaker.tryAcquire(0)).isTrue();
+	}
+
+	private static ViatorCircuitBreaker openBreaker() {
+		ViatorCircuitBreaker breaker = createBreaker(true);
+		for (int i = 0; i < 4; i++) {
+			acquireAndFail(breaker, 0);
+		}
+		assertThat(breaker.getState()).isEqualTo(ViatorCircuitBreaker.State.OPEN);
+		return breaker;
+	}
+
+	private static void acquireAndFail(ViatorCircuitBreaker breaker, long nowNanos) {
+		assertThat(breaker.tryAcquire(nowNanos)).isTrue();
+		breaker.onFailure(nowNanos);
+	}
+
+	private static ViatorCircuitBreaker createBreaker(boolean enabled) {
+		return new ViatorCircuitBreaker(
+				new ViatorProperties.CircuitBreaker(enabled, 8, 4, 50, Duration.ofSeconds(30), 2));
+	}
+}
@@ -2,21 +2,31 @@ package com.asialocalguide.gateway.viator.client;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.asialocalguide.gateway.destination.domain.Coordinates;
+import com.asialocalguide.gateway.viator.config.ViatorProperties;
 import com.asialocalguide.gateway.viator.dto.*;
 import com.asialocalguide.gateway.viator.exception.ViatorApiException;
 import com.github.tomakehurst.wiremock.http.Fault;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
 @WireMockTest
@@ -29,9 +39,28 @@ public class ViatorClientTest {
 
 	@BeforeEach
 	void setup() {
-		RestClient restClient = RestClient.builder().baseUrl(wireMock.baseUrl()).build();
-
-		viatorClient = new ViatorClient(restClient);
+		RestClient restClient = RestClient.builder()
+				.baseUrl(wireMock.baseUrl())
+				.requestFactory(new HttpComponentsClientHttpRequestFactory(
+						HttpClients.custom().disableAutomaticRetries().build()))
+				.build();
+
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ViatorProperties viatorProperties = new ViatorProperties(null,
+				null,
+				wireMock.baseUrl(),
+				null,
+				null,
+				new ViatorProperties.Limits(16, 1000, null, 1000, Duration.ofSeconds(5)),
+				new ViatorProperties.Retry(3, Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofSeconds(2)),
+				new ViatorProperties.CircuitBreaker(true, 20, 10, 50, Duration.ofSeconds(30), 3),
+				null);
+
+		viatorClient = new ViatorClient(restClient,
+				new ViatorCallLimiter(viatorProperties, meterRegistry),
+				new ViatorResilience(viatorProperties, meterRegistry),
+				new ViatorAsyncExecutor(),
+				meterRegistry);
 	}
 
 	private String asJsonString(Object obj) throws Exception {
@@ -39,11 +68,11 @@ public class ViatorClientTest {
 	}
 
 	// ----------------------------------------------------------
-	// Tests for getAllDestinationsForLanguage
+	// Tests for streamAllDestinationsForLanguage
 	// ----------------------------------------------------------
 
 	@Test
-	void getAllDestinationsForLanguage_Success_ReturnsDestinations() throws Exception {
+	void streamAllDestinationsForLanguage_Success_StreamsDestinations() throws Exception {
 		ViatorDestinationResponseDTO mockResponse = new ViatorDestinationResponseDTO(List.of(
 				new ViatorDestinationDTO(1L,
 						"France",
@@ -62,24 +91,16 @@ public class ViatorClientTest {
 						.withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
 						.withBody(asJsonString(mockResponse))));
 
-		List<ViatorDestinationDTO> result = viatorClient.getAllDestinationsForLanguage("en");
+		List<ViatorDestinationDTO> received = new ArrayList<>();
+		int count = viatorClient.streamAllDestinationsForLanguage("en", received::add);
 
-		assertThat(result).hasSize(2);
+		assertThat(count).isEqualTo(2);
+		assertThat(received).extracting(ViatorDestinationDTO::name).containsExactly("France", "Paris");
 		wireMock.verify(1, getRequestedFor(urlPathEqualTo("/destinations")));
 	}
 
 	@Test
-	void getAllDestinationsForLanguage_404_ReturnsEmptyList() {
-		wireMock.stubFor(get(urlPathEqualTo("/destinations")).willReturn(aResponse().withStatus(404)));
-
-		assertThatThrownBy(() -> viatorClient.getAllDestinationsForLanguage("en"), "404")
-				.isInstanceOf(ViatorApiException.class);
-
-		wireMock.verify(1, getRequestedFor(urlPathEqualTo("/destinations")));
-	}
-
-	@Test
-	void getAllDestinationsForLanguage_400_ThrowsExceptionWithBodyDetails() throws Exception {
+	void streamAllDestinationsForLanguage_400_ThrowsExceptionWithBodyDetails() throws Exception {
 		String errorBody = "{\"error\": \"Invalid language\"}";
 
 		wireMock.stubFor(get(urlPathEqualTo("/destinations")).willReturn(aResponse().withStatus(400)
@@ -87,11 +108,50 @@ public class ViatorClientTest {
 				.withBody(errorBody)));
 
 		ViatorApiException exception = assertThrows(ViatorApiException.class,
-				() -> viatorClient.getAllDestinationsForLanguage("en"));
+				() -> viatorClient.streamAllDestinationsForLanguage("en", destination -> {}));
 
 		assertThat(exception.getMessage()).contains("400").contains(errorBody);
 	}
 
+	@Test
+	void streamAllDestinationsForLanguage_ExtraFields_SkipsThem() {
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).withHeader("Accept-Language", equalTo("fr"))
+				.willReturn(okJson("""
+						{"totalCount": 2, "meta": {"nested": [1, {"a": "b"}]}, "destinations": [
+						  {"destinationId": 1, "name": "France", "type": "COUNTRY", "lookupId": "1",
+						   "center": {"latitude": 48.85, "longitude": 2.35}, "unknownField": [1, 2]},
+						  {"destinationId": 2, "name": "Paris", "type": "CITY", "lookupId": "1.2",
+						   "center": {"latitude": 48.85, "longitude": 2.35}}
+						], "trailing": {"ignored": true}}""")));
+
+		List<ViatorDestinationDTO> received = new ArrayList<>();
+		int count = viatorClient.streamAllDestinationsForLanguage("fr", received::add);
+
+		assertThat(count).isEqualTo(2);
+		assertThat(received).extracting(ViatorDestinationDTO::name).containsExactly("France", "Paris");
+		assertThat(received.get(1).lookupIds()).containsExactly(1L);
+	}
+
+	@Test
+	void streamAllDestinationsForLanguage_404_StreamsNothing() {
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).willReturn(aResponse().withStatus(404)));
+
+		List<ViatorDestinationDTO> received = new ArrayList<>();
+
+		assertThat(viatorClient.streamAllDestinationsForLanguage("en", received::add)).isZero();
+		assertThat(received).isEmpty();
+	}
+
+	@Test
+	void streamAllDestinationsForLanguage_MalformedPayload_ThrowsWithoutRetry() {
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).willReturn(okJson("[\"not an object\"]")));
+
+		assertThatThrownBy(() -> viatorClient.streamAllDestinationsForLanguage("en", destination -> {}))
+				.isInstanceOf(ViatorApiException.class)
+				.hasMessageContaining("Malformed Destination API response");
+		wireMock.verify(1, getRequestedFor(urlPathEqualTo("/destinations")));
+	}
+
 	// ----------------------------------------------------------
 	// Tests for getActivitiesByRequestAndLanguage
 	// ----------------------------------------------------------
@@ -129,6 +189,54 @@ public class ViatorClientTest {
 		wireMock.verify(1, getRequestedFor(urlPathEqualTo("/availability/schedules/TOUR%2F123")));
 	}
 
+	// ----------------------------------------------------------
+	// Tests for the asynchronous variants
+	// ----------------------------------------------------------
+
+	@Test
+	void streamAllDestinationsForLanguageAsync_404_CompletesWithZero() {
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).willReturn(aResponse().withStatus(404)));
+
+		assertThat(viatorClient.streamAllDestinationsForLanguageAsync("en", destination -> {}).join()).isZero();
+	}
+
+	@Test
+	void streamAllDestinationsForLanguageAsync_ClientError_CompletesExceptionally() {
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).willReturn(aResponse().withStatus(400)));
+
+		assertThat(viatorClient.streamAllDestinationsForLanguageAsync("en", destination -> {}))
+				.failsWithin(Duration.ofSeconds(5))
+				.withThrowableOfType(ExecutionException.class)
+				.withCauseInstanceOf(ViatorApiException.class);
+	}
+
+	@Test
+	void getActivityByIdAndLanguageAsync_ClientError_CompletesExceptionally() {
+		wireMock.stubFor(get(urlPathEqualTo("/products/P1")).willReturn(aResponse().withStatus(400)));
+
+		assertThat(viatorClient.getActivityByIdAndLanguageAsync("en", "P1"))
+				.failsWithin(Duration.ofSeconds(5))
+				.withThrowableOfType(ExecutionException.class)
+				.withCauseInstanceOf(ViatorApiException.class);
+	}
+
+	@Test
+	void getAvailabilityByProductCodeAsync_NoBody_CompletesWithEmpty() {
+		wireMock.stubFor(get(urlPathEqualTo("/availability/schedules/P1")).willReturn(aResponse().withStatus(200)));
+
+		assertThat(viatorClient.getAvailabilityByProductCodeAsync("P1").join()).isEmpty();
+	}
+
+	@Test
+	void getActivitiesByRequestAndLanguageAsync_NoProducts_CompletesWithEmptyList() {
+		wireMock.stubFor(post(urlPathEqualTo("/products/search"))
+				.willReturn(okJson("{\"products\": [], \"totalCount\": 0}")));
+
+		assertThat(viatorClient
+				.getActivitiesByRequestAndLanguageAsync("en", new ViatorActivitySearchDTO(null, null, null, "USD"))
+				.join()).isEmpty();
+	}
+
 	// ----------------------------------------------------------
 	// Edge Cases and Error Handling
 	// ----------------------------------------------------------
@@ -141,18 +249,112 @@ public class ViatorClientTest {
 				get(urlPathEqualTo("/destinations")).willReturn(aResponse().withStatus(403).withBody(errorBody)));
 
 		ViatorApiException exception = assertThrows(ViatorApiException.class,
-				() -> viatorClient.getAllDestinationsForLanguage("en"));
+				() -> viatorClient.streamAllDestinationsForLanguage("en", destination -> {}));
 
 		assertThat(exception.getMessage()).contains("403").contains(errorBody);
 	}
 
+	@Test
+	void handleViatorError_ParsesViatorErrorCode() {
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).willReturn(aResponse().withStatus(400)
+				.withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+				.withBody("{\"code\":\"BAD_REQUEST\",\"message\":\"Invalid language\",\"trackingId\":\"T1\"}")));
+
+		ViatorApiException exception = assertThrows(ViatorApiException.class,
+				() -> viatorClient.streamAllDestinationsForLanguage("en", destination -> {}));
+
+		assertThat(exception.getStatusCode()).isEqualTo(400);
+		assertThat(exception.getErrorCode()).contains("BAD_REQUEST");
+		assertThat(exception.isRetryable()).isFalse();
+		assertThat(exception.getMessage()).contains("[BAD_REQUEST] Invalid language");
+	}
+
+	@Test
+	void createApiException_BoundsCapturedBody() {
+		byte[] body = ("{\"code\":\"INTERNAL_SERVER_ERROR\",\"details\":\"" + "x".repeat(10_000) + "\"}")
+				.getBytes(StandardCharsets.UTF_8);
+		byte[] captured = Arrays.copyOf(body, ViatorClient.MAX_ERROR_BODY_BYTES);
+
+		ViatorApiException exception = ViatorClient.createApiException(500, "500 INTERNAL_SERVER_ERROR", captured,
+				captured.length, null);
+
+		assertThat(exception.getErrorCode()).contains("INTERNAL_SERVER_ERROR");
+		assertThat(exception.isRetryable()).isTrue();
+
+		ViatorApiException plain = ViatorClient.createApiException(502, "502 BAD_GATEWAY", captured, 20, null);
+
+		assertThat(plain.getErrorCode()).isEmpty();
+		assertThat(plain.getMessage()).endsWith(new String(captured, 0, 20, StandardCharsets.UTF_8));
+	}
+
 	@Test
 	void unexpectedException_WrappedInViatorApiException() {
 		wireMock.stubFor(
 				get(urlPathEqualTo("/destinations")).willReturn(aResponse().withFault(Fault.RANDOM_DATA_THEN_CLOSE)));
 
-		assertThatThrownBy(() -> viatorClient.getAllDestinationsForLanguage("en"))
+		assertThatThrownBy(() -> viatorClient.streamAllDestinationsForLanguage("en", destination -> {}))
+				.isInstanceOf(ViatorApiException.class);
+	}
+
+	@Test
+	void transientServerError_RetriedUntilSuccess() {
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).inScenario("flaky")
+				.whenScenarioStateIs(STARTED)
+				.willReturn(aResponse().withStatus(503))
+				.willSetStateTo("recovered"));
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).inScenario("flaky")
+				.whenScenarioStateIs("recovered")
+				.willReturn(okJson("{\"destinations\":[],\"totalCount\":0}")));
+
+		assertThat(viatorClient.streamAllDestinationsForLanguage("en", destination -> {})).isZero();
+		wireMock.verify(2, getRequestedFor(urlPathEqualTo("/destinations")));
+	}
+
+	@Test
+	void tooManyRequests_RetriedAfterRetryAfterDelay() {
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).inScenario("throttled")
+				.whenScenarioStateIs(STARTED)
+				.willReturn(aResponse().withStatus(429).withHeader("Retry-After", "1"))
+				.willSetStateTo("released"));
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).inScenario("throttled")
+				.whenScenarioStateIs("released")
+				.willReturn(okJson("{\"destinations\":[],\"totalCount\":0}")));
+
+		long start = System.nanoTime();
+		assertThat(viatorClient.streamAllDestinationsForLanguage("en", destination -> {})).isZero();
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofSeconds(1));
+		wireMock.verify(2, getRequestedFor(urlPathEqualTo("/destinations")));
+	}
+
+	@Test
+	void retryAfterBeyondMaximum_NotRetried() {
+		wireMock.stubFor(get(urlPathEqualTo("/destinations"))
+				.willReturn(aResponse().withStatus(429).withHeader("Retry-After", "60")));
+
+		ViatorApiException exception = assertThrows(ViatorApiException.class,
+				() -> viatorClient.streamAllDestinationsForLanguage("en", destination -> {}));
+
+		assertThat(exception.getStatusCode()).isEqualTo(429);
+		assertThat(exception.getRetryAfter()).contains(Duration.ofSeconds(60));
+		wireMock.verify(1, getRequestedFor(urlPathEqualTo("/destinations")));
+	}
+
+	@Test
+	void clientError_NotRetried() {
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).willReturn(aResponse().withStatus(400)));
+
+		assertThatThrownBy(() -> viatorClient.streamAllDestinationsForLanguage("en", destination -> {}))
 				.isInstanceOf(ViatorApiException.class);
+		wireMock.verify(1, getRequestedFor(urlPathEqualTo("/destinations")));
+	}
+
+	@Test
+	void parseRetryAfter_AcceptsSecondsAndHttpDates() {
+		assertThat(ViatorClient.parseRetryAfter("120")).isEqualTo(Duration.ofSeconds(120));
+		assertThat(ViatorClient.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT")).isEqualTo(Duration.ZERO);
+		assertThat(ViatorClient.parseRetryAfter("soon")).isNull();
+		assertThat(ViatorClient.parseRetryAfter(null)).isNull();
 	}
 
 	private ViatorActivityDTO createTestActivity() {
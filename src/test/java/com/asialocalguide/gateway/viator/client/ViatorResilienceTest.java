@@ -0,0 +1,137 @@
+package com.asialocalguide.gateway.viator.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.asialocalguide.gateway.viator.config.ViatorProperties;
+import com.asialocalguide.gateway.viator.exception.ViatorApiException;
+import com.asialocalguide.gateway.viator.exception.ViatorCallRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+class ViatorResilienceTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ViatorResilience resilience;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		resilience = new ViatorResilience(new ViatorProperties(null,
+				null,
+				null,
+				null,
+				null,
+				null,
+				new ViatorProperties.Retry(3, Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofSeconds(1)),
+				new ViatorProperties.CircuitBreaker(true, 10, 4, 50, Duration.ofMinutes(1), 1),
+				null),
+				meterRegistry);
+	}
+
+	@Test
+	void execute_shouldRetryTransientFailuresUpToMaxAttempts() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThatThrownBy(() -> resilience.execute(ViatorEndpoint.PRODUCT_DETAIL, () -> {
+			attempts.incrementAndGet();
+			throw new ViatorApiException("Viator API error: 503", 503, null);
+		})).isInstanceOf(ViatorApiException.class).hasMessageContaining("503");
+
+		assertThat(attempts).hasValue(3);
+		assertThat(meterRegistry.get("viator.client.retries").tag("endpoint", "PRODUCT_DETAIL").counter().count())
+				.isEqualTo(2);
+		assertThat(meterRegistry.get("viator.client.attempts").tag("endpoint", "PRODUCT_DETAIL").summary().max())
+				.isEqualTo(3);
+	}
+
+	@Test
+	void execute_shouldFailFastOnceBreakerIsOpen() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		// Two calls of three failed attempts: the breaker opens on the fourth failure
+		for (int i = 0; i < 2; i++) {
+			assertThatThrownBy(() -> resilience.execute(ViatorEndpoint.PRODUCT_SEARCH, () -> {
+				attempts.incrementAndGet();
+				throw new ViatorApiException("Viator API error: 500", 500, null);
+			})).isNotInstanceOf(ViatorCallRejectedException.class);
+		}
+		assertThat(attempts).hasValue(4);
+
+		assertThatThrownBy(() -> resilience.execute(ViatorEndpoint.PRODUCT_SEARCH, () -> "result"))
+				.isInstanceOf(ViatorCallRejectedException.class)
+				.hasMessageContaining("circuit breaker is open");
+		assertThat(resilience.circuitBreakerSnapshots().get(ViatorEndpoint.PRODUCT_SEARCH).state())
+				.isEqualTo(ViatorCircuitBreaker.State.OPEN);
+		assertThat(meterRegistry.get("viator.client.circuit.state").tag("endpoint", "PRODUCT_SEARCH").gauge()
+				.value()).isEqualTo(1);
+		// Other endpoints keep their own breaker
+		assertThat(resilience.execute(ViatorEndpoint.PRODUCT_DETAIL, () -> "result")).isEqualTo("result");
+	}
+
+	@Test
+	void execute_shouldNotRetryOrCountCallsCancelledByInterruption() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		for (int i = 0; i < 5; i++) {
+			assertThatThrownBy(() -> resilience.execute(ViatorEndpoint.PRODUCT_SEARCH, () -> {
+				attempts.incrementAndGet();
+				Thread.currentThread().interrupt();
+				throw new ViatorApiException("Viator API error: 503", 503, null);
+			})).isInstanceOf(ViatorApiException.class);
+			assertThat(Thread.interrupted()).isTrue();
+		}
+
+		assertThat(attempts).hasValue(5);
+		assertThat(meterRegistry.get("viator.client.retries").tag("endpoint", "PRODUCT_SEARCH").counter().count())
+				.isZero();
+		ViatorCircuitBreaker.Snapshot snapshot = resilience.circuitBreakerSnapshots()
+				.get(ViatorEndpoint.PRODUCT_SEARCH);
+		assertThat(snapshot.state()).isEqualTo(ViatorCircuitBreaker.State.CLOSED);
+		assertThat(snapshot.failedCalls()).isZero();
+	}
+
+	@Test
+	void execute_shouldStillRetrySocketTimeouts() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThatThrownBy(() -> resilience.execute(ViatorEndpoint.PRODUCT_SEARCH, () -> {
+			attempts.incrementAndGet();
+			throw new ViatorApiException("Viator API error: I/O",
+					new ResourceAccessException("Read timed out", new SocketTimeoutException()));
+		})).isInstanceOf(ViatorApiException.class);
+
+		assertThat(attempts).hasValue(3);
+		assertThat(resilience.circuitBreakerSnapshots().get(ViatorEndpoint.PRODUCT_SEARCH).failedCalls())
+				.isEqualTo(3);
+	}
+
+	@Test
+	void execute_shouldNotRetryOrCountClientErrorsAndLocalRejections() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		for (int i = 0; i < 5; i++) {
+			assertThatThrownBy(() -> resilience.execute(ViatorEndpoint.AVAILABILITY_SCHEDULE, () -> {
+				attempts.incrementAndGet();
+				throw new ViatorCallRejectedException("Viator rate limit exceeded, call not attempted");
+			})).isInstanceOf(ViatorCallRejectedException.class);
+			assertThatThrownBy(() -> resilience.execute(ViatorEndpoint.AVAILABILITY_SCHEDULE, () -> {
+				attempts.incrementAndGet();
+				throw new ViatorApiException("Viator API error: 400", 400, null);
+			})).isInstanceOf(ViatorApiException.class);
+		}
+
+		assertThat(attempts).hasValue(10);
+		ViatorCircuitBreaker.Snapshot snapshot = resilience.circuitBreakerSnapshots()
+				.get(ViatorEndpoint.AVAILABILITY_SCHEDULE);
+		assertThat(snapshot.state()).isEqualTo(ViatorCircuitBreaker.State.CLOSED);
+		assertThat(snapshot.bufferedCalls()).isEqualTo(5);
+		assertThat(snapshot.failedCalls()).isZero();
+	}
+}
@@ -0,0 +1,126 @@
+package com.asialocalguide.gateway.viator.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.asialocalguide.gateway.viator.config.ViatorCacheProperties;
+import com.asialocalguide.gateway.viator.dto.ViatorActivityDTO;
+import com.asialocalguide.gateway.viator.dto.ViatorActivitySearchDTO;
+import com.asialocalguide.gateway.viator.dto.ViatorActivitySortingOrder;
+import com.asialocalguide.gateway.viator.dto.ViatorActivitySortingType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ViatorSearchCacheTest {
+
+	private static final LocalDate START_DATE = LocalDate.of(2026, 3, 2);
+
+	private ViatorClient viatorClient;
+
+	private ViatorSearchCache cache;
+
+	@BeforeEach
+	void setup() {
+		viatorClient = mock(ViatorClient.class);
+		cache = new ViatorSearchCache(viatorClient,
+				new ViatorCacheProperties(
+						new ViatorCacheProperties.Availability(false, Duration.ofHours(6), Duration.ofHours(1), 100),
+						new ViatorCacheProperties.Search(true, Duration.ofMinutes(30), 100),
+						null),
+				new SimpleMeterRegistry());
+	}
+
+	@Test
+	void getActivitiesByRequestAndLanguage_shouldShareEntryForReorderedTags() {
+		when(viatorClient.getActivitiesByRequestAndLanguage(eq("en"), any())).thenReturn(List.of());
+
+		cache.getActivitiesByRequestAndLanguage("en", createSearch(List.of(21, 12, 12), START_DATE));
+		cache.getActivitiesByRequestAndLanguage("en", createSearch(List.of(12, 21), START_DATE));
+
+		verify(viatorClient, times(1)).getActivitiesByRequestAndLanguage(eq("en"), any());
+	}
+
+	@Test
+	void getActivitiesByRequestAndLanguage_shouldSeparateLanguagesAndDates() {
+		when(viatorClient.getActivitiesByRequestAndLanguage(any(), any())).thenReturn(List.of());
+
+		cache.getActivitiesByRequestAndLanguage("en", createSearch(List.of(12), START_DATE));
+		cache.getActivitiesByRequestAndLanguage("fr", createSearch(List.of(12), START_DATE));
+		cache.getActivitiesByRequestAndLanguage("en", createSearch(List.of(12), START_DATE.plusDays(1)));
+
+		verify(viatorClient, times(3)).getActivitiesByRequestAndLanguage(any(), any());
+	}
+
+	@Test
+	void getActivitiesByRequestAndLanguage_shouldDeduplicateConcurrentSearches() throws Exception {
+		CountDownLatch upstreamCalled = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ViatorActivityDTO activity = createActivity("P1");
+
+		when(viatorClient.getActivitiesByRequestAndLanguage(eq("en"), any())).thenAnswer(invocation -> {
+			upstreamCalled.countDown();
+			release.await();
+			return List.of(activity);
+		});
+
+		List<Future<List<ViatorActivityDTO>>> results = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 5; i++) {
+				results.add(executor.submit(() -> cache.getActivitiesByRequestAndLanguage("en",
+						createSearch(List.of(12), START_DATE))));
+			}
+			upstreamCalled.await();
+			release.countDown();
+
+			for (Future<List<ViatorActivityDTO>> result : results) {
+				assertThat(result.get()).containsExactly(activity);
+			}
+		}
+
+		verify(viatorClient, times(1)).getActivitiesByRequestAndLanguage(eq("en"), any());
+	}
+
+	private static ViatorActivitySearchDTO createSearch(List<Integer> tags, LocalDate startDate) {
+		return new ViatorActivitySearchDTO(
+				new ViatorActivitySearchDTO.Filtering(684L,
+						tags,
+						startDate,
+						startDate.plusDays(2),
+						new ViatorActivitySearchDTO.Range(4, 5)),
+				new ViatorActivitySearchDTO.Sorting(ViatorActivitySortingType.TRAVELER_RATING,
+						ViatorActivitySortingOrder.DESCENDING),
+				new ViatorActivitySearchDTO.Pagination(1, 8),
+				"EUR");
+	}
+
+	private static ViatorActivityDTO createActivity(String productCode) {
+		return new ViatorActivityDTO(productCode,
+				"Activity " + productCode,
+				null,
+				List.of(),
+				new ViatorActivityDTO.ReviewsDTO(List.of(), 120, 4.5),
+				new ViatorActivityDTO.DurationDTO(null, null, 120),
+				null,
+				null,
+				null,
+				null,
+				List.of(),
+				List.of(),
+				List.of(),
+				null);
+	}
+}
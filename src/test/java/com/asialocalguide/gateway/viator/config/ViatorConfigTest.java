@@ -0,0 +1,84 @@
+package com.asialocalguide.gateway.viator.config;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.asialocalguide.gateway.viator.client.ViatorEndpoint;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+class ViatorConfigTest {
+
+	@RegisterExtension
+	static WireMockExtension wireMock = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private RestClient restClient;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+
+		ViatorProperties.Http http = new ViatorProperties.Http(Duration.ofSeconds(2),
+				Duration.ofSeconds(2),
+				Map.of(ViatorEndpoint.PRODUCT_SEARCH, Duration.ofMillis(200)),
+				Duration.ofSeconds(2),
+				10,
+				5,
+				Duration.ofSeconds(30),
+				Duration.ofSeconds(30),
+				Duration.ofMinutes(5));
+
+		restClient = RestClient.builder()
+				.baseUrl(wireMock.baseUrl() + "/partner")
+				.requestFactory(ViatorConfig.createRequestFactory(http, meterRegistry))
+				.build();
+	}
+
+	@Test
+	void createRequestFactory_shouldReusePooledConnections() {
+		wireMock.stubFor(get(urlPathEqualTo("/partner/destinations")).willReturn(okJson("{}")));
+
+		restClient.get().uri("/destinations").retrieve().toBodilessEntity();
+		restClient.get().uri("/destinations").retrieve().toBodilessEntity();
+		restClient.get().uri("/destinations").retrieve().toBodilessEntity();
+
+		assertThat(meterRegistry.get("viator.client.connections").tag("outcome", "new").counter().count())
+				.isEqualTo(1);
+		assertThat(meterRegistry.get("viator.client.connections").tag("outcome", "reused").counter().count())
+				.isEqualTo(2);
+		assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max").gauge().value()).isEqualTo(10);
+	}
+
+	@Test
+	void createRequestFactory_shouldApplyReadTimeoutPerEndpoint() {
+		wireMock.stubFor(post(urlPathEqualTo("/partner/products/search"))
+				.willReturn(okJson("{}").withFixedDelay(1000)));
+		wireMock.stubFor(get(urlPathEqualTo("/partner/products/P1")).willReturn(okJson("{}").withFixedDelay(500)));
+
+		assertThatThrownBy(() -> restClient.post().uri("/products/search").body("{}").retrieve().toBodilessEntity())
+				.isInstanceOf(ResourceAccessException.class);
+		assertThat(restClient.get().uri("/products/{id}", "P1").retrieve().toBodilessEntity().getStatusCode()
+				.is2xxSuccessful()).isTrue();
+	}
+
+	@Test
+	void fromPath_shouldResolveEndpointsBehindBasePath() {
+		assertThat(ViatorEndpoint.fromPath("/partner/products/search")).contains(ViatorEndpoint.PRODUCT_SEARCH);
+		assertThat(ViatorEndpoint.fromPath("/partner/products/123P45")).contains(ViatorEndpoint.PRODUCT_DETAIL);
+		assertThat(ViatorEndpoint.fromPath("/partner/availability/schedules/123P45"))
+				.contains(ViatorEndpoint.AVAILABILITY_SCHEDULE);
+		assertThat(ViatorEndpoint.fromPath("/partner/destinations")).contains(ViatorEndpoint.DESTINATIONS);
+		assertThat(ViatorEndpoint.fromPath("/partner/unknown")).isEmpty();
+	}
+}
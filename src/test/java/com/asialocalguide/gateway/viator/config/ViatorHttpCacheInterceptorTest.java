@@ -0,0 +1,187 @@
+package com.asialocalguide.gateway.viator.config;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.RestClient;
+
+class ViatorHttpCacheInterceptorTest {
+
+	@RegisterExtension
+	static WireMockExtension wireMock = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
+
+	@TempDir
+	Path cacheDirectory;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private RestClient restClient;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		restClient = createRestClient();
+	}
+
+	@Test
+	void intercept_shouldServeNotModifiedResponsesFromDisk() {
+		wireMock.stubFor(get(urlPathEqualTo("/products/P1")).withHeader("If-None-Match", absent())
+				.willReturn(okJson("{\"productCode\":\"P1\"}").withHeader("ETag", "\"v1\"")));
+		wireMock.stubFor(get(urlPathEqualTo("/products/P1")).withHeader("If-None-Match", equalTo("\"v1\""))
+				.willReturn(aResponse().withStatus(304)));
+
+		assertThat(fetchProduct()).isEqualTo("{\"productCode\":\"P1\"}");
+		assertThat(fetchProduct()).isEqualTo("{\"productCode\":\"P1\"}");
+
+		wireMock.verify(1, getRequestedFor(urlPathEqualTo("/products/P1")).withHeader("If-None-Match", absent()));
+		wireMock.verify(1,
+				getRequestedFor(urlPathEqualTo("/products/P1")).withHeader("If-None-Match", equalTo("\"v1\"")));
+		assertThat(cacheCount("stored")).isEqualTo(1);
+		assertThat(cacheCount("hit")).isEqualTo(1);
+	}
+
+	@Test
+	void intercept_shouldRevalidateEntriesAfterRestartAndReplaceChangedOnes() {
+		wireMock.stubFor(get(urlPathEqualTo("/products/P1")).withHeader("If-None-Match", absent())
+				.willReturn(okJson("{\"version\":1}").withHeader("ETag", "\"v1\"")));
+		fetchProduct();
+
+		wireMock.stubFor(get(urlPathEqualTo("/products/P1")).withHeader("If-None-Match", equalTo("\"v1\""))
+				.willReturn(okJson("{\"version\":2}").withHeader("ETag", "\"v2\"")));
+		wireMock.stubFor(get(urlPathEqualTo("/products/P1")).withHeader("If-None-Match", equalTo("\"v2\""))
+				.willReturn(aResponse().withStatus(304)));
+
+		// A new client on the same directory, as after a restart
+		restClient = createRestClient();
+		assertThat(fetchProduct()).isEqualTo("{\"version\":2}");
+		assertThat(fetchProduct()).isEqualTo("{\"version\":2}");
+	}
+
+	@Test
+	void intercept_shouldKeepLanguagesApartAndSkipResponsesWithoutValidators() throws Exception {
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).withHeader("Accept-Language", equalTo("en"))
+				.willReturn(okJson("{\"destinations\":[]}").withHeader("Last-Modified",
+						"Wed, 21 Oct 2015 07:28:00 GMT")));
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).withHeader("Accept-Language", equalTo("fr"))
+				.willReturn(okJson("{\"destinations\":[]}")));
+		wireMock.stubFor(get(urlPathEqualTo("/destinations")).withHeader("If-Modified-Since", matching(".+"))
+				.willReturn(aResponse().withStatus(304)));
+
+		fetchDestinations("en");
+		fetchDestinations("fr");
+		fetchDestinations("fr");
+
+		assertThat(entryCount()).isEqualTo(1);
+		wireMock.verify(2,
+				getRequestedFor(urlPathEqualTo("/destinations")).withHeader("If-Modified-Since", absent())
+						.withHeader("Accept-Language", equalTo("fr")));
+	}
+
+	@Test
+	void constructor_shouldDeleteEntriesUnusedForMaxAge() throws Exception {
+		wireMock.stubFor(get(urlPathEqualTo("/products/P1"))
+				.willReturn(okJson("{}").withHeader("ETag", "\"v1\"")));
+		fetchProduct();
+		try (Stream<Path> entries = Files.list(cacheDirectory)) {
+			for (Path entry : entries.toList()) {
+				Files.setLastModifiedTime(entry, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+			}
+		}
+
+		createRestClient();
+
+		assertThat(entryCount()).isZero();
+	}
+
+	@Test
+	void intercept_shouldServeResponseUncachedWhenEntryCannotBeWritten() throws Exception {
+		wireMock.stubFor(get(urlPathEqualTo("/products/P1"))
+				.willReturn(okJson("{\"productCode\":\"P1\"}").withHeader("ETag", "\"v1\"")));
+		// Replace the cache directory with a file, so that entries cannot be written
+		Files.delete(cacheDirectory);
+		Files.createFile(cacheDirectory);
+
+		assertThat(fetchProduct()).isEqualTo("{\"productCode\":\"P1\"}");
+
+		assertThat(cacheCount("stored")).isZero();
+		Files.delete(cacheDirectory);
+	}
+
+	@Test
+	void intercept_shouldNotStoreResponsesReadOnlyInPart() throws Exception {
+		wireMock.stubFor(get(urlPathEqualTo("/products/P1"))
+				.willReturn(okJson("{\"description\":\"" + "x".repeat(100_000) + "\"}").withHeader("ETag", "\"v1\"")));
+
+		int firstByte = restClient.get()
+				.uri("/products/{id}", "P1")
+				.exchange((request, response) -> response.getBody().read());
+
+		assertThat(firstByte).isEqualTo('{');
+		assertThat(entryCount()).isZero();
+		assertThat(cacheCount("stored")).isZero();
+	}
+
+	@Test
+	void intercept_shouldDeleteExpiredEntriesAndStaleTempFilesOnceCleanupIsDue() throws Exception {
+		wireMock.stubFor(get(urlPathEqualTo("/products/P1"))
+				.willReturn(okJson("{}").withHeader("ETag", "\"v1\"")));
+		restClient = createRestClient(Duration.ZERO);
+		fetchProduct();
+		Path staleTemp = Files.createTempFile(cacheDirectory, "viator-", ".tmp");
+		try (Stream<Path> files = Files.list(cacheDirectory)) {
+			for (Path file : files.toList()) {
+				Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+			}
+		}
+
+		fetchProduct();
+
+		assertThat(staleTemp).doesNotExist();
+		assertThat(entryCount()).isEqualTo(1);
+		wireMock.verify(2, getRequestedFor(urlPathEqualTo("/products/P1")).withHeader("If-None-Match", absent()));
+	}
+
+	private RestClient createRestClient() {
+		return createRestClient(Duration.ofHours(1));
+	}
+
+	private RestClient createRestClient(Duration cleanupInterval) {
+		return RestClient.builder()
+				.baseUrl(wireMock.baseUrl())
+				.requestInterceptor(new ViatorHttpCacheInterceptor(
+						new ViatorCacheProperties.Http(true, cacheDirectory, Duration.ofDays(1), cleanupInterval),
+						meterRegistry))
+				.build();
+	}
+
+	private String fetchProduct() {
+		return restClient.get().uri("/products/{id}", "P1").retrieve().body(String.class);
+	}
+
+	private String fetchDestinations(String language) {
+		return restClient.get().uri("/destinations").header("Accept-Language", language).retrieve().body(String.class);
+	}
+
+	private double cacheCount(String outcome) {
+		return meterRegistry.get("viator.client.http.cache").tag("outcome", outcome).counter().count();
+	}
+
+	private long entryCount() throws Exception {
+		try (Stream<Path> entries = Files.list(cacheDirectory)) {
+			return entries.count();
+		}
+	}
+}
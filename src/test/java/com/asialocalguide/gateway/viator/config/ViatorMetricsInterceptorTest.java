@@ -0,0 +1,86 @@
+package com.asialocalguide.gateway.viator.config;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+class ViatorMetricsInterceptorTest {
+
+	@RegisterExtension
+	static WireMockExtension wireMock = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private RestClient restClient;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		restClient = RestClient.builder()
+				.baseUrl(wireMock.baseUrl() + "/partner")
+				.requestFactory(new HttpComponentsClientHttpRequestFactory(
+						HttpClients.custom().disableAutomaticRetries().build()))
+				.requestInterceptor(new ViatorMetricsInterceptor(meterRegistry))
+				.build();
+	}
+
+	@Test
+	void intercept_shouldTimeExchangesPerEndpointTemplateAndStatusClass() {
+		wireMock.stubFor(get(urlPathMatching("/partner/products/P.")).willReturn(okJson("{\"productCode\":\"P\"}")));
+		wireMock.stubFor(get(urlPathEqualTo("/partner/products/P9")).willReturn(notFound()));
+
+		restClient.get().uri("/products/{id}", "P1").retrieve().body(String.class);
+		restClient.get().uri("/products/{id}", "P2").retrieve().body(String.class);
+		assertThatThrownBy(() -> restClient.get().uri("/products/{id}", "P9").retrieve().body(String.class))
+				.isInstanceOf(HttpClientErrorException.NotFound.class);
+
+		Timer success = meterRegistry.get("viator.client.requests")
+				.tag("endpoint", "PRODUCT_DETAIL")
+				.tag("uri", "/products/{activityId}")
+				.tag("status", "2xx")
+				.timer();
+		assertThat(success.count()).isEqualTo(2);
+		assertThat(meterRegistry.get("viator.client.requests").tag("status", "4xx").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("viator.client.response.size").tag("endpoint", "PRODUCT_DETAIL").summary()
+				.totalAmount()).isEqualTo(2 * "{\"productCode\":\"P\"}".length());
+	}
+
+	@Test
+	void intercept_shouldRecordExchangesWithoutResponse() {
+		wireMock.stubFor(post(urlPathEqualTo("/partner/products/search"))
+				.willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+		assertThatThrownBy(() -> restClient.post().uri("/products/search").body("{}").retrieve().toBodilessEntity())
+				.isInstanceOf(ResourceAccessException.class);
+
+		assertThat(meterRegistry.get("viator.client.requests")
+				.tag("endpoint", "PRODUCT_SEARCH")
+				.tag("status", "IO_ERROR")
+				.timer()
+				.count()).isEqualTo(1);
+	}
+
+	@Test
+	void intercept_shouldTagUnknownPaths() {
+		wireMock.stubFor(get(urlPathEqualTo("/partner/unknown")).willReturn(okJson("{}")));
+
+		restClient.get().uri("/unknown").retrieve().toBodilessEntity();
+
+		assertThat(meterRegistry.get("viator.client.requests").tag("endpoint", "UNKNOWN").tag("uri", "UNKNOWN")
+				.timer().count()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,93 @@
+package com.asialocalguide.gateway.viator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.asialocalguide.gateway.planning.domain.ActivityPlanningData;
+import com.asialocalguide.gateway.planning.domain.OneHourTimeSlot;
+import com.asialocalguide.gateway.viator.dto.ViatorActivityAvailabilityDTO;
+import com.asialocalguide.gateway.viator.dto.ViatorActivityDTO;
+
+class ViatorActivityAvailabilityMapperTest {
+
+	// Monday
+	private static final LocalDate START_DATE = LocalDate.of(2026, 1, 5);
+
+	private static final int SLOTS_PER_DAY = OneHourTimeSlot.values().length;
+
+	private static final int SLOT_10AM = OneHourTimeSlot.SLOT_10AM.getIndex();
+
+	@Test
+	void mapToActivityData_shouldApplySeasonDaysOfWeekAndUnavailableDates() {
+		// Season starts before and ends inside the window, Wednesday 2026-01-14 is sold out
+		ViatorActivityAvailabilityDTO availability = availability("P1",
+				new ViatorActivityAvailabilityDTO.Season("2025-12-01",
+						"2026-01-16",
+						List.of(new ViatorActivityAvailabilityDTO.PricingRecord(List.of("MONDAY", "WEDNESDAY", "BOGUS"),
+								List.of(new ViatorActivityAvailabilityDTO.TimedEntry("10:30",
+										List.of(new ViatorActivityAvailabilityDTO.UnavailableDate("2026-01-14",
+												"SOLD_OUT"),
+												new ViatorActivityAvailabilityDTO.UnavailableDate("2027-01-01",
+														"SOLD_OUT"))))))));
+
+		ActivityPlanningData data = ViatorActivityAvailabilityMapper.mapToActivityData(List.of(activity("P1")),
+				List.of(availability),
+				START_DATE,
+				START_DATE.plusDays(13));
+
+		assertThat(data.getNumDays()).isEqualTo(14);
+		// Mon 5th, Wed 7th, Mon 12th; Wed 14th is unavailable and the season ends before Mon 19th
+		assertThat(data.availableSlots(0)).containsExactly(SLOT_10AM,
+				2 * SLOTS_PER_DAY + SLOT_10AM,
+				7 * SLOTS_PER_DAY + SLOT_10AM);
+		assertThat(data.getStartMinute(0, SLOT_10AM)).isEqualTo(10 * 60 + 30);
+	}
+
+	@Test
+	void mapToActivityData_shouldKeepEarliestStartTimeAcrossOpenEndedSeasons() {
+		ViatorActivityAvailabilityDTO availability = availability("P1",
+				new ViatorActivityAvailabilityDTO.Season("2026-01-06",
+						null,
+						List.of(new ViatorActivityAvailabilityDTO.PricingRecord(List.of("TUESDAY"),
+								List.of(new ViatorActivityAvailabilityDTO.TimedEntry("10:45", null),
+										new ViatorActivityAvailabilityDTO.TimedEntry("10:15", List.of()))))));
+
+		ActivityPlanningData data = ViatorActivityAvailabilityMapper.mapToActivityData(List.of(activity("P1")),
+				List.of(availability),
+				START_DATE,
+				START_DATE.plusDays(8));
+
+		assertThat(data.availableSlots(0)).containsExactly(SLOTS_PER_DAY + SLOT_10AM,
+				8 * SLOTS_PER_DAY + SLOT_10AM);
+		assertThat(data.getStartMinute(0, SLOTS_PER_DAY + SLOT_10AM)).isEqualTo(10 * 60 + 15);
+	}
+
+	private static ViatorActivityAvailabilityDTO availability(String productCode,
+			ViatorActivityAvailabilityDTO.Season season) {
+		return new ViatorActivityAvailabilityDTO(productCode,
+				List.of(new ViatorActivityAvailabilityDTO.BookableItem("OPTION", List.of(season))),
+				"EUR",
+				null);
+	}
+
+	private static ViatorActivityDTO activity(String productCode) {
+		return new ViatorActivityDTO(productCode,
+				"Activity " + productCode,
+				null,
+				List.of(),
+				new ViatorActivityDTO.ReviewsDTO(List.of(), 120, 4.5),
+				new ViatorActivityDTO.DurationDTO(null, null, 120),
+				null,
+				null,
+				null,
+				null,
+				List.of(),
+				List.of(),
+				List.of(),
+				null);
+	}
+}
@@ -4,26 +4,37 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.asialocalguide.gateway.destination.domain.LanguageCode;
 import com.asialocalguide.gateway.planning.domain.CommonPersistableActivity;
+import com.asialocalguide.gateway.planning.domain.Deadline;
 import com.asialocalguide.gateway.planning.domain.ImageType;
 import com.asialocalguide.gateway.planning.domain.ProviderPlanningData;
 import com.asialocalguide.gateway.planning.domain.ProviderPlanningRequest;
+import com.asialocalguide.gateway.viator.client.ViatorAsyncExecutor;
+import com.asialocalguide.gateway.viator.client.ViatorAvailabilityCache;
 import com.asialocalguide.gateway.viator.client.ViatorClient;
+import com.asialocalguide.gateway.viator.client.ViatorSearchCache;
+import com.asialocalguide.gateway.viator.config.ViatorCacheProperties;
+import com.asialocalguide.gateway.viator.config.ViatorProperties;
 import com.asialocalguide.gateway.viator.dto.ViatorActivityAvailabilityDTO;
 import com.asialocalguide.gateway.viator.dto.ViatorActivityDTO;
 import com.asialocalguide.gateway.viator.dto.ViatorActivityDetailDTO;
 import com.asialocalguide.gateway.viator.dto.ViatorActivitySearchDTO;
+import com.asialocalguide.gateway.viator.exception.ViatorActivityServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -33,15 +44,16 @@ class ViatorActivityServiceTest {
 	@Mock
 	private ViatorClient viatorClient;
 
-	@InjectMocks
 	private ViatorActivityService service;
 
 	private ProviderPlanningRequest validRequest;
 	private final LocalDate today = LocalDate.now();
 	private final LocalDate tomorrow = today.plusDays(1);
+	private final Deadline deadline = Deadline.after(Duration.ofSeconds(10));
 
 	@BeforeEach
 	void setup() {
+		service = createService(true);
 		validRequest = new ProviderPlanningRequest(today, tomorrow, 2, List.of("123"), "456", LanguageCode.EN);
 	}
 
@@ -54,14 +66,14 @@ class ViatorActivityServiceTest {
 				"invalid", // Non-numeric destination ID
 				LanguageCode.EN);
 
-		assertThrows(IllegalArgumentException.class, () -> service.fetchProviderPlanningData(invalidRequest));
+		assertThrows(IllegalArgumentException.class, () -> service.fetchProviderPlanningData(invalidRequest, deadline));
 	}
 
 	@Test
 	void fetchProviderPlanningData_shouldHandleEmptyPlanningList() {
 		when(viatorClient.getActivitiesByRequestAndLanguage(anyString(), any())).thenReturn(Collections.emptyList());
 
-		ProviderPlanningData result = service.fetchProviderPlanningData(validRequest);
+		ProviderPlanningData result = service.fetchProviderPlanningData(validRequest, deadline);
 
 		assertTrue(result.activities().isEmpty());
 		assertNotNull(result.activityPlanningData());
@@ -87,7 +99,7 @@ class ViatorActivityServiceTest {
 						"EUR",
 						new ViatorActivityAvailabilityDTO.Summary(50))));
 
-		ProviderPlanningData result = service.fetchProviderPlanningData(validRequest);
+		ProviderPlanningData result = service.fetchProviderPlanningData(validRequest, deadline);
 
 		assertEquals(1, result.activities().size());
 	}
@@ -99,7 +111,7 @@ class ViatorActivityServiceTest {
 		when(viatorClient.getActivitiesByRequestAndLanguage(anyString(), any())).thenReturn(List.of(activity));
 		when(viatorClient.getAvailabilityByProductCode(anyString())).thenReturn(Optional.empty());
 
-		ProviderPlanningData result = service.fetchProviderPlanningData(validRequest);
+		ProviderPlanningData result = service.fetchProviderPlanningData(validRequest, deadline);
 
 		assertTrue(result.activities().isEmpty());
 	}
@@ -124,7 +136,7 @@ class ViatorActivityServiceTest {
 						new ViatorActivityAvailabilityDTO.Summary(50))));
 		when(viatorClient.getAvailabilityByProductCode(activity2.productCode())).thenReturn(Optional.empty());
 
-		ProviderPlanningData result = service.fetchProviderPlanningData(validRequest);
+		ProviderPlanningData result = service.fetchProviderPlanningData(validRequest, deadline);
 
 		assertEquals(1, result.activities().size());
 	}
@@ -132,14 +144,64 @@ class ViatorActivityServiceTest {
 	@Test
 	void fetchProviderPlanningData_shouldHandleAsyncFailures() {
 		ViatorActivityDTO activity = createTestActivity(60);
+		ViatorActivityDTO failingActivity = createTestActivity(90);
+
+		when(viatorClient.getActivitiesByRequestAndLanguage(anyString(), any()))
+				.thenReturn(List.of(activity, failingActivity));
+		when(viatorClient.getAvailabilityByProductCode(activity.productCode()))
+				.thenReturn(Optional.of(createWeekdayAvailability(activity.productCode())));
+		when(viatorClient.getAvailabilityByProductCode(failingActivity.productCode()))
+				.thenThrow(new RuntimeException("Simulated failure"));
+
+		ProviderPlanningData providerData = service.fetchProviderPlanningData(validRequest, deadline);
+
+		assertNotNull(providerData);
+		assertThat(providerData.activities()).extracting(providerActivity -> providerActivity.providerId())
+				.containsExactly(activity.productCode());
+	}
+
+	@Test
+	void fetchProviderPlanningData_shouldFailWhenTooManyAvailabilityCallsFail() {
+		ViatorActivityDTO activity = createTestActivity(60);
 
 		when(viatorClient.getActivitiesByRequestAndLanguage(anyString(), any())).thenReturn(List.of(activity));
 		when(viatorClient.getAvailabilityByProductCode(anyString()))
 				.thenThrow(new RuntimeException("Simulated failure"));
 
-		ProviderPlanningData providerData = service.fetchProviderPlanningData(validRequest);
+		assertThatThrownBy(() -> service.fetchProviderPlanningData(validRequest, deadline))
+				.isInstanceOf(ViatorActivityServiceException.class)
+				.hasRootCauseMessage("1 of 1 calls of the Viator availability fan-out failed");
+	}
 
-		assertNotNull(providerData);
+	@Test
+	void fetchProviderPlanningData_shouldCancelCallsStillRunningAtDeadline() throws Exception {
+		ViatorActivityDTO fastActivity = createTestActivity(60);
+		ViatorActivityDTO slowActivity = createTestActivity(90);
+		CountDownLatch interrupted = new CountDownLatch(1);
+
+		when(viatorClient.getActivitiesByRequestAndLanguage(anyString(), any()))
+				.thenReturn(List.of(fastActivity, slowActivity));
+		when(viatorClient.getAvailabilityByProductCode(fastActivity.productCode()))
+				.thenReturn(Optional.of(createWeekdayAvailability(fastActivity.productCode())));
+		when(viatorClient.getAvailabilityByProductCode(slowActivity.productCode())).thenAnswer(invocation -> {
+			try {
+				Thread.sleep(Duration.ofSeconds(30));
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return Optional.empty();
+		});
+
+		// Without the cache, the slow load cannot hold a cache bin lock that the fast one needs
+		service = createService(false);
+		long start = System.nanoTime();
+		ProviderPlanningData result = service.fetchProviderPlanningData(validRequest,
+				Deadline.after(Duration.ofMillis(300)));
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+		assertThat(result.activities()).extracting(activity -> activity.providerId())
+				.containsExactly(fastActivity.productCode());
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
 	}
 
 	@Test
@@ -157,7 +219,7 @@ class ViatorActivityServiceTest {
 				any(ViatorActivitySearchDTO.class))).thenReturn(Collections.emptyList());
 
 		// When
-		service.fetchProviderPlanningData(request);
+		service.fetchProviderPlanningData(request, deadline);
 
 		// Then - Verify tags filtering and conversion
 		ArgumentCaptor<ViatorActivitySearchDTO> searchCaptor = ArgumentCaptor.forClass(ViatorActivitySearchDTO.class);
@@ -184,7 +246,7 @@ class ViatorActivityServiceTest {
 		when(viatorClient.getActivitiesByRequestAndLanguage(anyString(), any())).thenReturn(Collections.emptyList());
 
 		// When
-		service.fetchProviderPlanningData(request);
+		service.fetchProviderPlanningData(request, deadline);
 
 		// Then - Verify pagination calculation
 		ArgumentCaptor<ViatorActivitySearchDTO> searchCaptor = ArgumentCaptor.forClass(ViatorActivitySearchDTO.class);
@@ -204,7 +266,31 @@ class ViatorActivityServiceTest {
 				"456",
 				LanguageCode.EN);
 
-		assertThrows(IllegalArgumentException.class, () -> service.fetchProviderPlanningData(invalidRequest));
+		assertThrows(IllegalArgumentException.class, () -> service.fetchProviderPlanningData(invalidRequest, deadline));
+	}
+
+	private ViatorActivityService createService(boolean availabilityCacheEnabled) {
+		ViatorCacheProperties cacheProperties = new ViatorCacheProperties(
+				new ViatorCacheProperties.Availability(availabilityCacheEnabled,
+						Duration.ofHours(6),
+						Duration.ofHours(1),
+						100),
+				new ViatorCacheProperties.Search(true, Duration.ofMinutes(30), 100),
+				null);
+		ViatorAsyncExecutor asyncExecutor = new ViatorAsyncExecutor();
+		// The asynchronous lookups run the blocking ones stubbed by each test
+		lenient().when(viatorClient.getActivityByIdAndLanguageAsync(anyString(), anyString()))
+				.thenAnswer(invocation -> asyncExecutor.supplyAsync(() -> viatorClient
+						.getActivityByIdAndLanguage(invocation.getArgument(0), invocation.getArgument(1))));
+		lenient().when(viatorClient.getAvailabilityByProductCodeAsync(anyString()))
+				.thenAnswer(invocation -> asyncExecutor
+						.supplyAsync(() -> viatorClient.getAvailabilityByProductCode(invocation.getArgument(0))));
+		return new ViatorActivityService(viatorClient,
+				new ViatorAvailabilityCache(viatorClient, cacheProperties, asyncExecutor, new SimpleMeterRegistry()),
+				new ViatorSearchCache(viatorClient, cacheProperties, new SimpleMeterRegistry()),
+				asyncExecutor,
+				new ViatorProperties(null, null, null, null, null, null, null, null, new ViatorProperties.FanOut(50)),
+				new SimpleMeterRegistry());
 	}
 
 	private ViatorActivityDTO createTestActivity(int durationMinutes) {
@@ -225,6 +311,19 @@ class ViatorActivityServiceTest {
 				null);
 	}
 
+	private static ViatorActivityAvailabilityDTO createWeekdayAvailability(String productCode) {
+		return new ViatorActivityAvailabilityDTO(productCode,
+				List.of(new ViatorActivityAvailabilityDTO.BookableItem("opt1",
+						List.of(new ViatorActivityAvailabilityDTO.Season("2023-01-01",
+								null,
+								List.of(new ViatorActivityAvailabilityDTO.PricingRecord(
+										List.of("MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY",
+												"SUNDAY"),
+										List.of(new ViatorActivityAvailabilityDTO.TimedEntry("10:00", List.of())))))))),
+				"EUR",
+				new ViatorActivityAvailabilityDTO.Summary(50));
+	}
+
 	@Test
 	void fetchProviderActivities_shouldFetchAndMapActivitiesSuccessfully() {
 		// Given
@@ -238,10 +337,14 @@ class ViatorActivityServiceTest {
 		ViatorActivityDetailDTO frDto1 = createDetailDTO("product1", "fr", "Activité 1", "Description en français");
 		ViatorActivityDetailDTO frDto2 = createDetailDTO("product2", "fr", "Activité 2", "Description en français");
 
-		when(viatorClient.getActivityByIdAndLanguage("en", "product1")).thenReturn(Optional.of(enDto1));
-		when(viatorClient.getActivityByIdAndLanguage("en", "product2")).thenReturn(Optional.of(enDto2));
-		when(viatorClient.getActivityByIdAndLanguage("fr", "product1")).thenReturn(Optional.of(frDto1));
-		when(viatorClient.getActivityByIdAndLanguage("fr", "product2")).thenReturn(Optional.of(frDto2));
+		when(viatorClient.getActivityByIdAndLanguage("en", "product1"))
+				.thenReturn(Optional.of(enDto1));
+		when(viatorClient.getActivityByIdAndLanguage("en", "product2"))
+				.thenReturn(Optional.of(enDto2));
+		when(viatorClient.getActivityByIdAndLanguage("fr", "product1"))
+				.thenReturn(Optional.of(frDto1));
+		when(viatorClient.getActivityByIdAndLanguage("fr", "product2"))
+				.thenReturn(Optional.of(frDto2));
 
 		// When
 		List<CommonPersistableActivity> result = service.fetchProviderActivities(activityIds);
@@ -285,8 +388,10 @@ class ViatorActivityServiceTest {
 
 		// Only French data available
 		ViatorActivityDetailDTO frDto = createDetailDTO("product1", "fr", "Activité 1", "Description");
-		when(viatorClient.getActivityByIdAndLanguage("en", "product1")).thenReturn(Optional.empty());
-		when(viatorClient.getActivityByIdAndLanguage("fr", "product1")).thenReturn(Optional.of(frDto));
+		when(viatorClient.getActivityByIdAndLanguage("en", "product1"))
+				.thenReturn(Optional.empty());
+		when(viatorClient.getActivityByIdAndLanguage("fr", "product1"))
+				.thenReturn(Optional.of(frDto));
 
 		// When/Then
 		assertThatThrownBy(() -> service.fetchProviderActivities(activityIds)).isInstanceOf(Exception.class);
@@ -300,7 +405,10 @@ class ViatorActivityServiceTest {
 		activityIds.add(null);
 
 		ViatorActivityDetailDTO enDto = createDetailDTO("product1", "en", "Activity 1", "Description");
-		when(viatorClient.getActivityByIdAndLanguage("en", "product1")).thenReturn(Optional.of(enDto));
+		when(viatorClient.getActivityByIdAndLanguage("en", "product1"))
+				.thenReturn(Optional.of(enDto));
+		when(viatorClient.getActivityByIdAndLanguage("fr", "product1"))
+				.thenReturn(Optional.empty());
 
 		// When
 		List<CommonPersistableActivity> result = service.fetchProviderActivities(activityIds);
@@ -317,8 +425,10 @@ class ViatorActivityServiceTest {
 
 		// First product works
 		ViatorActivityDetailDTO enDto = createDetailDTO("product1", "en", "Activity 1", "Description");
-		when(viatorClient.getActivityByIdAndLanguage("en", "product1")).thenReturn(Optional.of(enDto));
-		when(viatorClient.getActivityByIdAndLanguage("fr", "product1")).thenReturn(Optional.empty());
+		when(viatorClient.getActivityByIdAndLanguage("en", "product1"))
+				.thenReturn(Optional.of(enDto));
+		when(viatorClient.getActivityByIdAndLanguage("fr", "product1"))
+				.thenReturn(Optional.empty());
 
 		// Second product throws exception
 		when(viatorClient.getActivityByIdAndLanguage(anyString(), eq("product2")))
@@ -341,8 +451,10 @@ class ViatorActivityServiceTest {
 		ViatorActivityDetailDTO enDto = createDetailDTO("product1", "en", "Activity", "English description");
 		ViatorActivityDetailDTO frDto = createDetailDTO("product1", "fr", "Activité", "Description française");
 
-		when(viatorClient.getActivityByIdAndLanguage("en", "product1")).thenReturn(Optional.of(enDto));
-		when(viatorClient.getActivityByIdAndLanguage("fr", "product1")).thenReturn(Optional.of(frDto));
+		when(viatorClient.getActivityByIdAndLanguage("en", "product1"))
+				.thenReturn(Optional.of(enDto));
+		when(viatorClient.getActivityByIdAndLanguage("fr", "product1"))
+				.thenReturn(Optional.of(frDto));
 
 		// When
 		List<CommonPersistableActivity> result = service.fetchProviderActivities(activityIds);
@@ -379,10 +491,12 @@ class ViatorActivityServiceTest {
 
 		// Mock English success
 		ViatorActivityDetailDTO enDto = createDetailDTO("product1", "en", "Activity", "Description");
-		when(viatorClient.getActivityByIdAndLanguage("en", "product1")).thenReturn(Optional.of(enDto));
+		when(viatorClient.getActivityByIdAndLanguage("en", "product1"))
+				.thenReturn(Optional.of(enDto));
 
 		// Mock French to throw exception
-		when(viatorClient.getActivityByIdAndLanguage("fr", "product1")).thenThrow(new RuntimeException("API error"));
+		when(viatorClient.getActivityByIdAndLanguage("fr", "product1"))
+				.thenThrow(new RuntimeException("API error"));
 
 		// When
 		List<CommonPersistableActivity> result = service.fetchProviderActivities(activityIds);
@@ -400,10 +514,12 @@ class ViatorActivityServiceTest {
 
 		// Create DTO with images - must include English version
 		ViatorActivityDetailDTO dto = createDetailDTO("product1", "en", "Activity", "Description");
-		when(viatorClient.getActivityByIdAndLanguage("en", "product1")).thenReturn(Optional.of(dto));
+		when(viatorClient.getActivityByIdAndLanguage("en", "product1"))
+				.thenReturn(Optional.of(dto));
 
 		// Mock French to return empty
-		when(viatorClient.getActivityByIdAndLanguage("fr", "product1")).thenReturn(Optional.empty());
+		when(viatorClient.getActivityByIdAndLanguage("fr", "product1"))
+				.thenReturn(Optional.empty());
 
 		// When
 		List<CommonPersistableActivity> result = service.fetchProviderActivities(activityIds);
@@ -439,10 +555,12 @@ class ViatorActivityServiceTest {
 
 		// Create DTO with null images - must include English version
 		ViatorActivityDetailDTO dto = createDetailDTOWithNullImages("product1", "en");
-		when(viatorClient.getActivityByIdAndLanguage("en", "product1")).thenReturn(Optional.of(dto));
+		when(viatorClient.getActivityByIdAndLanguage("en", "product1"))
+				.thenReturn(Optional.of(dto));
 
 		// Mock French to return empty
-		when(viatorClient.getActivityByIdAndLanguage("fr", "product1")).thenReturn(Optional.empty());
+		when(viatorClient.getActivityByIdAndLanguage("fr", "product1"))
+				.thenReturn(Optional.empty());
 
 		// When
 		List<CommonPersistableActivity> result = service.fetchProviderActivities(activityIds);
@@ -459,10 +577,12 @@ class ViatorActivityServiceTest {
 
 		// Create DTO with reviews - must include English version
 		ViatorActivityDetailDTO dto = createDetailDTO("product1", "en", "Activity", "Description");
-		when(viatorClient.getActivityByIdAndLanguage("en", "product1")).thenReturn(Optional.of(dto));
+		when(viatorClient.getActivityByIdAndLanguage("en", "product1"))
+				.thenReturn(Optional.of(dto));
 
 		// Mock French to return empty to avoid interference
-		when(viatorClient.getActivityByIdAndLanguage("fr", "product1")).thenReturn(Optional.empty());
+		when(viatorClient.getActivityByIdAndLanguage("fr", "product1"))
+				.thenReturn(Optional.empty());
 
 		// When
 		List<CommonPersistableActivity> result = service.fetchProviderActivities(activityIds);
@@ -2,7 +2,8 @@ package com.asialocalguide.gateway.viator.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import com.asialocalguide.gateway.core.domain.BookingProviderName;
@@ -14,6 +15,8 @@ import com.asialocalguide.gateway.viator.client.ViatorClient;
 import com.asialocalguide.gateway.viator.dto.ViatorDestinationDTO;
 import com.asialocalguide.gateway.viator.exception.ViatorApiException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -44,10 +47,9 @@ class ViatorDestinationProviderTest {
 	@Test
 	void getDestinations_shouldReturnValidDestinations() throws ViatorApiException {
 		// Mock client responses
-		when(viatorClient.getAllDestinationsForLanguage("en"))
-				.thenReturn(List.of(countryDestination, validDestination));
-		when(viatorClient.getAllDestinationsForLanguage("fr"))
-				.thenReturn(List.of(new ViatorDestinationDTO(1L, "France", "COUNTRY", List.of(1L), testCoords),
+		stubDestinations("en", List.of(countryDestination, validDestination));
+		stubDestinations("fr",
+				List.of(new ViatorDestinationDTO(1L, "France", "COUNTRY", List.of(1L), testCoords),
 						new ViatorDestinationDTO(2L, "Paris", "CITY", List.of(1L), testCoords)));
 
 		List<CommonDestination> result = destinationProvider.getDestinations();
@@ -65,8 +67,8 @@ class ViatorDestinationProviderTest {
 	void getDestinations_shouldFilterInvalidDestinations() throws ViatorApiException {
 		ViatorDestinationDTO invalidType = new ViatorDestinationDTO(3L, "Country", "COUNTRY", List.of(1L), testCoords);
 
-		when(viatorClient.getAllDestinationsForLanguage(anyString()))
-				.thenReturn(List.of(countryDestination, invalidType));
+		stubDestinations("en", List.of(countryDestination, invalidType));
+		stubDestinations("fr", List.of(countryDestination, invalidType));
 
 		List<CommonDestination> result = destinationProvider.getDestinations();
 		assertThat(result).isEmpty();
@@ -74,7 +76,10 @@ class ViatorDestinationProviderTest {
 
 	@Test
 	void getDestinations_shouldThrowWhenLanguageFails() {
-		when(viatorClient.getAllDestinationsForLanguage("en")).thenThrow(new ViatorApiException("API failure"));
+		when(viatorClient.streamAllDestinationsForLanguageAsync(eq("en"), any()))
+				.thenReturn(CompletableFuture.failedFuture(new ViatorApiException("API failure")));
+		when(viatorClient.streamAllDestinationsForLanguageAsync(eq("fr"), any()))
+				.thenReturn(CompletableFuture.completedFuture(0));
 
 		assertThatThrownBy(() -> destinationProvider.getDestinations()).isInstanceOf(ViatorApiException.class)
 				.hasMessageContaining("API failure");
@@ -89,9 +94,8 @@ class ViatorDestinationProviderTest {
 				testCoords);
 
 		// Mock valid responses for all required languages
-		when(viatorClient.getAllDestinationsForLanguage("en")).thenReturn(List.of(missingCountryDest));
-		when(viatorClient.getAllDestinationsForLanguage("fr"))
-				.thenReturn(List.of(new ViatorDestinationDTO(5L, "Paris", "CITY", List.of(999L), testCoords)));
+		stubDestinations("en", List.of(missingCountryDest));
+		stubDestinations("fr", List.of(new ViatorDestinationDTO(5L, "Paris", "CITY", List.of(999L), testCoords)));
 
 		List<CommonDestination> result = destinationProvider.getDestinations();
 		assertThat(result).isEmpty();
@@ -104,15 +108,33 @@ class ViatorDestinationProviderTest {
 
 	@Test
 	void resolveTranslations_shouldHandleMissingTranslations() throws ViatorApiException {
-		when(viatorClient.getAllDestinationsForLanguage("en"))
-				.thenReturn(List.of(countryDestination, validDestination));
-		when(viatorClient.getAllDestinationsForLanguage("fr")).thenReturn(List.of(countryDestination)); // Missing
-																										// French
-																										// translation
-																										// for Paris
+		stubDestinations("en", List.of(countryDestination, validDestination));
+		stubDestinations("fr", List.of(countryDestination)); // Missing French translation for Paris
 
 		List<CommonDestination> result = destinationProvider.getDestinations();
 		assertThat(result.get(0).names()).extracting(CommonDestination.Translation::languageCode)
 				.containsExactly(LanguageCode.EN);
 	}
+
+	@Test
+	void getDestinations_shouldThrowWhenLanguageReturnsNoDestinations() {
+		stubDestinations("en", List.of(countryDestination, validDestination));
+		when(viatorClient.streamAllDestinationsForLanguageAsync(eq("fr"), any()))
+				.thenReturn(CompletableFuture.completedFuture(0));
+
+		assertThatThrownBy(() -> destinationProvider.getDestinations()).isInstanceOf(ViatorApiException.class)
+				.hasMessageContaining("language: fr")
+				.hasRootCauseMessage("No destinations found for language: fr aborting ingestion.");
+	}
+
+	/**
+	 * Stubs the client to stream the destinations to the consumer of the call.
+	 */
+	private void stubDestinations(String language, List<ViatorDestinationDTO> destinations) {
+		when(viatorClient.streamAllDestinationsForLanguageAsync(eq(language), any())).thenAnswer(invocation -> {
+			Consumer<ViatorDestinationDTO> consumer = invocation.getArgument(1);
+			destinations.forEach(consumer);
+			return CompletableFuture.completedFuture(destinations.size());
+		});
+	}
 }
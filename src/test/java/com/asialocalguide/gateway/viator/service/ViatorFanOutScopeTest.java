@@ -0,0 +1,120 @@
+package com.asialocalguide.gateway.viator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.asialocalguide.gateway.planning.domain.Deadline;
+import com.asialocalguide.gateway.viator.client.ViatorAsyncExecutor;
+import com.asialocalguide.gateway.viator.exception.ViatorActivityServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ViatorFanOutScopeTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ViatorAsyncExecutor asyncExecutor;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		asyncExecutor = new ViatorAsyncExecutor();
+	}
+
+	@AfterEach
+	void tearDown() {
+		asyncExecutor.destroy();
+	}
+
+	@Test
+	void join_shouldReturnSuccessfulResultsAndTolerateFailuresUpToRate() {
+		Map<String, String> results;
+		try (ViatorFanOutScope<String, String> scope = createScope(50)) {
+			scope.fork("P1", () -> "one");
+			scope.fork("P2", () -> {
+				throw new IllegalStateException("Viator API error: 500");
+			});
+			scope.fork("P3", () -> "three");
+
+			results = scope.join(Deadline.after(Duration.ofSeconds(5)));
+		}
+
+		assertThat(results).containsExactly(Map.entry("P1", "one"), Map.entry("P3", "three"));
+		assertThat(meterRegistry.get("viator.fanout.tasks").tag("scope", "test").counter().count()).isEqualTo(3);
+		assertThat(meterRegistry.get("viator.fanout.failures").tag("scope", "test").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("viator.fanout.duration").tag("outcome", "completed").timer().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void join_shouldCancelStragglersAtDeadline() throws Exception {
+		CountDownLatch interrupted = new CountDownLatch(1);
+
+		Map<String, String> results;
+		try (ViatorFanOutScope<String, String> scope = createScope(50)) {
+			scope.fork("fast", () -> "fast");
+			scope.fork("slow", () -> {
+				try {
+					Thread.sleep(Duration.ofSeconds(30));
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+				return "slow";
+			});
+
+			results = scope.join(Deadline.after(Duration.ofMillis(200)));
+		}
+
+		assertThat(results).containsOnlyKeys("fast");
+		assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(meterRegistry.get("viator.fanout.stragglers").tag("scope", "test").counter().count())
+				.isEqualTo(1);
+		assertThat(meterRegistry.get("viator.fanout.duration").tag("outcome", "deadline").timer().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void join_shouldFailFastAndCancelRemainingCallsOnceFailureRateExceeded() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+
+		try (ViatorFanOutScope<String, String> scope = createScope(25)) {
+			scope.fork("P1", () -> {
+				throw new IllegalStateException("circuit breaker is open");
+			});
+			scope.fork("P2", () -> {
+				throw new IllegalStateException("circuit breaker is open");
+			});
+			scope.fork("P3", () -> {
+				started.countDown();
+				try {
+					Thread.sleep(Duration.ofSeconds(30));
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+				return "late";
+			});
+
+			started.await();
+			long start = System.nanoTime();
+			assertThatThrownBy(() -> scope.join(Deadline.after(Duration.ofSeconds(10))))
+					.isInstanceOf(ViatorActivityServiceException.class)
+					.hasMessageContaining("2 of 3 calls");
+			assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+		}
+
+		assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(meterRegistry.get("viator.fanout.duration").tag("outcome", "failed").timer().count())
+				.isEqualTo(1);
+	}
+
+	private ViatorFanOutScope<String, String> createScope(float toleratedFailureRate) {
+		return new ViatorFanOutScope<>("test", toleratedFailureRate, asyncExecutor, meterRegistry);
+	}
+}